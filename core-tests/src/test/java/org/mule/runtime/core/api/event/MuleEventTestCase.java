@@ -6,8 +6,12 @@
  */
 package org.mule.runtime.core.api.event;
 
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
 import static java.util.Collections.singletonMap;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
@@ -25,8 +29,11 @@ import org.mule.runtime.core.api.security.DefaultMuleCredentials;
 import org.mule.runtime.core.api.transformer.AbstractTransformer;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.api.util.CaseInsensitiveHashMap;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder.InternalEventImplementation;
 import org.mule.runtime.core.internal.security.DefaultSecurityContextFactory;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.event.PrivilegedEvent;
 import org.mule.runtime.core.privileged.transformer.simple.ByteArrayToObject;
 import org.mule.runtime.core.privileged.transformer.simple.SerializableToByteArray;
@@ -38,6 +45,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.ByteArrayInputStream;
+import java.io.ObjectStreamClass;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -128,6 +136,23 @@ public class MuleEventTestCase extends AbstractMuleContextTestCase {
     assertArrayEquals((byte[]) testEvent.getMessage().getPayload().getValue(), payload.toString().getBytes());
   }
 
+  @Test
+  public void serializedVariablesKeepCaseInsensitiveHashMapForm() throws Exception {
+    // The serialized form of events written before variables were kept in a PersistentCaseInsensitiveMap
+    ObjectStreamClass serializedForm = ObjectStreamClass.lookup(InternalEventImplementation.class);
+    assertThat(serializedForm.getSerialVersionUID(), is(1L));
+    assertThat(serializedForm.getField("variables").getType(), equalTo(CaseInsensitiveHashMap.class));
+
+    CoreEvent event = getEventBuilder().message(of("whatever")).addVariable("myVar", "value").build();
+    currentMuleContext.set(muleContext);
+    byte[] serializedEvent = muleContext.getObjectSerializer().getExternalProtocol().serialize(event);
+    assertThat(new String(serializedEvent, ISO_8859_1), not(containsString(PersistentCaseInsensitiveMap.class.getName())));
+
+    CoreEvent deserialized = muleContext.getObjectSerializer().getExternalProtocol().deserialize(serializedEvent);
+    assertThat(deserialized.getVariables().get("MYVAR").getValue(), equalTo("value"));
+    assertThat(CoreEvent.builder(deserialized).addVariable("other", "otherValue").build().getVariables().size(), is(2));
+  }
+
   private void createAndRegisterTransformersEndpointBuilderService() throws Exception {
     Transformer trans1 = new TestEventTransformer();
     trans1.setName("OptimusPrime");
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
+import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+@SmallTest
+public class LockFreeConnectionPoolTestCase extends AbstractMuleTestCase {
+
+  private static final int MAX_ACTIVE = 2;
+
+  private PoolableObjectFactory<Object> factory;
+  private final AtomicInteger created = new AtomicInteger();
+
+  @Before
+  public void before() throws Exception {
+    factory = mock(PoolableObjectFactory.class);
+    when(factory.makeObject()).thenAnswer(invocation -> "connection" + created.incrementAndGet());
+    when(factory.validateObject(any())).thenReturn(true);
+  }
+
+  @Test
+  public void returnedConnectionIsReused() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_FAIL, -1);
+
+    Object connection = pool.borrowObject();
+    assertThat(pool.getNumActive(), is(1));
+    pool.returnObject(connection);
+    assertThat(pool.getNumActive(), is(0));
+    assertThat(pool.getNumIdle(), is(1));
+
+    assertThat(pool.borrowObject(), is(sameInstance(connection)));
+    verify(factory, times(1)).makeObject();
+  }
+
+  @Test
+  public void distinctConnectionsWhileActive() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_FAIL, -1);
+
+    Object connection1 = pool.borrowObject();
+    Object connection2 = pool.borrowObject();
+    assertThat(connection1, is(not(sameInstance(connection2))));
+    assertThat(pool.getNumActive(), is(MAX_ACTIVE));
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void exhaustedFail() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_FAIL, -1);
+
+    for (int i = 0; i <= MAX_ACTIVE; ++i) {
+      pool.borrowObject();
+    }
+  }
+
+  @Test
+  public void exhaustedWaitTimesOut() throws Exception {
+    LockFreeConnectionPool<Object> pool =
+        new LockFreeConnectionPool<>(factory, new PoolingProfile(1, 1, 10, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE), -1);
+
+    pool.borrowObject();
+    try {
+      pool.borrowObject();
+    } catch (NoSuchElementException e) {
+      long waits = 0;
+      for (long bucket : pool.getWaitTimeHistogram()) {
+        waits += bucket;
+      }
+      assertThat(waits, is(1L));
+      return;
+    }
+    throw new AssertionError("Was expecting the pool to be exhausted");
+  }
+
+  @Test
+  public void asyncBorrowWaitsForReturn() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_WAIT, -1);
+    ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor();
+    try {
+      Object connection = pool.borrowObject();
+      pool.borrowObject();
+
+      CompletableFuture<Object> future = pool.borrowObjectAsync(scheduler);
+      assertThat(future.isDone(), is(false));
+
+      pool.returnObject(connection);
+      assertThat(future.get(10, SECONDS), is(sameInstance(connection)));
+      assertThat(pool.getNumActive(), is(MAX_ACTIVE));
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void asyncBorrowTimesOut() throws Exception {
+    LockFreeConnectionPool<Object> pool =
+        new LockFreeConnectionPool<>(factory, new PoolingProfile(1, 1, 10, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE), -1);
+    ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor();
+    try {
+      Object connection = pool.borrowObject();
+      CompletableFuture<Object> future = pool.borrowObjectAsync(scheduler);
+      try {
+        future.get(10, SECONDS);
+        throw new AssertionError("Was expecting the borrow to time out");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause(), is(instanceOf(NoSuchElementException.class)));
+      }
+
+      // The permit is not lost
+      pool.returnObject(connection);
+      assertThat(pool.borrowObjectAsync(scheduler).get(10, SECONDS), is(sameInstance(connection)));
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void exhaustedWaitWithoutMaxWaitWaitsForReturn() throws Exception {
+    LockFreeConnectionPool<Object> pool =
+        new LockFreeConnectionPool<>(factory, new PoolingProfile(1, 1, 0, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE), -1);
+    ExecutorService executor = newFixedThreadPool(1);
+    try {
+      Object connection = pool.borrowObject();
+      Future<Object> waiting = executor.submit(pool::borrowObject);
+      assertNotDone(waiting);
+
+      pool.returnObject(connection);
+      assertThat(waiting.get(10, SECONDS), is(sameInstance(connection)));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void asyncBorrowWithoutMaxWaitWaitsForReturn() throws Exception {
+    LockFreeConnectionPool<Object> pool =
+        new LockFreeConnectionPool<>(factory, new PoolingProfile(1, 1, 0, WHEN_EXHAUSTED_WAIT, INITIALISE_NONE), -1);
+    ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor();
+    try {
+      Object connection = pool.borrowObject();
+      CompletableFuture<Object> waiting = pool.borrowObjectAsync(scheduler);
+      assertNotDone(waiting);
+
+      pool.returnObject(connection);
+      assertThat(waiting.get(10, SECONDS), is(sameInstance(connection)));
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void cancelledAsyncBorrowDoesNotTakeConnection() throws Exception {
+    LockFreeConnectionPool<Object> pool =
+        new LockFreeConnectionPool<>(factory, new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_WAIT,
+                                                                 INITIALISE_NONE),
+                                     -1);
+    ScheduledExecutorService scheduler = newSingleThreadScheduledExecutor();
+    try {
+      Object connection = pool.borrowObject();
+      CompletableFuture<Object> cancelled = pool.borrowObjectAsync(scheduler);
+      CompletableFuture<Object> waiting = pool.borrowObjectAsync(scheduler);
+      cancelled.cancel(false);
+
+      pool.returnObject(connection);
+      assertThat(waiting.get(10, SECONDS), is(sameInstance(connection)));
+      assertThat(pool.getNumActive(), is(1));
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void invalidConnectionDestroyedOnBorrow() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_FAIL, 0);
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+
+    when(factory.validateObject(connection)).thenReturn(false);
+    assertThat(pool.borrowObject(), is(not(sameInstance(connection))));
+    verify(factory).destroyObject(connection);
+  }
+
+  @Test
+  public void invalidatedConnectionReleasesPermit() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_FAIL, -1);
+
+    Object connection = pool.borrowObject();
+    pool.borrowObject();
+    pool.invalidateObject(connection);
+
+    verify(factory).destroyObject(connection);
+    assertThat(pool.getNumActive(), is(1));
+    pool.borrowObject();
+  }
+
+  @Test
+  public void invalidatedIdleConnectionNotCountedAsIdle() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_FAIL, -1);
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+    pool.invalidateObject(connection);
+
+    verify(factory).destroyObject(connection);
+    assertThat(pool.getNumIdle(), is(0));
+    assertThat(pool.borrowObject(), is(not(sameInstance(connection))));
+  }
+
+  @Test
+  public void maxIdle() throws Exception {
+    LockFreeConnectionPool<Object> pool =
+        new LockFreeConnectionPool<>(factory, new PoolingProfile(MAX_ACTIVE, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL,
+                                                                 INITIALISE_NONE),
+                                     -1);
+
+    Object connection1 = pool.borrowObject();
+    Object connection2 = pool.borrowObject();
+    pool.returnObject(connection1);
+    pool.returnObject(connection2);
+
+    assertThat(pool.getNumIdle(), is(1));
+    verify(factory).destroyObject(connection2);
+  }
+
+  @Test
+  public void initialiseAll() throws Exception {
+    LockFreeConnectionPool<Object> pool =
+        new LockFreeConnectionPool<>(factory, new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT,
+                                                                 WHEN_EXHAUSTED_FAIL, INITIALISE_ALL),
+                                     -1);
+    pool.initialise(Runnable::run);
+
+    assertThat(pool.getNumIdle(), is(MAX_ACTIVE));
+    pool.borrowObject();
+    pool.borrowObject();
+    verify(factory, times(MAX_ACTIVE)).makeObject();
+  }
+
+  @Test
+  public void evict() throws Exception {
+    PoolingProfile poolingProfile =
+        new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    poolingProfile.setMinEvictionMillis(0);
+    LockFreeConnectionPool<Object> pool = new LockFreeConnectionPool<>(factory, poolingProfile, -1);
+
+    Object active = pool.borrowObject();
+    Object idle = pool.borrowObject();
+    pool.returnObject(idle);
+
+    pool.evict();
+    assertThat(pool.getNumIdle(), is(0));
+    verify(factory).destroyObject(idle);
+    verify(factory, never()).destroyObject(active);
+  }
+
+  @Test
+  public void closeDestroysIdle() throws Exception {
+    LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_FAIL, -1);
+
+    Object connection = pool.borrowObject();
+    pool.returnObject(connection);
+    pool.close();
+
+    verify(factory).destroyObject(connection);
+    assertThat(pool.getNumIdle(), is(0));
+  }
+
+  @Test
+  public void concurrentBorrowAndReturn() throws Exception {
+    final LockFreeConnectionPool<Object> pool = createPool(WHEN_EXHAUSTED_WAIT, -1);
+    final ExecutorService executor = newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; ++i) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 1000; ++j) {
+            Object connection = pool.borrowObject();
+            assertThat(pool.getNumActive() <= MAX_ACTIVE, is(true));
+            pool.returnObject(connection);
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(pool.getNumActive(), is(0));
+    assertThat(created.get() <= MAX_ACTIVE, is(true));
+  }
+
+  private void assertNotDone(Future<Object> borrow) throws Exception {
+    try {
+      borrow.get(100, MILLISECONDS);
+      throw new AssertionError("Was expecting the borrow to wait for a connection to be returned");
+    } catch (TimeoutException e) {
+      // still waiting
+    }
+  }
+
+  private LockFreeConnectionPool<Object> createPool(int exhaustedAction, long validationIntervalMillis) {
+    return new LockFreeConnectionPool<>(factory, new PoolingProfile(MAX_ACTIVE, MAX_ACTIVE, DEFAULT_MAX_POOL_WAIT,
+                                                                    exhaustedAction, INITIALISE_NONE),
+                                        validationIntervalMillis);
+  }
+}
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -37,6 +39,8 @@ import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.tck.junit4.AbstractMuleContextTestCase;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -132,6 +136,39 @@ public class PoolingConnectionManagementStrategyTestCase extends AbstractMuleCon
     verify(connectionProvider, times(2)).disconnect(any(Object.class));
   }
 
+  @Test
+  public void asyncConnectionWhenAvailable() throws Exception {
+    connection1.release();
+
+    CompletableFuture<ConnectionHandler<Object>> future = strategy.getConnectionHandlerAsync();
+    assertThat(future.isDone(), is(true));
+    assertThat(future.get().getConnection(), is(sameInstance(connection1.getConnection())));
+  }
+
+  @Test
+  public void asyncConnectionWhenExhausted() throws Exception {
+    CompletableFuture<ConnectionHandler<Object>> future = strategy.getConnectionHandlerAsync();
+    assertThat(future.isDone(), is(false));
+
+    Object connection = connection2.getConnection();
+    connection2.release();
+    assertThat(future.get(RECEIVE_TIMEOUT, MILLISECONDS).getConnection(), is(sameInstance(connection)));
+  }
+
+  @Test
+  public void asyncConnectionExhaustedFail() throws Exception {
+    poolingProfile = new PoolingProfile(1, 1, DEFAULT_MAX_POOL_WAIT, WHEN_EXHAUSTED_FAIL, INITIALISE_NONE);
+    initStrategy();
+
+    strategy.getConnectionHandler();
+    try {
+      strategy.getConnectionHandlerAsync().get();
+      fail("Was expecting the pool to be exhausted");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), is(instanceOf(ConnectionException.class)));
+    }
+  }
+
   @Test(expected = ConnectionException.class)
   public void failDueToInvalidConnection() throws ConnectionException {
     when(connectionProvider.validate(anyVararg())).thenReturn(ConnectionValidationResult
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.core.internal.context.notification.NotificationRingBuffer.OverflowPolicy.DROP;
+import static org.mule.runtime.core.internal.context.notification.NotificationRingBuffer.OverflowPolicy.SAMPLE;
+import org.mule.runtime.api.notification.Notification;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+@SmallTest
+public class NotificationRingBufferTestCase extends AbstractMuleTestCase {
+
+  private final List<Notification> dispatched = new ArrayList<>();
+  private final List<Runnable> drainTasks = new ArrayList<>();
+
+  @Test
+  public void dispatchedInOrder() {
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(8, 8, DROP, 1, dispatched::add, drainTasks::add);
+
+    Notification n1 = mock(Notification.class);
+    Notification n2 = mock(Notification.class);
+    Notification n3 = mock(Notification.class);
+    ringBuffer.publish(n1);
+    ringBuffer.publish(n2);
+    ringBuffer.publish(n3);
+
+    assertThat(dispatched.isEmpty(), is(true));
+    assertThat(ringBuffer.size(), is(3));
+    // Only one drain task is submitted for the whole burst
+    assertThat(drainTasks.size(), is(1));
+
+    drainTasks.remove(0).run();
+    assertThat(dispatched, is(asList(n1, n2, n3)));
+    assertThat(ringBuffer.size(), is(0));
+    assertThat(drainTasks.isEmpty(), is(true));
+  }
+
+  @Test
+  public void drainYieldsAfterBatch() {
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(8, 2, DROP, 1, dispatched::add, drainTasks::add);
+
+    for (int i = 0; i < 5; ++i) {
+      ringBuffer.publish(mock(Notification.class));
+    }
+
+    drainTasks.remove(0).run();
+    assertThat(dispatched.size(), is(2));
+    drainTasks.remove(0).run();
+    assertThat(dispatched.size(), is(4));
+    drainTasks.remove(0).run();
+    assertThat(dispatched.size(), is(5));
+    assertThat(drainTasks.isEmpty(), is(true));
+  }
+
+  @Test
+  public void overflowDrop() {
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(2, 8, DROP, 1, dispatched::add, drainTasks::add);
+
+    assertThat(ringBuffer.publish(mock(Notification.class)), is(true));
+    assertThat(ringBuffer.publish(mock(Notification.class)), is(true));
+    assertThat(ringBuffer.publish(mock(Notification.class)), is(false));
+    assertThat(ringBuffer.getDroppedCount(), is(1L));
+
+    drainTasks.remove(0).run();
+    assertThat(dispatched.size(), is(2));
+    assertThat(ringBuffer.publish(mock(Notification.class)), is(true));
+  }
+
+  @Test
+  public void overflowSample() {
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(1, 8, SAMPLE, 2, dispatched::add, drainTasks::add);
+
+    ringBuffer.publish(mock(Notification.class));
+    for (int i = 0; i < 4; ++i) {
+      assertThat(ringBuffer.publish(mock(Notification.class)), is(false));
+    }
+
+    // Sampled notifications are dispatched on the publishing thread
+    assertThat(dispatched.size(), is(2));
+    assertThat(ringBuffer.getDroppedCount(), is(2L));
+  }
+
+  @Test
+  public void drainOnPublishingThreadWhenRejected() {
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(8, 8, DROP, 1, dispatched::add, task -> {
+      throw new RejectedExecutionException();
+    });
+
+    Notification notification = mock(Notification.class);
+    ringBuffer.publish(notification);
+    assertThat(dispatched, is(asList(notification)));
+  }
+
+  @Test
+  public void stopDispatchesPending() throws Exception {
+    final ScheduledExecutorService drainExecutor = newSingleThreadScheduledExecutor();
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(8, 8, DROP, 1, dispatched::add,
+                                                                   task -> drainExecutor.schedule(task, 100, MILLISECONDS));
+
+    Notification n1 = mock(Notification.class);
+    Notification n2 = mock(Notification.class);
+    try {
+      ringBuffer.publish(n1);
+      ringBuffer.publish(n2);
+
+      assertThat(ringBuffer.stop(10000), is(true));
+      assertThat(dispatched, is(asList(n1, n2)));
+    } finally {
+      drainExecutor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void notAcceptedAfterStop() throws Exception {
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(8, 8, DROP, 1, dispatched::add, drainTasks::add);
+
+    assertThat(ringBuffer.stop(10000), is(true));
+    assertThat(ringBuffer.publish(mock(Notification.class)), is(false));
+    assertThat(drainTasks.isEmpty(), is(true));
+    assertThat(ringBuffer.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void pendingDiscardedWhenStopTimesOut() throws Exception {
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(8, 8, DROP, 1, dispatched::add, drainTasks::add);
+
+    ringBuffer.publish(mock(Notification.class));
+    assertThat(ringBuffer.stop(10), is(false));
+
+    drainTasks.remove(0).run();
+    assertThat(dispatched.isEmpty(), is(true));
+    assertThat(ringBuffer.getDroppedCount(), is(1L));
+  }
+
+  @Test
+  public void concurrentPublishers() throws Exception {
+    final int publishers = 4;
+    final int perPublisher = 10000;
+    final AtomicInteger received = new AtomicInteger();
+    final ExecutorService drainExecutor = newFixedThreadPool(2);
+    final ExecutorService publishersExecutor = newFixedThreadPool(publishers);
+    final CountDownLatch allReceived = new CountDownLatch(publishers * perPublisher);
+
+    NotificationRingBuffer ringBuffer = new NotificationRingBuffer(1024, 64, DROP, 1, notification -> {
+      received.incrementAndGet();
+      allReceived.countDown();
+    }, drainExecutor);
+
+    final Notification notification = mock(Notification.class);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < publishers; ++i) {
+        futures.add(publishersExecutor.submit(() -> {
+          for (int j = 0; j < perPublisher; ++j) {
+            while (!ringBuffer.publish(notification)) {
+              Thread.yield();
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, SECONDS);
+      }
+
+      assertThat(allReceived.await(30, SECONDS), is(true));
+      assertThat(received.get(), is(publishers * perPublisher));
+    } finally {
+      publishersExecutor.shutdownNow();
+      drainExecutor.shutdownNow();
+    }
+  }
+}
@@ -59,6 +59,7 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.streaming.CursorProvider;
 import org.mule.runtime.core.api.config.MuleConfiguration;
 import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
@@ -236,6 +237,36 @@ public class DefaultExpressionManagerTestCase extends AbstractMuleContextTestCas
     assertThat(result.getDataType(), is(STRING));
   }
 
+  @Test
+  @Description("Verifies that a compiled expression can be evaluated for many events.")
+  public void compiled() throws MuleException {
+    CompiledExpression compiled = expressionManager.compile("#[vars.myVar]");
+    assertThat(compiled.getExpression(), is("#[vars.myVar]"));
+
+    for (String value : asList("Leda", "Sarah")) {
+      CoreEvent event = CoreEvent.builder(testEvent()).addVariable(MY_VAR, value).build();
+      assertThat(expressionManager.evaluate(compiled, event, TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT).getValue(),
+                 is(value));
+    }
+  }
+
+  @Test
+  @Description("Verifies that a compiled expression is transformed to the expected output type.")
+  public void compiledTransformation() throws MuleException {
+    CompiledExpression compiled = expressionManager.compile("#[dw:payload]");
+    TypedValue result = expressionManager.evaluate(compiled, BYTE_ARRAY, NULL_BINDING_CONTEXT, testEvent(),
+                                                   TEST_CONNECTOR_LOCATION, false);
+    assertThat(result.getValue(), is(TEST_PAYLOAD.getBytes()));
+    assertThat(result.getDataType(), is(BYTE_ARRAY));
+  }
+
+  @Test
+  @Description("Verifies that a compiled expression is evaluated with the language it was compiled for.")
+  public void compiledMvel() throws MuleException {
+    CompiledExpression compiled = expressionManager.compile("#[mel: 2+2 ==4]");
+    assertThat(expressionManager.evaluateBoolean(compiled, testEvent(), TEST_CONNECTOR_LOCATION, false, false), is(true));
+  }
+
   @Test
   public void mvelWithNullBinding() throws MuleException {
     String expression = "#[mel: 2+2 ==4]";
@@ -275,6 +306,21 @@ public class DefaultExpressionManagerTestCase extends AbstractMuleContextTestCas
                is(String.format("this is %s", TEST_PAYLOAD)));
   }
 
+  @Test
+  @Description("Verifies that compiled log templates can be parsed for many events for both DW and MVEL.")
+  public void parseCompiledLog() throws MuleException {
+    CompiledExpression melTemplate = expressionManager.compileLogTemplate("this is #[mel:payload]");
+    CompiledExpression dwTemplate = expressionManager.compileLogTemplate("this is #[payload] and #[vars.myVar]");
+
+    for (String value : asList("Leda", "Sarah")) {
+      CoreEvent event = CoreEvent.builder(testEvent()).message(Message.of(value)).addVariable(MY_VAR, value).build();
+      assertThat(expressionManager.parseLogTemplate(melTemplate, event, TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT),
+                 is(format("this is %s", value)));
+      assertThat(expressionManager.parseLogTemplate(dwTemplate, event, TEST_CONNECTOR_LOCATION, NULL_BINDING_CONTEXT),
+                 is(format("this is %s and %s", value, value)));
+    }
+  }
+
   @Test
   @Description("Verifies that parsing works for log template scenarios for both DW and MVEL using the message.")
   public void parseLogMessage() throws MuleException {
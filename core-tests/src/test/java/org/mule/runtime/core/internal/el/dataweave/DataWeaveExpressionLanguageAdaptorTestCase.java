@@ -77,6 +77,7 @@ import org.mule.runtime.api.security.Authentication;
 import org.mule.runtime.api.security.DefaultMuleAuthentication;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.config.MuleManifest;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.security.DefaultMuleCredentials;
@@ -532,6 +533,16 @@ public class DataWeaveExpressionLanguageAdaptorTestCase extends AbstractWeaveExp
     expressionLanguage.evaluate("#[unbalanced", event, BindingContext.builder().build());
   }
 
+  @Test
+  public void unbalancedBracketsCompiled() throws MuleException {
+    CoreEvent event = eventBuilder(muleContext).message(Message.of(TEST_PAYLOAD)).build();
+    CompiledExpression compiled = expressionLanguage.compile("#[unbalanced");
+
+    expectedEx.expect(ExpressionExecutionException.class);
+    expectedEx.expectMessage(containsString("Unbalanced brackets in expression"));
+    expressionLanguage.evaluate(compiled, event, null, BindingContext.builder().build());
+  }
+
   @Test
   public void bindingValueNotReferencedByDWParserCache() throws MuleException {
     Object bindingValue = new Object();
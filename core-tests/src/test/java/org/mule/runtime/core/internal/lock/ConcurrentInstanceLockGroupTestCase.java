@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.Test;
+
+@SmallTest
+public class ConcurrentInstanceLockGroupTestCase extends AbstractMuleTestCase {
+
+  private static final String LOCK_ID = "lockId";
+
+  private final ConcurrentInstanceLockGroup lockGroup = new ConcurrentInstanceLockGroup(new SingleServerLockProvider());
+
+  @Test
+  public void entryRemovedOnUnlock() {
+    lockGroup.lock(LOCK_ID);
+    assertThat(lockGroup.size(), is(1));
+    lockGroup.unlock(LOCK_ID);
+    assertThat(lockGroup.size(), is(0));
+  }
+
+  @Test
+  public void entryKeptWhileReferenced() {
+    LockProvider lockProvider = mock(LockProvider.class);
+    when(lockProvider.createLock(LOCK_ID)).thenReturn(new ReentrantLock());
+    ConcurrentInstanceLockGroup lockGroup = new ConcurrentInstanceLockGroup(lockProvider);
+
+    lockGroup.lock(LOCK_ID);
+    lockGroup.lock(LOCK_ID);
+    lockGroup.unlock(LOCK_ID);
+    assertThat(lockGroup.size(), is(1));
+    lockGroup.unlock(LOCK_ID);
+    assertThat(lockGroup.size(), is(0));
+
+    verify(lockProvider, times(1)).createLock(LOCK_ID);
+  }
+
+  @Test
+  public void failedTryLockReleasesEntry() throws Exception {
+    lockGroup.lock(LOCK_ID);
+
+    ExecutorService executor = newFixedThreadPool(1);
+    try {
+      assertThat(executor.submit(() -> lockGroup.tryLock(LOCK_ID)).get(5, SECONDS), is(false));
+      assertThat(executor.submit(() -> lockGroup.tryLock(LOCK_ID, 10, MILLISECONDS)).get(5, SECONDS), is(false));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    lockGroup.unlock(LOCK_ID);
+    assertThat(lockGroup.size(), is(0));
+  }
+
+  @Test
+  public void mutualExclusion() throws Exception {
+    final int threads = 8;
+    final int iterations = 10000;
+    final int[] counters = new int[2];
+    ExecutorService executor = newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; ++i) {
+        final int key = i % counters.length;
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < iterations; ++j) {
+            lockGroup.lock("key" + key);
+            try {
+              counters[key]++;
+            } finally {
+              lockGroup.unlock("key" + key);
+            }
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(counters[0], is(threads / 2 * iterations));
+    assertThat(counters[1], is(threads / 2 * iterations));
+    assertThat(lockGroup.size(), is(0));
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.Test;
+
+@SmallTest
+public class StripedInstanceLockGroupTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void stripesRoundedToPowerOfTwo() {
+    LockProvider lockProvider = mock(LockProvider.class);
+    when(lockProvider.createLock(anyString())).thenAnswer(invocation -> new ReentrantLock());
+
+    new StripedInstanceLockGroup(lockProvider, 5);
+    verify(lockProvider, times(8)).createLock(anyString());
+  }
+
+  @Test
+  public void sameIdSameLock() {
+    StripedInstanceLockGroup lockGroup = new StripedInstanceLockGroup(new SingleServerLockProvider(), 16);
+    assertThat(lockGroup.getLock("lockId"), is(sameInstance(lockGroup.getLock(new String("lockId")))));
+  }
+
+  @Test
+  public void lockedIdCantBeAcquiredByOtherThread() throws Exception {
+    StripedInstanceLockGroup lockGroup = new StripedInstanceLockGroup(new SingleServerLockProvider(), 16);
+    lockGroup.lock("lockId");
+
+    ExecutorService executor = newFixedThreadPool(1);
+    try {
+      assertThat(executor.submit(() -> lockGroup.tryLock("lockId")).get(5, SECONDS), is(false));
+      lockGroup.unlock("lockId");
+      assertThat(executor.submit(() -> {
+        boolean acquired = lockGroup.tryLock("lockId");
+        lockGroup.unlock("lockId");
+        return acquired;
+      }).get(5, SECONDS), is(true));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
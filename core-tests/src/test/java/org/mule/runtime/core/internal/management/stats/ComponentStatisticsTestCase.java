@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.management.stats;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.apache.commons.lang3.SerializationUtils.clone;
 import static org.hamcrest.Matchers.equalTo;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
@@ -47,6 +48,21 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     assertValues(stats, 1L, 100L, 100L, 100L, 100L);
   }
 
+  @Test
+  public void serialized() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.setEnabled(true);
+    stats.addExecutionTime(100L);
+    stats.addExecutionTime(200L);
+
+    ComponentStatistics deserialized = clone(stats);
+    assertValues(deserialized, 2L, 300L, 150L, 200L, 100L);
+    assertThat(deserialized.isEnabled(), equalTo(true));
+
+    deserialized.addExecutionTime(50L);
+    assertValues(deserialized, 3L, 350L, 116L, 200L, 50L);
+  }
+
   @Test
   public void processSingleBranchEvent() {
     ComponentStatistics stats = new ComponentStatistics();
@@ -150,4 +166,32 @@ public class ComponentStatisticsTestCase extends AbstractMuleTestCase {
     stats.addExecutionBranchTime(true, 100L, 100L);
     assertValues(stats, 2L, 200L, 100L, 100L, 100L);
   }
+
+  @Test
+  public void executionTimePercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    for (int i = 0; i < 99; ++i) {
+      stats.addExecutionTime(10L);
+    }
+    stats.addExecutionTime(1000L);
+
+    assertThat(stats.getExecutionTimePercentile(50), equalTo(10L));
+    assertThat(stats.getExecutionTimePercentile(99), equalTo(10L));
+    assertThat(stats.getExecutionTimePercentile(99.9), equalTo(1000L));
+    assertThat(stats.getExecutionTimeHistogram().getCount(), equalTo(100L));
+
+    stats.clear();
+    assertThat(stats.getExecutionTimePercentile(99.9), equalTo(0L));
+  }
+
+  @Test
+  public void branchExecutionTimePercentiles() {
+    ComponentStatistics stats = new ComponentStatistics();
+    stats.addExecutionBranchTime(true, 1L, 1L);
+    stats.addExecutionBranchTime(false, 1L, 2L);
+    assertThat(stats.getExecutionTimeHistogram().getCount(), equalTo(0L));
+
+    stats.addCompleteExecutionTime(2L);
+    assertThat(stats.getExecutionTimePercentile(50), equalTo(2L));
+  }
 }
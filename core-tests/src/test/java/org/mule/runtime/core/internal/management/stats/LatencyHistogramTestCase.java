@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.management.stats;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+@SmallTest
+public class LatencyHistogramTestCase extends AbstractMuleTestCase {
+
+  private final LatencyHistogram histogram = new LatencyHistogram();
+
+  @Test
+  public void empty() {
+    assertThat(histogram.getCount(), equalTo(0L));
+    assertThat(histogram.getMaxValue(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(99), equalTo(0L));
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (int i = 1; i <= 10; ++i) {
+      histogram.record(i);
+    }
+
+    assertThat(histogram.getValueAtPercentile(50), equalTo(5L));
+    assertThat(histogram.getValueAtPercentile(90), equalTo(9L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(10L));
+  }
+
+  @Test
+  public void percentilesWithinPrecision() {
+    for (int i = 1; i <= 100000; ++i) {
+      histogram.record(i);
+    }
+
+    assertWithinPrecision(histogram.getValueAtPercentile(50), 50000);
+    assertWithinPrecision(histogram.getValueAtPercentile(95), 95000);
+    assertWithinPrecision(histogram.getValueAtPercentile(99), 99000);
+    assertWithinPrecision(histogram.getValueAtPercentile(99.9), 99900);
+    assertThat(histogram.getMaxValue(), equalTo(100000L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(100000L));
+  }
+
+  @Test
+  public void add() {
+    LatencyHistogram other = new LatencyHistogram();
+    histogram.record(1);
+    other.record(1000);
+
+    histogram.add(other);
+    assertThat(histogram.getCount(), equalTo(2L));
+    assertThat(histogram.getMaxValue(), equalTo(1000L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(1000L));
+  }
+
+  @Test
+  public void reset() {
+    histogram.record(1000);
+    histogram.reset();
+
+    assertThat(histogram.getCount(), equalTo(0L));
+    assertThat(histogram.getValueAtPercentile(100), equalTo(0L));
+  }
+
+  @Test
+  public void concurrentRecording() throws Exception {
+    final ExecutorService executor = newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; ++i) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < 10000; ++j) {
+            histogram.record(j);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(10, SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(histogram.getCount(), equalTo(40000L));
+    assertThat(histogram.getMaxValue(), equalTo(9999L));
+  }
+
+  private void assertWithinPrecision(long actual, long expected) {
+    assertThat(actual, allOf(greaterThanOrEqualTo(expected), lessThanOrEqualTo(expected + expected / 16)));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class AdaptiveIoRwOffloadTestCase extends AbstractMuleTestCase {
+
+  private static final long BUDGET_NANOS = MILLISECONDS.toNanos(1);
+  private static final int WINDOW = 100;
+
+  private final AdaptiveIoRwOffload offload = new AdaptiveIoRwOffload("processor", BUDGET_NANOS, WINDOW);
+
+  @Test
+  public void payloadDecisionUsedUntilFirstWindow() {
+    recordWindow(MILLISECONDS.toNanos(5), WINDOW - 1);
+
+    assertThat(offload.shouldOffload(true), is(true));
+    assertThat(offload.shouldOffload(false), is(false));
+    assertThat(offload.getLastP99Nanos(), is(-1L));
+    assertThat(offload.getDecisionChanges(), is(0));
+  }
+
+  @Test
+  public void slowProcessorIsOffloaded() {
+    recordWindow(MILLISECONDS.toNanos(5), WINDOW);
+
+    assertThat(offload.isOffloading(), is(true));
+    assertThat(offload.shouldOffload(false), is(true));
+    assertThat(offload.getLastP99Nanos(), greaterThan(BUDGET_NANOS));
+    assertThat(offload.getOffloadedCount(), is(1L));
+  }
+
+  @Test
+  public void fastProcessorIsInlined() {
+    recordWindow(MICROSECONDS.toNanos(10), WINDOW);
+
+    assertThat(offload.isOffloading(), is(false));
+    assertThat(offload.shouldOffload(true), is(false));
+    assertThat(offload.getLastP99Nanos(), lessThanOrEqualTo(BUDGET_NANOS));
+    assertThat(offload.getInlinedCount(), is(1L));
+  }
+
+  @Test
+  public void latencyBelowBudgetNotRoundedAboveIt() {
+    // A power of two bucket would report this as ~1.05ms, above the budget
+    final long latency = MICROSECONDS.toNanos(600);
+    recordWindow(latency, WINDOW);
+
+    assertThat(offload.isOffloading(), is(false));
+    assertThat(offload.getLastP99Nanos(), lessThanOrEqualTo(latency + latency / 16));
+  }
+
+  @Test
+  public void fewSlowExecutionsDontOffload() {
+    recordWindow(MICROSECONDS.toNanos(10), WINDOW - 1);
+    offload.record(MILLISECONDS.toNanos(50));
+
+    assertThat(offload.isOffloading(), is(false));
+  }
+
+  @Test
+  public void processorIsInlinedAgainWhenCheap() {
+    recordWindow(MILLISECONDS.toNanos(5), WINDOW);
+    assertThat(offload.isOffloading(), is(true));
+
+    // Within the hysteresis band, the decision doesn't change
+    recordWindow(MICROSECONDS.toNanos(510), WINDOW);
+    assertThat(offload.isOffloading(), is(true));
+
+    recordWindow(MICROSECONDS.toNanos(10), WINDOW);
+    assertThat(offload.isOffloading(), is(false));
+    assertThat(offload.getDecisionChanges(), is(2));
+  }
+
+  private void recordWindow(long nanos, int samples) {
+    for (int i = 0; i < samples; ++i) {
+      offload.record(nanos);
+    }
+  }
+}
@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.processor.strategy;
 
 import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Thread.currentThread;
+import static java.lang.Thread.sleep;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
@@ -28,6 +30,7 @@ import static org.mule.runtime.api.util.DataUnit.KB;
 import static org.mule.runtime.core.api.event.CoreEvent.builder;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.IO_RW;
 import static org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy.DROP;
 import static org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy.FAIL;
 import static org.mule.runtime.core.api.source.MessageSource.BackPressureStrategy.WAIT;
@@ -36,6 +39,9 @@ import static org.mule.runtime.core.internal.processor.strategy.AbstractProcessi
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.CORES;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_BUFFER_SIZE;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.DEFAULT_WAIT_STRATEGY;
+import static org.mule.runtime.core.internal.processor.strategy.ProactorStreamProcessingStrategy.IO_RW_ADAPTIVE_OFFLOAD;
+import static org.mule.runtime.core.internal.processor.strategy.ProactorStreamProcessingStrategy.IO_RW_ADAPTIVE_OFFLOAD_WINDOW;
+import static org.mule.tck.MuleTestUtils.testWithSystemProperty;
 import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.PROCESSING_STRATEGIES;
 import static org.mule.test.allure.AllureConstants.ProcessingStrategiesFeature.ProcessingStrategiesStory.PROACTOR;
 import static reactor.util.concurrent.Queues.XS_BUFFER_SIZE;
@@ -50,6 +56,7 @@ import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.transaction.TransactionCoordination;
@@ -57,6 +64,8 @@ import org.mule.runtime.core.internal.construct.FlowBackPressureException;
 import org.mule.runtime.core.internal.exception.MessagingException;
 import org.mule.runtime.core.internal.processor.strategy.ProactorStreamEmitterProcessingStrategyFactory.ProactorStreamEmitterProcessingStrategy;
 import org.mule.tck.TriggerableMessageSource;
+import org.mule.tck.probe.JUnitLambdaProbe;
+import org.mule.tck.probe.PollingProber;
 import org.mule.tck.testmodels.mule.TestTransaction;
 
 import org.apache.commons.io.input.NullInputStream;
@@ -485,8 +494,73 @@ public class ProactorStreamEmitterProcessingStrategyTestCase extends AbstractPro
     assertThat(threads, not(hasItem(startsWith(CUSTOM))));
   }
 
+  @Test
+  @Description("With adaptive IO_RW offload, a processor that exceeds the latency budget is offloaded to an IO thread even if the"
+      + " payload is not a stream.")
+  public void adaptiveIoRwSlowProcessorOffloaded() throws Exception {
+    Processor slowIoRWProcessor = new ThreadTrackingProcessor() {
+
+      @Override
+      public CoreEvent process(CoreEvent event) throws MuleException {
+        try {
+          sleep(5);
+        } catch (InterruptedException e) {
+          currentThread().interrupt();
+          throw new DefaultMuleException(e);
+        }
+        return super.process(event);
+      }
+
+      @Override
+      public ProcessingType getProcessingType() {
+        return IO_RW;
+      }
+    };
+
+    testAdaptiveIoRwOffload(slowIoRWProcessor, () -> newEvent(), CPU_LIGHT, IO);
+  }
+
+  @Test
+  @Description("With adaptive IO_RW offload, a processor that is within the latency budget is processed in a CPU_LIGHT thread"
+      + " even if the payload is a large stream.")
+  public void adaptiveIoRwFastProcessorInlined() throws Exception {
+    testAdaptiveIoRwOffload(ioRWProcessor, () -> createStreamPayloadEventWithLength(newEvent(), OptionalLong.of(KB.toBytes(20))),
+                            IO, CPU_LIGHT);
+  }
+
+  private void testAdaptiveIoRwOffload(Processor processor, Callable<CoreEvent> eventSupplier, String payloadScheduler,
+                                       String adaptiveScheduler)
+      throws Exception {
+    final int window = 4;
+    // The processing strategy reads the adaptive offload configuration when the flow is built
+    testWithSystemProperty(IO_RW_ADAPTIVE_OFFLOAD, "true",
+                           () -> testWithSystemProperty(IO_RW_ADAPTIVE_OFFLOAD_WINDOW, Integer.toString(window),
+                                                        () -> flow = flowBuilder.get().processors(processor).build()));
+    flow.initialise();
+    flow.start();
+
+    // Until the first window is evaluated, the decision is taken from the payload
+    for (int i = 0; i < window; ++i) {
+      processFlow(eventSupplier.call());
+    }
+    assertThat(schedulers, contains(payloadScheduler));
+
+    // The latency is recorded once the processor completes, which may be after the response is sent
+    ProactorStreamProcessingStrategy processingStrategy = (ProactorStreamProcessingStrategy) flow.getProcessingStrategy();
+    new PollingProber().check(new JUnitLambdaProbe(() -> processingStrategy.getAdaptiveIoRwOffloads().values().stream()
+        .allMatch(offload -> offload.getLastP99Nanos() >= 0)));
+
+    schedulers.clear();
+    processFlow(eventSupplier.call());
+    assertThat(schedulers, contains(adaptiveScheduler));
+  }
+
   private CoreEvent createStreamPayloadEventWithLength(OptionalLong length) throws MuleException {
-    return builder(testEvent())
+    return createStreamPayloadEventWithLength(testEvent(), length);
+  }
+
+  private CoreEvent createStreamPayloadEventWithLength(CoreEvent event, OptionalLong length) {
+    return builder(event)
         .message(Message.builder().payload(new TypedValue(new NullInputStream(length.orElse(-1l)), INPUT_STREAM, length))
             .build())
         .build();
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.junit.rules.ExpectedException.none;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.internal.routing.IdempotentMessageValidator.MULE_IDEMPOTENT_SINGLE_ROUND_TRIP;
+
+import org.mule.runtime.api.store.ObjectStore;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.tck.core.util.store.InMemoryObjectStore;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class IdempotentMessageValidatorSingleRoundTripTestCase extends AbstractMuleContextTestCase {
+
+  @Rule
+  public SystemProperty singleRoundTrip = new SystemProperty(MULE_IDEMPOTENT_SINGLE_ROUND_TRIP, "true");
+
+  @Rule
+  public ExpectedException expected = none();
+
+  private ObjectStore<String> store;
+  private IdempotentMessageValidator idempotent;
+
+  @Before
+  public void before() {
+    store = spy(new InMemoryObjectStore<String>());
+    idempotent = new IdempotentMessageValidator();
+    idempotent.setStorePrefix("foo");
+    idempotent.setObjectStore(store);
+    idempotent.setMuleContext(muleContext);
+  }
+
+  @Test
+  public void duplicateDetectedWithoutContains() throws Exception {
+    final BaseEventContext context = mock(BaseEventContext.class);
+    when(context.getCorrelationId()).thenReturn("1");
+
+    idempotent.process(CoreEvent.builder(context).message(of("OK")).build());
+    try {
+      expected.expect(ValidationException.class);
+      idempotent.process(CoreEvent.builder(context).message(of("OK")).build());
+    } finally {
+      verify(store, never()).contains(anyString());
+    }
+  }
+}
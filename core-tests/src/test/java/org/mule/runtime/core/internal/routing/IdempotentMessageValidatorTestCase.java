@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.sameInstance;
@@ -202,6 +204,22 @@ public class IdempotentMessageValidatorTestCase extends AbstractMuleContextTestC
     assertNotNull(processedEvent);
   }
 
+  @Test
+  public void processAllFiltersDuplicates() throws Exception {
+    final BaseEventContext contextA = mock(BaseEventContext.class);
+    when(contextA.getCorrelationId()).thenReturn("1");
+    final BaseEventContext contextB = mock(BaseEventContext.class);
+    when(contextB.getCorrelationId()).thenReturn("2");
+
+    Message okMessage = of("OK");
+    CoreEvent eventA = CoreEvent.builder(contextA).message(okMessage).build();
+    CoreEvent eventB = CoreEvent.builder(contextB).message(okMessage).build();
+    CoreEvent duplicateA = CoreEvent.builder(contextA).message(okMessage).build();
+
+    assertThat(idempotent.processAll(asList(eventA, duplicateA, eventB)), contains(eventA, eventB));
+    assertThat(idempotent.processAll(asList(duplicateA)).isEmpty(), is(true));
+  }
+
   @Test
   public void multipleObjectStoreConfigurationShouldRaiseException() throws Exception {
     idempotent.setPrivateObjectStore(new InMemoryObjectStore<>());
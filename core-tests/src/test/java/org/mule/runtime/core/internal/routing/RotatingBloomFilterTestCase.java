@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+@SmallTest
+public class RotatingBloomFilterTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void addedIdsAreContained() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(1000);
+    for (int i = 0; i < 1000; ++i) {
+      filter.put("id-" + i);
+    }
+    for (int i = 0; i < 1000; ++i) {
+      assertThat(filter.mightContain("id-" + i), is(true));
+    }
+  }
+
+  @Test
+  public void falsePositiveRate() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(10000);
+    for (int i = 0; i < 10000; ++i) {
+      filter.put("id-" + i);
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 10000; ++i) {
+      if (filter.mightContain("other-" + i)) {
+        ++falsePositives;
+      }
+    }
+    assertThat(falsePositives, lessThan(200));
+  }
+
+  @Test
+  public void oldGenerationsAreForgotten() {
+    RotatingBloomFilter filter = new RotatingBloomFilter(100);
+    filter.put("first");
+    for (int i = 0; i < 99; ++i) {
+      filter.put("id-" + i);
+    }
+    // The first generation is still kept as previous
+    assertThat(filter.mightContain("first"), is(true));
+
+    for (int i = 0; i < 100; ++i) {
+      filter.put("other-" + i);
+    }
+    int found = 0;
+    for (int i = 0; i < 99; ++i) {
+      if (filter.mightContain("id-" + i)) {
+        ++found;
+      }
+    }
+    assertThat(found, lessThan(10));
+  }
+}
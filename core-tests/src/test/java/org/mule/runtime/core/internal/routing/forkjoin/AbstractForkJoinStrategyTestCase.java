@@ -67,6 +67,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
@@ -299,6 +300,24 @@ public abstract class AbstractForkJoinStrategyTestCase extends AbstractMuleConte
     assertThat(((List<Object>) fooVar3.getValue()), hasItems(fooVar3Value1, fooVar3Value2));
   }
 
+  @Test
+  @Description("When the first route sets a list as a variable, the values set by the following routes are appended to its items.")
+  public void flowVarListMerged() throws Throwable {
+    final String listVarName = "list";
+    CoreEvent original = this.<CoreEvent>newEvent();
+
+    RoutingPair pair1 = of(original, createChain(event -> builder(event)
+        .addVariable(listVarName, new ArrayList<>(asList("a", "b")))
+        .build()));
+    RoutingPair pair2 = of(original, createChain(event -> builder(event)
+        .addVariable(listVarName, "c")
+        .build()));
+
+    CoreEvent result = invokeStrategyBlocking(strategy, original, asList(pair1, pair2));
+
+    assertThat(result.getVariables().get(listVarName).getValue(), equalTo(asList("a", "b", "c")));
+  }
+
   @Test
   @Description("When the strategy uses a processing strategy that supports concurrent execution the total processing time is less that sequential processing.")
   public void concurrent() throws Throwable {
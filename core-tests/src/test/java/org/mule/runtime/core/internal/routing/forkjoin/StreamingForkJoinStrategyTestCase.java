@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.core.api.exception.Errors.ComponentIdentifiers.Handleable.TIMEOUT;
+import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
+import static org.mule.runtime.core.privileged.processor.MessageProcessors.newChain;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.FORK_JOIN_STRATEGIES;
+import static org.mule.test.allure.AllureConstants.ForkJoinStrategiesFeature.ForkJoinStrategiesStory.STREAMING;
+import static reactor.core.publisher.Flux.fromIterable;
+import static reactor.core.publisher.Mono.from;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.event.EventContext;
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.api.streaming.object.InMemoryCursorIteratorConfig;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
+import org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyTestCase.SleepingProcessor;
+import org.mule.runtime.core.internal.streaming.object.DefaultObjectStreamingManager;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.processor.InternalProcessor;
+import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
+import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
+import org.mule.tck.junit4.AbstractMuleContextTestCase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+
+@Feature(FORK_JOIN_STRATEGIES)
+@Story(STREAMING)
+public class StreamingForkJoinStrategyTestCase extends AbstractMuleContextTestCase {
+
+  private ProcessingStrategy processingStrategy;
+  private CursorIteratorProviderFactory cursorProviderFactory;
+  private Scheduler scheduler;
+  private SchedulerService schedulerService;
+  private ErrorType timeoutErrorType;
+
+  @Before
+  public void setup() {
+    processingStrategy = mock(ProcessingStrategy.class);
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    cursorProviderFactory = mock(CursorIteratorProviderFactory.class);
+    when(cursorProviderFactory.of(any(EventContext.class), any(Iterator.class)))
+        .thenAnswer(invocation -> invocation.getArgument(1));
+    scheduler = muleContext.getSchedulerService().ioScheduler();
+    schedulerService = muleContext.getSchedulerService();
+    timeoutErrorType = muleContext.getErrorTypeRepository().getErrorType(TIMEOUT).get();
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.stop();
+  }
+
+  @Test
+  @Description("Results are streamed in the same order as the routes, regardless of the order in which they complete.")
+  public void streamedInOrder() throws Throwable {
+    processingStrategyOnScheduler();
+    ForkJoinStrategy strategy = createStrategy(MAX_VALUE, 16, true);
+
+    List<RoutingPair> pairs = asList(of(testEvent(), createChain(new SleepingProcessor(of(1), 100))),
+                                     of(testEvent(), createChain(new SleepingProcessor(of(2), 50))),
+                                     of(testEvent(), createChain(new SleepingProcessor(of(3), 0))));
+
+    assertThat(payloads(results(strategy, pairs)), is(asList(1, 2, 3)));
+  }
+
+  @Test
+  @Description("No more routes than the window are processed until their results are consumed.")
+  public void windowBoundsProcessedRoutes() throws Throwable {
+    final int window = 2;
+    final AtomicInteger processed = new AtomicInteger();
+    ForkJoinStrategy strategy = createStrategy(MAX_VALUE, window, true);
+
+    Iterator<Message> results = results(strategy, countingPairs(20, processed));
+    // The window of results waiting to be consumed plus the ones buffered for ordering
+    assertThat(processed.get(), lessThanOrEqualTo(2 * window));
+
+    assertThat(payloads(results), is(range(0, 20).boxed().collect(toList())));
+    assertThat(processed.get(), is(20));
+  }
+
+  @Test
+  @Description("When the results are consumed from a thread for CPU work, the routes are not held back by the window.")
+  public void notWindowedWhenConsumedFromCpuWorkThread() throws Throwable {
+    final int window = 2;
+    final AtomicInteger processed = new AtomicInteger();
+    schedulerService = mock(SchedulerService.class);
+    when(schedulerService.isCurrentThreadForCpuWork()).thenReturn(true);
+    ForkJoinStrategy strategy = createStrategy(MAX_VALUE, window, true);
+
+    Iterator<Message> results = results(strategy, countingPairs(20, processed));
+    assertThat(processed.get(), lessThanOrEqualTo(2 * window));
+
+    results.hasNext();
+    assertThat(processed.get(), is(20));
+    assertThat(payloads(results), is(range(0, 20).boxed().collect(toList())));
+  }
+
+  @Test
+  @Description("The routes that were not processed yet are cancelled when the event context terminates.")
+  public void cancelledOnTermination() throws Throwable {
+    final int window = 2;
+    final AtomicInteger processed = new AtomicInteger();
+    ForkJoinStrategy strategy = createStrategy(MAX_VALUE, window, true);
+
+    CoreEvent event = testEvent();
+    Iterator<Message> results = (Iterator<Message>) from(strategy.forkJoin(event, fromIterable(countingPairs(20, processed))))
+        .block().getMessage().getPayload().getValue();
+    ((BaseEventContext) event.getContext()).success();
+
+    assertThat(results.hasNext(), is(false));
+    assertThat(processed.get(), lessThanOrEqualTo(2 * window));
+  }
+
+  @Test
+  @Description("With the non repeatable cursor provider factory, more results than the in memory buffer allows are streamed.")
+  public void notBufferedWithNonRepeatableFactory() throws Throwable {
+    cursorProviderFactory = new DefaultObjectStreamingManager(mock(StreamingManager.class)).getNullCursorProviderFactory();
+    ForkJoinStrategy strategy = createStrategy(MAX_VALUE, 16, true);
+    final int routes = InMemoryCursorIteratorConfig.getDefault().getMaxBufferSize() + 1;
+
+    List<RoutingPair> pairs = range(0, routes).mapToObj(i -> {
+      try {
+        return of(testEvent(), createChain((InternalTestProcessor) event -> CoreEvent.builder(event).message(of(i)).build()));
+      } catch (MuleException e) {
+        throw new RuntimeException(e);
+      }
+    }).collect(toList());
+
+    CoreEvent result = from(strategy.forkJoin(testEvent(), fromIterable(pairs))).block();
+    assertThat(result.getMessage().getPayload().getValue(), not(instanceOf(CursorIteratorProvider.class)));
+    assertThat(payloads((Iterator<Message>) result.getMessage().getPayload().getValue()),
+               is(range(0, routes).boxed().collect(toList())));
+  }
+
+  @Test
+  @Description("When errors are delayed, the successful results are streamed and the errors thrown once they are consumed.")
+  public void errorDelayed() throws Throwable {
+    ForkJoinStrategy strategy = createStrategy(MAX_VALUE, 16, true);
+    RuntimeException exception = new IllegalStateException();
+
+    List<RoutingPair> pairs = asList(of(testEvent(), createChain(new SleepingProcessor(of(1), 0))),
+                                     of(testEvent(), createChain((InternalTestProcessor) event -> {
+                                       throw exception;
+                                     })),
+                                     of(testEvent(), createChain(new SleepingProcessor(of(3), 0))));
+
+    Iterator<Message> results = results(strategy, pairs);
+    assertThat(results.next().getPayload().getValue(), is(1));
+    assertThat(results.next().getPayload().getValue(), is(3));
+    try {
+      results.hasNext();
+      fail("Expected the route errors to be thrown");
+    } catch (MuleRuntimeException e) {
+      assertThat(e.getCause(), instanceOf(CompositeRoutingException.class));
+      assertThat(((CompositeRoutingException) e.getCause()).getErrors().size(), is(1));
+    }
+  }
+
+  private ForkJoinStrategy createStrategy(int concurrency, int window, boolean delayErrors) {
+    return new StreamingForkJoinStrategyFactory(window, cursorProviderFactory, schedulerService)
+        .createForkJoinStrategy(processingStrategy, concurrency, delayErrors, MAX_VALUE, scheduler, timeoutErrorType);
+  }
+
+  private List<RoutingPair> countingPairs(int routes, AtomicInteger processed) {
+    return range(0, routes).mapToObj(i -> {
+      try {
+        return of(testEvent(), createChain((InternalTestProcessor) event -> {
+          processed.incrementAndGet();
+          return CoreEvent.builder(event).message(of(i)).build();
+        }));
+      } catch (MuleException e) {
+        throw new RuntimeException(e);
+      }
+    }).collect(toList());
+  }
+
+  private void processingStrategyOnScheduler() {
+    when(processingStrategy.onPipeline(any(ReactiveProcessor.class)))
+        .thenAnswer(invocation -> (ReactiveProcessor) publisher -> from(publisher)
+            .publishOn(fromExecutorService(scheduler))
+            .transform((ReactiveProcessor) invocation.getArgument(0)));
+  }
+
+  private Iterator<Message> results(ForkJoinStrategy strategy, List<RoutingPair> pairs) throws Exception {
+    CoreEvent result = from(strategy.forkJoin(testEvent(), fromIterable(pairs))).block();
+    return (Iterator<Message>) result.getMessage().getPayload().getValue();
+  }
+
+  private List<Object> payloads(Iterator<Message> results) {
+    List<Object> payloads = new ArrayList<>();
+    results.forEachRemaining(message -> payloads.add(message.getPayload().getValue()));
+    return payloads;
+  }
+
+  private MessageProcessorChain createChain(Processor processor) throws MuleException {
+    MessageProcessorChain chain = newChain(Optional.empty(), processor);
+    chain.setMuleContext(muleContext);
+    return chain;
+  }
+
+  @FunctionalInterface
+  private interface InternalTestProcessor extends Processor, InternalProcessor {
+
+  }
+}
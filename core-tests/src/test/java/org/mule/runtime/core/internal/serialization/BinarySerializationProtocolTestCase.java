@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.MediaType.APPLICATION_JSON;
+import static org.mule.tck.util.MuleContextUtils.eventBuilder;
+
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.tck.core.internal.serialization.AbstractSerializerProtocolContractTestCase;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BinarySerializationProtocolTestCase extends AbstractSerializerProtocolContractTestCase {
+
+  @Override
+  protected ObjectSerializer getObjectSerializer() {
+    return new BinaryObjectSerializer();
+  }
+
+  @Override
+  protected void doSetUp() throws Exception {
+    serializationProtocol = muleContext.getObjectSerializer().getExternalProtocol();
+  }
+
+  @Test(expected = SerializationException.class)
+  public void notSerializable() throws Exception {
+    serializationProtocol.serialize(new Object());
+  }
+
+  @Test
+  public void values() throws Exception {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("string", "Hello World");
+    map.put("long", Long.MIN_VALUE);
+    map.put("decimal", new BigDecimal("-12.345"));
+    map.put("date", new Date());
+    map.put("list", new ArrayList<>(asList(1, null, true, 'c')));
+
+    Map<String, Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(map));
+    assertThat(deserialized, equalTo(map));
+  }
+
+  @Test
+  public void selfContainingCollection() throws Exception {
+    List<Object> list = new ArrayList<>();
+    list.add("Hello World");
+    list.add(list);
+
+    List<Object> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(list));
+    assertThat(deserialized.get(0), equalTo("Hello World"));
+    assertThat(((List<Object>) deserialized.get(1)).get(0), equalTo("Hello World"));
+  }
+
+  @Test
+  public void typedValue() throws Exception {
+    TypedValue<String> typedValue =
+        new TypedValue<>("{}", DataType.builder().type(String.class).mediaType(APPLICATION_JSON).build());
+
+    TypedValue<String> deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(typedValue));
+    assertThat(deserialized.getValue(), equalTo(typedValue.getValue()));
+    assertThat(deserialized.getDataType(), equalTo(typedValue.getDataType()));
+  }
+
+  @Test
+  public void event() throws Exception {
+    CoreEvent event = eventBuilder(muleContext).message(of("Hello World"))
+        .addVariable("count", 3)
+        .addVariable("items", new ArrayList<>(asList("a", "b")))
+        .build();
+
+    CoreEvent deserialized = serializationProtocol.deserialize(serializationProtocol.serialize(event));
+    assertThat(deserialized.getContext().getId(), equalTo(event.getContext().getId()));
+    assertThat(deserialized.getCorrelationId(), equalTo(event.getCorrelationId()));
+    assertThat(deserialized.getMessage().getPayload().getValue(), equalTo("Hello World"));
+    assertThat(deserialized.getVariables().get("count").getValue(), equalTo(3));
+    assertThat(deserialized.getVariables().get("items").getValue(), equalTo(asList("a", "b")));
+    assertThat(deserialized.getVariables().get("items").getDataType(),
+               equalTo(event.getVariables().get("items").getDataType()));
+  }
+
+  @Test
+  public void smallerThanJavaSerialization() throws Exception {
+    CoreEvent event = eventBuilder(muleContext).message(of("Hello World")).addVariable("count", 3).build();
+
+    byte[] javaBytes = new JavaExternalSerializerProtocol().serialize(event);
+    assertThat(serializationProtocol.serialize(event).length, is(lessThan(javaBytes.length)));
+  }
+
+  @Test
+  public void javaSerializedDeserialized() throws Exception {
+    byte[] bytes = new JavaExternalSerializerProtocol().serialize("Hello World");
+    String deserialized = serializationProtocol.deserialize(bytes);
+    assertThat(deserialized, equalTo("Hello World"));
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.core.internal.streaming.bytes.DefaultByteStreamingManager.MULE_FILE_STORE_BYTE_STREAMING_DEFAULT;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.core.api.streaming.StreamingManager;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.factory.FileStoreCursorStreamProviderFactory;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class DefaultByteStreamingManagerTestCase extends AbstractMuleTestCase {
+
+  @Rule
+  public SystemProperty fileStoreDefault = new SystemProperty(MULE_FILE_STORE_BYTE_STREAMING_DEFAULT, "true");
+
+  @Test
+  public void fileStoreDefaultCursorProviderFactory() {
+    DefaultByteStreamingManager streamingManager =
+        new DefaultByteStreamingManager(mock(ByteBufferManager.class), mock(StreamingManager.class));
+
+    assertThat(streamingManager.getDefaultCursorProviderFactory(), instanceOf(FileStoreCursorStreamProviderFactory.class));
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.Arrays.copyOf;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class FileStoreInputStreamBufferTestCase extends AbstractMuleTestCase {
+
+  @Test
+  public void fileDataReadableAfterClose() {
+    byte[] data = randomAlphanumeric(1024).getBytes();
+    // nothing is kept in memory, so all the data goes to the file
+    FileStoreInputStreamBuffer buffer = new FileStoreInputStreamBuffer(new ByteArrayInputStream(data),
+                                                                       new FileStoreCursorStreamConfig(new DataSize(0, BYTE)),
+                                                                       mock(ByteBufferManager.class));
+
+    ByteBuffer read = buffer.get(0, data.length);
+    buffer.close();
+
+    byte[] readData = new byte[read.remaining()];
+    read.get(readData);
+    assertThat(readData, equalTo(copyOf(data, readData.length)));
+  }
+}
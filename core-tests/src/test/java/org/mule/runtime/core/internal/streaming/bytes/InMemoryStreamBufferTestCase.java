@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.util.Arrays.copyOfRange;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.util.DataUnit.BYTE;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+
+import org.mule.runtime.api.util.DataSize;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import io.qameta.allure.Feature;
+
+@SmallTest
+@Feature(STREAMING)
+public class InMemoryStreamBufferTestCase extends AbstractMuleTestCase {
+
+  private static final int SEGMENT_SIZE = 10;
+
+  @Test
+  public void readsBoundedBySegmentSizeWhenBuffersAreBigger() {
+    byte[] data = randomAlphanumeric(SEGMENT_SIZE * 3).getBytes();
+    // Managers that round capacities up (as the slab one does) hand out buffers bigger than the segments
+    ByteBufferManager bufferManager = new ByteBufferManager() {
+
+      @Override
+      public ByteBuffer allocate(int capacity) {
+        ByteBuffer buffer = ByteBuffer.allocate(capacity * 2);
+        buffer.limit(capacity);
+        return buffer;
+      }
+
+      @Override
+      public void deallocate(ByteBuffer byteBuffer) {}
+    };
+    InMemoryCursorStreamConfig config = new InMemoryCursorStreamConfig(new DataSize(SEGMENT_SIZE, BYTE),
+                                                                       new DataSize(SEGMENT_SIZE, BYTE),
+                                                                       new DataSize(SEGMENT_SIZE * 10, BYTE));
+    InMemoryStreamBuffer buffer = new InMemoryStreamBuffer(new ByteArrayInputStream(data), config, bufferManager);
+
+    assertThat(read(buffer, 5, data.length - 5), equalTo(copyOfRange(data, 5, data.length)));
+  }
+
+  private byte[] read(InMemoryStreamBuffer buffer, long position, int length) {
+    ByteArrayOutputStream read = new ByteArrayOutputStream();
+    while (read.size() < length) {
+      ByteBuffer chunk = buffer.get(position + read.size(), length - read.size());
+      byte[] bytes = new byte[chunk.remaining()];
+      chunk.get(bytes);
+      read.write(bytes, 0, bytes.length);
+    }
+    return read.toByteArray();
+  }
+}
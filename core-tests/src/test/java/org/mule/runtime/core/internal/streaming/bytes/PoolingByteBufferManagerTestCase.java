@@ -25,6 +25,7 @@ import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferMa
 import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
 import org.mule.runtime.api.util.Reference;
 import org.mule.runtime.api.util.concurrent.Latch;
+import org.mule.runtime.core.internal.streaming.AtomicStreamingStatistics;
 import org.mule.runtime.core.internal.streaming.MemoryManager;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
@@ -65,6 +66,23 @@ public class PoolingByteBufferManagerTestCase extends AbstractMuleTestCase {
     assertThat(buffer, is(sameInstance(newBuffer)));
   }
 
+  @Test
+  public void statistics() throws Exception {
+    AtomicStreamingStatistics statistics = new AtomicStreamingStatistics();
+    bufferManager.dispose();
+    bufferManager = new PoolingByteBufferManager(allocateExecutor, statistics);
+
+    ByteBuffer buffer1 = bufferManager.allocate(CAPACITY);
+    ByteBuffer buffer2 = bufferManager.allocate(CAPACITY);
+    assertThat(statistics.getBuffersInUseByCapacity().get(CAPACITY), is(2L));
+
+    bufferManager.deallocate(buffer1);
+    assertThat(statistics.getBuffersInUseByCapacity().get(CAPACITY), is(1L));
+
+    bufferManager.deallocate(buffer2);
+    assertThat(statistics.getBuffersInUseByCapacity().get(CAPACITY), is(0L));
+  }
+
   @Test
   public void grow() throws Exception {
     ByteBuffer buffer = bufferManager.allocate(CAPACITY);
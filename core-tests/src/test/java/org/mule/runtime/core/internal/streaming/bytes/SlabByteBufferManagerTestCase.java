@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.round;
+import static java.lang.Thread.currentThread;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.MAX_STREAMING_PERCENTILE;
+import static org.mule.runtime.core.internal.streaming.bytes.SlabByteBufferManager.sizeClassIndex;
+import static org.mule.test.allure.AllureConstants.StreamingFeature.STREAMING;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.internal.streaming.AtomicStreamingStatistics;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+
+import io.qameta.allure.Feature;
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+@Feature(STREAMING)
+public class SlabByteBufferManagerTestCase extends AbstractMuleTestCase {
+
+  private static final int CAPACITY = 100;
+  private static final int SIZE_CLASS_CAPACITY = 128;
+
+  private AtomicStreamingStatistics statistics = new AtomicStreamingStatistics();
+  private SlabByteBufferManager bufferManager = new SlabByteBufferManager(statistics, false);
+
+  @After
+  public void after() {
+    bufferManager.dispose();
+  }
+
+  @Test
+  public void pooling() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer, is(sameInstance(newBuffer)));
+  }
+
+  @Test
+  public void grow() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    ByteBuffer newBuffer = bufferManager.allocate(CAPACITY);
+
+    assertThat(buffer, not(sameInstance(newBuffer)));
+  }
+
+  @Test
+  public void sameSizeClassIsShared() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    bufferManager.deallocate(buffer);
+
+    ByteBuffer newBuffer = bufferManager.allocate(SIZE_CLASS_CAPACITY);
+    assertThat(buffer, is(sameInstance(newBuffer)));
+  }
+
+  @Test
+  public void limitIsRequestedCapacity() {
+    ByteBuffer buffer = bufferManager.allocate(CAPACITY);
+    assertThat(buffer.limit(), is(CAPACITY));
+    assertThat(buffer.position(), is(0));
+    assertThat(buffer.capacity(), is(SIZE_CLASS_CAPACITY));
+  }
+
+  @Test
+  public void direct() {
+    bufferManager.dispose();
+    bufferManager = new SlabByteBufferManager(statistics, true);
+
+    assertThat(bufferManager.allocate(CAPACITY).isDirect(), is(true));
+  }
+
+  @Test
+  public void sizeClasses() {
+    assertThat(sizeClassIndex(1), is(0));
+    assertThat(sizeClassIndex(16), is(0));
+    assertThat(sizeClassIndex(17), is(1));
+    assertThat(sizeClassIndex(8 * 1024), is(9));
+    assertThat(sizeClassIndex(Integer.MAX_VALUE), is(-1));
+  }
+
+  @Test
+  public void statistics() {
+    ByteBuffer buffer1 = bufferManager.allocate(CAPACITY);
+    ByteBuffer buffer2 = bufferManager.allocate(CAPACITY);
+    assertThat(statistics.getBuffersInUseByCapacity().get(SIZE_CLASS_CAPACITY), is(2L));
+
+    bufferManager.deallocate(buffer1);
+    assertThat(statistics.getBuffersInUseByCapacity().get(SIZE_CLASS_CAPACITY), is(1L));
+
+    bufferManager.deallocate(buffer2);
+    assertThat(statistics.getBuffersInUseByCapacity().get(SIZE_CLASS_CAPACITY), is(0L));
+  }
+
+  @Test
+  public void limitTotalMemory() {
+    final long maxMemory = 100L;
+    final long waitTimeoutMillis = 100;
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+
+    bufferManager.dispose();
+    bufferManager = new SlabByteBufferManager(memoryManager, waitTimeoutMillis, statistics, false);
+
+    final int bufferCapacity = (int) round(maxMemory * MAX_STREAMING_PERCENTILE) / 2;
+    ByteBuffer buffer = bufferManager.allocate(bufferCapacity);
+
+    try {
+      bufferManager.allocate(bufferCapacity);
+      fail("Max streaming memory should have been exceeded");
+    } catch (MuleRuntimeException e) {
+      assertThat(e.getCause() instanceof MaxStreamingMemoryExceededException, is(true));
+    }
+
+    bufferManager.deallocate(buffer);
+    assertThat(bufferManager.allocate(bufferCapacity).capacity() >= bufferCapacity, is(true));
+  }
+
+  @Test
+  public void reclaimIdleBuffersOfOtherThreads() throws Exception {
+    final long maxMemory = 100L;
+    final long waitTimeoutMillis = 100;
+
+    MemoryManager memoryManager = mock(MemoryManager.class);
+    when(memoryManager.getMaxMemory()).thenReturn(maxMemory);
+
+    bufferManager.dispose();
+    bufferManager = new SlabByteBufferManager(memoryManager, waitTimeoutMillis, statistics, false);
+
+    final int bufferCapacity = (int) round(maxMemory * MAX_STREAMING_PERCENTILE) / 2;
+    CountDownLatch deallocated = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(1);
+
+    // the buffer stays idle in the magazine of a thread which is still alive
+    Thread otherThread = new Thread(() -> {
+      bufferManager.deallocate(bufferManager.allocate(bufferCapacity));
+      deallocated.countDown();
+      try {
+        done.await();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+      }
+    });
+    otherThread.start();
+
+    try {
+      deallocated.await();
+      assertThat(bufferManager.allocate(bufferCapacity).capacity() >= bufferCapacity, is(true));
+    } finally {
+      done.countDown();
+      otherThread.join();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.api.metadata.DataType.BYTE_ARRAY;
+import static org.mule.runtime.api.metadata.DataType.STRING;
+import static org.mule.runtime.api.metadata.DataType.fromType;
+
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SmallTest
+public class DataTypePairCacheTestCase extends AbstractMuleTestCase {
+
+  private final AtomicInteger resolutions = new AtomicInteger();
+
+  @Test
+  public void resolvedOncePerPair() {
+    DataTypePairCache<Object> cache = new DataTypePairCache<>(false);
+
+    Object value = cache.get(STRING, BYTE_ARRAY, this::resolve);
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolve), is(sameInstance(value)));
+    assertThat(cache.get(fromType(String.class), fromType(byte[].class), this::resolve), is(sameInstance(value)));
+    assertThat(resolutions.get(), is(1));
+
+    assertThat(cache.get(BYTE_ARRAY, STRING, this::resolve), is(not(value)));
+    assertThat(resolutions.get(), is(2));
+  }
+
+  @Test
+  public void nullValueCached() {
+    DataTypePairCache<Object> cache = new DataTypePairCache<>(true);
+
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolveNull), is(nullValue()));
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolveNull), is(nullValue()));
+    assertThat(resolutions.get(), is(1));
+  }
+
+  @Test
+  public void nullValueNotCached() {
+    DataTypePairCache<Object> cache = new DataTypePairCache<>(false);
+
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolveNull), is(nullValue()));
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolveNull), is(nullValue()));
+    assertThat(resolutions.get(), is(2));
+  }
+
+  @Test
+  public void invalidate() {
+    DataTypePairCache<Object> cache = new DataTypePairCache<>(false);
+
+    Object value = cache.get(STRING, BYTE_ARRAY, this::resolve);
+    cache.invalidate();
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolve), is(not(value)));
+    assertThat(resolutions.get(), is(2));
+  }
+
+  @Test
+  public void valueResolvedWhileInvalidatedNotCached() {
+    DataTypePairCache<Object> cache = new DataTypePairCache<>(false);
+
+    cache.get(STRING, BYTE_ARRAY, (source, result) -> {
+      cache.invalidate();
+      return resolve(source, result);
+    });
+    cache.get(STRING, BYTE_ARRAY, this::resolve);
+    assertThat(resolutions.get(), is(2));
+  }
+
+  @Test
+  public void bounded() {
+    DataTypePairCache<Object> cache = new DataTypePairCache<>(false, 2);
+
+    Object value = cache.get(STRING, BYTE_ARRAY, this::resolve);
+    cache.get(BYTE_ARRAY, STRING, this::resolve);
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolve), is(sameInstance(value)));
+    assertThat(resolutions.get(), is(2));
+
+    cache.get(STRING, STRING, this::resolve);
+    assertThat(cache.get(STRING, BYTE_ARRAY, this::resolve), is(not(value)));
+    assertThat(resolutions.get(), is(4));
+  }
+
+  private Object resolve(Object source, Object result) {
+    resolutions.incrementAndGet();
+    return new Object();
+  }
+
+  private Object resolveNull(Object source, Object result) {
+    resolutions.incrementAndGet();
+    return null;
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.emptyPersistentCaseInsensitiveMap;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+@SmallTest
+public class PersistentCaseInsensitiveMapTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY1 = "FOO";
+  private static final String KEY2 = "doo";
+
+  @Test
+  public void caseInsensitive() {
+    PersistentCaseInsensitiveMap<String> map = emptyPersistentCaseInsensitiveMap();
+    map = map.plus(KEY1, "bar").plus(KEY2, "dar");
+
+    assertThat(map.size(), is(2));
+    assertThat(map.get("foo"), is("bar"));
+    assertThat(map.get("Foo"), is("bar"));
+    assertThat(map.get("DOO"), is("dar"));
+    assertThat(map.containsKey("fOO"), is(true));
+  }
+
+  @Test
+  public void replacedValueKeepsOriginalKey() {
+    PersistentCaseInsensitiveMap<String> map = emptyPersistentCaseInsensitiveMap();
+    map = map.plus(KEY1, "bar").plus("foo", "baz");
+
+    assertThat(map.size(), is(1));
+    assertThat(map.get(KEY1), is("baz"));
+    assertThat(map.keySet().iterator().next(), is(KEY1));
+  }
+
+  @Test
+  public void previousVersionsAreNotModified() {
+    PersistentCaseInsensitiveMap<String> original = emptyPersistentCaseInsensitiveMap();
+    original = original.plus(KEY1, "bar");
+
+    PersistentCaseInsensitiveMap<String> added = original.plus(KEY2, "dar");
+    PersistentCaseInsensitiveMap<String> removed = added.minus("foo");
+
+    assertThat(original.size(), is(1));
+    assertThat(original.get(KEY2), is(nullValue()));
+    assertThat(added.size(), is(2));
+    assertThat(removed.size(), is(1));
+    assertThat(removed.get(KEY1), is(nullValue()));
+    assertThat(removed.get(KEY2), is("dar"));
+  }
+
+  @Test
+  public void unchangedVersionsAreSameInstance() {
+    PersistentCaseInsensitiveMap<String> map = emptyPersistentCaseInsensitiveMap();
+    String value = "bar";
+    map = map.plus(KEY1, value);
+
+    assertThat(map.plus("foo", value), is(sameInstance(map)));
+    assertThat(map.minus(KEY2), is(sameInstance(map)));
+  }
+
+  @Test
+  public void collidingKeys() {
+    // "Aa" and "BB" have the same hash
+    PersistentCaseInsensitiveMap<Integer> map = emptyPersistentCaseInsensitiveMap();
+    map = map.plus("Aa", 1).plus("BB", 2).plus("AaBB", 3).plus("BBAa", 4);
+
+    assertThat(map.size(), is(4));
+    assertThat(map.get("bb"), is(2));
+    assertThat(map.get("bbaa"), is(4));
+
+    map = map.minus("aa");
+    assertThat(map.size(), is(3));
+    assertThat(map.get("Aa"), is(nullValue()));
+    assertThat(map.get("BB"), is(2));
+  }
+
+  @Test
+  public void matchesReferenceMap() {
+    final Random random = new Random(0);
+    final Map<String, Integer> reference = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    PersistentCaseInsensitiveMap<Integer> map = emptyPersistentCaseInsensitiveMap();
+
+    for (int i = 0; i < 5000; i++) {
+      String key = "key" + random.nextInt(500);
+      if (random.nextBoolean()) {
+        key = key.toUpperCase();
+      }
+
+      if (random.nextInt(3) == 0) {
+        reference.remove(key);
+        map = map.minus(key);
+      } else {
+        reference.put(key, i);
+        map = map.plus(key, i);
+      }
+    }
+
+    assertThat(map.size(), is(reference.size()));
+    assertThat(new TreeMap<>(map), is(reference));
+  }
+
+  @Test
+  public void forEachChange() {
+    PersistentCaseInsensitiveMap<String> base = emptyPersistentCaseInsensitiveMap();
+    for (int i = 0; i < 100; ++i) {
+      base = base.plus("key" + i, "value" + i);
+    }
+
+    PersistentCaseInsensitiveMap<String> derived = base.plus("KEY1", "changed").plus("key2", "value2").plus("new", "value")
+        .minus("key3");
+
+    Map<String, String> changes = new HashMap<>();
+    derived.forEachChange(base, changes::put);
+    assertThat(changes.size(), is(2));
+    assertThat(changes.get("key1"), is("changed"));
+    assertThat(changes.get("new"), is("value"));
+
+    changes.clear();
+    base.forEachChange(base, changes::put);
+    assertThat(changes.isEmpty(), is(true));
+  }
+
+  @Test
+  public void forEachChangeAgainstUnrelatedMap() {
+    PersistentCaseInsensitiveMap<String> base = emptyPersistentCaseInsensitiveMap();
+    base = base.plus(KEY1, "bar").plus(KEY2, "dar");
+    PersistentCaseInsensitiveMap<String> other = emptyPersistentCaseInsensitiveMap();
+    other = other.plus("foo", "bar").plus(KEY2, "changed").plus("Aa", "a").plus("BB", "b");
+
+    Map<String, String> changes = new TreeMap<>();
+    other.forEachChange(base, changes::put);
+    assertThat(changes.size(), is(3));
+    assertThat(changes.get(KEY2), is("changed"));
+    assertThat(changes.get("Aa"), is("a"));
+    assertThat(changes.get("BB"), is("b"));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentCaseInsensitiveMap<String> map = emptyPersistentCaseInsensitiveMap();
+    map.plus(KEY1, "bar").put(KEY2, "dar");
+  }
+
+  @Test
+  public void serialize() {
+    PersistentCaseInsensitiveMap<String> map = emptyPersistentCaseInsensitiveMap();
+    map = map.plus(KEY1, "bar").plus(KEY2, "dar");
+
+    PersistentCaseInsensitiveMap<String> deserialized = SerializationUtils.clone(map);
+    assertThat(deserialized.get("foo"), is("bar"));
+    assertThat(deserialized.get("DOO"), is("dar"));
+    assertThat(deserialized.equals(new HashMap<>(map)), is(true));
+  }
+}
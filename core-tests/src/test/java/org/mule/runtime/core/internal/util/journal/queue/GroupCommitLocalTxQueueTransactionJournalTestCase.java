@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.journal.queue;
+
+import static org.mule.runtime.core.internal.util.journal.TransactionJournal.MULE_TRANSACTION_JOURNAL_GROUP_COMMIT;
+
+import org.mule.tck.junit4.rule.SystemProperty;
+
+import org.junit.Rule;
+
+/**
+ * Runs the same scenarios as {@link LocalTxQueueTransactionJournalTestCase} with entries of concurrent transactions written by
+ * group commit.
+ */
+public class GroupCommitLocalTxQueueTransactionJournalTestCase extends LocalTxQueueTransactionJournalTestCase {
+
+  @Rule
+  public SystemProperty groupCommit = new SystemProperty(MULE_TRANSACTION_JOURNAL_GROUP_COMMIT, "true");
+
+}
@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.util.journal.queue;
 
 import static java.lang.Math.abs;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.core.Is.is;
@@ -24,8 +25,12 @@ import org.mule.tck.junit4.AbstractMuleContextTestCase;
 import com.google.common.collect.Multimap;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -174,6 +179,50 @@ public class LocalTxQueueTransactionJournalTestCase extends AbstractMuleContextT
     assertThat(journalEntry.isAdd(), is(true));
   }
 
+  @Test
+  public void concurrentTransactions() throws Exception {
+    final int transactions = 4;
+    final int numberOfOffers = 50;
+
+    LocalTxQueueTransactionJournal transactionJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    ExecutorService executor = newFixedThreadPool(transactions);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < transactions; i++) {
+        final int txId = i;
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < numberOfOffers; j++) {
+            transactionJournal.logAdd(txId, mockQueueInfo, "data " + j);
+          }
+          // only half of the transactions complete
+          if (txId % 2 == 0) {
+            transactionJournal.logCommit(txId);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    transactionJournal.close();
+
+    LocalTxQueueTransactionJournal recoveredJournal =
+        new LocalTxQueueTransactionJournal(temporaryFolder.getRoot().getAbsolutePath(), muleContext);
+    Multimap<Integer, LocalQueueTxJournalEntry> allEntries = recoveredJournal.getAllLogEntries();
+    assertThat(allEntries.size(), is(transactions / 2 * numberOfOffers));
+    for (int txId = 1; txId < transactions; txId += 2) {
+      assertThat(allEntries.get(txId).size(), is(numberOfOffers));
+      LocalQueueTxJournalEntry journalEntry = allEntries.get(txId).iterator().next();
+      assertThat(journalEntry.isAdd(), is(true));
+      assertThat(journalEntry.getQueueName(), is(QUEUE_NAME));
+      assertThat(journalEntry.getValue(), is("data 0"));
+    }
+    recoveredJournal.close();
+  }
+
   @Test
   public void getTxEntriesReturnsACopy() throws Exception {
     LocalTxQueueTransactionJournal transactionJournal =
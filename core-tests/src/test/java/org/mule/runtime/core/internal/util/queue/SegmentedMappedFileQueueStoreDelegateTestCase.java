@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.Serializable;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SmallTest
+public class SegmentedMappedFileQueueStoreDelegateTestCase extends AbstractMuleTestCase {
+
+  private static final String TEST_QUEUE_NAME = "test-queue";
+  private static final int SEGMENT_SIZE = 256;
+
+  @Rule
+  public TemporaryFolder workingDirectory = new TemporaryFolder();
+
+  private MuleContext mockMuleContext;
+
+  @Before
+  public void before() {
+    mockMuleContext = mock(MuleContext.class);
+    when(mockMuleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(mockMuleContext);
+  }
+
+  @Test
+  public void itemsAreTakenInOrder() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+
+    assertThat(queueStore.getSize(), is(50));
+    for (int i = 0; i < 50; i++) {
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+    assertThat(queueStore.poll(0), is(nullValue()));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void consumedSegmentsAreDeleted() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    assertThat(segmentFiles().length > 1, is(true));
+
+    for (int i = 0; i < 50; i++) {
+      queueStore.poll(0);
+    }
+    assertThat(segmentFiles().length, is(1));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void pendingItemsAreRecoveredAfterClose() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+    for (int i = 0; i < 20; i++) {
+      queueStore.poll(0);
+    }
+    queueStore.close();
+    assertThat(queueStore.getSize(), is(0));
+
+    queueStore = createTestQueueStore(0);
+    assertThat(queueStore.getSize(), is(30));
+    for (int i = 20; i < 50; i++) {
+      assertThat(queueStore.poll(0), is(createTestDataForIndex(i)));
+    }
+    queueStore.dispose();
+  }
+
+  @Test
+  public void untakenItemIsTakenFirst() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    queueStore.addAll(asList(createTestDataForIndex(0), createTestDataForIndex(1)));
+
+    Serializable taken = queueStore.poll(0);
+    queueStore.untake(taken);
+    queueStore.close();
+
+    queueStore = createTestQueueStore(0);
+    assertThat(queueStore.peek(), is(createTestDataForIndex(0)));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(0)));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(1)));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void removeAndContains() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    for (int i = 0; i < 3; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(true));
+    queueStore.remove(createTestDataForIndex(1));
+    assertThat(queueStore.contains(createTestDataForIndex(1)), is(false));
+    assertThat(queueStore.getSize(), is(2));
+
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(0)));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(2)));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void offerTimesOutWhenFull() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(1);
+    assertThat(queueStore.offer(createTestDataForIndex(0), 0, 10), is(true));
+    assertThat(queueStore.offer(createTestDataForIndex(1), 0, 10), is(false));
+
+    queueStore.poll(0);
+    assertThat(queueStore.offer(createTestDataForIndex(1), 0, 10), is(true));
+    queueStore.dispose();
+  }
+
+  @Test
+  public void clear() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    for (int i = 0; i < 50; i++) {
+      queueStore.putNow(createTestDataForIndex(i));
+    }
+
+    queueStore.clear();
+    assertThat(queueStore.getSize(), is(0));
+    assertThat(segmentFiles().length, is(1));
+
+    queueStore.putNow(createTestDataForIndex(0));
+    assertThat(queueStore.poll(0), is(createTestDataForIndex(0)));
+    queueStore.dispose();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void putAfterCloseFails() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    queueStore.close();
+    try {
+      queueStore.putNow(createTestDataForIndex(0));
+    } finally {
+      queueStore.dispose();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void addAllAfterCloseFails() throws Exception {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    queueStore.close();
+    try {
+      queueStore.addAll(asList(createTestDataForIndex(0), createTestDataForIndex(1)));
+    } finally {
+      queueStore.dispose();
+    }
+  }
+
+  @Test
+  public void allFilesDeletedAfterDispose() {
+    SegmentedMappedFileQueueStoreDelegate queueStore = createTestQueueStore(0);
+    queueStore.putNow("item");
+    assertThat(segmentsDirectory().exists(), is(true));
+
+    queueStore.dispose();
+    assertThat(segmentsDirectory().exists(), is(false));
+  }
+
+  private File segmentsDirectory() {
+    return SegmentedMappedFileQueueStoreDelegate.getSegmentsDirectory(TEST_QUEUE_NAME,
+                                                                      workingDirectory.getRoot().getAbsolutePath());
+  }
+
+  private File[] segmentFiles() {
+    return segmentsDirectory().listFiles();
+  }
+
+  private String createTestDataForIndex(int index) {
+    return "some value " + index;
+  }
+
+  private SegmentedMappedFileQueueStoreDelegate createTestQueueStore(int capacity) {
+    return new SegmentedMappedFileQueueStoreDelegate(TEST_QUEUE_NAME, workingDirectory.getRoot().getAbsolutePath(),
+                                                     mockMuleContext, capacity, SEGMENT_SIZE, true);
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static java.util.Arrays.sort;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.when;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.mule.tck.SerializationTestUtils.addJavaSerializerToMockMuleContext;
+import static org.mule.tck.util.MuleContextUtils.mockMuleContext;
+
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@SmallTest
+@RunWith(MockitoJUnitRunner.class)
+public class LogStructuredObjectStorePartitionTestCase extends AbstractMuleTestCase {
+
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+  private static final long SMALL_SEGMENT_SIZE = 1024;
+  private static final int FILLERS = 100;
+
+  @Rule
+  public TemporaryFolder objectStoreFolder = new TemporaryFolder();
+
+  private MuleContext muleContext = mockMuleContext();
+
+  private LogStructuredObjectStorePartition<String> partition;
+
+  @Before
+  public void setUp() throws Exception {
+    when(muleContext.getExecutionClassLoader()).thenReturn(getClass().getClassLoader());
+    addJavaSerializerToMockMuleContext(muleContext);
+    partition = newPartition();
+  }
+
+  private LogStructuredObjectStorePartition<String> newSmallSegmentsPartition() throws Exception {
+    LogStructuredObjectStorePartition<String> partition =
+        new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), true, SMALL_SEGMENT_SIZE);
+    partition.open();
+    return partition;
+  }
+
+  private void storeAndRemoveFillers() throws Exception {
+    for (int i = 0; i < FILLERS; i++) {
+      partition.store("filler" + i, VALUE);
+    }
+    for (int i = 0; i < FILLERS; i++) {
+      partition.remove("filler" + i);
+    }
+  }
+
+  private File[] segmentFiles() {
+    File[] segments = objectStoreFolder.getRoot().listFiles(f -> f.getName().endsWith(".seg"));
+    sort(segments);
+    return segments;
+  }
+
+  private LogStructuredObjectStorePartition<String> newPartition() throws Exception {
+    LogStructuredObjectStorePartition<String> partition =
+        new LogStructuredObjectStorePartition<>(muleContext, "test", objectStoreFolder.getRoot(), true);
+    partition.open();
+    return partition;
+  }
+
+  @Test
+  public void storeRetrieveAndRemove() throws Exception {
+    partition.store(KEY, VALUE);
+    assertThat(partition.contains(KEY), is(true));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+
+    assertThat(partition.remove(KEY), is(VALUE));
+    assertThat(partition.contains(KEY), is(false));
+  }
+
+  @Test(expected = ObjectAlreadyExistsException.class)
+  public void storeExistingKey() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.store(KEY, VALUE);
+  }
+
+  @Test
+  public void indicatesUnexistentKeyOnRetrieveError() throws Exception {
+    final String nonExistentKey = "nonExistentKey";
+
+    try {
+      partition.retrieve(nonExistentKey);
+      fail("Supposed to thrown an exception as key is not valid");
+    } catch (ObjectDoesNotExistException e) {
+      assertTrue(e.getMessage().contains(nonExistentKey));
+    }
+  }
+
+  @Test
+  public void isRecognizedAsLogStructured() {
+    assertThat(LogStructuredObjectStorePartition.isLogStructured(objectStoreFolder.getRoot()), is(true));
+  }
+
+  @Test
+  public void restoredFromDisk() throws Exception {
+    partition.store("removed", VALUE);
+    partition.store(KEY, VALUE);
+    partition.remove("removed");
+
+    partition = new LogStructuredObjectStorePartition<>(muleContext, objectStoreFolder.getRoot(), true);
+    partition.open();
+
+    assertThat(partition.getPartitionName(), is("test"));
+    assertThat(partition.allKeys(), contains(KEY));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+  }
+
+  @Test
+  public void reloadedAfterClose() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.close();
+
+    assertThat(partition.retrieve(KEY), is(VALUE));
+    partition.store("other", VALUE);
+    partition.close();
+
+    partition = newPartition();
+    assertThat(partition.allKeys(), contains(KEY, "other"));
+  }
+
+  @Test
+  public void truncatedRecordIsDiscarded() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.store("other", VALUE);
+
+    File segment = objectStoreFolder.getRoot().listFiles(f -> f.getName().endsWith(".seg"))[0];
+    try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+      file.setLength(file.length() - 1);
+    }
+
+    partition = newPartition();
+    assertThat(partition.allKeys(), contains(KEY));
+
+    partition.store("other", VALUE);
+    partition = newPartition();
+    assertThat(partition.allKeys(), contains(KEY, "other"));
+  }
+
+  @Test
+  public void expireByMaxEntries() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      partition.store(KEY + i, VALUE);
+    }
+
+    partition.expire(UNBOUNDED, 2);
+    assertThat(partition.allKeys(), contains(KEY + 3, KEY + 4));
+
+    partition = newPartition();
+    assertThat(partition.allKeys(), contains(KEY + 3, KEY + 4));
+  }
+
+  @Test
+  public void expireByTtl() throws Exception {
+    partition.store(KEY, VALUE);
+    Thread.sleep(20);
+
+    partition.expire(10, UNBOUNDED);
+    assertThat(partition.contains(KEY), is(false));
+  }
+
+  @Test
+  public void compactedSegmentIsDeleted() throws Exception {
+    partition = newSmallSegmentsPartition();
+    partition.store(KEY, VALUE);
+    storeAndRemoveFillers();
+    File firstSegment = segmentFiles()[0];
+
+    partition.expire(UNBOUNDED, UNBOUNDED);
+
+    assertThat(firstSegment.exists(), is(false));
+    assertThat(partition.retrieve(KEY), is(VALUE));
+    assertThat(partition.allKeys(), contains(KEY));
+
+    partition = newPartition();
+    assertThat(partition.retrieve(KEY), is(VALUE));
+    assertThat(partition.allKeys(), contains(KEY));
+  }
+
+  @Test
+  public void expireByTtlAfterCompactionAndRestart() throws Exception {
+    partition = newSmallSegmentsPartition();
+    partition.store("expired", VALUE);
+    Thread.sleep(1000);
+    storeAndRemoveFillers();
+    partition.store(KEY, VALUE);
+
+    // compaction moves the expired entry after the newer one, and so does replaying the segments
+    partition.expire(UNBOUNDED, UNBOUNDED);
+    partition = newPartition();
+    assertThat(partition.allKeys(), containsInAnyOrder("expired", KEY));
+
+    partition.expire(500, UNBOUNDED);
+    assertThat(partition.allKeys(), contains(KEY));
+  }
+
+  @Test
+  public void clear() throws Exception {
+    partition.store(KEY, VALUE);
+    partition.clear();
+    assertThat(partition.contains(KEY), is(false));
+    assertThat("Partition descriptor doesn't exists", new File(objectStoreFolder.getRoot(), "partition-descriptor").exists(),
+               is(true));
+
+    partition = newPartition();
+    assertThat(partition.allKeys().isEmpty(), is(true));
+  }
+}
@@ -752,6 +752,23 @@ public class DefaultMessageProcessorChainTestCase extends AbstractReactiveProces
     assertThat(postNotification.getException(), is(nullValue()));
   }
 
+  @Test
+  public void testSuccessNotificationsEachProcessor() throws Exception {
+    List<MessageProcessorNotification> notificationList = new ArrayList<>();
+    setupMessageProcessorNotificationListener(notificationList);
+    DefaultMessageProcessorChainBuilder builder = new DefaultMessageProcessorChainBuilder();
+    builder.chain(getAppendingMP("1"), getAppendingMP("2"));
+    final CoreEvent inEvent = getTestEventUsingFlow("0");
+    assertThat(process(builder.build(), inEvent).getMessage().getPayload().getValue(), equalTo("012"));
+    assertThat(notificationList, hasSize(4));
+    assertPreNotification(inEvent, notificationList.get(0));
+    assertThat(notificationList.get(1).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_POST_INVOKE));
+    assertThat(notificationList.get(1).getEvent().getMessage().getPayload().getValue(), equalTo("01"));
+    assertThat(notificationList.get(2).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_PRE_INVOKE));
+    assertThat(notificationList.get(3).getAction().getActionId(), equalTo(MESSAGE_PROCESSOR_POST_INVOKE));
+    assertThat(notificationList.get(3).getEvent().getMessage().getPayload().getValue(), equalTo("012"));
+  }
+
   @Test
   public void testErrorNotifications() throws Exception {
     List<MessageProcessorNotification> notificationList = new ArrayList<>();
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.privileged.processor.chain;
+
+import static org.mule.runtime.core.privileged.processor.chain.AbstractMessageProcessorChain.MULE_PROCESSOR_CHAIN_FUSE_CPU_LITE;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategyFactory;
+import org.mule.tck.junit4.rule.SystemProperty;
+import org.mule.tck.size.SmallTest;
+
+import org.junit.Rule;
+
+/**
+ * Runs the same scenarios as {@link DefaultMessageProcessorChainTestCase} with consecutive CPU_LITE processors executed as a
+ * single fused stage.
+ */
+@SmallTest
+public class FusedMessageProcessorChainTestCase extends DefaultMessageProcessorChainTestCase {
+
+  @Rule
+  public SystemProperty fuseCpuLite = new SystemProperty(MULE_PROCESSOR_CHAIN_FUSE_CPU_LITE, "true");
+
+  public FusedMessageProcessorChainTestCase(ProcessingStrategyFactory processingStrategyFactory, Mode mode) {
+    super(processingStrategyFactory, mode);
+  }
+}
@@ -14,6 +14,7 @@ import static org.mule.runtime.core.privileged.util.TemplateParser.createAntStyl
 import static org.mule.runtime.core.privileged.util.TemplateParser.createMuleStyleParser;
 import static org.mule.runtime.core.privileged.util.TemplateParser.createSquareBracesStyleParser;
 
+import org.mule.runtime.core.privileged.util.TemplateParser.CompiledTemplate;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
 
@@ -433,6 +434,54 @@ public class TemplateParserTestCase extends AbstractMuleTestCase {
     assertEquals(expectedResult, result);
   }
 
+  @Test
+  public void muleCompiledTemplateParsedManyTimes() {
+    TemplateParser tp = createMuleStyleParser();
+    CompiledTemplate template = tp.compile("Hello #[name], you are #[age]!");
+    assertEquals("Hello #[name], you are #[age]!", template.getTemplate());
+
+    Map<String, Object> first = new HashMap<>();
+    first.put("name", "Sarah");
+    first.put("age", 32);
+    assertEquals("Hello Sarah, you are 32!", template.parse(first::get));
+
+    Map<String, Object> second = new HashMap<>();
+    second.put("name", "Cosima");
+    assertEquals("Hello Cosima, you are null!", template.parse(second::get));
+  }
+
+  @Test
+  public void muleCompiledTemplateSameAsParse() {
+    TemplateParser tp = createMuleStyleParser();
+    for (String expression : new String[] {"##[muleman] # ###[value]", "#[#[mule]]", "muleman #['value']",
+        "a \\#[b] \\c #['d\\'e'] f\\'g"}) {
+      assertEquals(tp.parse(null, expression, token -> "<" + token + ">"),
+                   tp.compile(expression).parse(token -> "<" + token + ">"));
+      assertEquals(tp.parse(null, expression, token -> token), tp.compile(expression).parse(token -> token));
+    }
+  }
+
+  @Test
+  public void muleCompiledTemplateAppendsToBuilder() {
+    TemplateParser tp = createMuleStyleParser();
+    CompiledTemplate template = tp.compile("#[a]-#[b]");
+    StringBuilder builder = new StringBuilder("result: ");
+    template.parse(token -> token.toUpperCase(), builder);
+    assertEquals("result: A-B", builder.toString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void muleCompiledInvalidTemplateFailsWhenParsed() {
+    TemplateParser tp = createMuleStyleParser();
+    CompiledTemplate template = tp.compile("#[unclosed");
+    template.parse(token -> token);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void antCompiledTemplateNotSupported() {
+    createAntStyleParser().compile("${prop1}");
+  }
+
   private Map<String, Object> buildMap() {
     Map<String, Object> props = new HashMap<String, Object>();
     props.put("prop1", "value1");
@@ -6,9 +6,18 @@
  */
 package org.mule.runtime.core.api.context.notification;
 
+import static java.lang.Integer.getInteger;
+import static java.lang.String.format;
+import static java.lang.System.getProperty;
 import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Collections.unmodifiableSet;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.context.notification.NotificationRingBuffer.MULE_NOTIFICATIONS_RING_BUFFER_BATCH_SIZE;
+import static org.mule.runtime.core.internal.context.notification.NotificationRingBuffer.MULE_NOTIFICATIONS_RING_BUFFER_OVERFLOW;
+import static org.mule.runtime.core.internal.context.notification.NotificationRingBuffer.MULE_NOTIFICATIONS_RING_BUFFER_SAMPLE_RATE;
+import static org.mule.runtime.core.internal.context.notification.NotificationRingBuffer.MULE_NOTIFICATIONS_RING_BUFFER_SIZE;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.api.lifecycle.InitialisationException;
@@ -49,6 +58,8 @@ import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.ClassUtils;
 import org.mule.runtime.core.internal.context.notification.Configuration;
+import org.mule.runtime.core.internal.context.notification.NotificationRingBuffer;
+import org.mule.runtime.core.internal.context.notification.NotificationRingBuffer.OverflowPolicy;
 import org.mule.runtime.core.internal.context.notification.Policy;
 import org.mule.runtime.core.privileged.context.notification.OptimisedNotificationHandler;
 
@@ -86,6 +97,12 @@ import org.slf4j.Logger;
  * <li>Disabling an event or interface disables all uses of that class or any subclass.</li>
  * <li>Enquiring whether an event is enabled returns true if any subclass is enabled.</li>
  * </ul>
+ *
+ * <p>
+ * Asynchronous notifications are submitted to the notification schedulers once per listener. When the
+ * {@link NotificationRingBuffer#MULE_NOTIFICATIONS_RING_BUFFER_SIZE} system property is set, they are published into a
+ * {@link NotificationRingBuffer} instead, which is drained in batches.
+ * </p>
  */
 @NoExtend
 public class ServerNotificationManager implements ServerNotificationHandler, MuleContextAware {
@@ -100,6 +117,7 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   private MuleContext muleContext;
   private Scheduler notificationsLiteScheduler;
   private Scheduler notificationsIoScheduler;
+  private NotificationRingBuffer notificationsRingBuffer;
 
   @Override
   public boolean isNotificationDynamic() {
@@ -122,6 +140,28 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
   public void initialise() throws InitialisationException {
     notificationsLiteScheduler = muleContext.getSchedulerService().cpuLightScheduler();
     notificationsIoScheduler = muleContext.getSchedulerService().ioScheduler();
+
+    final int ringBufferSize = getInteger(MULE_NOTIFICATIONS_RING_BUFFER_SIZE, 0);
+    if (ringBufferSize > 0) {
+      notificationsRingBuffer = createNotificationsRingBuffer(ringBufferSize);
+    }
+  }
+
+  private NotificationRingBuffer createNotificationsRingBuffer(int size) throws InitialisationException {
+    final String overflowPolicyName = getProperty(MULE_NOTIFICATIONS_RING_BUFFER_OVERFLOW, OverflowPolicy.DROP.name());
+    final OverflowPolicy overflowPolicy;
+    try {
+      overflowPolicy = OverflowPolicy.valueOf(overflowPolicyName.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      final String message = format("Invalid value '%s' for system property '%s'. Valid values are %s", overflowPolicyName,
+                                    MULE_NOTIFICATIONS_RING_BUFFER_OVERFLOW, asList(OverflowPolicy.values()));
+      throw new InitialisationException(createStaticMessage(message), e, null);
+    }
+
+    return new NotificationRingBuffer(size, getInteger(MULE_NOTIFICATIONS_RING_BUFFER_BATCH_SIZE, 256), overflowPolicy,
+                                      getInteger(MULE_NOTIFICATIONS_RING_BUFFER_SAMPLE_RATE, 100),
+                                      notification -> notifyListeners(notification, this::notifyFromRingBuffer),
+                                      notificationsLiteScheduler);
   }
 
   public void addInterfaceToType(Class<? extends NotificationListener> iface,
@@ -191,6 +231,8 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
       if (notification.isSynchronous()) {
         notifyListeners(notification, (listener, nfn) -> listener.onNotification(nfn));
+      } else if (notificationsRingBuffer != null) {
+        notificationsRingBuffer.publish(notification);
       } else {
         notifyListeners(notification, (listener, nfn) -> {
           if (listener.isBlocking()) {
@@ -211,6 +253,22 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
     configuration.getPolicy().dispatch(notification, notifier);
   }
 
+  /**
+   * Called from the consumer of the {@link NotificationRingBuffer}. Non blocking listeners are notified in place, so a failing
+   * listener must not prevent the rest from being notified.
+   */
+  private void notifyFromRingBuffer(NotificationListener listener, Notification notification) {
+    if (listener.isBlocking()) {
+      notificationsIoScheduler.submit(() -> listener.onNotification(notification));
+    } else {
+      try {
+        listener.onNotification(notification);
+      } catch (Exception e) {
+        logger.error("Exception notifying listener " + listener + " of " + notification, e);
+      }
+    }
+  }
+
   @Override
   public boolean isNotificationEnabled(Class<? extends Notification> type) {
     boolean enabled = false;
@@ -239,6 +297,19 @@ public class ServerNotificationManager implements ServerNotificationHandler, Mul
       }
     }
 
+    // The ring buffer is drained with the configuration and the schedulers, so those are released after it stops
+    if (notificationsRingBuffer != null) {
+      final long shutdownTimeout = muleContext.getConfiguration().getShutdownTimeout();
+      try {
+        if (!notificationsRingBuffer.stop(shutdownTimeout)) {
+          logger.warn("Pending asynchronous notifications not dispatched in {} ms, discarding them", shutdownTimeout);
+        }
+      } catch (InterruptedException e) {
+        // Continue with the disposal after interrupt
+        currentThread().interrupt();
+      }
+    }
+
     if (notificationsLiteScheduler != null) {
       notificationsLiteScheduler.stop();
       notificationsLiteScheduler = null;
@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.el;
+
+/**
+ * Handle to an expression that was already processed by an {@link ExtendedExpressionManager}, so that it can be evaluated many
+ * times without having to resolve its language or parse it again.
+ * <p>
+ * Instances are obtained through {@link ExtendedExpressionManager#compile(String)} and are only meaningful to the expression
+ * manager that created them.
+ *
+ * @since 4.2.0
+ */
+public interface CompiledExpression {
+
+  /**
+   * @return the original text of the compiled expression.
+   */
+  String getExpression();
+
+}
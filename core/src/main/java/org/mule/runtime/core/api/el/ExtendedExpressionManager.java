@@ -8,6 +8,8 @@ package org.mule.runtime.core.api.el;
 
 import org.mule.api.annotation.NoImplement;
 import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
@@ -63,4 +65,103 @@ public interface ExtendedExpressionManager extends ExpressionManager {
   @Deprecated
   String parse(String expression, CoreEvent event, ComponentLocation componentLocation) throws ExpressionRuntimeException;
 
+  /**
+   * Processes the given expression so that it can be evaluated many times through the methods that take a
+   * {@link CompiledExpression}, without resolving its language or parsing it again on each evaluation.
+   * <p>
+   * Components that evaluate the same expression for every event should compile it once during their initialisation.
+   *
+   * @param expression a single expression to be compiled
+   * @return the handle to use to evaluate the expression
+   * @since 4.2.0
+   */
+  default CompiledExpression compile(String expression) {
+    return () -> expression;
+  }
+
+  /**
+   * Evaluates a compiled expression considering a given {@link BindingContext} and the current event.
+   *
+   * @param expression the expression to be executed, as returned by {@link #compile(String)}
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param context an expression binding context to consider
+   * @return the result of execution of the expression.
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @since 4.2.0
+   */
+  default TypedValue evaluate(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                              BindingContext context)
+      throws ExpressionRuntimeException {
+    return evaluate(expression.getExpression(), event, componentLocation, context);
+  }
+
+  /**
+   * Evaluates a compiled expression considering a given {@link BindingContext} and the current event, coercing the result to the
+   * expected output type.
+   *
+   * @param expression the expression to be executed, as returned by {@link #compile(String)}
+   * @param outputType the expected output type so that automatic conversion can be performed for the resulting value type.
+   * @param context an expression binding context to consider
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param failOnNull indicates if should fail if the evaluation result is {@code null}
+   * @return the result of execution of the expression.
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @since 4.2.0
+   */
+  default TypedValue evaluate(CompiledExpression expression, DataType outputType, BindingContext context, CoreEvent event,
+                              ComponentLocation componentLocation, boolean failOnNull)
+      throws ExpressionRuntimeException {
+    return evaluate(expression.getExpression(), outputType, context, event, componentLocation, failOnNull);
+  }
+
+  /**
+   * Evaluates a compiled expression considering a {@code boolean} as output.
+   *
+   * @param expression the expression to be executed, as returned by {@link #compile(String)}
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param nullReturnsTrue whether or not a {@link null} outcome should be considered a {@link true}
+   * @param nonBooleanReturnsTrue whether or not a non boolean outcome should be considered a {@link true}
+   * @return {@link true} if the expression evaluated to that, "true" or the above flags where considered, {@link false} otherwise
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @since 4.2.0
+   */
+  default boolean evaluateBoolean(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                                  boolean nullReturnsTrue, boolean nonBooleanReturnsTrue)
+      throws ExpressionRuntimeException {
+    return evaluateBoolean(expression.getExpression(), event, componentLocation, nullReturnsTrue, nonBooleanReturnsTrue);
+  }
+
+  /**
+   * Processes the given logging expression template so that it can be parsed many times through
+   * {@link #parseLogTemplate(CompiledExpression, CoreEvent, ComponentLocation, BindingContext)}, without having to find its inner
+   * expressions again.
+   *
+   * @param template the string template featuring inner expressions
+   * @return the handle to use to parse the template
+   * @since 4.2.0
+   */
+  default CompiledExpression compileLogTemplate(String template) {
+    return () -> template;
+  }
+
+  /**
+   * Parses a compiled logging expression template by evaluating each of its inner expressions.
+   *
+   * @param template the template to parse, as returned by {@link #compileLogTemplate(String)}
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param bindingContext the bindings to consider
+   * @return the result of the evaluation
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @since 4.2.0
+   */
+  default String parseLogTemplate(CompiledExpression template, CoreEvent event, ComponentLocation componentLocation,
+                                  BindingContext bindingContext)
+      throws ExpressionRuntimeException {
+    return parseLogTemplate(template.getExpression(), event, componentLocation, bindingContext);
+  }
+
 }
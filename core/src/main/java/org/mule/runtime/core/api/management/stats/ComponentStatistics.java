@@ -9,12 +9,21 @@ package org.mule.runtime.core.api.management.stats;
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.core.api.util.StringUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. This class is not thread-safe -
- * occasional errors in reported statistics should be expected, especially when the {@link #clear()} method is used.
+ * ComponentStatistics is a basic metrics aggregation class that is accessible via the JMX api. Recording is lock-free, so
+ * concurrent executions don't serialise on this object, and the execution times are also kept in a {@link LatencyHistogram} to
+ * report percentiles. Values are not read atomically as a whole - occasional errors in reported statistics should be expected,
+ * especially when the {@link #clear()} method is used.
  */
 @NoExtend
 public class ComponentStatistics implements Statistics {
@@ -26,14 +35,30 @@ public class ComponentStatistics implements Statistics {
    */
   private static final long serialVersionUID = -2086999226732861674L;
 
-  private long minExecutionTime = 0;
-  private long maxExecutionTime = 0;
-  private long averageExecutionTime = 0;
-  private long executedEvent = 0;
-  private long totalExecTime = 0;
-  private boolean enabled = false;
+  /**
+   * The serialized form of the plain fields this class used to have, kept so that serialized instances remain compatible.
+   */
+  private static final ObjectStreamField[] serialPersistentFields = {
+      new ObjectStreamField("minExecutionTime", long.class),
+      new ObjectStreamField("maxExecutionTime", long.class),
+      new ObjectStreamField("averageExecutionTime", long.class),
+      new ObjectStreamField("executedEvent", long.class),
+      new ObjectStreamField("totalExecTime", long.class),
+      new ObjectStreamField("enabled", boolean.class),
+      new ObjectStreamField("intervalTime", long.class),
+      new ObjectStreamField("currentIntervalStartTime", long.class),
+      new ObjectStreamField("statIntervalTimeEnabled", boolean.class)
+  };
+
+  // only reassigned when deserializing
+  private transient AtomicLong minExecutionTime = new AtomicLong();
+  private transient AtomicLong maxExecutionTime = new AtomicLong();
+  private transient LongAdder executedEvent = new LongAdder();
+  private transient LongAdder totalExecTime = new LongAdder();
+  private transient LatencyHistogram executionTimeHistogram = new LatencyHistogram();
+  private volatile boolean enabled = false;
   private long intervalTime = 0;
-  private long currentIntervalStartTime = 0;
+  private transient AtomicLong currentIntervalStartTime = new AtomicLong();
   private boolean statIntervalTimeEnabled = false;
 
   /**
@@ -65,11 +90,11 @@ public class ComponentStatistics implements Statistics {
    * If called while a branch is being executed, then statistics may be slightly erroneous.
    */
   public void clear() {
-    minExecutionTime = 0;
-    maxExecutionTime = 0;
-    executedEvent = 0;
-    totalExecTime = 0;
-    averageExecutionTime = 0;
+    minExecutionTime.set(0);
+    maxExecutionTime.set(0);
+    executedEvent.reset();
+    totalExecTime.reset();
+    executionTimeHistogram.reset();
   }
 
   /**
@@ -102,7 +127,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been started.
    */
   public long getMaxExecutionTime() {
-    return maxExecutionTime;
+    return maxExecutionTime.get();
   }
 
   /**
@@ -111,7 +136,7 @@ public class ComponentStatistics implements Statistics {
    * @return The maximum time, or zero if no events have been completed.
    */
   public long getMinExecutionTime() {
-    return minExecutionTime;
+    return minExecutionTime.get();
   }
 
   /**
@@ -121,7 +146,7 @@ public class ComponentStatistics implements Statistics {
    * @return The total cumulative execution time, in milliseconds.
    */
   public long getTotalExecutionTime() {
-    return totalExecTime;
+    return totalExecTime.sum();
   }
 
   /**
@@ -133,7 +158,7 @@ public class ComponentStatistics implements Statistics {
    * @return The number of events executed since last cleared.
    */
   public long getExecutedEvents() {
-    return executedEvent;
+    return executedEvent.sum();
   }
 
   /**
@@ -143,34 +168,20 @@ public class ComponentStatistics implements Statistics {
    * @param branch the time to execute this branch
    * @param total the total time (so far) for processing this event
    */
-  public synchronized void addExecutionBranchTime(boolean first, long branch, long total) {
+  public void addExecutionBranchTime(boolean first, long branch, long total) {
     // TODO MULE-9151 - ComponentStatistics should really create distinct Event
     // objects that can be used to aggregate statistics and then atomically
     // log them at completion time.
 
-    if (statIntervalTimeEnabled) {
-      long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
-
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
-        clear();
-        currentIntervalStartTime = currentTime;
-      }
-    }
+    checkStatInterval();
 
     if (first) {
-      executedEvent++;
+      executedEvent.increment();
     }
 
-    if (executedEvent > 0) {
-      totalExecTime += ProcessingTime.getEffectiveTime(branch);
-      long effectiveTotal = ProcessingTime.getEffectiveTime(total);
-      if (maxExecutionTime == 0 || effectiveTotal > maxExecutionTime) {
-        maxExecutionTime = effectiveTotal;
-      }
-      averageExecutionTime = totalExecTime / executedEvent;
+    if (executedEvent.sum() > 0) {
+      totalExecTime.add(ProcessingTime.getEffectiveTime(branch));
+      updateMax(ProcessingTime.getEffectiveTime(total));
     }
   }
 
@@ -181,12 +192,11 @@ public class ComponentStatistics implements Statistics {
    * 
    * @param time the total time required to process this event
    */
-  public synchronized void addCompleteExecutionTime(long time) {
-    if (executedEvent > 0) {
+  public void addCompleteExecutionTime(long time) {
+    if (executedEvent.sum() > 0) {
       long effectiveTime = ProcessingTime.getEffectiveTime(time);
-      if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-        minExecutionTime = effectiveTime;
-      }
+      updateMin(effectiveTime);
+      executionTimeHistogram.record(effectiveTime);
     }
   }
 
@@ -197,31 +207,44 @@ public class ComponentStatistics implements Statistics {
    *
    * @param time The total event time to be logged/recorded.
    */
-  public synchronized void addExecutionTime(long time) {
+  public void addExecutionTime(long time) {
+    checkStatInterval();
+
+    executedEvent.increment();
+
+    long effectiveTime = ProcessingTime.getEffectiveTime(time);
+    totalExecTime.add(effectiveTime);
+
+    updateMin(time);
+    updateMax(time);
+    executionTimeHistogram.record(effectiveTime);
+  }
+
+  private void checkStatInterval() {
     if (statIntervalTimeEnabled) {
       long currentTime = System.currentTimeMillis();
-      if (currentIntervalStartTime == 0) {
-        currentIntervalStartTime = currentTime;
-      }
+      currentIntervalStartTime.compareAndSet(0, currentTime);
 
-      if ((currentTime - currentIntervalStartTime) > intervalTime) {
+      long intervalStartTime = currentIntervalStartTime.get();
+      if ((currentTime - intervalStartTime) > intervalTime
+          && currentIntervalStartTime.compareAndSet(intervalStartTime, currentTime)) {
         clear();
-        currentIntervalStartTime = currentTime;
       }
     }
+  }
 
-    executedEvent++;
-
-    long effectiveTime = ProcessingTime.getEffectiveTime(time);
-    totalExecTime += effectiveTime;
-
-    if (minExecutionTime == 0 || effectiveTime < minExecutionTime) {
-      minExecutionTime = time;
+  private void updateMin(long time) {
+    long current = minExecutionTime.get();
+    while ((current == 0 || time < current) && !minExecutionTime.compareAndSet(current, time)) {
+      current = minExecutionTime.get();
     }
-    if (maxExecutionTime == 0 || effectiveTime > maxExecutionTime) {
-      maxExecutionTime = time;
+  }
+
+  private void updateMax(long time) {
+    long current = maxExecutionTime.get();
+    while ((current == 0 || time > current) && !maxExecutionTime.compareAndSet(current, time)) {
+      current = maxExecutionTime.get();
     }
-    averageExecutionTime = totalExecTime / executedEvent;
   }
 
   /**
@@ -230,7 +253,60 @@ public class ComponentStatistics implements Statistics {
    * @return the total event time accumulated to this point, divided by the total number of events recorded.
    */
   public long getAverageExecutionTime() {
-    return averageExecutionTime;
+    final long executed = executedEvent.sum();
+    return executed == 0 ? 0 : totalExecTime.sum() / executed;
+  }
+
+  /**
+   * Returns the execution time below which the given {@code percentile} of the events completed since last cleared fall.
+   *
+   * @param percentile a number between {@code 0} and {@code 100}, for instance {@code 99.9}
+   * @return the execution time at the given percentile, or zero if no events have been completed.
+   * @since 4.2.0
+   */
+  public long getExecutionTimePercentile(double percentile) {
+    return executionTimeHistogram.getValueAtPercentile(percentile);
+  }
+
+  /**
+   * The execution times of the events completed since last cleared. When branch times are recorded, only the complete
+   * execution time of an event is added to the histogram. See {@link #addCompleteExecutionTime(long)}.
+   *
+   * @return the histogram of execution times.
+   * @since 4.2.0
+   */
+  public LatencyHistogram getExecutionTimeHistogram() {
+    return executionTimeHistogram;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    ObjectOutputStream.PutField fields = out.putFields();
+    fields.put("minExecutionTime", getMinExecutionTime());
+    fields.put("maxExecutionTime", getMaxExecutionTime());
+    fields.put("averageExecutionTime", getAverageExecutionTime());
+    fields.put("executedEvent", getExecutedEvents());
+    fields.put("totalExecTime", getTotalExecutionTime());
+    fields.put("enabled", enabled);
+    fields.put("intervalTime", intervalTime);
+    fields.put("currentIntervalStartTime", currentIntervalStartTime.get());
+    fields.put("statIntervalTimeEnabled", statIntervalTimeEnabled);
+    out.writeFields();
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    ObjectInputStream.GetField fields = in.readFields();
+    minExecutionTime = new AtomicLong(fields.get("minExecutionTime", 0L));
+    maxExecutionTime = new AtomicLong(fields.get("maxExecutionTime", 0L));
+    executedEvent = new LongAdder();
+    executedEvent.add(fields.get("executedEvent", 0L));
+    totalExecTime = new LongAdder();
+    totalExecTime.add(fields.get("totalExecTime", 0L));
+    // the distribution of the execution times is not serialized
+    executionTimeHistogram = new LatencyHistogram();
+    enabled = fields.get("enabled", false);
+    intervalTime = fields.get("intervalTime", 0L);
+    currentIntervalStartTime = new AtomicLong(fields.get("currentIntervalStartTime", 0L));
+    statIntervalTimeEnabled = fields.get("statIntervalTimeEnabled", false);
   }
 
 }
@@ -64,6 +64,15 @@ public interface FlowConstructStatistics extends Statistics {
    */
   long getTotalProcessingTime();
 
+  /**
+   * @param percentile a number between {@code 0} and {@code 100}, for instance {@code 99.9}
+   * @return the time below which the given {@code percentile} of the processed events fall
+   * @since 4.2.0
+   */
+  default long getProcessingTimePercentile(double percentile) {
+    return 0;
+  }
+
   /**
    * @return the number of execution errors at a given time
    */
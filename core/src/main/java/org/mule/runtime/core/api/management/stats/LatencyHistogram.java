@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.api.management.stats;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.ceil;
+import static java.lang.Math.min;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, with logarithmic buckets each split in {@value #SUB_BUCKETS} linear sub-buckets (as HDR
+ * histograms do), so any recorded value is reported with a relative error below 1/{@value #SUB_BUCKETS}.
+ * <p>
+ * Values can be recorded concurrently and the histogram can be read while being written, in which case the reported values
+ * may not include the recordings that are in progress.
+ *
+ * @since 4.2.0
+ */
+public final class LatencyHistogram implements Serializable {
+
+  private static final long serialVersionUID = -3196484431396574812L;
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder totalCount = new LongAdder();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * Records a value. Negative values are recorded as {@code 0}.
+   *
+   * @param value the value to record
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.increment();
+
+    long currentMax = maxValue.get();
+    while (value > currentMax && !maxValue.compareAndSet(currentMax, value)) {
+      currentMax = maxValue.get();
+    }
+  }
+
+  /**
+   * @return the number of recorded values.
+   */
+  public long getCount() {
+    return totalCount.sum();
+  }
+
+  /**
+   * @return the maximum recorded value, or {@code 0} if none was recorded.
+   */
+  public long getMaxValue() {
+    return maxValue.get();
+  }
+
+  /**
+   * Returns the value below which the given {@code percentile} of the recorded values fall. The returned value is the upper
+   * bound of the bucket where that percentile lies, capped by the maximum recorded value.
+   *
+   * @param percentile a number between {@code 0} and {@code 100}, for instance {@code 99.9}
+   * @return the value at the given percentile, or {@code 0} if no values were recorded.
+   */
+  public long getValueAtPercentile(double percentile) {
+    checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+    final long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    final long target = Math.max((long) ceil(total * percentile / 100), 1);
+    long accumulated = 0;
+    for (int i = 0; i < BUCKETS; ++i) {
+      accumulated += snapshot[i];
+      if (accumulated >= target) {
+        return min(bucketUpperBound(i), getMaxValue());
+      }
+    }
+    return getMaxValue();
+  }
+
+  /**
+   * Adds the values recorded in {@code other} to this histogram.
+   *
+   * @param other the histogram whose values to add
+   */
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; ++i) {
+      final long count = other.counts.get(i);
+      if (count != 0) {
+        counts.addAndGet(i, count);
+        totalCount.add(count);
+      }
+    }
+
+    final long otherMax = other.getMaxValue();
+    long currentMax = maxValue.get();
+    while (otherMax > currentMax && !maxValue.compareAndSet(currentMax, otherMax)) {
+      currentMax = maxValue.get();
+    }
+  }
+
+  /**
+   * Discards all the recorded values.
+   * <p>
+   * Values being recorded concurrently with the reset may be partially kept.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKETS; ++i) {
+      counts.set(i, 0);
+    }
+    totalCount.reset();
+    maxValue.set(0);
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = Long.SIZE - 1 - numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long bucketUpperBound(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKETS - 1;
+    final long subBucket = SUB_BUCKETS + index % SUB_BUCKETS;
+    final long upperBound = ((subBucket + 1) << shift) - 1;
+    // The last bucket would overflow
+    return upperBound < 0 ? Long.MAX_VALUE : upperBound;
+  }
+}
@@ -12,6 +12,8 @@ import static org.mule.runtime.api.util.MuleSystemProperties.MULE_ENABLE_STREAMI
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.mule.runtime.core.internal.streaming.bytes.SlabByteBufferManager.MULE_STREAMING_SLAB_ALLOCATOR;
+import static org.mule.runtime.core.internal.streaming.bytes.SlabByteBufferManager.MULE_STREAMING_SLAB_ALLOCATOR_DIRECT;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.api.annotation.NoExtend;
 import org.mule.runtime.api.event.EventContext;
@@ -35,6 +37,7 @@ import org.mule.runtime.core.internal.streaming.NullStreamingStatistics;
 import org.mule.runtime.core.internal.streaming.StreamingGhostBuster;
 import org.mule.runtime.core.internal.streaming.bytes.DefaultByteStreamingManager;
 import org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager;
+import org.mule.runtime.core.internal.streaming.bytes.SlabByteBufferManager;
 import org.mule.runtime.core.internal.streaming.object.DefaultObjectStreamingManager;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
@@ -79,7 +82,7 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
           schedulerService.ioScheduler(muleContext.getSchedulerBaseConfig().withName("StreamingManager-allocate"));
 
       cursorManager = new CursorManager(statistics, ghostBuster);
-      bufferManager = new PoolingByteBufferManager(allocationScheduler);
+      bufferManager = createBufferManager();
       byteStreamingManager = createByteStreamingManager();
       objectStreamingManager = createObjectStreamingManager();
 
@@ -94,6 +97,14 @@ public class DefaultStreamingManager implements StreamingManager, Initialisable,
         : new NullStreamingStatistics();
   }
 
+  private ByteBufferManager createBufferManager() {
+    if (parseBoolean(getProperty(MULE_STREAMING_SLAB_ALLOCATOR))) {
+      return new SlabByteBufferManager(statistics, parseBoolean(getProperty(MULE_STREAMING_SLAB_ALLOCATOR_DIRECT)));
+    }
+
+    return new PoolingByteBufferManager(allocationScheduler, statistics);
+  }
+
   protected ByteStreamingManager createByteStreamingManager() {
     return new DefaultByteStreamingManager(bufferManager, this);
   }
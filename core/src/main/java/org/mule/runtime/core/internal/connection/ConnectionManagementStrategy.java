@@ -13,6 +13,8 @@ import org.mule.runtime.core.api.Closeable;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.api.exception.MuleException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Strategy to implement different connection management mechanisms.
  * <p>
@@ -48,6 +50,23 @@ abstract class ConnectionManagementStrategy<C> implements Closeable {
    */
   abstract ConnectionHandler<C> getConnectionHandler() throws ConnectionException;
 
+  /**
+   * Non blocking version of {@link #getConnectionHandler()}. Strategies which may have to wait for a connection to become
+   * available complete the returned future once it is, instead of blocking the caller.
+   *
+   * @return a {@link CompletableFuture} completed with a {@link ConnectionHandler}, or exceptionally with a
+   *         {@link ConnectionException} if the connection could not be obtained
+   */
+  CompletableFuture<ConnectionHandler<C>> getConnectionHandlerAsync() {
+    CompletableFuture<ConnectionHandler<C>> future = new CompletableFuture<>();
+    try {
+      future.complete(getConnectionHandler());
+    } catch (ConnectionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   /**
    * Closes all connections and resources allocated through {@code this} instance.
    *
@@ -7,6 +7,8 @@
 package org.mule.runtime.core.internal.connection;
 
 import org.mule.runtime.api.config.PoolingProfile;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.api.lifecycle.Stoppable;
@@ -14,6 +16,8 @@ import org.mule.runtime.core.api.connector.ConnectionManager;
 import org.mule.runtime.core.api.retry.policy.RetryPolicyTemplate;
 import org.mule.runtime.core.internal.retry.ReconnectionConfig;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for {@link ConnectionManager} implementations which expands its contract with non API functionality
  *
@@ -46,4 +50,25 @@ public interface ConnectionManagerAdapter extends ConnectionManager, Lifecycle {
    * @return a {@link PoolingProfile}
    */
   PoolingProfile getDefaultPoolingProfile();
+
+  /**
+   * Non blocking version of {@link #getConnection(Object)}. When the connections of the {@code config} are pooled and the pool
+   * is exhausted, the returned future is completed once a connection is returned to the pool instead of blocking the caller.
+   * <p>
+   * This default implementation just completes the future with the result of {@link #getConnection(Object)}.
+   *
+   * @param config the owner of the connection
+   * @param <C> the generic type of the connection
+   * @return a {@link CompletableFuture} completed with a {@link ConnectionHandler}, or exceptionally with a
+   *         {@link ConnectionException} if the connection could not be obtained
+   */
+  default <C> CompletableFuture<ConnectionHandler<C>> getConnectionAsync(Object config) {
+    CompletableFuture<ConnectionHandler<C>> future = new CompletableFuture<>();
+    try {
+      future.complete(getConnection(config));
+    } catch (ConnectionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
 }
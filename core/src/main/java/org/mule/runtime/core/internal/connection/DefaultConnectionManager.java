@@ -30,6 +30,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -226,6 +227,24 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
    */
   @Override
   public <C> ConnectionHandler<C> getConnection(Object config) throws ConnectionException {
+    return this.<C>getManagementStrategy(config).getConnectionHandler();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public <C> CompletableFuture<ConnectionHandler<C>> getConnectionAsync(Object config) {
+    try {
+      return this.<C>getManagementStrategy(config).getConnectionHandlerAsync();
+    } catch (ConnectionException e) {
+      CompletableFuture<ConnectionHandler<C>> future = new CompletableFuture<>();
+      future.completeExceptionally(e);
+      return future;
+    }
+  }
+
+  private <C> ConnectionManagementStrategy<C> getManagementStrategy(Object config) throws ConnectionException {
     ConnectionManagementStrategy<C> handlingStrategy = null;
     readLock.lock();
     try {
@@ -238,7 +257,7 @@ public final class DefaultConnectionManager implements ConnectionManagerAdapter
       throw new ConnectionException("No ConnectionProvider has been registered for owner " + config);
     }
 
-    return handlingStrategy.getConnectionHandler();
+    return handlingStrategy;
   }
 
   /**
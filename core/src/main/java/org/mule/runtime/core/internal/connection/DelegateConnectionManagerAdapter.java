@@ -24,6 +24,7 @@ import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
 
 import javax.inject.Inject;
 
@@ -82,6 +83,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
     return connectionManagerAdapterStrategy.getConnection(config);
   }
 
+  @Override
+  public <C> CompletableFuture<ConnectionHandler<C>> getConnectionAsync(Object config) {
+    return connectionManagerAdapterStrategy.getConnectionAsync(config);
+  }
+
   @Override
   public <C> ConnectionValidationResult testConnectivity(ConnectionProvider<C> connectionProvider) {
     return connectionManagerAdapterStrategy.testConnectivity(connectionProvider);
@@ -160,6 +166,11 @@ public final class DelegateConnectionManagerAdapter implements ConnectionManager
       return delegate.getConnection(config);
     }
 
+    @Override
+    public <C> CompletableFuture<ConnectionHandler<C>> getConnectionAsync(Object config) {
+      return delegate.getConnectionAsync(config);
+    }
+
     @Override
     public <C> ConnectionValidationResult testConnectivity(ConnectionProvider<C> connectionProvider) {
       return delegate.testConnectivity(connectionProvider);
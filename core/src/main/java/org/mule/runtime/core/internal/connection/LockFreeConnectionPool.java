@@ -0,0 +1,593 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.connection;
+
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.identityHashCode;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ALL;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_ONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_FAIL;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_GROW;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.config.PoolingProfile;
+
+import java.lang.ref.WeakReference;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.pool.BaseObjectPool;
+import org.apache.commons.pool.PoolableObjectFactory;
+import org.slf4j.Logger;
+
+/**
+ * {@link org.apache.commons.pool.ObjectPool} for connections that avoids synchronizing on the pool for each borrow and return.
+ * <p>
+ * Idle connections are kept in a lock-free stack, so the most recently returned connection is reused first. Each thread also
+ * remembers the last connection it returned and tries to claim it back before going to the stack. The number of active
+ * connections is bounded with a {@link Semaphore} according to the {@link PoolingProfile}.
+ * <p>
+ * Idle connections are validated when borrowed if they were not validated within the last
+ * {@link #MULE_CONNECTION_POOL_VALIDATION_INTERVAL} milliseconds. Connections required by the initialisation policy are
+ * created asynchronously, as is the eviction of idle connections.
+ * <p>
+ * Besides the blocking {@link #borrowObject()}, connections may be borrowed through {@link #borrowObjectAsync}, which queues
+ * the borrow when the pool is exhausted instead of parking the calling thread.
+ *
+ * @param <C> the generic type of the pooled connections
+ * @since 4.2.0
+ */
+final class LockFreeConnectionPool<C> extends BaseObjectPool<C> {
+
+  /**
+   * System property to use this pool instead of commons-pool's {@code GenericObjectPool} for pooled connections.
+   */
+  public static final String MULE_CONNECTION_POOL_LOCK_FREE = SYSTEM_PROPERTY_PREFIX + "connection.pool.lockFree";
+
+  /**
+   * System property to set the milliseconds after which an idle connection is validated again when borrowed. A negative value
+   * disables validation on borrow.
+   */
+  public static final String MULE_CONNECTION_POOL_VALIDATION_INTERVAL =
+      SYSTEM_PROPERTY_PREFIX + "connection.pool.validationInterval";
+
+  private static final Logger LOGGER = getLogger(LockFreeConnectionPool.class);
+
+  private static final int IDLE = 0;
+  private static final int ACTIVE = 1;
+  private static final int REMOVED = 2;
+
+  private static final int WAIT_TIME_BUCKETS = Long.SIZE;
+
+  private final PoolableObjectFactory<C> factory;
+  private final PoolingProfile poolingProfile;
+  private final long validationIntervalNanos;
+  private final Semaphore permits;
+
+  private final ConcurrentMap<IdentityKey, PooledConnection<C>> connections = new ConcurrentHashMap<>();
+  private final AtomicReference<Node<C>> idleHead = new AtomicReference<>();
+  private final ThreadLocal<WeakReference<PooledConnection<C>>> lastReturned = new ThreadLocal<>();
+  private final Queue<Waiter<C>> waiters = new ConcurrentLinkedQueue<>();
+
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final AtomicLongArray waitTimeHistogram = new AtomicLongArray(WAIT_TIME_BUCKETS);
+
+  /**
+   * Creates a new instance
+   *
+   * @param factory the factory used to create, validate and destroy the connections
+   * @param poolingProfile the {@link PoolingProfile} which configures this pool
+   * @param validationIntervalMillis milliseconds after which an idle connection is validated again when borrowed, or a negative
+   *        value to never validate on borrow
+   */
+  LockFreeConnectionPool(PoolableObjectFactory<C> factory, PoolingProfile poolingProfile, long validationIntervalMillis) {
+    this.factory = factory;
+    this.poolingProfile = poolingProfile;
+    this.validationIntervalNanos = validationIntervalMillis < 0 ? -1 : MILLISECONDS.toNanos(validationIntervalMillis);
+    this.permits = poolingProfile.getExhaustedAction() == WHEN_EXHAUSTED_GROW || poolingProfile.getMaxActive() <= 0
+        ? null
+        : new Semaphore(poolingProfile.getMaxActive());
+  }
+
+  /**
+   * Creates the connections required by the initialisation policy of the {@link PoolingProfile} asynchronously.
+   *
+   * @param executor the {@link Executor} where the connections are created
+   */
+  void initialise(Executor executor) {
+    final int initialConnections;
+    if (poolingProfile.getInitialisationPolicy() == INITIALISE_ALL) {
+      initialConnections = poolingProfile.getMaxIdle() < 0
+          ? max(poolingProfile.getMaxActive(), 0)
+          : min(poolingProfile.getMaxIdle(), poolingProfile.getMaxActive());
+    } else if (poolingProfile.getInitialisationPolicy() == INITIALISE_ONE) {
+      initialConnections = 1;
+    } else {
+      initialConnections = 0;
+    }
+
+    for (int i = 0; i < initialConnections; ++i) {
+      executor.execute(() -> {
+        try {
+          addObject();
+        } catch (Exception e) {
+          LOGGER.warn("Could not create initial connection for the pool", e);
+        }
+      });
+    }
+  }
+
+  @Override
+  public C borrowObject() throws Exception {
+    assertPoolOpen();
+    acquirePermit();
+
+    try {
+      return borrowWithPermit(claimIdle());
+    } catch (Exception e) {
+      releasePermit();
+      throw e;
+    }
+  }
+
+  /**
+   * Non blocking version of {@link #borrowObject()}. If the pool is exhausted and the {@link PoolingProfile} is configured to
+   * wait, the returned future is completed when a connection is returned to the pool or exceptionally with a
+   * {@link NoSuchElementException} after {@link PoolingProfile#getMaxWait()}. As in {@link #borrowObject()}, a max wait that is
+   * not positive means waiting for as long as it takes.
+   * <p>
+   * An idle connection that needs no validation is claimed on the calling thread. Validating or creating connections may
+   * block, so that is done in the given {@code scheduler}.
+   *
+   * @param scheduler where connections are validated or created, and where waits are timed out
+   * @return a {@link CompletableFuture} completed with the borrowed connection
+   */
+  CompletableFuture<C> borrowObjectAsync(ScheduledExecutorService scheduler) {
+    final CompletableFuture<C> future = new CompletableFuture<>();
+    if (isClosed()) {
+      future.completeExceptionally(new IllegalStateException("Pool not open"));
+    } else if (permits == null || permits.tryAcquire()) {
+      borrowWithPermitAsync(future, scheduler);
+    } else if (poolingProfile.getExhaustedAction() == WHEN_EXHAUSTED_FAIL) {
+      future.completeExceptionally(new NoSuchElementException("Pool exhausted"));
+    } else {
+      final Waiter<C> waiter = new Waiter<>(future, scheduler);
+      waiters.add(waiter);
+      future.whenComplete((connection, t) -> {
+        if (future.isCancelled() && waiter.claim()) {
+          waiters.remove(waiter);
+        }
+      });
+      if (poolingProfile.getMaxWait() > 0) {
+        scheduler.schedule(() -> {
+          if (waiter.claim()) {
+            waiters.remove(waiter);
+            recordWaitTime(waiter.since);
+            future.completeExceptionally(new NoSuchElementException("Timeout waiting for idle object"));
+          }
+        }, poolingProfile.getMaxWait(), MILLISECONDS);
+      }
+      // A connection may have been returned before the waiter was queued
+      drainWaiters();
+    }
+    return future;
+  }
+
+  private C borrowWithPermit(PooledConnection<C> claimed) throws Exception {
+    PooledConnection<C> pooled = claimed;
+    while (pooled != null) {
+      if (isValid(pooled)) {
+        activeCount.incrementAndGet();
+        return pooled.connection;
+      }
+      destroy(pooled);
+      pooled = claimIdle();
+    }
+
+    pooled = new PooledConnection<>(factory.makeObject(), ACTIVE);
+    connections.put(new IdentityKey(pooled.connection), pooled);
+    activeCount.incrementAndGet();
+    return pooled.connection;
+  }
+
+  private void borrowWithPermitAsync(CompletableFuture<C> future, Executor executor) {
+    final PooledConnection<C> claimed = claimIdle();
+    if (claimed != null && !requiresValidation(claimed)) {
+      activeCount.incrementAndGet();
+      complete(future, claimed.connection);
+      return;
+    }
+
+    try {
+      executor.execute(() -> {
+        try {
+          complete(future, borrowWithPermit(claimed));
+        } catch (Exception e) {
+          releasePermit();
+          future.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      if (claimed != null) {
+        // Put it back, it was not validated
+        pushIdle(claimed);
+      }
+      releasePermit();
+      future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Hands the borrowed {@code connection} to the given {@code future}, or returns it to the pool if the borrow was cancelled.
+   */
+  private void complete(CompletableFuture<C> future, C connection) {
+    if (!future.complete(connection)) {
+      try {
+        returnObject(connection);
+      } catch (Exception e) {
+        LOGGER.warn("Could not return the connection of a cancelled borrow to the pool", e);
+      }
+    }
+  }
+
+  @Override
+  public void returnObject(C connection) throws Exception {
+    final PooledConnection<C> pooled = connections.get(new IdentityKey(connection));
+    if (pooled == null || pooled.state.get() != ACTIVE) {
+      throw new IllegalStateException("Returned object not currently part of this pool");
+    }
+    activeCount.decrementAndGet();
+
+    try {
+      if (isClosed() || (poolingProfile.getMaxIdle() >= 0 && idleCount.get() >= poolingProfile.getMaxIdle())) {
+        pooled.state.set(REMOVED);
+        destroy(pooled);
+        return;
+      }
+
+      pushIdle(pooled);
+      lastReturned.set(pooled.reference);
+
+      if (isClosed()) {
+        // Race with close(), make sure nothing is left idle
+        clear();
+      }
+    } finally {
+      releasePermit();
+    }
+  }
+
+  @Override
+  public void invalidateObject(C connection) throws Exception {
+    final PooledConnection<C> pooled = connections.get(new IdentityKey(connection));
+    if (pooled == null) {
+      factory.destroyObject(connection);
+      return;
+    }
+
+    final int previousState = pooled.state.getAndSet(REMOVED);
+    if (previousState == ACTIVE) {
+      activeCount.decrementAndGet();
+      releasePermit();
+    } else if (previousState == IDLE) {
+      idleCount.decrementAndGet();
+    }
+    destroy(pooled);
+  }
+
+  /**
+   * Creates a new connection and adds it to the idle ones.
+   */
+  @Override
+  public void addObject() throws Exception {
+    assertPoolOpen();
+    final PooledConnection<C> pooled = new PooledConnection<>(factory.makeObject(), ACTIVE);
+    connections.put(new IdentityKey(pooled.connection), pooled);
+    pushIdle(pooled);
+  }
+
+  /**
+   * Destroys the idle connections.
+   */
+  @Override
+  public void clear() {
+    for (PooledConnection<C> pooled : connections.values()) {
+      if (pooled.claim(REMOVED)) {
+        idleCount.decrementAndGet();
+        destroy(pooled);
+      }
+    }
+  }
+
+  /**
+   * Destroys the connections that have been idle for longer than the {@link PoolingProfile#getMinEvictionMillis()}.
+   */
+  void evict() {
+    final long minEvictionNanos = MILLISECONDS.toNanos(poolingProfile.getMinEvictionMillis());
+    final long now = nanoTime();
+    for (PooledConnection<C> pooled : connections.values()) {
+      if (now - pooled.idleSince > minEvictionNanos && pooled.claim(REMOVED)) {
+        idleCount.decrementAndGet();
+        destroy(pooled);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    super.close();
+    clear();
+
+    Waiter<C> waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.claim()) {
+        waiter.future.completeExceptionally(new IllegalStateException("Pool not open"));
+      }
+    }
+  }
+
+  @Override
+  public int getNumIdle() {
+    return idleCount.get();
+  }
+
+  @Override
+  public int getNumActive() {
+    return activeCount.get();
+  }
+
+  /**
+   * @return the amount of borrows that waited for a connection, where the value at index {@code i} counts the waits of
+   *         {@code 2^i} to {@code 2^(i+1) - 1} nanoseconds.
+   */
+  long[] getWaitTimeHistogram() {
+    long[] histogram = new long[WAIT_TIME_BUCKETS];
+    for (int i = 0; i < WAIT_TIME_BUCKETS; ++i) {
+      histogram[i] = waitTimeHistogram.get(i);
+    }
+    return histogram;
+  }
+
+  private void assertPoolOpen() {
+    if (isClosed()) {
+      throw new IllegalStateException("Pool not open");
+    }
+  }
+
+  private void acquirePermit() throws InterruptedException {
+    if (permits == null || permits.tryAcquire()) {
+      return;
+    }
+
+    if (poolingProfile.getExhaustedAction() == WHEN_EXHAUSTED_FAIL) {
+      throw new NoSuchElementException("Pool exhausted");
+    }
+
+    final long start = nanoTime();
+    final boolean acquired;
+    // Same as commons-pool, a max wait that is not positive means waiting forever
+    if (poolingProfile.getMaxWait() <= 0) {
+      permits.acquire();
+      acquired = true;
+    } else {
+      acquired = permits.tryAcquire(poolingProfile.getMaxWait(), MILLISECONDS);
+    }
+    recordWaitTime(start);
+
+    if (!acquired) {
+      throw new NoSuchElementException("Timeout waiting for idle object");
+    }
+  }
+
+  private void recordWaitTime(long start) {
+    final long waited = max(nanoTime() - start, 1);
+    waitTimeHistogram.incrementAndGet(WAIT_TIME_BUCKETS - 1 - numberOfLeadingZeros(waited));
+  }
+
+  private void releasePermit() {
+    if (permits != null) {
+      permits.release();
+      drainWaiters();
+    }
+  }
+
+  /**
+   * Hands the available permits to the queued asynchronous borrows.
+   */
+  private void drainWaiters() {
+    while (!waiters.isEmpty() && permits.tryAcquire()) {
+      final Waiter<C> waiter = waiters.poll();
+      // a cancelled waiter is claimed by its cancellation
+      if (waiter != null && waiter.claim()) {
+        recordWaitTime(waiter.since);
+        if (isClosed()) {
+          permits.release();
+          waiter.future.completeExceptionally(new IllegalStateException("Pool not open"));
+        } else {
+          borrowWithPermitAsync(waiter.future, waiter.executor);
+        }
+      } else {
+        // Either the queue was emptied concurrently or the waiter timed out
+        permits.release();
+      }
+    }
+  }
+
+  private PooledConnection<C> claimIdle() {
+    final WeakReference<PooledConnection<C>> reference = lastReturned.get();
+    if (reference != null) {
+      final PooledConnection<C> pooled = reference.get();
+      if (pooled != null && pooled.claim(ACTIVE)) {
+        idleCount.decrementAndGet();
+        return pooled;
+      }
+    }
+
+    Node<C> node;
+    while ((node = popIdle()) != null) {
+      final PooledConnection<C> pooled = node.pooled;
+      pooled.inStack.set(false);
+      if (pooled.claim(ACTIVE)) {
+        idleCount.decrementAndGet();
+        return pooled;
+      }
+      // Already claimed through the thread affinity or removed, discard the node.
+    }
+    return null;
+  }
+
+  private void pushIdle(PooledConnection<C> pooled) {
+    pooled.idleSince = nanoTime();
+    idleCount.incrementAndGet();
+    pooled.state.set(IDLE);
+
+    // A connection claimed through the thread affinity may still have its node in the stack
+    if (pooled.inStack.compareAndSet(false, true)) {
+      final Node<C> node = new Node<>(pooled);
+      Node<C> head;
+      do {
+        head = idleHead.get();
+        node.next = head;
+      } while (!idleHead.compareAndSet(head, node));
+    }
+  }
+
+  private Node<C> popIdle() {
+    Node<C> head;
+    do {
+      head = idleHead.get();
+      if (head == null) {
+        return null;
+      }
+    } while (!idleHead.compareAndSet(head, head.next));
+    return head;
+  }
+
+  private boolean requiresValidation(PooledConnection<C> pooled) {
+    return validationIntervalNanos >= 0 && nanoTime() - pooled.lastValidated >= validationIntervalNanos;
+  }
+
+  private boolean isValid(PooledConnection<C> pooled) {
+    if (!requiresValidation(pooled)) {
+      return true;
+    }
+
+    try {
+      if (factory.validateObject(pooled.connection)) {
+        pooled.lastValidated = nanoTime();
+        return true;
+      }
+      LOGGER.debug("Idle connection is not valid, it is destroyed and a new one will be borrowed.");
+    } catch (Exception e) {
+      LOGGER.debug("Exception found validating idle connection, it is destroyed and a new one will be borrowed.", e);
+    }
+    pooled.state.set(REMOVED);
+    return false;
+  }
+
+  private void destroy(PooledConnection<C> pooled) {
+    connections.remove(new IdentityKey(pooled.connection));
+    try {
+      factory.destroyObject(pooled.connection);
+    } catch (Exception e) {
+      LOGGER.warn("Exception was found trying to destroy connection of type " + pooled.connection.getClass().getName(), e);
+    }
+  }
+
+  private static final class PooledConnection<C> {
+
+    private final C connection;
+    private final AtomicInteger state;
+    private final AtomicBoolean inStack = new AtomicBoolean();
+    private final WeakReference<PooledConnection<C>> reference = new WeakReference<>(this);
+    private volatile long idleSince;
+    private volatile long lastValidated;
+
+    private PooledConnection(C connection, int state) {
+      this.connection = connection;
+      this.state = new AtomicInteger(state);
+      this.lastValidated = nanoTime();
+    }
+
+    private boolean claim(int newState) {
+      return state.compareAndSet(IDLE, newState);
+    }
+  }
+
+  /**
+   * An asynchronous borrow waiting for a connection to be returned. It is completed either by a returned connection or by its
+   * timeout, whichever claims it first.
+   */
+  private static final class Waiter<C> {
+
+    private final CompletableFuture<C> future;
+    private final Executor executor;
+    private final long since = nanoTime();
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private Waiter(CompletableFuture<C> future, Executor executor) {
+      this.future = future;
+      this.executor = executor;
+    }
+
+    private boolean claim() {
+      return done.compareAndSet(false, true);
+    }
+  }
+
+  /**
+   * Nodes are never reused, so the stack is not affected by ABA.
+   */
+  private static final class Node<C> {
+
+    private final PooledConnection<C> pooled;
+    private Node<C> next;
+
+    private Node(PooledConnection<C> pooled) {
+      this.pooled = pooled;
+    }
+  }
+
+  /**
+   * Connections are tracked by identity, regardless of their {@code equals} implementation.
+   */
+  private static final class IdentityKey {
+
+    private final Object connection;
+
+    private IdentityKey(Object connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof IdentityKey && ((IdentityKey) obj).connection == connection;
+    }
+
+    @Override
+    public int hashCode() {
+      return identityHashCode(connection);
+    }
+  }
+}
@@ -6,7 +6,14 @@
  */
 package org.mule.runtime.core.internal.connection;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Long.getLong;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.config.PoolingProfile.INITIALISE_NONE;
+import static org.mule.runtime.api.config.PoolingProfile.WHEN_EXHAUSTED_WAIT;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.connection.LockFreeConnectionPool.MULE_CONNECTION_POOL_LOCK_FREE;
+import static org.mule.runtime.core.internal.connection.LockFreeConnectionPool.MULE_CONNECTION_POOL_VALIDATION_INTERVAL;
 import org.mule.runtime.api.config.PoolingProfile;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
@@ -14,9 +21,13 @@ import org.mule.runtime.api.connection.ConnectionProvider;
 import org.mule.runtime.api.connection.PoolingListener;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.DefaultMuleException;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.MuleContext;
 
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.commons.pool.ObjectPool;
 import org.apache.commons.pool.PoolableObjectFactory;
@@ -33,6 +44,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   private final PoolingProfile poolingProfile;
   private final ObjectPool<C> pool;
   private final PoolingListener<C> poolingListener;
+  private final LazyValue<Scheduler> poolScheduler;
 
   /**
    * Creates a new instance
@@ -47,6 +59,7 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     super(connectionProvider, muleContext);
     this.poolingProfile = poolingProfile;
     this.poolingListener = poolingListener;
+    poolScheduler = new LazyValue<>(() -> muleContext.getSchedulerService().ioScheduler());
     pool = createPool();
   }
 
@@ -59,18 +72,90 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
   @Override
   public ConnectionHandler<C> getConnectionHandler() throws ConnectionException {
     try {
-      return new PoolingConnectionHandler<>(borrowConnection(), pool, poolingListener, connectionProvider);
-    } catch (ConnectionException e) {
-      throw e;
-    } catch (NoSuchElementException e) {
-      throw new ConnectionException("Connection pool is exhausted", e);
+      return new PoolingConnectionHandler<>(onBorrow(pool.borrowObject()), pool, poolingListener, connectionProvider);
     } catch (Exception e) {
-      throw new ConnectionException("An exception was found trying to obtain a connection: " + e.getMessage(), e);
+      throw toConnectionException(e);
+    }
+  }
+
+  /**
+   * Returns a future completed with a {@link ConnectionHandler} which wraps a connection obtained from the {@link #pool}.
+   * <p>
+   * When the pool is exhausted the caller is not blocked. With a {@link LockFreeConnectionPool} the borrow is queued until a
+   * connection is returned, otherwise the blocking borrow is done in an IO thread.
+   *
+   * @return a {@link CompletableFuture} completed with the {@link ConnectionHandler}
+   */
+  @Override
+  CompletableFuture<ConnectionHandler<C>> getConnectionHandlerAsync() {
+    final CompletableFuture<C> borrowed;
+    if (pool instanceof LockFreeConnectionPool) {
+      borrowed = ((LockFreeConnectionPool<C>) pool).borrowObjectAsync(poolScheduler.get());
+    } else if (isExhaustedWaiting()) {
+      borrowed = new CompletableFuture<>();
+      try {
+        poolScheduler.get().execute(() -> {
+          try {
+            final C connection = pool.borrowObject();
+            if (!borrowed.complete(connection)) {
+              // the borrow was cancelled while waiting for the pool
+              pool.returnObject(connection);
+            }
+          } catch (Exception e) {
+            borrowed.completeExceptionally(e);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        borrowed.completeExceptionally(e);
+      }
+    } else {
+      return super.getConnectionHandlerAsync();
+    }
+
+    final CompletableFuture<ConnectionHandler<C>> handler = new CompletableFuture<>();
+    handler.whenComplete((connectionHandler, t) -> {
+      if (handler.isCancelled()) {
+        borrowed.cancel(false);
+      }
+    });
+    borrowed.whenComplete((connection, t) -> {
+      if (t != null) {
+        handler.completeExceptionally(toConnectionException(t));
+        return;
+      }
+
+      final PoolingConnectionHandler<C> connectionHandler;
+      try {
+        connectionHandler = new PoolingConnectionHandler<>(onBorrow(connection), pool, poolingListener, connectionProvider);
+      } catch (Exception e) {
+        handler.completeExceptionally(toConnectionException(e));
+        return;
+      }
+
+      if (!handler.complete(connectionHandler)) {
+        // cancelled after the connection was borrowed
+        connectionHandler.release();
+      }
+    });
+    return handler;
+  }
+
+  private boolean isExhaustedWaiting() {
+    return poolingProfile.getExhaustedAction() == WHEN_EXHAUSTED_WAIT && poolingProfile.getMaxActive() > 0
+        && pool.getNumActive() >= poolingProfile.getMaxActive();
+  }
+
+  private ConnectionException toConnectionException(Throwable t) {
+    if (t instanceof ConnectionException) {
+      return (ConnectionException) t;
+    } else if (t instanceof NoSuchElementException) {
+      return new ConnectionException("Connection pool is exhausted", t);
+    } else {
+      return new ConnectionException("An exception was found trying to obtain a connection: " + t.getMessage(), t);
     }
   }
 
-  private C borrowConnection() throws Exception {
-    C connection = pool.borrowObject();
+  private C onBorrow(C connection) throws Exception {
     try {
       poolingListener.onBorrow(connection);
     } catch (Exception e) {
@@ -93,10 +178,16 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
       pool.close();
     } catch (Exception e) {
       throw new DefaultMuleException(createStaticMessage("Could not close connection pool"), e);
+    } finally {
+      poolScheduler.ifComputed(Scheduler::stop);
     }
   }
 
   private ObjectPool<C> createPool() {
+    if (getBoolean(MULE_CONNECTION_POOL_LOCK_FREE)) {
+      return createLockFreePool();
+    }
+
     GenericObjectPool.Config config = new GenericObjectPool.Config();
     config.maxIdle = poolingProfile.getMaxIdle();
     config.maxActive = poolingProfile.getMaxActive();
@@ -109,6 +200,23 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     return genericPool;
   }
 
+  private ObjectPool<C> createLockFreePool() {
+    LockFreeConnectionPool<C> lockFreePool =
+        new LockFreeConnectionPool<>(new ObjectFactoryAdapter(), poolingProfile,
+                                     getLong(MULE_CONNECTION_POOL_VALIDATION_INTERVAL, 30000L));
+
+    // Connections are created and evicted out of the borrowing threads
+    if (poolingProfile.getInitialisationPolicy() != INITIALISE_NONE || poolingProfile.getEvictionCheckIntervalMillis() > 0) {
+      lockFreePool.initialise(poolScheduler.get());
+      if (poolingProfile.getEvictionCheckIntervalMillis() > 0) {
+        poolScheduler.get().scheduleWithFixedDelay(lockFreePool::evict, poolingProfile.getEvictionCheckIntervalMillis(),
+                                                   poolingProfile.getEvictionCheckIntervalMillis(), MILLISECONDS);
+      }
+    }
+
+    return lockFreePool;
+  }
+
   public PoolingProfile getPoolingProfile() {
     return poolingProfile;
   }
@@ -126,8 +234,8 @@ final class PoolingConnectionManagementStrategy<C> extends ConnectionManagementS
     }
 
     @Override
-    public boolean validateObject(C obj) {
-      return false;
+    public boolean validateObject(C connection) {
+      return connectionProvider.validate(connection).isValid();
     }
 
     @Override
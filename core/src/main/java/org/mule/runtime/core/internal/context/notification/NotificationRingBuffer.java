@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.context.notification;
+
+import static java.lang.Integer.highestOneBit;
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.api.notification.Notification;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+
+/**
+ * Bounded multi-producer/single-consumer queue of asynchronous {@link Notification}s.
+ * <p>
+ * Instead of submitting a task for each listener of each notification, notifications are published into a ring buffer which is
+ * drained in batches by a single consumer. A drain task is only submitted to the {@code drainExecutor} when the buffer goes from
+ * idle to having pending notifications, and after each full batch the consumer resubmits itself so it doesn't hog a thread of
+ * that executor.
+ * <p>
+ * When the buffer is full the {@link OverflowPolicy} is applied.
+ * <p>
+ * Once {@link #stop(long) stopped}, no more notifications are accepted and the pending ones are dispatched before the stop
+ * returns, so that whatever the {@code dispatcher} uses may be released afterwards.
+ *
+ * @since 4.2.0
+ */
+public final class NotificationRingBuffer {
+
+  /**
+   * Size of the ring buffer used to dispatch asynchronous notifications. If not set, or {@code 0}, each notification is
+   * submitted to the notification schedulers.
+   */
+  public static final String MULE_NOTIFICATIONS_RING_BUFFER_SIZE = SYSTEM_PROPERTY_PREFIX + "notifications.ringBuffer.size";
+
+  /**
+   * Maximum number of notifications dispatched by the consumer before yielding its thread.
+   */
+  public static final String MULE_NOTIFICATIONS_RING_BUFFER_BATCH_SIZE =
+      SYSTEM_PROPERTY_PREFIX + "notifications.ringBuffer.batchSize";
+
+  /**
+   * The {@link OverflowPolicy} to apply when the ring buffer is full.
+   */
+  public static final String MULE_NOTIFICATIONS_RING_BUFFER_OVERFLOW =
+      SYSTEM_PROPERTY_PREFIX + "notifications.ringBuffer.overflow";
+
+  /**
+   * For {@link OverflowPolicy#SAMPLE}, one out of this number of overflowing notifications is dispatched.
+   */
+  public static final String MULE_NOTIFICATIONS_RING_BUFFER_SAMPLE_RATE =
+      SYSTEM_PROPERTY_PREFIX + "notifications.ringBuffer.sampleRate";
+
+  private static final Logger LOGGER = getLogger(NotificationRingBuffer.class);
+
+  /**
+   * What to do with a notification that is published when the ring buffer is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The notification is discarded.
+     */
+    DROP,
+
+    /**
+     * One out of every {@code sampleRate} overflowing notifications is dispatched on the publishing thread, the rest are
+     * discarded.
+     */
+    SAMPLE
+  }
+
+  private final AtomicReferenceArray<Notification> buffer;
+  private final int mask;
+  private final int batchSize;
+  private final OverflowPolicy overflowPolicy;
+  private final int sampleRate;
+  private final Consumer<Notification> dispatcher;
+  private final Executor drainExecutor;
+
+  private final AtomicLong tail = new AtomicLong();
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final AtomicLong overflowed = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicBoolean overflowLogged = new AtomicBoolean();
+  private volatile boolean stopped;
+  private volatile boolean discarding;
+
+  /**
+   * @param capacity the size of the buffer, rounded up to a power of 2.
+   * @param batchSize the maximum number of notifications to dispatch before yielding the consumer thread.
+   * @param overflowPolicy what to do when the buffer is full.
+   * @param sampleRate for {@link OverflowPolicy#SAMPLE}, one out of this number of overflowing notifications is dispatched.
+   * @param dispatcher invoked by the consumer for each notification.
+   * @param drainExecutor where the consumer is run.
+   */
+  public NotificationRingBuffer(int capacity, int batchSize, OverflowPolicy overflowPolicy, int sampleRate,
+                                Consumer<Notification> dispatcher, Executor drainExecutor) {
+    checkArgument(capacity > 0, "capacity must be greater than 0");
+    checkArgument(batchSize > 0, "batchSize must be greater than 0");
+    checkArgument(sampleRate > 0, "sampleRate must be greater than 0");
+
+    final int size = capacity == highestOneBit(capacity) ? capacity : highestOneBit(capacity) << 1;
+    this.buffer = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.batchSize = batchSize;
+    this.overflowPolicy = overflowPolicy;
+    this.sampleRate = sampleRate;
+    this.dispatcher = dispatcher;
+    this.drainExecutor = drainExecutor;
+  }
+
+  /**
+   * Enqueues the given {@code notification} to be dispatched asynchronously, applying the {@link OverflowPolicy} if the buffer
+   * is full.
+   *
+   * @param notification the notification to dispatch.
+   * @return {@code true} if the notification was enqueued, {@code false} if the buffer was full.
+   */
+  public boolean publish(Notification notification) {
+    if (stopped) {
+      dropped.increment();
+      return false;
+    }
+
+    if (!offer(notification)) {
+      onOverflow(notification);
+      return false;
+    }
+
+    if (wip.getAndIncrement() == 0) {
+      scheduleDrain();
+    }
+    return true;
+  }
+
+  private boolean offer(Notification notification) {
+    long currentTail;
+    do {
+      currentTail = tail.get();
+      if (currentTail - head.get() > mask) {
+        return false;
+      }
+    } while (!tail.compareAndSet(currentTail, currentTail + 1));
+
+    buffer.lazySet((int) currentTail & mask, notification);
+    return true;
+  }
+
+  // Only to be called by the consumer
+  private Notification poll() {
+    final long currentHead = head.get();
+    final int index = (int) currentHead & mask;
+    final Notification notification = buffer.get(index);
+    if (notification == null) {
+      // Either empty, or a producer claimed the slot but didn't store it yet. In the latter case, that producer will trigger
+      // another drain loop.
+      return null;
+    }
+    buffer.lazySet(index, null);
+    head.lazySet(currentHead + 1);
+    return notification;
+  }
+
+  private void onOverflow(Notification notification) {
+    if (overflowPolicy == OverflowPolicy.SAMPLE && overflowed.incrementAndGet() % sampleRate == 0) {
+      dispatch(notification);
+      return;
+    }
+
+    dropped.increment();
+    if (overflowLogged.compareAndSet(false, true)) {
+      LOGGER.warn("Notifications ring buffer of size {} is full, overflowing notifications will be {}.", mask + 1,
+                  overflowPolicy == OverflowPolicy.SAMPLE ? "sampled 1 out of " + sampleRate : "dropped");
+    }
+  }
+
+  private void scheduleDrain() {
+    if (!trySubmitDrain()) {
+      // This thread already holds the consumer role, so it is safe to drain from here.
+      drain();
+    }
+  }
+
+  private boolean trySubmitDrain() {
+    try {
+      drainExecutor.execute(this::drain);
+      return true;
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Notifications drain task rejected, dispatching on the current thread");
+      return false;
+    }
+  }
+
+  private void drain() {
+    int missed = max(wip.get(), 1);
+    for (;;) {
+      int drained = 0;
+      Notification notification;
+      while (drained < batchSize && (notification = poll()) != null) {
+        dispatch(notification);
+        ++drained;
+      }
+
+      if (drained == batchSize) {
+        // There may be more, but let other tasks run in the meantime. The consumer role is kept.
+        if (trySubmitDrain()) {
+          return;
+        }
+        continue;
+      }
+
+      missed = wip.addAndGet(-missed);
+      if (missed == 0) {
+        if (stopped) {
+          synchronized (this) {
+            notifyAll();
+          }
+        }
+        return;
+      }
+    }
+  }
+
+  private void dispatch(Notification notification) {
+    if (discarding) {
+      dropped.increment();
+      return;
+    }
+
+    try {
+      dispatcher.accept(notification);
+    } catch (Exception e) {
+      LOGGER.error("Exception dispatching notification " + notification, e);
+    }
+  }
+
+  /**
+   * Stops accepting notifications and waits for the pending ones to be dispatched. If they are not dispatched within the given
+   * {@code timeout}, the remaining ones are discarded.
+   *
+   * @param timeout the maximum milliseconds to wait for the pending notifications to be dispatched.
+   * @return {@code true} if all the pending notifications were dispatched, {@code false} if some were discarded.
+   * @throws InterruptedException if interrupted while waiting, in which case the remaining notifications are discarded.
+   */
+  public synchronized boolean stop(long timeout) throws InterruptedException {
+    stopped = true;
+    final long deadline = nanoTime() + MILLISECONDS.toNanos(timeout);
+    try {
+      long remaining;
+      while (wip.get() != 0) {
+        remaining = deadline - nanoTime();
+        if (remaining <= 0) {
+          discarding = true;
+          return false;
+        }
+        NANOSECONDS.timedWait(this, remaining);
+      }
+      return true;
+    } catch (InterruptedException e) {
+      discarding = true;
+      throw e;
+    }
+  }
+
+  /**
+   * @return the number of notifications waiting to be dispatched.
+   */
+  public int size() {
+    return (int) max(tail.get() - head.get(), 0);
+  }
+
+  /**
+   * @return the number of notifications discarded because the buffer was full.
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+}
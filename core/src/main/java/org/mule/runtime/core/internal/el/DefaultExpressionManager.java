@@ -33,6 +33,7 @@ import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.api.util.LazyValue;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
@@ -46,6 +47,7 @@ import org.mule.runtime.core.internal.el.mvel.MVELExpressionLanguage;
 import org.mule.runtime.core.internal.util.OneTimeWarning;
 import org.mule.runtime.core.privileged.el.GlobalBindingContextProvider;
 import org.mule.runtime.core.privileged.util.TemplateParser;
+import org.mule.runtime.core.privileged.util.TemplateParser.CompiledTemplate;
 
 import java.util.Iterator;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -197,6 +199,36 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
                                         event, streamingManager);
   }
 
+  @Override
+  public CompiledExpression compile(String expression) {
+    return expressionLanguage.compile(expression);
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                             BindingContext context)
+      throws ExpressionRuntimeException {
+    return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, event, componentLocation, context),
+                                        event, streamingManager);
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, DataType outputType, BindingContext context, CoreEvent event,
+                             ComponentLocation componentLocation, boolean failOnNull)
+      throws ExpressionRuntimeException {
+    return updateTypedValueForStreaming(expressionLanguage.evaluate(expression, outputType, event, componentLocation, context,
+                                                                    failOnNull),
+                                        event, streamingManager);
+  }
+
+  @Override
+  public boolean evaluateBoolean(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                                 boolean nullReturnsTrue, boolean nonBooleanReturnsTrue)
+      throws ExpressionRuntimeException {
+    return resolveBoolean(evaluate(expression, DataType.BOOLEAN, NULL_BINDING_CONTEXT, event, componentLocation, false)
+        .getValue(), nullReturnsTrue, nonBooleanReturnsTrue, expression.getExpression());
+  }
+
   private TypedValue transform(TypedValue target, DataType sourceType, DataType outputType) throws TransformerException {
     if (target.getValue() != null && !isInstance(outputType.getType(), target.getValue())) {
       Object result = ((MuleContextWithRegistry) muleContext).getRegistry().lookupTransformer(sourceType, outputType)
@@ -296,26 +328,55 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
                                  BindingContext bindingContext)
       throws ExpressionRuntimeException {
 
-    if ((!hasDwExpression(template) && !hasMelExpression(template) && melDefault) || hasMelExpression(template)) {
+    if (isMelTemplate(template)) {
       Builder eventBuilder = CoreEvent.builder(event);
       return parser.parse(token -> melParseEvaluation(event, componentLocation, eventBuilder, token), template);
     } else {
-      return parser.parse(token -> {
-        TypedValue<?> evaluation = expressionLanguage.evaluateLogExpression(token, event, componentLocation, bindingContext);
-        if (evaluation.getValue() instanceof Message) {
-          // Do not apply transformation to Message since payload will be considered then
-          return evaluation.getValue();
-        }
-        try {
-          return transform(evaluation, evaluation.getDataType(), STRING).getValue();
-        } catch (TransformerException e) {
-          throw new ExpressionRuntimeException(
-                                               createStaticMessage(format("Failed to transform %s to %s.",
-                                                                          evaluation.getDataType(),
-                                                                          STRING)),
-                                               e);
-        }
-      }, template);
+      return parser.parse(token -> logParseEvaluation(event, componentLocation, bindingContext, token), template);
+    }
+  }
+
+  @Override
+  public CompiledExpression compileLogTemplate(String template) {
+    return new CompiledLogTemplate(parser.compile(template), isMelTemplate(template));
+  }
+
+  @Override
+  public String parseLogTemplate(CompiledExpression template, CoreEvent event, ComponentLocation componentLocation,
+                                 BindingContext bindingContext)
+      throws ExpressionRuntimeException {
+    if (!(template instanceof CompiledLogTemplate)) {
+      return parseLogTemplate(template.getExpression(), event, componentLocation, bindingContext);
+    }
+
+    CompiledLogTemplate compiled = (CompiledLogTemplate) template;
+    if (compiled.mel) {
+      Builder eventBuilder = CoreEvent.builder(event);
+      return compiled.template.parse(token -> melParseEvaluation(event, componentLocation, eventBuilder, token));
+    } else {
+      return compiled.template.parse(token -> logParseEvaluation(event, componentLocation, bindingContext, token));
+    }
+  }
+
+  private boolean isMelTemplate(String template) {
+    return (!hasDwExpression(template) && !hasMelExpression(template) && melDefault) || hasMelExpression(template);
+  }
+
+  private Object logParseEvaluation(CoreEvent event, ComponentLocation componentLocation, BindingContext bindingContext,
+                                    String token) {
+    TypedValue<?> evaluation = expressionLanguage.evaluateLogExpression(token, event, componentLocation, bindingContext);
+    if (evaluation.getValue() instanceof Message) {
+      // Do not apply transformation to Message since payload will be considered then
+      return evaluation.getValue();
+    }
+    try {
+      return transform(evaluation, evaluation.getDataType(), STRING).getValue();
+    } catch (TransformerException e) {
+      throw new ExpressionRuntimeException(
+                                           createStaticMessage(format("Failed to transform %s to %s.",
+                                                                      evaluation.getDataType(),
+                                                                      STRING)),
+                                           e);
     }
   }
 
@@ -428,6 +489,25 @@ public class DefaultExpressionManager implements ExtendedExpressionManager, Init
     this.registry = registry;
   }
 
+  /**
+   * A log template already split into its literal parts and expressions, along with the language to evaluate them with.
+   */
+  private static final class CompiledLogTemplate implements CompiledExpression {
+
+    private final CompiledTemplate template;
+    private final boolean mel;
+
+    private CompiledLogTemplate(CompiledTemplate template, boolean mel) {
+      this.template = template;
+      this.mel = mel;
+    }
+
+    @Override
+    public String getExpression() {
+      return template.getTemplate();
+    }
+  }
+
   @Override
   public String toString() {
     return this.getClass().getName() + "[" + (expressionLanguage != null ? expressionLanguage.toString() : "null") + "]";
@@ -23,6 +23,7 @@ import org.mule.runtime.api.el.ValidationResult;
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.config.MuleProperties;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 
@@ -148,6 +149,39 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
     return selectExpressionLanguage(expression).split(expression, event, bindingContext);
   }
 
+  /**
+   * Resolves the language of the expression once, so that its evaluations go straight to the corresponding adaptor.
+   */
+  @Override
+  public CompiledExpression compile(String expression) {
+    ExtendedExpressionLanguageAdaptor expressionLanguage = selectExpressionLanguage(expression);
+    return new LanguageCompiledExpression(expressionLanguage, expressionLanguage.compile(expression));
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                             BindingContext bindingContext)
+      throws ExpressionRuntimeException {
+    if (expression instanceof LanguageCompiledExpression) {
+      LanguageCompiledExpression compiled = (LanguageCompiledExpression) expression;
+      return compiled.expressionLanguage.evaluate(compiled.delegate, event, componentLocation, bindingContext);
+    }
+    return selectExpressionLanguage(expression.getExpression()).evaluate(expression, event, componentLocation, bindingContext);
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, DataType expectedOutputType, CoreEvent event,
+                             ComponentLocation componentLocation, BindingContext context, boolean failOnNull)
+      throws ExpressionRuntimeException {
+    if (expression instanceof LanguageCompiledExpression) {
+      LanguageCompiledExpression compiled = (LanguageCompiledExpression) expression;
+      return compiled.expressionLanguage.evaluate(compiled.delegate, expectedOutputType, event, componentLocation, context,
+                                                  failOnNull);
+    }
+    return selectExpressionLanguage(expression.getExpression()).evaluate(expression, expectedOutputType, event,
+                                                                         componentLocation, context, failOnNull);
+  }
+
   private ExtendedExpressionLanguageAdaptor selectExpressionLanguage(String expression) {
     return expressionLanguagesByExpressionCache.get(expression);
   }
@@ -235,6 +269,25 @@ public class ExpressionLanguageAdaptorHandler implements ExtendedExpressionLangu
     }
   }
 
+  /**
+   * A compiled expression along with the adaptor of its language.
+   */
+  private static final class LanguageCompiledExpression implements CompiledExpression {
+
+    private final ExtendedExpressionLanguageAdaptor expressionLanguage;
+    private final CompiledExpression delegate;
+
+    private LanguageCompiledExpression(ExtendedExpressionLanguageAdaptor expressionLanguage, CompiledExpression delegate) {
+      this.expressionLanguage = expressionLanguage;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public String getExpression() {
+      return delegate.getExpression();
+    }
+  }
+
   @Override
   public String toString() {
     return this.getClass().getName() + "[" + expressionLanguages.toString() + "]";
@@ -8,7 +8,9 @@ package org.mule.runtime.core.internal.el;
 
 import org.mule.runtime.api.component.location.ComponentLocation;
 import org.mule.runtime.api.el.BindingContext;
+import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.internal.message.InternalMessage;
@@ -47,4 +49,53 @@ public interface ExtendedExpressionLanguageAdaptor extends ExpressionLanguageAda
                       BindingContext bindingContext)
       throws ExpressionRuntimeException;
 
+  /**
+   * Processes the given expression so that it can be evaluated many times without resolving or parsing it again. Adaptors that
+   * can't take advantage of this just keep the expression text.
+   *
+   * @param expression the expression to be compiled
+   * @return the handle to use to evaluate the expression with this adaptor
+   * @since 4.2.0
+   */
+  default CompiledExpression compile(String expression) {
+    return () -> expression;
+  }
+
+  /**
+   * Evaluates a compiled expression according to a given {@link BindingContext}, an {@link CoreEvent} and a location.
+   *
+   * @param expression the expression to be executed, as returned by {@link #compile(String)}
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param bindingContext the bindings to consider
+   * @return the result of execution of the expression.
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @since 4.2.0
+   */
+  default TypedValue evaluate(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                              BindingContext bindingContext)
+      throws ExpressionRuntimeException {
+    return evaluate(expression.getExpression(), event, componentLocation, bindingContext);
+  }
+
+  /**
+   * Evaluates a compiled expression according to a given {@link BindingContext}, an {@link CoreEvent} and a location.
+   *
+   * @param expression the expression to be executed, as returned by {@link #compile(String)}
+   * @param expectedOutputType the expected output type so that automatic conversion can be performed for the resulting value
+   *        type.
+   * @param event the current event being processed
+   * @param componentLocation the location of the component where the event is being processed
+   * @param context the bindings to consider
+   * @param failOnNull indicates if should fail if the evaluation result is {@code null}
+   * @return the result of execution of the expression.
+   * @throws ExpressionRuntimeException if a problem occurs evaluating the expression
+   * @since 4.2.0
+   */
+  default TypedValue evaluate(CompiledExpression expression, DataType expectedOutputType, CoreEvent event,
+                              ComponentLocation componentLocation, BindingContext context, boolean failOnNull)
+      throws ExpressionRuntimeException {
+    return evaluate(expression.getExpression(), expectedOutputType, event, componentLocation, context, failOnNull);
+  }
+
 }
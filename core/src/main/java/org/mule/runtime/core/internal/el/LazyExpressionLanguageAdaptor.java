@@ -11,6 +11,8 @@ import org.mule.runtime.api.el.BindingContext;
 import org.mule.runtime.api.el.ValidationResult;
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.util.LazyValue;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.api.util.func.CheckedSupplier;
@@ -132,9 +134,52 @@ public class LazyExpressionLanguageAdaptor implements ExtendedExpressionLanguage
     return delegate().split(expression, event, bindingContext);
   }
 
+  /**
+   * The expression is compiled by the delegate when first evaluated, so that compiling it doesn't force the creation of the
+   * delegate.
+   */
+  @Override
+  public CompiledExpression compile(String expression) {
+    return new LazyCompiledExpression(expression);
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                             BindingContext bindingContext)
+      throws ExpressionRuntimeException {
+    return delegate().evaluate(compiled(expression), event, componentLocation, bindingContext);
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, DataType expectedOutputType, CoreEvent event,
+                             ComponentLocation componentLocation, BindingContext context, boolean failOnNull)
+      throws ExpressionRuntimeException {
+    return delegate().evaluate(compiled(expression), expectedOutputType, event, componentLocation, context, failOnNull);
+  }
+
+  private CompiledExpression compiled(CompiledExpression expression) {
+    return expression instanceof LazyCompiledExpression ? ((LazyCompiledExpression) expression).compiled.get() : expression;
+  }
+
   @Override
   public ExpressionLanguageSessionAdaptor openSession(ComponentLocation componentLocation, CoreEvent event,
                                                       BindingContext context) {
     return delegate().openSession(componentLocation, event, context);
   }
+
+  private final class LazyCompiledExpression implements CompiledExpression {
+
+    private final String expression;
+    private final LazyValue<CompiledExpression> compiled;
+
+    private LazyCompiledExpression(String expression) {
+      this.expression = expression;
+      this.compiled = new LazyValue<>(() -> delegate().compile(expression));
+    }
+
+    @Override
+    public String getExpression() {
+      return expression;
+    }
+  }
 }
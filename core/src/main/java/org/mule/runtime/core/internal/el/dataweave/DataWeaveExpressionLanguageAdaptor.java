@@ -32,6 +32,7 @@ import org.mule.runtime.api.el.ValidationResult;
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.expression.ExpressionRuntimeException;
 import org.mule.runtime.core.internal.el.DefaultBindingContextBuilder;
@@ -138,6 +139,51 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     }
   }
 
+  /**
+   * Sanitizes the expression once, so that its evaluations go straight to DW.
+   * <p>
+   * If the expression can't be sanitized, it is evaluated by text so that the failure is reported when evaluating it, as if
+   * it hadn't been compiled.
+   */
+  @Override
+  public CompiledExpression compile(String expression) {
+    try {
+      return new SanitizedExpression(expression, sanitize(expression));
+    } catch (ExpressionExecutionException e) {
+      return () -> expression;
+    }
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, CoreEvent event, ComponentLocation componentLocation,
+                             BindingContext bindingContext)
+      throws ExpressionRuntimeException {
+    if (!(expression instanceof SanitizedExpression)) {
+      return evaluate(expression.getExpression(), event, componentLocation, bindingContext);
+    }
+
+    SanitizedExpression sanitized = (SanitizedExpression) expression;
+    if (sanitized.payload) {
+      return resolvePayload(event, bindingContext);
+    } else {
+      BindingContext newContext = bindingContextFor(componentLocation, event, bindingContext);
+      return evaluate(sanitized.sanitized, exp -> expressionExecutor.evaluate(exp, newContext));
+    }
+  }
+
+  @Override
+  public TypedValue evaluate(CompiledExpression expression, DataType expectedOutputType, CoreEvent event,
+                             ComponentLocation componentLocation, BindingContext context, boolean failOnNull)
+      throws ExpressionRuntimeException {
+    if (!(expression instanceof SanitizedExpression)) {
+      return evaluate(expression.getExpression(), expectedOutputType, event, componentLocation, context, failOnNull);
+    }
+
+    BindingContext newContext = bindingContextFor(componentLocation, event, context);
+    return evaluate(((SanitizedExpression) expression).sanitized,
+                    exp -> expressionExecutor.evaluate(exp, expectedOutputType, newContext));
+  }
+
   /**
    * This provides an optimization to avoid going to DW for evaluationg just the payload, which is there at hand already.
    */
@@ -236,6 +282,27 @@ public class DataWeaveExpressionLanguageAdaptor implements ExtendedExpressionLan
     return sanitizedExpression;
   }
 
+  /**
+   * An expression already stripped of its brackets and language prefix.
+   */
+  private static final class SanitizedExpression implements CompiledExpression {
+
+    private final String expression;
+    private final String sanitized;
+    private final boolean payload;
+
+    private SanitizedExpression(String expression, String sanitized) {
+      this.expression = expression;
+      this.sanitized = sanitized;
+      this.payload = sanitized.equals(PAYLOAD);
+    }
+
+    @Override
+    public String getExpression() {
+      return expression;
+    }
+  }
+
   @Override
   public ExpressionLanguageSessionAdaptor openSession(ComponentLocation location, CoreEvent event, BindingContext context) {
     ExpressionLanguageSession session = expressionExecutor.openSession(bindingContextFor(location, event, context));
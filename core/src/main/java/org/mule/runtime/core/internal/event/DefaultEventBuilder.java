@@ -18,8 +18,8 @@ import static org.mule.runtime.api.el.BindingContextUtils.addEventBindings;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsBytes;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.cannotReadPayloadAsString;
 import static org.mule.runtime.core.api.config.i18n.CoreMessages.objectIsNull;
-import static org.mule.runtime.core.api.util.CaseInsensitiveHashMap.emptyCaseInsensitiveMap;
 import static org.mule.runtime.core.api.util.SystemUtils.getDefaultEncoding;
+import static org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap.emptyPersistentCaseInsensitiveMap;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.fromGroupCorrelation;
 import static org.mule.runtime.core.internal.util.message.ItemSequenceInfoUtils.toGroupCorrelation;
 
@@ -45,6 +45,7 @@ import org.mule.runtime.core.internal.message.DefaultMessageBuilder;
 import org.mule.runtime.core.internal.message.InternalEvent;
 import org.mule.runtime.core.internal.message.InternalEvent.Builder;
 import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.connector.ReplyToHandler;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 import org.mule.runtime.core.privileged.event.DefaultMuleSession;
@@ -55,7 +56,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.util.HashMap;
@@ -71,8 +74,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   private BaseEventContext context;
   private Function<EventContext, Message> messageFactory;
   private boolean varsModified = false;
-  private final Map<String, TypedValue<?>> flowVariables = new HashMap<>();
-  private final CaseInsensitiveHashMap<String, TypedValue<?>> originalVars;
+  private PersistentCaseInsensitiveMap<TypedValue<?>> flowVariables = emptyPersistentCaseInsensitiveMap();
+  private final PersistentCaseInsensitiveMap<TypedValue<?>> originalVars;
   private final Map<String, Object> internalParameters = new HashMap<>(4);
   private Error error;
   private Optional<ItemSequenceInfo> itemSequenceInfo = empty();
@@ -86,7 +89,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder(BaseEventContext messageContext) {
     this.context = messageContext;
     this.session = new DefaultMuleSession();
-    this.originalVars = emptyCaseInsensitiveMap();
+    this.originalVars = emptyPersistentCaseInsensitiveMap();
   }
 
   public DefaultEventBuilder(InternalEvent event) {
@@ -100,7 +103,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     this.error = event.getError().orElse(null);
     this.notificationsEnabled = event.isNotificationsEnabled();
 
-    this.originalVars = (CaseInsensitiveHashMap<String, TypedValue<?>>) event.getVariables();
+    this.originalVars = PersistentCaseInsensitiveMap.copyOf(event.getVariables());
     this.internalParameters.putAll(event.getInternalParameters());
   }
 
@@ -128,7 +131,8 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   @Override
   public DefaultEventBuilder variables(Map<String, ?> flowVariables) {
-    copyFromTo(flowVariables, this.flowVariables);
+    this.flowVariables = toTypedValues(flowVariables);
+    this.modified = true;
     this.varsModified = true;
     return this;
   }
@@ -137,7 +141,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder addVariable(String key, Object value) {
     initVariables();
 
-    flowVariables.put(key, new TypedValue<>(value, DataType.fromObject(value)));
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, DataType.fromObject(value)));
     this.varsModified = true;
     this.modified = true;
     return this;
@@ -148,7 +152,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder addVariable(String key, Object value, DataType dataType) {
     initVariables();
 
-    flowVariables.put(key, new TypedValue<>(value, dataType));
+    flowVariables = flowVariables.plus(key, new TypedValue<>(value, dataType));
     this.varsModified = true;
     this.modified = true;
     return this;
@@ -158,8 +162,10 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
   public DefaultEventBuilder removeVariable(String key) {
     initVariables();
 
-    this.modified = flowVariables.remove(key) != null || modified;
+    final PersistentCaseInsensitiveMap<TypedValue<?>> remainingVariables = flowVariables.minus(key);
+    this.modified = remainingVariables != flowVariables || modified;
     this.varsModified = this.varsModified || modified;
+    flowVariables = remainingVariables;
     return this;
   }
 
@@ -168,7 +174,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     if (!this.flowVariables.isEmpty()) {
       this.varsModified = true;
       this.modified = true;
-      this.flowVariables.clear();
+      this.flowVariables = emptyPersistentCaseInsensitiveMap();
     }
     return this;
   }
@@ -270,21 +276,22 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
   protected void initVariables() {
     if (!this.varsModified) {
-      this.flowVariables.putAll(originalVars);
+      // the original variables are shared, not copied. Changes are applied on top of them
+      this.flowVariables = originalVars;
     }
   }
 
-  private void copyFromTo(Map<String, ?> source, Map<String, TypedValue<?>> target) {
-    target.clear();
+  private PersistentCaseInsensitiveMap<TypedValue<?>> toTypedValues(Map<String, ?> source) {
+    PersistentCaseInsensitiveMap<TypedValue<?>> target = emptyPersistentCaseInsensitiveMap();
 
     for (Entry<String, ?> entry : source.entrySet()) {
       if (entry.getValue() instanceof TypedValue) {
-        target.put(entry.getKey(), (TypedValue<?>) entry.getValue());
+        target = target.plus(entry.getKey(), (TypedValue<?>) entry.getValue());
       } else {
-        target.put(entry.getKey(), new TypedValue<>(entry.getValue(), DataType.fromObject(entry.getValue())));
+        target = target.plus(entry.getKey(), new TypedValue<>(entry.getValue(), DataType.fromObject(entry.getValue())));
       }
     }
-    this.modified = true;
+    return target;
   }
 
   /**
@@ -299,23 +306,37 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
 
     private static final long serialVersionUID = 1L;
 
-    /** Immutable MuleEvent state **/
-
-    private final BaseEventContext context;
+    // the variables are serialized as a CaseInsensitiveHashMap, as they were before being kept in a PersistentCaseInsensitiveMap
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("context", BaseEventContext.class),
+        new ObjectStreamField("message", Message.class),
+        new ObjectStreamField("session", MuleSession.class),
+        new ObjectStreamField("securityContext", SecurityContext.class),
+        new ObjectStreamField("notificationsEnabled", boolean.class),
+        new ObjectStreamField("variables", CaseInsensitiveHashMap.class),
+        new ObjectStreamField("internalParameters", Map.class),
+        new ObjectStreamField("legacyCorrelationId", String.class),
+        new ObjectStreamField("error", Error.class),
+        new ObjectStreamField("itemSequenceInfo", ItemSequenceInfo.class)
+    };
+
+    /** Immutable MuleEvent state, only reassigned when deserializing **/
+
+    private BaseEventContext context;
     // TODO MULE-10013 make this final
     private Message message;
-    private final MuleSession session;
-    private final SecurityContext securityContext;
+    private MuleSession session;
+    private SecurityContext securityContext;
 
-    private final boolean notificationsEnabled;
+    private boolean notificationsEnabled;
 
-    private final CaseInsensitiveHashMap<String, TypedValue<?>> variables;
-    private final Map<String, ?> internalParameters;
+    private PersistentCaseInsensitiveMap<TypedValue<?>> variables;
+    private Map<String, ?> internalParameters;
 
-    private final String legacyCorrelationId;
-    private final Error error;
+    private String legacyCorrelationId;
+    private Error error;
 
-    private final ItemSequenceInfo itemSequenceInfo;
+    private ItemSequenceInfo itemSequenceInfo;
 
     private transient LazyValue<BindingContext> bindingContextBuilder =
         new LazyValue<>(() -> addEventBindings(this, NULL_BINDING_CONTEXT));
@@ -330,9 +351,7 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       this.session = session;
       this.securityContext = securityContext;
       this.message = message;
-      this.variables = (variables instanceof CaseInsensitiveHashMap
-          ? (CaseInsensitiveHashMap) variables
-          : new CaseInsensitiveHashMap<String, TypedValue<?>>(variables)).toImmutableCaseInsensitiveMap();
+      this.variables = PersistentCaseInsensitiveMap.copyOf(variables);
       this.internalParameters = internalParameters;
 
       this.itemSequenceInfo = itemSequenceInfo.orElse(null);
@@ -465,8 +484,20 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
     // //////////////////////////
 
     private void writeObject(ObjectOutputStream out) throws IOException {
+      ObjectOutputStream.PutField fields = out.putFields();
+      fields.put("context", context);
+      fields.put("message", message);
+      fields.put("session", session);
+      fields.put("securityContext", securityContext);
+      fields.put("notificationsEnabled", notificationsEnabled);
+      fields.put("variables", new CaseInsensitiveHashMap<>(variables).toImmutableCaseInsensitiveMap());
+      fields.put("internalParameters", internalParameters);
+      fields.put("legacyCorrelationId", legacyCorrelationId);
+      fields.put("error", error);
+      fields.put("itemSequenceInfo", itemSequenceInfo);
+      out.writeFields();
+
       // TODO MULE-10013 remove this logic from here
-      out.defaultWriteObject();
       for (Map.Entry<String, TypedValue<?>> entry : variables.entrySet()) {
         Object value = entry.getValue();
         if (value != null && !(value instanceof Serializable)) {
@@ -477,6 +508,23 @@ public class DefaultEventBuilder implements InternalEvent.Builder {
       }
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+      ObjectInputStream.GetField fields = in.readFields();
+      context = (BaseEventContext) fields.get("context", null);
+      message = (Message) fields.get("message", null);
+      session = (MuleSession) fields.get("session", null);
+      securityContext = (SecurityContext) fields.get("securityContext", null);
+      notificationsEnabled = fields.get("notificationsEnabled", false);
+      Map<String, TypedValue<?>> serializedVariables = (Map<String, TypedValue<?>>) fields.get("variables", null);
+      variables = serializedVariables != null
+          ? PersistentCaseInsensitiveMap.copyOf(serializedVariables)
+          : emptyPersistentCaseInsensitiveMap();
+      internalParameters = (Map<String, ?>) fields.get("internalParameters", null);
+      legacyCorrelationId = (String) fields.get("legacyCorrelationId", null);
+      error = (Error) fields.get("error", null);
+      itemSequenceInfo = (ItemSequenceInfo) fields.get("itemSequenceInfo", null);
+    }
+
     private void setMessage(Message message) {
       this.message = message;
     }
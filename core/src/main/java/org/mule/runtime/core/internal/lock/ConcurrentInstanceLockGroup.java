@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import org.mule.runtime.core.internal.lock.InstanceLockGroup.LockEntry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LockGroup} implementation for holding references to created locks inside a mule instance.
+ * <p>
+ * Unlike {@link InstanceLockGroup}, there is no monitor shared by all the lock ids. Entries are reference counted, and created
+ * or removed atomically for each lock id by the {@link ConcurrentHashMap#compute(Object, java.util.function.BiFunction)}
+ * methods, so operations on different lock ids don't contend with each other.
+ *
+ * @since 4.2.0
+ */
+public class ConcurrentInstanceLockGroup implements LockGroup {
+
+  private final ConcurrentMap<String, LockEntry> locks = new ConcurrentHashMap<>();
+  private final LockProvider lockProvider;
+
+  public ConcurrentInstanceLockGroup(LockProvider lockProvider) {
+    this.lockProvider = lockProvider;
+  }
+
+  @Override
+  public void lock(String lockId) {
+    acquireEntry(lockId).getLock().lock();
+  }
+
+  @Override
+  public void unlock(String lockId) {
+    // The lock is released before its entry, atomically for the lock id, so no other thread can remove the entry of a lock still
+    // held or create a second one for the same lock id meanwhile.
+    locks.computeIfPresent(lockId, (id, lockEntry) -> {
+      lockEntry.getLock().unlock();
+      lockEntry.decrementLockCount();
+      return lockEntry.hasPendingLocks() ? lockEntry : null;
+    });
+  }
+
+  @Override
+  public boolean tryLock(String lockId, long timeout, TimeUnit timeUnit) throws InterruptedException {
+    LockEntry lockEntry = acquireEntry(lockId);
+    boolean lockAcquired = false;
+    try {
+      lockAcquired = lockEntry.getLock().tryLock(timeout, timeUnit);
+    } finally {
+      if (!lockAcquired) {
+        releaseEntry(lockId);
+      }
+    }
+    return lockAcquired;
+  }
+
+  @Override
+  public boolean tryLock(String lockId) {
+    LockEntry lockEntry = acquireEntry(lockId);
+    boolean lockAcquired = lockEntry.getLock().tryLock();
+    if (!lockAcquired) {
+      releaseEntry(lockId);
+    }
+    return lockAcquired;
+  }
+
+  @Override
+  public void lockInterruptibly(String lockId) throws InterruptedException {
+    LockEntry lockEntry = acquireEntry(lockId);
+    boolean lockAcquired = false;
+    try {
+      lockEntry.getLock().lockInterruptibly();
+      lockAcquired = true;
+    } finally {
+      if (!lockAcquired) {
+        releaseEntry(lockId);
+      }
+    }
+  }
+
+  private LockEntry acquireEntry(String lockId) {
+    return locks.compute(lockId, (id, lockEntry) -> {
+      if (lockEntry == null) {
+        lockEntry = new LockEntry(lockProvider.createLock(id));
+      }
+      lockEntry.incrementLockCount();
+      return lockEntry;
+    });
+  }
+
+  private void releaseEntry(String lockId) {
+    locks.computeIfPresent(lockId, (id, lockEntry) -> {
+      lockEntry.decrementLockCount();
+      return lockEntry.hasPendingLocks() ? lockEntry : null;
+    });
+  }
+
+  /**
+   * @return the number of lock ids currently referenced.
+   */
+  int size() {
+    return locks.size();
+  }
+
+  @Override
+  public void dispose() {
+    locks.clear();
+  }
+}
@@ -6,7 +6,9 @@
  */
 package org.mule.runtime.core.internal.lock;
 
+import static java.lang.Integer.getInteger;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_LOCK_PROVIDER;
+import static org.mule.runtime.core.internal.lock.StripedInstanceLockGroup.MULE_LOCK_GROUP_STRIPES;
 
 import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.api.lifecycle.Initialisable;
@@ -41,7 +43,10 @@ public class MuleLockFactory implements LockFactory, Initialisable, Disposable {
 
   @Override
   public void initialise() throws InitialisationException {
-    lockGroup = new InstanceLockGroup(lockProvider);
+    final int stripes = getInteger(MULE_LOCK_GROUP_STRIPES, 0);
+    lockGroup = stripes > 0
+        ? new StripedInstanceLockGroup(lockProvider, stripes)
+        : new ConcurrentInstanceLockGroup(lockProvider);
   }
 
   @Inject
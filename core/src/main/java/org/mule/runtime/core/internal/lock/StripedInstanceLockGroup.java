@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * {@link LockGroup} implementation that maps the lock ids to a fixed set of locks, for cases where the number of distinct lock
+ * ids is so high that creating and releasing a lock for each of them becomes expensive. No state is kept for each lock id.
+ * <p>
+ * Different lock ids may share a lock, so a thread holding the lock of an id may block others trying to lock unrelated ids.
+ * Because of that, this mode must not be used when a thread may hold the lock of an id while it waits for the lock of another
+ * one, since that could deadlock.
+ *
+ * @since 4.2.0
+ */
+public class StripedInstanceLockGroup implements LockGroup {
+
+  /**
+   * Number of locks to use for all the lock ids. If not set, or {@code 0}, a lock is created for each id.
+   */
+  public static final String MULE_LOCK_GROUP_STRIPES = SYSTEM_PROPERTY_PREFIX + "lockGroup.stripes";
+
+  private final Lock[] stripes;
+  private final int mask;
+
+  /**
+   * @param lockProvider provides the locks for each stripe
+   * @param stripes the number of locks to use, rounded up to a power of 2
+   */
+  public StripedInstanceLockGroup(LockProvider lockProvider, int stripes) {
+    checkArgument(stripes > 0, "stripes must be greater than 0");
+
+    final int size = stripes == Integer.highestOneBit(stripes) ? stripes : Integer.highestOneBit(stripes) << 1;
+    this.stripes = new Lock[size];
+    this.mask = size - 1;
+    for (int i = 0; i < size; ++i) {
+      this.stripes[i] = lockProvider.createLock(StripedInstanceLockGroup.class.getSimpleName() + "-" + i);
+    }
+  }
+
+  Lock getLock(String lockId) {
+    int hash = lockId.hashCode();
+    // Spread the higher bits, since only the lower ones are used for the index
+    hash ^= hash >>> 16;
+    return stripes[hash & mask];
+  }
+
+  @Override
+  public void lock(String lockId) {
+    getLock(lockId).lock();
+  }
+
+  @Override
+  public void unlock(String lockId) {
+    getLock(lockId).unlock();
+  }
+
+  @Override
+  public boolean tryLock(String lockId, long timeout, TimeUnit timeUnit) throws InterruptedException {
+    return getLock(lockId).tryLock(timeout, timeUnit);
+  }
+
+  @Override
+  public boolean tryLock(String lockId) {
+    return getLock(lockId).tryLock();
+  }
+
+  @Override
+  public void lockInterruptibly(String lockId) throws InterruptedException {
+    getLock(lockId).lockInterruptibly();
+  }
+
+  @Override
+  public void dispose() {
+    // Nothing to do
+  }
+}
@@ -18,9 +18,9 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
   private static final long serialVersionUID = 5337576392583767442L;
 
   protected final String flowConstructType;
-  protected String name;
-  protected boolean enabled = false;
-  private long samplePeriod = 0;
+  protected volatile String name;
+  protected volatile boolean enabled = false;
+  private volatile long samplePeriod = 0;
   protected final AtomicLong receivedEvents = new AtomicLong(0);
 
   public AbstractFlowConstructStatistics(String flowConstructType, String name) {
@@ -31,7 +31,7 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
   /**
    * Enable statistics logs (this is a dynamic parameter)
    */
-  public synchronized void setEnabled(boolean b) {
+  public void setEnabled(boolean b) {
     enabled = b;
   }
 
@@ -43,15 +43,15 @@ public abstract class AbstractFlowConstructStatistics implements FlowConstructSt
     return enabled;
   }
 
-  public synchronized String getName() {
+  public String getName() {
     return name;
   }
 
-  public synchronized void setName(String name) {
+  public void setName(String name) {
     this.name = name;
   }
 
-  public synchronized void clear() {
+  public void clear() {
     receivedEvents.set(0);
     samplePeriod = System.currentTimeMillis();
   }
@@ -8,6 +8,7 @@ package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.AllStatistics;
 import org.mule.runtime.core.api.management.stats.FlowConstructStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 
 /**
  * Aggregate statistics for all services and flows in an application. Do this by looping through all of the applications'
@@ -118,4 +119,25 @@ public class ApplicationStatistics extends DefaultFlowConstructStatistics {
     }
     return total;
   }
+
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return getProcessingTimeHistogram().getValueAtPercentile(percentile);
+  }
+
+  /**
+   * Percentiles can't be aggregated, so the histograms of all the flows are merged into a new one.
+   *
+   * @return the merged histogram of the processing times of all the flows
+   */
+  @Override
+  public LatencyHistogram getProcessingTimeHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (FlowConstructStatistics stats : parent.getServiceStatistics()) {
+      if (!(stats instanceof ApplicationStatistics) && stats instanceof DefaultFlowConstructStatistics) {
+        histogram.add(((DefaultFlowConstructStatistics) stats).getProcessingTimeHistogram());
+      }
+    }
+    return histogram;
+  }
 }
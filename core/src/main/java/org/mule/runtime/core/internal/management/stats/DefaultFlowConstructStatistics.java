@@ -7,6 +7,7 @@
 package org.mule.runtime.core.internal.management.stats;
 
 import org.mule.runtime.core.api.management.stats.ComponentStatistics;
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
 
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -47,13 +48,13 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
    * Enable statistics logs (this is a dynamic parameter)
    */
   @Override
-  public synchronized void setEnabled(boolean b) {
+  public void setEnabled(boolean b) {
     super.setEnabled(b);
     flowStatistics.setEnabled(enabled);
   }
 
   @Override
-  public synchronized void clear() {
+  public void clear() {
     super.clear();
 
     executionError.set(0);
@@ -98,6 +99,19 @@ public class DefaultFlowConstructStatistics extends AbstractFlowConstructStatist
     return flowStatistics.getTotalExecutionTime();
   }
 
+  @Override
+  public long getProcessingTimePercentile(double percentile) {
+    return flowStatistics.getExecutionTimePercentile(percentile);
+  }
+
+  /**
+   * @return the histogram of the processing times of the events completed since last cleared.
+   * @since 4.2.0
+   */
+  public LatencyHistogram getProcessingTimeHistogram() {
+    return flowStatistics.getExecutionTimeHistogram();
+  }
+
   @Override
   public long getExecutionErrors() {
     return executionError.get();
@@ -17,6 +17,7 @@ import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.core.api.MuleContext;
 import org.mule.runtime.core.api.context.MuleContextAware;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
@@ -50,6 +51,7 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
 
   protected MuleContext muleContext;
   ExtendedExpressionManager expressionManager;
+  private CompiledExpression compiledMessage;
 
   private volatile ProcessingType processingType;
 
@@ -58,6 +60,9 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
     initLogger();
     initProcessingTypeIfPossible();
     expressionManager = muleContext.getExpressionManager();
+    if (!StringUtils.isEmpty(message)) {
+      compiledMessage = expressionManager.compileLogTemplate(message);
+    }
   }
 
   protected void initLogger() {
@@ -108,7 +113,9 @@ public class LoggerMessageProcessor extends AbstractComponent implements Process
       } else {
         LogLevel logLevel = LogLevel.valueOf(level);
         if (LogLevel.valueOf(level).isEnabled(logger)) {
-          logLevel.log(logger, expressionManager.parseLogTemplate(message, event, getLocation(), NULL_BINDING_CONTEXT));
+          logLevel.log(logger, compiledMessage != null
+              ? expressionManager.parseLogTemplate(compiledMessage, event, getLocation(), NULL_BINDING_CONTEXT)
+              : expressionManager.parseLogTemplate(message, event, getLocation(), NULL_BINDING_CONTEXT));
         }
       }
     }
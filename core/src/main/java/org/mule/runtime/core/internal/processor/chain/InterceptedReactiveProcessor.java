@@ -30,8 +30,18 @@ public final class InterceptedReactiveProcessor implements ReactiveProcessor {
 
   public InterceptedReactiveProcessor(Processor processor, ReactiveProcessor next,
                                       ThreadNotificationLogger threadNotificationLogger) {
+    this(processor, processor.getProcessingType(), next, threadNotificationLogger);
+  }
+
+  /**
+   * Allows to use a processing type other than the one of the processor, for stages that apply more than one processor.
+   *
+   * @since 4.2.0
+   */
+  public InterceptedReactiveProcessor(Processor processor, ProcessingType processingType, ReactiveProcessor next,
+                                      ThreadNotificationLogger threadNotificationLogger) {
     this.processor = processor;
-    this.processingType = processor.getProcessingType();
+    this.processingType = processingType;
     this.next = next;
     this.threadNotificationLogger = threadNotificationLogger;
   }
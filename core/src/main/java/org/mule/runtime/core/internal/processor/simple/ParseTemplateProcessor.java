@@ -16,6 +16,7 @@ import static org.mule.runtime.core.api.util.IOUtils.getResourceAsStream;
 import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.util.IOUtils;
 import org.mule.runtime.core.privileged.processor.simple.SimpleMessageProcessor;
@@ -40,6 +41,7 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor {
   private String target;
   private String location;
   private String targetValue;
+  private CompiledExpression compiledContent;
 
   @Override
   public void initialise() throws InitialisationException {
@@ -57,6 +59,7 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor {
         guessMimeType();
       }
     }
+    compiledContent = muleContext.getExpressionManager().compileLogTemplate(content);
   }
 
   private void loadContentFromLocation() throws InitialisationException {
@@ -103,7 +106,9 @@ public class ParseTemplateProcessor extends SimpleMessageProcessor {
   @Override
   public CoreEvent process(CoreEvent event) {
     evaluateCorrectArguments();
-    String result = muleContext.getExpressionManager().parseLogTemplate(content, event, getLocation(), NULL_BINDING_CONTEXT);
+    String result = compiledContent != null
+        ? muleContext.getExpressionManager().parseLogTemplate(compiledContent, event, getLocation(), NULL_BINDING_CONTEXT)
+        : muleContext.getExpressionManager().parseLogTemplate(content, event, getLocation(), NULL_BINDING_CONTEXT);
     Message.Builder messageBuilder = Message.builder(event.getMessage()).value(result).nullAttributesValue();
     MediaType configuredMediaType = buildMediaType();
     if (configuredMediaType != null) {
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.runtime.core.api.management.stats.LatencyHistogram;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+
+/**
+ * Decides whether a {@link ProcessingType#IO_RW} processor has to be offloaded to the IO scheduler based on its observed
+ * latency, and keeps the metrics of those decisions.
+ * <p>
+ * Latencies are recorded in a {@link LatencyHistogram}, so the p99 is estimated with a relative error below 1/16. Every
+ * {@code window} samples the p99 is evaluated: the processor is offloaded if it exceeds the budget, and inlined again once it
+ * falls below half of the budget. Until the first window is evaluated the payload based decision is used.
+ *
+ * @since 4.2.0
+ */
+public final class AdaptiveIoRwOffload {
+
+  private static final Logger LOGGER = getLogger(AdaptiveIoRwOffload.class);
+
+  private static final int UNDECIDED = 0;
+  private static final int INLINE = 1;
+  private static final int OFFLOAD = 2;
+
+  private final String processorName;
+  private final long budgetNanos;
+  private final int window;
+
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final AtomicInteger samples = new AtomicInteger();
+  private final LongAdder inlined = new LongAdder();
+  private final LongAdder offloaded = new LongAdder();
+  private final AtomicInteger decisionChanges = new AtomicInteger();
+
+  private volatile int decision = UNDECIDED;
+  private volatile long lastP99Nanos = -1;
+
+  /**
+   * @param processorName the name of the processor, for logging.
+   * @param budgetNanos the p99 latency above which the processor is offloaded.
+   * @param window the number of samples after which the decision is re-evaluated.
+   */
+  public AdaptiveIoRwOffload(String processorName, long budgetNanos, int window) {
+    this.processorName = processorName;
+    this.budgetNanos = budgetNanos;
+    this.window = window;
+  }
+
+  /**
+   * @param payloadDecision the decision based on the payload of the event, used until enough latencies have been recorded.
+   * @return whether the processing of the event has to be offloaded.
+   */
+  public boolean shouldOffload(boolean payloadDecision) {
+    final int current = decision;
+    final boolean offload = current == UNDECIDED ? payloadDecision : current == OFFLOAD;
+    if (offload) {
+      offloaded.increment();
+    } else {
+      inlined.increment();
+    }
+    return offload;
+  }
+
+  /**
+   * Records the latency of an execution of the processor.
+   *
+   * @param nanos the time it took the processor to process an event.
+   */
+  public void record(long nanos) {
+    latencies.record(nanos);
+    if (samples.incrementAndGet() == window) {
+      evaluate();
+    }
+  }
+
+  private void evaluate() {
+    final long p99 = latencies.getValueAtPercentile(99);
+    latencies.reset();
+    samples.set(0);
+    lastP99Nanos = p99;
+
+    final int previous = decision;
+    final int current;
+    if (p99 > budgetNanos) {
+      current = OFFLOAD;
+    } else if (p99 <= budgetNanos / 2 || previous == UNDECIDED) {
+      current = INLINE;
+    } else {
+      current = previous;
+    }
+
+    if (current != previous) {
+      decision = current;
+      decisionChanges.incrementAndGet();
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("IO_RW processor '{}' will be {} (p99 ~{}ns, budget {}ns)", processorName,
+                     current == OFFLOAD ? "offloaded" : "inlined", p99, budgetNanos);
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if the processor is currently being offloaded because of its latency.
+   */
+  public boolean isOffloading() {
+    return decision == OFFLOAD;
+  }
+
+  /**
+   * @return the number of events processed on the calling thread.
+   */
+  public long getInlinedCount() {
+    return inlined.sum();
+  }
+
+  /**
+   * @return the number of events offloaded to the IO scheduler.
+   */
+  public long getOffloadedCount() {
+    return offloaded.sum();
+  }
+
+  /**
+   * @return the number of times the offload decision changed.
+   */
+  public int getDecisionChanges() {
+    return decisionChanges.get();
+  }
+
+  /**
+   * @return the p99 latency of the last evaluated window, or {@code -1} if none was evaluated yet.
+   */
+  public long getLastP99Nanos() {
+    return lastP99Nanos;
+  }
+}
@@ -6,12 +6,15 @@
  */
 package org.mule.runtime.core.internal.processor.strategy;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.Integer.getInteger;
 import static java.lang.Long.MAX_VALUE;
 import static java.lang.Long.MIN_VALUE;
 import static java.lang.Math.max;
 import static java.lang.System.nanoTime;
 import static java.time.Duration.ofMillis;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.mule.runtime.api.util.DataUnit.KB;
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
@@ -19,6 +22,7 @@ import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingTy
 import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.IO_RW;
 import static org.mule.runtime.core.internal.processor.strategy.AbstractStreamProcessingStrategyFactory.SYSTEM_PROPERTY_PREFIX;
 import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.defer;
 import static reactor.core.publisher.Flux.from;
 import static reactor.core.publisher.Flux.just;
 import static reactor.core.scheduler.Schedulers.fromExecutorService;
@@ -28,11 +32,15 @@ import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
+import org.mule.runtime.core.internal.processor.chain.InterceptedReactiveProcessor;
 import org.mule.runtime.core.internal.util.rx.RetrySchedulerWrapper;
 import org.mule.runtime.core.privileged.event.BaseEventContext;
 
 import org.slf4j.Logger;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -48,6 +56,15 @@ public abstract class ProactorStreamProcessingStrategy
 
   protected static final int STREAM_PAYLOAD_BLOCKING_IO_THRESHOLD =
       getInteger(SYSTEM_PROPERTY_PREFIX + "STREAM_PAYLOAD_BLOCKING_IO_THRESHOLD", KB.toBytes(16));
+
+  /**
+   * Decide whether to offload {@link ProcessingType#IO_RW} processors based on their observed latency instead of the payload.
+   */
+  protected static final String IO_RW_ADAPTIVE_OFFLOAD = SYSTEM_PROPERTY_PREFIX + "IO_RW_ADAPTIVE_OFFLOAD";
+  protected static final String IO_RW_ADAPTIVE_OFFLOAD_BUDGET_MICROS =
+      SYSTEM_PROPERTY_PREFIX + "IO_RW_ADAPTIVE_OFFLOAD_BUDGET_MICROS";
+  protected static final String IO_RW_ADAPTIVE_OFFLOAD_WINDOW = SYSTEM_PROPERTY_PREFIX + "IO_RW_ADAPTIVE_OFFLOAD_WINDOW";
+
   private static final Logger LOGGER = getLogger(ProactorStreamProcessingStrategy.class);
 
   private static final long SCHEDULER_BUSY_RETRY_INTERVAL_NS = MILLISECONDS.toNanos(SCHEDULER_BUSY_RETRY_INTERVAL_MS);
@@ -58,6 +75,12 @@ public abstract class ProactorStreamProcessingStrategy
   private Scheduler cpuIntensiveScheduler;
 
   private final AtomicLong lastRetryTimestamp = new AtomicLong(MIN_VALUE);
+  // keyed by the actual processor, since the reactive processors wrapping it are created every time a chain is built
+  private final Map<Object, AdaptiveIoRwOffload> adaptiveIoRwOffloads = new ConcurrentHashMap<>();
+  private final boolean ioRwAdaptiveOffload = getBoolean(IO_RW_ADAPTIVE_OFFLOAD);
+  private final long ioRwAdaptiveOffloadBudgetNanos =
+      MICROSECONDS.toNanos(getInteger(IO_RW_ADAPTIVE_OFFLOAD_BUDGET_MICROS, 1000));
+  private final int ioRwAdaptiveOffloadWindow = getInteger(IO_RW_ADAPTIVE_OFFLOAD_WINDOW, 256);
 
   public ProactorStreamProcessingStrategy(Supplier<Scheduler> ringBufferSchedulerSupplier,
                                           int bufferSize,
@@ -94,6 +117,7 @@ public abstract class ProactorStreamProcessingStrategy
     if (cpuIntensiveScheduler != null) {
       cpuIntensiveScheduler.stop();
     }
+    adaptiveIoRwOffloads.clear();
     super.stop();
   }
 
@@ -109,20 +133,63 @@ public abstract class ProactorStreamProcessingStrategy
   }
 
   private ReactiveProcessor proactor(ReactiveProcessor processor, Scheduler scheduler) {
+    if (processor.getProcessingType() == IO_RW && ioRwAdaptiveOffload) {
+      return adaptiveProactor(processor, scheduler);
+    }
+
     return publisher -> from(publisher).flatMap(event -> {
       if (processor.getProcessingType() == IO_RW && !scheduleIoRwEvent(event)) {
         // If payload is not a stream o length is < STREAM_PAYLOAD_BLOCKING_IO_THRESHOLD (default 16KB) perform processing on
         // current thread in stead of scheduling using IO pool.
-        return just(event)
-            .transform(processor)
-            .subscriberContext(ctx -> ctx.put(PROCESSOR_SCHEDULER_CONTEXT_KEY, getCpuLightScheduler()));
+        return inline(processor, event);
       } else {
-        return withRetry(scheduleProcessor(processor, scheduler, event)
-            .subscriberContext(ctx -> ctx.put(PROCESSOR_SCHEDULER_CONTEXT_KEY, scheduler)), scheduler);
+        return schedule(processor, scheduler, event);
       }
     }, max(maxConcurrency / (getParallelism() * subscribers), 1));
   }
 
+  private ReactiveProcessor adaptiveProactor(ReactiveProcessor processor, Scheduler scheduler) {
+    final Object offloadKey =
+        processor instanceof InterceptedReactiveProcessor ? ((InterceptedReactiveProcessor) processor).getProcessor() : processor;
+    final AdaptiveIoRwOffload offload = adaptiveIoRwOffloads
+        .computeIfAbsent(offloadKey, p -> new AdaptiveIoRwOffload(p.toString(), ioRwAdaptiveOffloadBudgetNanos,
+                                                                  ioRwAdaptiveOffloadWindow));
+    // Latency is measured from the moment the processor is subscribed, so time waiting for an IO thread is not accounted.
+    final ReactiveProcessor timedProcessor = publisher -> defer(() -> {
+      final long start = nanoTime();
+      return from(publisher)
+          .transform(processor)
+          .doFinally(signal -> offload.record(nanoTime() - start));
+    });
+
+    return publisher -> from(publisher).flatMap(event -> {
+      if (offload.shouldOffload(scheduleIoRwEvent(event))) {
+        return schedule(timedProcessor, scheduler, event);
+      } else {
+        return inline(timedProcessor, event);
+      }
+    }, max(maxConcurrency / (getParallelism() * subscribers), 1));
+  }
+
+  /**
+   * @return the offload decisions and metrics of each {@link ProcessingType#IO_RW} processor, when
+   *         {@link #IO_RW_ADAPTIVE_OFFLOAD} is enabled.
+   */
+  public Map<Object, AdaptiveIoRwOffload> getAdaptiveIoRwOffloads() {
+    return unmodifiableMap(adaptiveIoRwOffloads);
+  }
+
+  private Flux<CoreEvent> inline(ReactiveProcessor processor, CoreEvent event) {
+    return just(event)
+        .transform(processor)
+        .subscriberContext(ctx -> ctx.put(PROCESSOR_SCHEDULER_CONTEXT_KEY, getCpuLightScheduler()));
+  }
+
+  private Flux<CoreEvent> schedule(ReactiveProcessor processor, Scheduler scheduler, CoreEvent event) {
+    return withRetry(scheduleProcessor(processor, scheduler, event)
+        .subscriberContext(ctx -> ctx.put(PROCESSOR_SCHEDULER_CONTEXT_KEY, scheduler)), scheduler);
+  }
+
   protected boolean scheduleIoRwEvent(CoreEvent event) {
     return event.getMessage().getPayload().getDataType().isStreamType()
         && event.getMessage().getPayload().getByteLength().orElse(MAX_VALUE) > STREAM_PAYLOAD_BLOCKING_IO_THRESHOLD;
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.processor.strategy;
+
+import static java.lang.Integer.MAX_VALUE;
+import static java.lang.Thread.currentThread;
+import static java.util.Objects.requireNonNull;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE_ASYNC;
+import static org.slf4j.LoggerFactory.getLogger;
+import static reactor.core.publisher.Flux.from;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
+
+import org.mule.runtime.api.exception.MuleException;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Startable;
+import org.mule.runtime.api.lifecycle.Stoppable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.construct.FlowConstruct;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.Sink;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * Creates {@link ThreadPerEventProcessingStrategy} instances. This processing strategy runs each event on a single thread from
+ * the source to the response, so blocking processors just block that thread instead of being rescheduled onto another pool.
+ * <p/>
+ * When the JVM supports virtual threads each event is dispatched to a new virtual thread, otherwise the applications IO
+ * {@link Scheduler} is used. Maximum concurrency is enforced by limiting the number of in-flight events rather than by
+ * rejecting and retrying work.
+ * <p/>
+ * This processing strategy is not suitable for transactional flows and will fail if used with an active transaction.
+ *
+ * @since 4.2.0
+ */
+public class ThreadPerEventProcessingStrategyFactory extends AbstractProcessingStrategyFactory {
+
+  private static final Logger LOGGER = getLogger(ThreadPerEventProcessingStrategyFactory.class);
+
+  @Override
+  public ProcessingStrategy create(MuleContext muleContext, String schedulersNamePrefix) {
+    Supplier<Scheduler> ioSchedulerSupplier = () -> muleContext.getSchedulerService()
+        .ioScheduler(createSchedulerConfig(muleContext, schedulersNamePrefix, BLOCKING));
+    return new ThreadPerEventProcessingStrategy(() -> createVirtualThreadExecutor(schedulersNamePrefix)
+        .orElseGet(ioSchedulerSupplier), ioSchedulerSupplier, getMaxConcurrency());
+  }
+
+  @Override
+  public Class<? extends ProcessingStrategy> getProcessingStrategyType() {
+    return ThreadPerEventProcessingStrategy.class;
+  }
+
+  /**
+   * Virtual threads are not part of the Java version targeted by the runtime, so they are looked up reflectively.
+   *
+   * @param schedulersNamePrefix prefix for the name of the created threads.
+   * @return an executor that starts a new virtual thread for each task, or {@link Optional#empty()} if the JVM doesn't support
+   *         them.
+   */
+  static Optional<ExecutorService> createVirtualThreadExecutor(String schedulersNamePrefix) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, schedulersNamePrefix + ".", 0L);
+      ThreadFactory threadFactory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      return of((ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+          .invoke(null, threadFactory));
+    } catch (ClassNotFoundException | NoSuchMethodException e) {
+      LOGGER.debug("Virtual threads not available in current JVM, using IO scheduler for '{}'", schedulersNamePrefix);
+      return empty();
+    } catch (ReflectiveOperationException e) {
+      LOGGER.warn("Unable to create virtual thread executor, using IO scheduler for '" + schedulersNamePrefix + "'", e);
+      return empty();
+    }
+  }
+
+  static class ThreadPerEventProcessingStrategy extends AbstractProcessingStrategy implements Startable, Stoppable {
+
+    private final Supplier<? extends ExecutorService> executorSupplier;
+    private final Supplier<Scheduler> processorSchedulerSupplier;
+    private final Semaphore permits;
+    private ExecutorService executor;
+    private Scheduler processorScheduler;
+    private reactor.core.scheduler.Scheduler eventScheduler;
+
+    public ThreadPerEventProcessingStrategy(Supplier<? extends ExecutorService> executorSupplier, int maxConcurrency) {
+      this(executorSupplier, null, maxConcurrency);
+    }
+
+    /**
+     * @param executorSupplier supplies the executor each event runs on.
+     * @param processorSchedulerSupplier supplies the {@link Scheduler} made available to processors when the executor is not a
+     *        {@link Scheduler} itself. May be {@code null}.
+     * @param maxConcurrency maximum number of in-flight events.
+     */
+    public ThreadPerEventProcessingStrategy(Supplier<? extends ExecutorService> executorSupplier,
+                                            Supplier<Scheduler> processorSchedulerSupplier, int maxConcurrency) {
+      this.executorSupplier = requireNonNull(executorSupplier);
+      this.processorSchedulerSupplier = processorSchedulerSupplier;
+      this.permits = maxConcurrency == MAX_VALUE ? null : new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public Sink createSink(FlowConstruct flowConstruct, ReactiveProcessor pipeline) {
+      if (permits == null) {
+        return new StreamPerEventSink(pipeline, createOnEventConsumer());
+      } else {
+        return new ConcurrencyLimitingSink(new StreamPerEventSink(publisher -> from(publisher)
+            .transform(pipeline)
+            .doFinally(signal -> permits.release()), createOnEventConsumer()), permits);
+      }
+    }
+
+    @Override
+    public ReactiveProcessor onPipeline(ReactiveProcessor pipeline) {
+      return publisher -> from(publisher)
+          .publishOn(eventScheduler)
+          .transform(pipeline)
+          .subscriberContext(ctx -> processorScheduler != null
+              ? ctx.put(PROCESSOR_SCHEDULER_CONTEXT_KEY, processorScheduler)
+              : ctx);
+    }
+
+    @Override
+    public ReactiveProcessor onProcessor(ReactiveProcessor processor) {
+      if (processor.getProcessingType() == CPU_LITE_ASYNC) {
+        // Continue on an event thread instead of the one used by the async processor to complete.
+        return publisher -> from(publisher)
+            .transform(processor)
+            .publishOn(eventScheduler);
+      } else {
+        return super.onProcessor(processor);
+      }
+    }
+
+    @Override
+    public void start() throws MuleException {
+      executor = executorSupplier.get();
+      if (executor instanceof Scheduler) {
+        processorScheduler = (Scheduler) executor;
+      } else if (processorSchedulerSupplier != null) {
+        processorScheduler = processorSchedulerSupplier.get();
+      }
+      eventScheduler = fromExecutorService(executor instanceof Scheduler ? decorateScheduler((Scheduler) executor) : executor);
+    }
+
+    @Override
+    public void stop() throws MuleException {
+      if (executor instanceof Scheduler) {
+        ((Scheduler) executor).stop();
+      } else if (executor != null) {
+        executor.shutdown();
+      }
+      if (processorScheduler != null && processorScheduler != executor) {
+        processorScheduler.stop();
+      }
+    }
+
+  }
+
+  /**
+   * {@link Sink} that blocks, or rejects when emitting, once the maximum number of in-flight events is reached. Permits are
+   * released by the pipeline when each event completes.
+   */
+  private static class ConcurrencyLimitingSink implements Sink {
+
+    private final Sink delegate;
+    private final Semaphore permits;
+
+    ConcurrencyLimitingSink(Sink delegate, Semaphore permits) {
+      this.delegate = delegate;
+      this.permits = permits;
+    }
+
+    @Override
+    public void accept(CoreEvent event) {
+      try {
+        permits.acquire();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw new MuleRuntimeException(e);
+      }
+      delegate.accept(event);
+    }
+
+    @Override
+    public boolean emit(CoreEvent event) {
+      if (!permits.tryAcquire()) {
+        return false;
+      }
+      delegate.accept(event);
+      return true;
+    }
+  }
+
+}
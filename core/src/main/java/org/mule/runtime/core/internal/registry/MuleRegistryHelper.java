@@ -22,6 +22,7 @@ import org.mule.runtime.core.api.construct.FlowConstruct;
 import org.mule.runtime.core.api.transformer.Converter;
 import org.mule.runtime.core.api.transformer.Transformer;
 import org.mule.runtime.core.api.transformer.TransformerException;
+import org.mule.runtime.core.internal.transformer.DataTypePairCache;
 import org.mule.runtime.core.internal.transformer.ResolverException;
 import org.mule.runtime.core.privileged.registry.RegistrationException;
 
@@ -33,7 +34,6 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -57,8 +57,8 @@ public class MuleRegistryHelper implements MuleRegistry {
   /**
    * We cache transformer searches so that we only search once
    */
-  protected Map<String, Transformer> exactTransformerCache = new ConcurrentHashMap<>(8);
-  protected Map<String, List<Transformer>> transformerListCache = new ConcurrentHashMap<>(8);
+  protected DataTypePairCache<Transformer> exactTransformerCache = new DataTypePairCache<>(false);
+  protected DataTypePairCache<List<Transformer>> transformerListCache = new DataTypePairCache<>(false);
 
   private MuleContext muleContext;
 
@@ -99,8 +99,8 @@ public class MuleRegistryHelper implements MuleRegistry {
    */
   @Override
   public void dispose() {
-    transformerListCache.clear();
-    exactTransformerCache.clear();
+    transformerListCache.invalidate();
+    exactTransformerCache.invalidate();
     registry.dispose();
   }
 
@@ -136,26 +136,13 @@ public class MuleRegistryHelper implements MuleRegistry {
     //and only find transformers with a targetType the same as or a super class of the expected one.
     //The same could be done for the source but since if the source expected by the transformer is more generic that
     //the provided, it will be found.
-    result = builder(result).mediaType(ANY).charset((Charset) null).build();
+    result = ignoreMediaType(result);
 
-    final String dataTypePairHash = getDataTypeSourceResultPairHash(source, result);
-    Transformer cachedTransformer = exactTransformerCache.get(dataTypePairHash);
-    if (cachedTransformer != null) {
-      return cachedTransformer;
-    }
-
-    Transformer trans = resolveTransformer(source, result);
-
-    if (trans != null) {
-      Transformer concurrentlyAddedTransformer = exactTransformerCache.putIfAbsent(dataTypePairHash, trans);
-      if (concurrentlyAddedTransformer != null) {
-        return concurrentlyAddedTransformer;
-      } else {
-        return trans;
-      }
-    } else {
+    Transformer trans = exactTransformerCache.get(source, result, this::resolveTransformer);
+    if (trans == null) {
       throw new TransformerException(noTransformerFoundForMessage(source, result));
     }
+    return trans;
   }
 
   protected Transformer resolveTransformer(DataType source, DataType result) throws TransformerException {
@@ -189,16 +176,11 @@ public class MuleRegistryHelper implements MuleRegistry {
     //and only find transformers with a targetType the same as or a super class of the expected one.
     //The same could be done for the source but since if the source expected by the transformer is more generic that
     //the provided, it will be found.
-    result = builder(result).mediaType(ANY).charset((Charset) null).build();
-
-    final String dataTypePairHash = getDataTypeSourceResultPairHash(source, result);
-
-    List<Transformer> results = transformerListCache.get(dataTypePairHash);
-    if (results != null) {
-      return results;
-    }
+    return transformerListCache.get(source, ignoreMediaType(result), this::findTransformers);
+  }
 
-    results = new ArrayList<>(2);
+  private List<Transformer> findTransformers(DataType source, DataType result) {
+    List<Transformer> results = new ArrayList<>(2);
 
     Lock readLock = transformersLock.readLock();
     readLock.lock();
@@ -217,11 +199,6 @@ public class MuleRegistryHelper implements MuleRegistry {
       readLock.unlock();
     }
 
-    List<Transformer> concurrentlyAddedTransformers = transformerListCache.putIfAbsent(dataTypePairHash, results);
-    if (concurrentlyAddedTransformers != null) {
-      return concurrentlyAddedTransformers;
-    }
-
     return results;
   }
 
@@ -267,9 +244,6 @@ public class MuleRegistryHelper implements MuleRegistry {
         transformerResolversReadLock.unlock();
       }
 
-      transformerListCache.clear();
-      exactTransformerCache.clear();
-
       Lock transformersWriteLock = transformersLock.writeLock();
       transformersWriteLock.lock();
       try {
@@ -281,6 +255,10 @@ public class MuleRegistryHelper implements MuleRegistry {
       } finally {
         transformersWriteLock.unlock();
       }
+
+      // Invalidated once the transformers are updated, so lookups resolved from the previous ones are not kept
+      transformerListCache.invalidate();
+      exactTransformerCache.invalidate();
     }
   }
 
@@ -500,8 +478,8 @@ public class MuleRegistryHelper implements MuleRegistry {
     return false;
   }
 
-  private String getDataTypeSourceResultPairHash(DataType source, DataType result) {
-    return source.getClass().getName() + source.hashCode() + ":" + result.getClass().getName() + result.hashCode();
+  private DataType ignoreMediaType(DataType dataType) {
+    return builder(dataType).mediaType(ANY).charset((Charset) null).build();
   }
 
   private class TransformerResolverComparator implements Comparator<TransformerResolver> {
@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Integer.getInteger;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -14,6 +16,7 @@ import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.metadata.DataType.STRING;
 import static org.mule.runtime.core.api.config.MuleProperties.OBJECT_STORE_MANAGER;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_POSTFIX;
 import static org.mule.runtime.core.api.el.ExpressionManager.DEFAULT_EXPRESSION_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -39,6 +42,10 @@ import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.internal.context.MuleContextWithRegistry;
 import org.mule.runtime.core.internal.exception.MessagingException;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -49,14 +56,33 @@ import org.slf4j.Logger;
  * of computing hashes(SHA,MD5) from the data. Note that the underlying endpoint must support unique message IDs for this to work,
  * otherwise a <code>UniqueIdNotSupportedException</code> is thrown.<br>
  * <p>
+ * By default the store is checked for the id before storing it. When {@link #MULE_IDEMPOTENT_SINGLE_ROUND_TRIP} is set, the
+ * check is skipped and duplicates are detected by the store rejecting the id. Otherwise, when
+ * {@link #MULE_IDEMPOTENT_FILTER_SIZE} is set, a {@link RotatingBloomFilter} of the recently seen ids is kept so the check is
+ * only done for the ids that may be duplicates.
+ * <p>
  * <b>EIP Reference:</b> <a href="http://www.eaipatterns.com/IdempotentReceiver.html">
  * http://www.eaipatterns.com/IdempotentReceiver.html</a>
  */
 public class IdempotentMessageValidator extends AbstractComponent
     implements Processor, MuleContextAware, Lifecycle {
 
+  /**
+   * If {@code true}, the store is not checked for the id before storing it, relying on it rejecting duplicate ids. This saves a
+   * round-trip to the store for each message.
+   */
+  public static final String MULE_IDEMPOTENT_SINGLE_ROUND_TRIP = SYSTEM_PROPERTY_PREFIX + "idempotent.singleRoundTrip";
+
+  /**
+   * Number of ids per generation of the in-memory filter of recently seen ids. If not set, or {@code 0}, no filter is used.
+   */
+  public static final String MULE_IDEMPOTENT_FILTER_SIZE = SYSTEM_PROPERTY_PREFIX + "idempotent.filter.size";
+
   private static final Logger LOGGER = getLogger(IdempotentMessageValidator.class);
 
+  private final boolean singleRoundTrip = getBoolean(MULE_IDEMPOTENT_SINGLE_ROUND_TRIP);
+  private final RotatingBloomFilter seenIds = createSeenIdsFilter();
+
   protected MuleContext muleContext;
 
   protected volatile ObjectStore<String> store;
@@ -112,6 +138,11 @@ public class IdempotentMessageValidator extends AbstractComponent
     disposeIfNeeded(store, LOGGER);
   }
 
+  private RotatingBloomFilter createSeenIdsFilter() {
+    final int filterSize = getInteger(MULE_IDEMPOTENT_FILTER_SIZE, 0);
+    return filterSize > 0 && !singleRoundTrip ? new RotatingBloomFilter(filterSize) : null;
+  }
+
   protected ObjectStore<String> createMessageIdStore() throws InitialisationException {
     ObjectStoreManager objectStoreManager = ((MuleContextWithRegistry) muleContext).getRegistry().get(OBJECT_STORE_MANAGER);
     return objectStoreManager.createObjectStore(storePrefix, ObjectStoreSettings.builder()
@@ -146,31 +177,57 @@ public class IdempotentMessageValidator extends AbstractComponent
   }
 
   private boolean accept(CoreEvent event) {
-    if (event != null && isNewMessage(event)) {
+    if (event == null) {
+      return false;
+    }
+    final String id = evaluateId(event);
+    return id != null && accept(event, id);
+  }
+
+  private boolean accept(CoreEvent event, String id) {
+    if (!isNewMessage(event, id)) {
+      return false;
+    }
+    try {
+      // The id is reused when both expressions are the same, as they are by default
+      String value = valueExpression.equals(idExpression) ? id : getValueForEvent(event);
       try {
-        String id = getIdForEvent(event);
-        String value = getValueForEvent(event);
-        try {
-          store.store(id, value);
-          return true;
-        } catch (ObjectAlreadyExistsException ex) {
-          return false;
-        } catch (ObjectStoreNotAvailableException e) {
-          LOGGER.error("ObjectStore not available: " + e.getMessage());
-          return false;
-        } catch (ObjectStoreException e) {
-          LOGGER.warn("ObjectStore exception: " + e.getMessage());
-          return false;
-        }
-      } catch (MuleException e) {
-        LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
+        store.store(id, value);
+        markSeen(id);
+        return true;
+      } catch (ObjectAlreadyExistsException ex) {
+        markSeen(id);
+        return false;
+      } catch (ObjectStoreNotAvailableException e) {
+        LOGGER.error("ObjectStore not available: " + e.getMessage());
+        return false;
+      } catch (ObjectStoreException e) {
+        LOGGER.warn("ObjectStore exception: " + e.getMessage());
         return false;
       }
-    } else {
+    } catch (MuleException e) {
+      LOGGER.warn("Could not retrieve Id or Value for event: " + e.getMessage());
       return false;
     }
   }
 
+  private String evaluateId(CoreEvent event) {
+    try {
+      return getIdForEvent(event);
+    } catch (MuleException e) {
+      LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
+          + " from the connector "
+          + event.getContext().getOriginatingLocation().getComponentIdentifier().getIdentifier().getNamespace(), e);
+      return null;
+    }
+  }
+
+  private void markSeen(String id) {
+    if (seenIds != null) {
+      seenIds.put(id);
+    }
+  }
+
   @Override
   public final CoreEvent process(CoreEvent event) throws MuleException {
     if (accept(event)) {
@@ -180,14 +237,46 @@ public class IdempotentMessageValidator extends AbstractComponent
     }
   }
 
+  /**
+   * Batch variant of {@link #process(CoreEvent)}, for sources that deliver many messages at once. Each id is evaluated once,
+   * and messages repeating an id already present in the same batch don't reach the store.
+   *
+   * @param events the events to validate
+   * @return the events that are not duplicates, in the same order
+   */
+  public final List<CoreEvent> processAll(List<CoreEvent> events) {
+    final List<CoreEvent> accepted = new ArrayList<>(events.size());
+    final Set<String> batchIds = new HashSet<>();
+    for (CoreEvent event : events) {
+      if (event == null) {
+        continue;
+      }
+      final String id = evaluateId(event);
+      if (id != null && batchIds.add(id) && accept(event, id)) {
+        accepted.add(event);
+      }
+    }
+    return accepted;
+  }
+
   protected boolean isNewMessage(CoreEvent event) {
+    final String id = evaluateId(event);
+    return id != null && isNewMessage(event, id);
+  }
+
+  protected boolean isNewMessage(CoreEvent event, String id) {
     try {
-      String id = this.getIdForEvent(event);
       if (store == null) {
         synchronized (this) {
-          initialise();
+          if (store == null) {
+            initialise();
+          }
         }
       }
+      if (singleRoundTrip || (seenIds != null && !seenIds.mightContain(id))) {
+        // Duplicates are detected when storing the id
+        return true;
+      }
       return !store.contains(id);
     } catch (MuleException e) {
       LOGGER.error("Exception attempting to determine idempotency of incoming message for " + getLocation().getRootContainerName()
@@ -7,7 +7,9 @@
 
 package org.mule.runtime.core.internal.routing;
 
+import static java.lang.Integer.getInteger;
 import static java.util.Collections.singletonList;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.processor.strategy.AsyncProcessingStrategyFactory.DEFAULT_MAX_CONCURRENCY;
 import static org.mule.runtime.core.internal.routing.ExpressionSplittingStrategy.DEFAULT_SPLIT_EXPRESSION;
 import static org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair.of;
@@ -19,7 +21,9 @@ import org.mule.runtime.api.message.Message;
 import org.mule.runtime.api.metadata.TypedValue;
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
+import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.internal.routing.forkjoin.CollectListForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.routing.forkjoin.StreamingForkJoinStrategyFactory;
 import org.mule.runtime.core.privileged.processor.chain.MessageProcessorChain;
 
 import org.reactivestreams.Publisher;
@@ -28,6 +32,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
+import javax.inject.Inject;
+
 /**
  * <p>
  * The <code>Parallel-Foreach</code> scope splits the incoming {@link org.mule.runtime.api.message.Message} into n parts will
@@ -37,6 +43,10 @@ import java.util.Optional;
  * For advanced use cases, a custom {@link ForkJoinStrategyFactory} can be applied to customize the logic used to aggregate the
  * route responses back into one single Event.
  * <p>
+ * When {@link #MULE_PARALLEL_FOREACH_STREAMING_WINDOW} is set, the route responses are streamed in order instead of being
+ * aggregated into a list, using a {@link StreamingForkJoinStrategyFactory}. The streamed responses are not repeatable, since
+ * buffering them so they can be iterated again would hold them all in memory.
+ * <p>
  * <b>EIP Reference:</b> <a href="http://www.eaipatterns.com/BroadcastAggregate.html"<a/>
  * </p>
  *
@@ -44,6 +54,15 @@ import java.util.Optional;
  */
 public class ParallelForEach extends AbstractForkJoinRouter {
 
+  /**
+   * Maximum number of route responses to hold before they are consumed when streaming them. If not set, or {@code 0}, the
+   * responses are aggregated into a list.
+   */
+  public static final String MULE_PARALLEL_FOREACH_STREAMING_WINDOW = SYSTEM_PROPERTY_PREFIX + "parallelForeach.streamingWindow";
+
+  @Inject
+  private StreamingManager streamingManager;
+
   private String collectionExpression = DEFAULT_SPLIT_EXPRESSION;
   private SplittingStrategy<CoreEvent, Iterator<TypedValue<?>>> splittingStrategy;
 
@@ -86,6 +105,11 @@ public class ParallelForEach extends AbstractForkJoinRouter {
 
   @Override
   protected ForkJoinStrategyFactory getDefaultForkJoinStrategyFactory() {
+    final int streamingWindow = getInteger(MULE_PARALLEL_FOREACH_STREAMING_WINDOW, 0);
+    if (streamingWindow > 0) {
+      return new StreamingForkJoinStrategyFactory(streamingWindow, streamingManager.forObjects().getNullCursorProviderFactory(),
+                                                  muleContext.getSchedulerService());
+    }
     return new CollectListForkJoinStrategyFactory();
   }
 
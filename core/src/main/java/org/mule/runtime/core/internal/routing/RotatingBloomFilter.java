@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing;
+
+import static java.lang.Long.highestOneBit;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free Bloom filter of the recently seen ids.
+ * <p>
+ * The ids are added to a current generation sized for {@code idsPerGeneration} ids. Once that many ids have been added, a new
+ * generation is started and the oldest one is discarded, so the memory used is bounded no matter how many ids go through it and
+ * the false positive rate stays around 1% for the ids of the last two generations. Ids older than that are forgotten.
+ * <p>
+ * As in any Bloom filter, {@link #mightContain(String)} may return {@code true} for an id that was never added, but never
+ * {@code false} for an id added in the current or previous generation.
+ *
+ * @since 4.2.0
+ */
+public final class RotatingBloomFilter {
+
+  // For a 1% false positive rate, ~9.6 bits per element and 7 hash functions are needed
+  private static final int BITS_PER_ID = 10;
+  private static final int HASH_FUNCTIONS = 7;
+
+  private final int idsPerGeneration;
+  private final long bitsMask;
+  private final AtomicReference<Generations> generations;
+
+  /**
+   * @param idsPerGeneration the number of ids to add before starting a new generation.
+   */
+  public RotatingBloomFilter(int idsPerGeneration) {
+    checkArgument(idsPerGeneration > 0, "idsPerGeneration must be greater than 0");
+
+    final long bits = (long) idsPerGeneration * BITS_PER_ID;
+    final long size = bits == highestOneBit(bits) ? bits : highestOneBit(bits) << 1;
+    this.idsPerGeneration = idsPerGeneration;
+    this.bitsMask = size - 1;
+    this.generations = new AtomicReference<>(new Generations(new Generation(size), null));
+  }
+
+  /**
+   * Adds the given {@code id} to the current generation, starting a new one if the current is full.
+   *
+   * @param id the id to add
+   */
+  public void put(String id) {
+    final long hash = hash(id);
+    final Generations current = generations.get();
+    current.current.put(hash);
+    if (current.current.count.incrementAndGet() == idsPerGeneration) {
+      // Only the thread that fills the generation gets here, so this can't race with other rotations.
+      generations.compareAndSet(current, new Generations(new Generation(bitsMask + 1), current.current));
+    }
+  }
+
+  /**
+   * @param id the id to check
+   * @return {@code false} if the {@code id} was definitely not added in the current or previous generation, {@code true} if it
+   *         may have been.
+   */
+  public boolean mightContain(String id) {
+    final long hash = hash(id);
+    final Generations current = generations.get();
+    return current.current.mightContain(hash) || (current.previous != null && current.previous.mightContain(hash));
+  }
+
+  private static long hash(String id) {
+    // FNV-1a, with the murmur3 finalizer so all the bits are mixed
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < id.length(); ++i) {
+      hash ^= id.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private static final class Generations {
+
+    private final Generation current;
+    private final Generation previous;
+
+    private Generations(Generation current, Generation previous) {
+      this.current = current;
+      this.previous = previous;
+    }
+  }
+
+  private final class Generation {
+
+    private final AtomicLongArray words;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private Generation(long bits) {
+      words = new AtomicLongArray((int) Math.max(bits >>> 6, 1));
+    }
+
+    private void put(long hash) {
+      final int hash1 = (int) hash;
+      final int hash2 = (int) (hash >>> 32);
+      for (int i = 1; i <= HASH_FUNCTIONS; ++i) {
+        final long bit = (hash1 + (long) i * hash2) & bitsMask;
+        final int word = (int) (bit >>> 6);
+        final long mask = 1L << bit;
+
+        long current = words.get(word);
+        while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+          current = words.get(word);
+        }
+      }
+    }
+
+    private boolean mightContain(long hash) {
+      final int hash1 = (int) hash;
+      final int hash2 = (int) (hash >>> 32);
+      for (int i = 1; i <= HASH_FUNCTIONS; ++i) {
+        final long bit = (hash1 + (long) i * hash2) & bitsMask;
+        if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
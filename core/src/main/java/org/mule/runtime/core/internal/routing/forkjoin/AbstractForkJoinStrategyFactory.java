@@ -34,6 +34,7 @@ import org.mule.runtime.core.internal.message.ErrorBuilder;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategy.RoutingPair;
 import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
+import org.mule.runtime.core.internal.util.PersistentCaseInsensitiveMap;
 import org.mule.runtime.core.privileged.routing.CompositeRoutingException;
 import org.mule.runtime.core.privileged.routing.RoutingResult;
 
@@ -47,9 +48,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -73,13 +76,9 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
                                                  long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
     reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
     return (original, routingPairs) -> {
-      final AtomicInteger count = new AtomicInteger();
       final CoreEvent.Builder resultBuilder = builder(original);
-      return from(routingPairs)
-          .map(addSequence(count))
-          .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
-                                              timeoutErrorType),
-                             maxConcurrency)
+      return processRoutingPairs(routingPairs, processingStrategy, maxConcurrency, delayErrors, timeout, reactorTimeoutScheduler,
+                                 timeoutErrorType)
           .collectList()
           .doOnNext(list -> {
             if (list.stream().anyMatch(event -> event.getError().isPresent())) {
@@ -102,16 +101,29 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
   protected abstract Function<List<CoreEvent>, CoreEvent> createResultEvent(CoreEvent original,
                                                                             CoreEvent.Builder resultBuilder);
 
-  private Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
+  /**
+   * Processes the given {@code routingPairs} with at most {@code maxConcurrency} of them in parallel, emitting the results in
+   * the same order as the routing pairs.
+   */
+  static Flux<CoreEvent> processRoutingPairs(Publisher<RoutingPair> routingPairs, ProcessingStrategy processingStrategy,
+                                             int maxConcurrency, boolean delayErrors, long timeout,
+                                             reactor.core.scheduler.Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    final AtomicInteger count = new AtomicInteger();
+    return from(routingPairs)
+        .map(addSequence(count))
+        .flatMapSequential(processRoutePair(processingStrategy, maxConcurrency, delayErrors, timeout, timeoutScheduler,
+                                            timeoutErrorType),
+                           maxConcurrency);
+  }
+
+  private static Function<RoutingPair, RoutingPair> addSequence(AtomicInteger count) {
     return pair -> of(builder(pair.getEvent()).groupCorrelation(Optional.of(GroupCorrelation.of(count.getAndIncrement())))
         .build(), pair.getRoute());
   }
 
-  private Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(ProcessingStrategy processingStrategy,
-                                                                                 int maxConcurrency,
-                                                                                 boolean delayErrors, long timeout,
-                                                                                 reactor.core.scheduler.Scheduler timeoutScheduler,
-                                                                                 ErrorType timeoutErrorType) {
+  private static Function<RoutingPair, Publisher<? extends CoreEvent>> processRoutePair(
+      ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors, long timeout,
+      reactor.core.scheduler.Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
 
     return pair -> {
       ReactiveProcessor route = publisher -> from(publisher)
@@ -128,16 +140,16 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     };
   }
 
-  private Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
-                                    RoutingPair pair) {
+  private static Mono<CoreEvent> onTimeout(ProcessingStrategy processingStrategy, boolean delayErrors, ErrorType timeoutErrorType,
+                                           RoutingPair pair) {
     return defer(() -> delayErrors ? just(createTimeoutErrorEvent(timeoutErrorType, pair))
         : error(new TimeoutException(TIMEOUT_EXCEPTION_DETAILED_DESCRIPTION_PREFIX + " '"
             + pair.getEvent().getGroupCorrelation().get().getSequence() + "'")))
                 .transform(processingStrategy.onPipeline(p -> p));
   }
 
-  private ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy, ReactiveProcessor processor,
-                                                    int maxConcurrency) {
+  private static ReactiveProcessor applyProcessingStrategy(ProcessingStrategy processingStrategy, ReactiveProcessor processor,
+                                                           int maxConcurrency) {
     if (maxConcurrency > 1) {
       return processingStrategy.onPipeline(processor);
     } else {
@@ -145,7 +157,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
     }
   }
 
-  private CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
+  private static CoreEvent createTimeoutErrorEvent(ErrorType timeoutErrorType, RoutingPair pair) {
     return builder(pair.getEvent()).message(Message.of(null))
         .error(ErrorBuilder.builder().errorType(timeoutErrorType)
             .exception(new TimeoutException()).description(TIMEOUT_EXCEPTION_DESCRIPTION)
@@ -155,7 +167,7 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
         .build();
   }
 
-  private CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
+  static CompositeRoutingException createCompositeRoutingException(List<CoreEvent> results) {
     Map<String, Message> successMap = new LinkedHashMap<>();
     Map<String, Error> errorMap = new LinkedHashMap<>();
 
@@ -172,35 +184,79 @@ public abstract class AbstractForkJoinStrategyFactory implements ForkJoinStrateg
 
   private Consumer<List<CoreEvent>> mergeVariables(CoreEvent original, CoreEvent.Builder result) {
     return list -> {
-      Map<String, TypedValue> routeVars = new HashMap<>();
-      list.forEach(event -> event.getVariables().forEach((key, value) -> {
-        // Only merge variables that have been added or mutated in routes
-        if (!value.equals(original.getVariables().get(key))) {
-          if (!routeVars.containsKey(key)) {
-            // A new variable that hasn't already been set by another route is added as a simple entry.
-            routeVars.put(key, value);
-          } else {
-            // If a variable already exists from before route, or was set in a previous route, then it's added to a list of 1.
-            if (!(routeVars.get(key).getValue() instanceof List)) {
-              List newList = new ArrayList();
-              newList.add(routeVars.get(key).getValue());
-              routeVars.put(key, new TypedValue(newList, DataType.builder().collectionType(List.class)
-                  .itemType(routeVars.get(key).getDataType().getType()).build()));
-            }
-            List valueList = (List) routeVars.get(key).getValue();
-            valueList.add(value.getValue());
-            if (((CollectionDataType) routeVars.get(key).getDataType()).getItemDataType().isCompatibleWith(value.getDataType())) {
-              // If item types are compatible then data type is conserved
-              routeVars.put(key, new TypedValue(valueList, routeVars.get(key).getDataType()));
-            } else {
-              // Else Object item type is used.
-              routeVars.put(key, new TypedValue(valueList, DataType.builder().collectionType(List.class).build()));
-            }
-          }
+      final Map<String, TypedValue<?>> originalVars = original.getVariables();
+      final Map<String, MergedVariable> routeVars = new HashMap<>();
+      // Only merge variables that have been added or mutated in routes
+      list.forEach(event -> forEachChangedVariable(originalVars, event.getVariables(), (key, value) -> {
+        final MergedVariable merged = routeVars.get(key);
+        if (merged == null) {
+          // A new variable that hasn't already been set by another route is added as a simple entry.
+          routeVars.put(key, new MergedVariable(value));
+        } else {
+          // If a variable was set in a previous route, then it's added to a list.
+          merged.add(value);
         }
       }));
-      routeVars.forEach((s, typedValue) -> result.addVariable(s, typedValue.getValue(), typedValue.getDataType()));
+      routeVars.forEach((key, merged) -> result.addVariable(key, merged.getValue(), merged.getDataType()));
     };
   }
 
+  private static void forEachChangedVariable(Map<String, TypedValue<?>> originalVars, Map<String, TypedValue<?>> routeVars,
+                                             BiConsumer<String, TypedValue<?>> action) {
+    if (routeVars == originalVars) {
+      return;
+    } else if (routeVars instanceof PersistentCaseInsensitiveMap && originalVars instanceof PersistentCaseInsensitiveMap) {
+      // The route variables are derived from the original ones, so only the ones written in the route are visited
+      ((PersistentCaseInsensitiveMap<TypedValue<?>>) routeVars)
+          .forEachChange((PersistentCaseInsensitiveMap<TypedValue<?>>) originalVars, action);
+    } else {
+      routeVars.forEach((key, value) -> {
+        if (!value.equals(originalVars.get(key))) {
+          action.accept(key, value);
+        }
+      });
+    }
+  }
+
+  /**
+   * The value of a variable set by one or more routes. The list of values and its data type are only built when a second route
+   * sets it. If the first value is itself a {@link List}, the values of the following routes are appended to its items.
+   */
+  private static final class MergedVariable {
+
+    private final TypedValue<?> first;
+    private List<Object> values;
+    private DataType listDataType;
+
+    private MergedVariable(TypedValue<?> first) {
+      this.first = first;
+    }
+
+    private void add(TypedValue<?> value) {
+      if (values == null) {
+        if (first.getValue() instanceof List && first.getDataType() instanceof CollectionDataType) {
+          values = new ArrayList<>((List<?>) first.getValue());
+          listDataType = first.getDataType();
+        } else {
+          values = new ArrayList<>();
+          values.add(first.getValue());
+          listDataType = DataType.builder().collectionType(List.class).itemType(first.getDataType().getType()).build();
+        }
+      }
+      values.add(value.getValue());
+      if (!((CollectionDataType) listDataType).getItemDataType().isCompatibleWith(value.getDataType())) {
+        // If item types are not compatible then Object item type is used.
+        listDataType = DataType.builder().collectionType(List.class).build();
+      }
+    }
+
+    private Object getValue() {
+      return values == null ? first.getValue() : values;
+    }
+
+    private DataType getDataType() {
+      return values == null ? first.getDataType() : listDataType;
+    }
+  }
+
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Math.min;
+import static org.mule.runtime.api.message.Message.of;
+import static org.mule.runtime.api.metadata.DataType.fromType;
+import static org.mule.runtime.api.util.Preconditions.checkArgument;
+import static org.mule.runtime.core.api.event.CoreEvent.builder;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.processRoutingPairs;
+import static reactor.core.publisher.Mono.fromCallable;
+
+import org.mule.runtime.api.message.ErrorType;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.api.streaming.object.CursorIteratorProvider;
+import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
+import org.mule.runtime.core.api.streaming.object.CursorIteratorProviderFactory;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategy;
+import org.mule.runtime.core.internal.routing.ForkJoinStrategyFactory;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link ForkJoinStrategy} that:
+ * <ul>
+ * <li>Performs parallel execution of route pairs subject to {@code maxConcurrency} and {@code window}.
+ * <li>Emits a result event right away, with a {@link CursorIteratorProvider} payload that streams the result
+ * {@link org.mule.runtime.api.message.Message}s in the same order as the route pairs, as soon as all the previous ones are
+ * available.
+ * <li>Waits for each result no longer than {@code timeout}.
+ * <li>Holds at most {@code window} results that weren't consumed yet, delaying the execution of the remaining route pairs until
+ * the results are consumed. If the results are consumed from a thread for CPU work, they are buffered instead, so that thread
+ * doesn't wait for route pairs held back by the window.
+ * <li>Cancels the route pairs that were not executed yet when the root event context terminates, so results that are not fully
+ * consumed don't keep the routes subscribed.
+ * <li>Does not merge variables, since the result event is emitted before the routes complete.
+ * <li>When errors are delayed, processes all routes regardless of errors and throws a composite exception with the errors once
+ * the rest of the results are consumed.
+ * </ul>
+ *
+ * @since 4.2.0
+ */
+public class StreamingForkJoinStrategyFactory implements ForkJoinStrategyFactory {
+
+  private final int window;
+  private final CursorIteratorProviderFactory cursorProviderFactory;
+  private final SchedulerService schedulerService;
+
+  /**
+   * @param window the maximum number of results to hold before they are consumed.
+   * @param cursorProviderFactory the factory of the {@link CursorIteratorProvider} for the streamed results. Since all the
+   *        results go through it, a factory that buffers them defeats the purpose of streaming.
+   * @param schedulerService used to tell whether the results are consumed from a thread for CPU work.
+   */
+  public StreamingForkJoinStrategyFactory(int window, CursorIteratorProviderFactory cursorProviderFactory,
+                                          SchedulerService schedulerService) {
+    checkArgument(window > 0, "window must be greater than 0");
+    this.window = window;
+    this.cursorProviderFactory = cursorProviderFactory;
+    this.schedulerService = schedulerService;
+  }
+
+  @Override
+  public ForkJoinStrategy createForkJoinStrategy(ProcessingStrategy processingStrategy, int maxConcurrency, boolean delayErrors,
+                                                 long timeout, Scheduler timeoutScheduler, ErrorType timeoutErrorType) {
+    reactor.core.scheduler.Scheduler reactorTimeoutScheduler = Schedulers.fromExecutorService(timeoutScheduler);
+    // Results completed out of order are buffered by the sequential merge, so its concurrency is bound by the window too
+    final int concurrency = min(maxConcurrency, window);
+    return (original, routingPairs) -> fromCallable(() -> {
+      final StreamingRouteResults results = new StreamingRouteResults(window, timeout, schedulerService);
+      ((BaseEventContext) original.getContext()).getRootContext().onTerminated((event, throwable) -> results.close());
+      processRoutingPairs(routingPairs, processingStrategy, concurrency, delayErrors, timeout, reactorTimeoutScheduler,
+                          timeoutErrorType).subscribe(results);
+      return builder(original).message(of(cursorProviderFactory.of(original.getContext(), results))).build();
+    });
+  }
+
+  @Override
+  public DataType getResultDataType() {
+    return fromType(CursorIteratorProvider.class);
+  }
+}
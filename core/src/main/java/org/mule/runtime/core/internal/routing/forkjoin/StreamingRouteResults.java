@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.routing.forkjoin;
+
+import static java.lang.Long.MAX_VALUE;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.routing.forkjoin.AbstractForkJoinStrategyFactory.createCompositeRoutingException;
+
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.scheduler.SchedulerService;
+import org.mule.runtime.core.api.event.CoreEvent;
+
+import org.reactivestreams.Subscription;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
+
+import reactor.core.publisher.BaseSubscriber;
+
+/**
+ * Blocking {@link Iterator} over the messages of the route results it is subscribed to, which requests new results from the
+ * routes as the previous ones are consumed, so no more than {@code window} results are held at any time.
+ * <p>
+ * When errors are delayed, the route results with an error are skipped and a
+ * {@link org.mule.runtime.core.privileged.routing.CompositeRoutingException} with all of them is thrown once the rest of the
+ * results have been consumed.
+ * <p>
+ * Waiting for the next result is bound by the route timeout. If it elapses, the routes that were not started yet are cancelled.
+ * <p>
+ * Threads for CPU work must not wait for routes that are only held back by the window. If the results are consumed from one of
+ * those threads, the window is lifted and the results are buffered as they are available, so the consumer only waits for
+ * routes that are already running.
+ *
+ * @since 4.2.0
+ */
+final class StreamingRouteResults extends BaseSubscriber<CoreEvent> implements Iterator<Message>, Closeable {
+
+  private static final Object COMPLETE = new Object();
+
+  private final int window;
+  private final long timeout;
+  private final SchedulerService schedulerService;
+  private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+  private final List<CoreEvent> errors = new ArrayList<>();
+  private Object next;
+  private boolean windowed = true;
+
+  StreamingRouteResults(int window, long timeout, SchedulerService schedulerService) {
+    this.window = window;
+    this.timeout = timeout;
+    this.schedulerService = schedulerService;
+  }
+
+  @Override
+  protected void hookOnSubscribe(Subscription subscription) {
+    request(window);
+  }
+
+  @Override
+  protected void hookOnNext(CoreEvent value) {
+    results.offer(value);
+  }
+
+  @Override
+  protected void hookOnError(Throwable throwable) {
+    results.offer(throwable);
+  }
+
+  @Override
+  protected void hookOnComplete() {
+    results.offer(COMPLETE);
+  }
+
+  @Override
+  protected void hookOnCancel() {
+    // Unblock any consumer, there will be no more results
+    results.offer(COMPLETE);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null && windowed && schedulerService.isCurrentThreadForCpuWork()) {
+      windowed = false;
+      requestUnbounded();
+    }
+
+    while (next == null) {
+      final Object result = take();
+      if (result instanceof CoreEvent && ((CoreEvent) result).getError().isPresent()) {
+        errors.add((CoreEvent) result);
+        requestNext();
+      } else {
+        next = result;
+      }
+    }
+
+    if (next == COMPLETE) {
+      if (!errors.isEmpty()) {
+        throw new MuleRuntimeException(createCompositeRoutingException(errors));
+      }
+      return false;
+    } else if (next instanceof Throwable) {
+      throw next instanceof RuntimeException ? (RuntimeException) next : new MuleRuntimeException((Throwable) next);
+    }
+    return true;
+  }
+
+  @Override
+  public Message next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final CoreEvent result = (CoreEvent) next;
+    next = null;
+    requestNext();
+    return result.getMessage();
+  }
+
+  private void requestNext() {
+    if (windowed) {
+      request(1);
+    }
+  }
+
+  private Object take() {
+    final Object result;
+    try {
+      result = timeout == MAX_VALUE ? results.take() : results.poll(timeout, MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new MuleRuntimeException(e);
+    }
+
+    if (result == null) {
+      dispose();
+      throw new MuleRuntimeException(createStaticMessage(format("No route result was available after %d ms", timeout)),
+                                     new TimeoutException());
+    }
+    return result;
+  }
+
+  /**
+   * Cancels the routes that were not started yet.
+   */
+  @Override
+  public void close() {
+    dispose();
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.serialization.SerializationProtocol;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.api.context.MuleContextAware;
+
+/**
+ * Serializes objects using the compact format of {@link BinarySerializationProtocol}, falling back to the default Java
+ * serialization mechanism for the types that format doesn't support.
+ *
+ * @since 4.2.0
+ */
+public class BinaryObjectSerializer implements ObjectSerializer, MuleContextAware {
+
+  /**
+   * System property to use this serializer as the default {@link ObjectSerializer} instead of the {@link JavaObjectSerializer}
+   */
+  public static final String MULE_BINARY_SERIALIZATION = SYSTEM_PROPERTY_PREFIX + "serialization.binary";
+
+  private volatile BinarySerializationProtocol binarySerializationProtocol = new BinarySerializationProtocol();
+
+  @Override
+  public SerializationProtocol getInternalProtocol() {
+    return binarySerializationProtocol;
+  }
+
+  @Override
+  public SerializationProtocol getExternalProtocol() {
+    return binarySerializationProtocol;
+  }
+
+  @Override
+  public void setMuleContext(MuleContext context) {
+    binarySerializationProtocol.setMuleContext(context);
+  }
+}
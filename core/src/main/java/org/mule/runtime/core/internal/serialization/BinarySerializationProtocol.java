@@ -0,0 +1,668 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.serialization;
+
+import static com.google.common.cache.CacheBuilder.newBuilder;
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.newSetFromMap;
+import static java.util.Optional.ofNullable;
+import static org.mule.runtime.api.metadata.DataType.BYTE_ARRAY;
+import static org.mule.runtime.core.api.util.IOUtils.toByteArray;
+import static org.mule.runtime.core.internal.message.DefaultMessageBuilder.getMessageImplementationClass;
+
+import org.mule.runtime.api.message.Error;
+import org.mule.runtime.api.message.ItemSequenceInfo;
+import org.mule.runtime.api.message.Message;
+import org.mule.runtime.api.metadata.CollectionDataType;
+import org.mule.runtime.api.metadata.DataType;
+import org.mule.runtime.api.metadata.MapDataType;
+import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.api.security.SecurityContext;
+import org.mule.runtime.api.serialization.SerializationException;
+import org.mule.runtime.api.streaming.bytes.CursorStream;
+import org.mule.runtime.api.streaming.bytes.CursorStreamProvider;
+import org.mule.runtime.core.api.event.CoreEvent;
+import org.mule.runtime.core.internal.event.DefaultEventBuilder.InternalEventImplementation;
+import org.mule.runtime.core.internal.message.InternalEvent;
+import org.mule.runtime.core.internal.message.InternalMessage;
+import org.mule.runtime.core.internal.metadata.DefaultCollectionDataType;
+import org.mule.runtime.core.internal.metadata.DefaultMapDataType;
+import org.mule.runtime.core.internal.metadata.SimpleDataType;
+import org.mule.runtime.core.internal.util.SerializationUtils;
+import org.mule.runtime.core.privileged.event.BaseEventContext;
+import org.mule.runtime.core.privileged.event.MuleSession;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Implementation of {@link org.mule.runtime.api.serialization.SerializationProtocol} that writes a compact binary format for the
+ * objects that are most commonly serialized by the runtime: {@link CoreEvent}s, {@link Message}s, {@link TypedValue}s,
+ * {@link DataType}s, and the common JDK value and collection types. Any other object is written using Java's default
+ * serialization mechanism, so it still has to implement {@link Serializable}.
+ * <p>
+ * Each class referenced by a serialized object is written by name only the first time it appears, and by a numeric id
+ * afterwards. The most common classes have a fixed id and are never written by name. Classes are resolved by name once per
+ * class loader, and kept in a dictionary of that class loader from then on.
+ * <p>
+ * Objects serialized with Java's default serialization mechanism, such as the ones written by
+ * {@link JavaExternalSerializerProtocol}, can also be deserialized by this protocol.
+ *
+ * @since 4.2.0
+ */
+public class BinarySerializationProtocol extends AbstractSerializationProtocol {
+
+  private static final byte MAGIC = 'M';
+  private static final byte VERSION = 1;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte TRUE = 2;
+  private static final byte FALSE = 3;
+  private static final byte INT = 4;
+  private static final byte LONG = 5;
+  private static final byte DOUBLE = 6;
+  private static final byte FLOAT = 7;
+  private static final byte SHORT = 8;
+  private static final byte BYTE = 9;
+  private static final byte CHAR = 10;
+  private static final byte BYTES = 11;
+  private static final byte BIG_DECIMAL = 12;
+  private static final byte BIG_INTEGER = 13;
+  private static final byte DATE = 14;
+  private static final byte ARRAY_LIST = 15;
+  private static final byte LINKED_LIST = 16;
+  private static final byte HASH_MAP = 17;
+  private static final byte LINKED_HASH_MAP = 18;
+  private static final byte HASH_SET = 19;
+  private static final byte LINKED_HASH_SET = 20;
+  private static final byte DATA_TYPE = 21;
+  private static final byte TYPED_VALUE = 22;
+  private static final byte MESSAGE = 23;
+  private static final byte EVENT = 24;
+  private static final byte JAVA = 25;
+
+  private static final byte SIMPLE_DATA_TYPE = 0;
+  private static final byte COLLECTION_DATA_TYPE = 1;
+  private static final byte MAP_DATA_TYPE = 2;
+  private static final byte JAVA_DATA_TYPE = 3;
+
+  private static final Class<?>[] WELL_KNOWN_CLASSES = {Object.class, String.class, byte[].class, Boolean.class, Byte.class,
+      Short.class, Character.class, Integer.class, Long.class, Float.class, Double.class, boolean.class, byte.class, short.class,
+      char.class, int.class, long.class, float.class, double.class, Number.class, BigDecimal.class, BigInteger.class, Date.class,
+      Serializable.class, InputStream.class, CursorStreamProvider.class, Iterator.class, Collection.class, List.class,
+      ArrayList.class, LinkedList.class, Set.class, HashSet.class, LinkedHashSet.class, Map.class, HashMap.class,
+      LinkedHashMap.class};
+
+  private static final Map<Class<?>, Integer> WELL_KNOWN_CLASS_IDS = new HashMap<>();
+
+  static {
+    for (int i = 0; i < WELL_KNOWN_CLASSES.length; ++i) {
+      WELL_KNOWN_CLASS_IDS.put(WELL_KNOWN_CLASSES[i], i);
+    }
+  }
+
+  // Classes are weakly referenced so the dictionaries don't keep the artifact class loaders from being collected
+  private final LoadingCache<ClassLoader, Cache<String, Class<?>>> classDictionaries =
+      newBuilder().weakKeys().build(new CacheLoader<ClassLoader, Cache<String, Class<?>>>() {
+
+        @Override
+        public Cache<String, Class<?>> load(ClassLoader classLoader) {
+          return newBuilder().weakValues().build();
+        }
+      });
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] doSerialize(Object object) throws Exception {
+    if (object instanceof CursorStreamProvider) {
+      object = toBytes((CursorStreamProvider) object);
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeByte(MAGIC);
+    out.writeByte(VERSION);
+    new Writer(out).writeValue(object);
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected <T> T doDeserialize(InputStream inputStream, ClassLoader classLoader) throws Exception {
+    PushbackInputStream in = new PushbackInputStream(inputStream, 1);
+    int magic = in.read();
+    if (magic != MAGIC) {
+      if (magic != -1) {
+        in.unread(magic);
+      }
+      return (T) SerializationUtils.deserialize(in, classLoader, muleContext);
+    }
+
+    DataInputStream dataIn = new DataInputStream(in);
+    byte version = dataIn.readByte();
+    if (version != VERSION) {
+      throw new SerializationException(format("Unsupported binary serialization version %d", version));
+    }
+    return (T) new Reader(dataIn, classLoader).readValue();
+  }
+
+  @Override
+  protected <T> T postInitialize(T object) {
+    // does nothing since the objects read with Java serialization are already initialized by SerializationUtils
+    return object;
+  }
+
+  private Class<?> resolveClass(String className, ClassLoader classLoader) throws ClassNotFoundException {
+    Cache<String, Class<?>> dictionary = classDictionaries.getUnchecked(classLoader);
+    Class<?> clazz = dictionary.getIfPresent(className);
+    if (clazz == null) {
+      clazz = Class.forName(className, false, classLoader);
+      dictionary.put(className, clazz);
+    }
+    return clazz;
+  }
+
+  private static byte[] toBytes(CursorStreamProvider cursorStreamProvider) throws IOException {
+    try (CursorStream cursor = cursorStreamProvider.openCursor()) {
+      return toByteArray(cursor);
+    }
+  }
+
+  private static boolean isSerializable(Object value) {
+    return value == null || value instanceof Serializable || value instanceof CursorStreamProvider;
+  }
+
+  private final class Writer {
+
+    private final DataOutputStream out;
+    private final Map<Class<?>, Integer> classIds = new HashMap<>();
+    private final Set<Object> writing = newSetFromMap(new IdentityHashMap<>());
+
+    private Writer(DataOutputStream out) {
+      this.out = out;
+    }
+
+    private void writeValue(Object value) throws IOException {
+      if (value == null) {
+        out.writeByte(NULL);
+        return;
+      }
+
+      final Class<?> type = value.getClass();
+      if (type == String.class) {
+        out.writeByte(STRING);
+        writeString((String) value);
+      } else if (type == Boolean.class) {
+        out.writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (type == Integer.class) {
+        out.writeByte(INT);
+        writeVarLong(zigZag((Integer) value));
+      } else if (type == Long.class) {
+        out.writeByte(LONG);
+        writeVarLong(zigZag((Long) value));
+      } else if (type == Double.class) {
+        out.writeByte(DOUBLE);
+        out.writeDouble((Double) value);
+      } else if (type == Float.class) {
+        out.writeByte(FLOAT);
+        out.writeFloat((Float) value);
+      } else if (type == Short.class) {
+        out.writeByte(SHORT);
+        out.writeShort((Short) value);
+      } else if (type == Byte.class) {
+        out.writeByte(BYTE);
+        out.writeByte((Byte) value);
+      } else if (type == Character.class) {
+        out.writeByte(CHAR);
+        out.writeChar((Character) value);
+      } else if (type == byte[].class) {
+        out.writeByte(BYTES);
+        writeBytes((byte[]) value);
+      } else if (type == BigDecimal.class) {
+        out.writeByte(BIG_DECIMAL);
+        writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+        writeVarLong(zigZag(((BigDecimal) value).scale()));
+      } else if (type == BigInteger.class) {
+        out.writeByte(BIG_INTEGER);
+        writeBytes(((BigInteger) value).toByteArray());
+      } else if (type == Date.class) {
+        out.writeByte(DATE);
+        out.writeLong(((Date) value).getTime());
+      } else if (value instanceof DataType) {
+        out.writeByte(DATA_TYPE);
+        writeDataType((DataType) value);
+      } else if (type == TypedValue.class) {
+        out.writeByte(TYPED_VALUE);
+        writeTypedValue((TypedValue<?>) value);
+      } else if (type == getMessageImplementationClass() && isPlainMessage((InternalMessage) value)) {
+        out.writeByte(MESSAGE);
+        writeMessage((Message) value);
+      } else if (type == InternalEventImplementation.class) {
+        out.writeByte(EVENT);
+        writeEvent((InternalEvent) value);
+      } else if (!writing.add(value)) {
+        // A collection that contains itself, let Java serialization handle the cycle
+        writeJava(value);
+      } else {
+        try {
+          writeCollectionOrJava(type, value);
+        } finally {
+          writing.remove(value);
+        }
+      }
+    }
+
+    private void writeCollectionOrJava(Class<?> type, Object value) throws IOException {
+      if (type == ArrayList.class) {
+        writeCollection(ARRAY_LIST, (Collection<?>) value);
+      } else if (type == LinkedList.class) {
+        writeCollection(LINKED_LIST, (Collection<?>) value);
+      } else if (type == HashSet.class) {
+        writeCollection(HASH_SET, (Collection<?>) value);
+      } else if (type == LinkedHashSet.class) {
+        writeCollection(LINKED_HASH_SET, (Collection<?>) value);
+      } else if (type == HashMap.class) {
+        writeMap(HASH_MAP, (Map<?, ?>) value);
+      } else if (type == LinkedHashMap.class) {
+        writeMap(LINKED_HASH_MAP, (Map<?, ?>) value);
+      } else {
+        writeJava(value);
+      }
+    }
+
+    private void writeCollection(byte tag, Collection<?> collection) throws IOException {
+      out.writeByte(tag);
+      writeVarLong(collection.size());
+      for (Object item : collection) {
+        writeValue(item);
+      }
+    }
+
+    private void writeMap(byte tag, Map<?, ?> map) throws IOException {
+      out.writeByte(tag);
+      writeVarLong(map.size());
+      for (Entry<?, ?> entry : map.entrySet()) {
+        writeValue(entry.getKey());
+        writeValue(entry.getValue());
+      }
+    }
+
+    private void writeJava(Object value) throws IOException {
+      if (!(value instanceof Serializable)) {
+        throw new SerializationException(format("Was expecting a Serializable type. %s was found instead",
+                                                value.getClass().getName()));
+      }
+      out.writeByte(JAVA);
+      writeBytes(org.apache.commons.lang3.SerializationUtils.serialize((Serializable) value));
+    }
+
+    private void writeDataType(DataType dataType) throws IOException {
+      final Class<?> type = dataType.getClass();
+      if (type == SimpleDataType.class) {
+        out.writeByte(SIMPLE_DATA_TYPE);
+        writeSimpleDataType(dataType);
+      } else if (type == DefaultCollectionDataType.class
+          && ((CollectionDataType) dataType).getItemDataType().getClass() == SimpleDataType.class) {
+        out.writeByte(COLLECTION_DATA_TYPE);
+        writeSimpleDataType(dataType);
+        writeSimpleDataType(((CollectionDataType) dataType).getItemDataType());
+      } else if (type == DefaultMapDataType.class
+          && ((MapDataType) dataType).getKeyDataType().getClass() == SimpleDataType.class
+          && ((MapDataType) dataType).getValueDataType().getClass() == SimpleDataType.class) {
+        out.writeByte(MAP_DATA_TYPE);
+        writeSimpleDataType(dataType);
+        writeSimpleDataType(((MapDataType) dataType).getKeyDataType());
+        writeSimpleDataType(((MapDataType) dataType).getValueDataType());
+      } else {
+        out.writeByte(JAVA_DATA_TYPE);
+        writeJava(dataType);
+      }
+    }
+
+    private void writeSimpleDataType(DataType dataType) throws IOException {
+      writeClass(dataType.getType());
+      writeString(dataType.getMediaType().toRfcString());
+    }
+
+    private void writeTypedValue(TypedValue<?> typedValue) throws IOException {
+      if (typedValue.getValue() instanceof CursorStreamProvider) {
+        writeValue(toBytes((CursorStreamProvider) typedValue.getValue()));
+        writeDataType(DataType.builder(BYTE_ARRAY).mediaType(typedValue.getDataType().getMediaType()).build());
+      } else {
+        writeValue(typedValue.getValue());
+        writeDataType(typedValue.getDataType());
+      }
+    }
+
+    private void writeMessage(Message message) throws IOException {
+      writeTypedValue(message.getPayload());
+      writeTypedValue(message.getAttributes());
+    }
+
+    private void writeEvent(InternalEvent event) throws IOException {
+      writeValue(event.getContext());
+      writeValue(event.getMessage());
+
+      writeVarLong(event.getVariables().size());
+      for (Entry<String, TypedValue<?>> variable : event.getVariables().entrySet()) {
+        writeString(variable.getKey());
+        writeTypedValue(variable.getValue());
+      }
+
+      Map<String, ?> internalParameters = event.getInternalParameters();
+      writeVarLong(internalParameters.size());
+      for (Entry<String, ?> internalParameter : internalParameters.entrySet()) {
+        writeString(internalParameter.getKey());
+        writeValue(internalParameter.getValue());
+      }
+
+      writeValue(event.getSession());
+      writeValue(event.getSecurityContext());
+      writeValue(event.getItemSequenceInfo().orElse(null));
+      writeValue(event.getError().orElse(null));
+      writeValue(event.getLegacyCorrelationId());
+      out.writeBoolean(event.isNotificationsEnabled());
+    }
+
+    private boolean isPlainMessage(InternalMessage message) {
+      // Legacy properties, attachments and non serializable payloads are left to the message's own serialization
+      return message.getExceptionPayload() == null
+          && message.getInboundPropertyNames().isEmpty() && message.getOutboundPropertyNames().isEmpty()
+          && message.getInboundAttachmentNames().isEmpty() && message.getOutboundAttachmentNames().isEmpty()
+          && isSerializable(message.getPayload().getValue()) && isSerializable(message.getAttributes().getValue());
+    }
+
+    private void writeClass(Class<?> clazz) throws IOException {
+      Integer id = WELL_KNOWN_CLASS_IDS.get(clazz);
+      if (id == null) {
+        id = classIds.get(clazz);
+      }
+
+      if (id != null) {
+        writeVarLong(id + 1);
+      } else {
+        classIds.put(clazz, WELL_KNOWN_CLASSES.length + classIds.size());
+        writeVarLong(0);
+        writeString(clazz.getName());
+      }
+    }
+
+    private void writeString(String value) throws IOException {
+      writeBytes(value.getBytes(UTF_8));
+    }
+
+    private void writeBytes(byte[] value) throws IOException {
+      writeVarLong(value.length);
+      out.write(value);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+      while ((value & ~0x7FL) != 0) {
+        out.writeByte((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.writeByte((int) value);
+    }
+
+    private long zigZag(long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+  }
+
+  private final class Reader {
+
+    private final DataInputStream in;
+    private final ClassLoader classLoader;
+    private final List<Class<?>> classes = new ArrayList<>();
+
+    private Reader(DataInputStream in, ClassLoader classLoader) {
+      this.in = in;
+      this.classLoader = classLoader;
+    }
+
+    private Object readValue() throws Exception {
+      final byte tag = in.readByte();
+      switch (tag) {
+        case NULL:
+          return null;
+        case STRING:
+          return readString();
+        case TRUE:
+          return true;
+        case FALSE:
+          return false;
+        case INT:
+          return (int) unZigZag(readVarLong());
+        case LONG:
+          return unZigZag(readVarLong());
+        case DOUBLE:
+          return in.readDouble();
+        case FLOAT:
+          return in.readFloat();
+        case SHORT:
+          return in.readShort();
+        case BYTE:
+          return in.readByte();
+        case CHAR:
+          return in.readChar();
+        case BYTES:
+          return readBytes();
+        case BIG_DECIMAL:
+          return new BigDecimal(new BigInteger(readBytes()), (int) unZigZag(readVarLong()));
+        case BIG_INTEGER:
+          return new BigInteger(readBytes());
+        case DATE:
+          return new Date(in.readLong());
+        case ARRAY_LIST:
+          int size = readSize();
+          return readCollection(new ArrayList<>(size), size);
+        case LINKED_LIST:
+          return readCollection(new LinkedList<>(), readSize());
+        case HASH_SET:
+          return readCollection(new HashSet<>(), readSize());
+        case LINKED_HASH_SET:
+          return readCollection(new LinkedHashSet<>(), readSize());
+        case HASH_MAP:
+          return readMap(new HashMap<>(), readSize());
+        case LINKED_HASH_MAP:
+          return readMap(new LinkedHashMap<>(), readSize());
+        case DATA_TYPE:
+          return readDataType();
+        case TYPED_VALUE:
+          return readTypedValue();
+        case MESSAGE:
+          return readMessage();
+        case EVENT:
+          return readEvent();
+        case JAVA:
+          return readJava();
+        default:
+          throw new SerializationException(format("Unknown binary serialization tag %d", tag));
+      }
+    }
+
+    private Collection<Object> readCollection(Collection<Object> collection, int size) throws Exception {
+      for (int i = 0; i < size; ++i) {
+        collection.add(readValue());
+      }
+      return collection;
+    }
+
+    private Map<Object, Object> readMap(Map<Object, Object> map, int size) throws Exception {
+      for (int i = 0; i < size; ++i) {
+        map.put(readValue(), readValue());
+      }
+      return map;
+    }
+
+    private Object readJava() throws IOException {
+      return SerializationUtils.deserialize(new ByteArrayInputStream(readBytes()), classLoader, muleContext);
+    }
+
+    private DataType readDataType() throws Exception {
+      final byte kind = in.readByte();
+      switch (kind) {
+        case SIMPLE_DATA_TYPE:
+          Class<?> type = readClass();
+          return DataType.builder().type(type).mediaType(readString()).build();
+        case COLLECTION_DATA_TYPE:
+          return readCollectionDataType();
+        case MAP_DATA_TYPE:
+          return readMapDataType();
+        case JAVA_DATA_TYPE:
+          return (DataType) readValue();
+        default:
+          throw new SerializationException(format("Unknown binary serialization data type kind %d", kind));
+      }
+    }
+
+    private DataType readCollectionDataType() throws Exception {
+      Class<?> type = readClass();
+      String mediaType = readString();
+      Class<?> itemType = readClass();
+      String itemMediaType = readString();
+
+      if (Iterator.class.isAssignableFrom(type)) {
+        return DataType.builder().streamType((Class<? extends Iterator>) type).itemType(itemType).itemMediaType(itemMediaType)
+            .mediaType(mediaType).build();
+      } else {
+        return DataType.builder().collectionType((Class<? extends Collection>) type).itemType(itemType)
+            .itemMediaType(itemMediaType).mediaType(mediaType).build();
+      }
+    }
+
+    private DataType readMapDataType() throws Exception {
+      Class<?> type = readClass();
+      String mediaType = readString();
+      Class<?> keyType = readClass();
+      String keyMediaType = readString();
+      Class<?> valueType = readClass();
+      String valueMediaType = readString();
+
+      return DataType.builder().mapType((Class<? extends Map>) type).keyType(keyType).keyMediaType(keyMediaType)
+          .valueType(valueType).valueMediaType(valueMediaType).mediaType(mediaType).build();
+    }
+
+    private TypedValue<?> readTypedValue() throws Exception {
+      Object value = readValue();
+      return new TypedValue<>(value, readDataType());
+    }
+
+    private Message readMessage() throws Exception {
+      TypedValue<?> payload = readTypedValue();
+      return Message.builder().payload(payload).attributes(readTypedValue()).build();
+    }
+
+    private CoreEvent readEvent() throws Exception {
+      InternalEvent.Builder builder = InternalEvent.builder((BaseEventContext) readValue());
+      builder.message((Message) readValue());
+
+      int variablesSize = readSize();
+      Map<String, TypedValue<?>> variables = new HashMap<>();
+      for (int i = 0; i < variablesSize; ++i) {
+        variables.put(readString(), readTypedValue());
+      }
+      builder.variables(variables);
+
+      int internalParametersSize = readSize();
+      Map<String, Object> internalParameters = new HashMap<>();
+      for (int i = 0; i < internalParametersSize; ++i) {
+        internalParameters.put(readString(), readValue());
+      }
+      builder.internalParameters(internalParameters);
+
+      builder.session((MuleSession) readValue());
+      builder.securityContext((SecurityContext) readValue());
+      builder.itemSequenceInfo(ofNullable((ItemSequenceInfo) readValue()));
+      builder.error((Error) readValue());
+      builder.correlationId((String) readValue());
+      if (!in.readBoolean()) {
+        builder.disableNotifications();
+      }
+      return builder.build();
+    }
+
+    private Class<?> readClass() throws Exception {
+      int id = readSize();
+      if (id == 0) {
+        Class<?> clazz = resolveClass(readString(), classLoader);
+        classes.add(clazz);
+        return clazz;
+      }
+
+      --id;
+      return id < WELL_KNOWN_CLASSES.length ? WELL_KNOWN_CLASSES[id] : classes.get(id - WELL_KNOWN_CLASSES.length);
+    }
+
+    private String readString() throws IOException {
+      return new String(readBytes(), UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+      byte[] bytes = new byte[readSize()];
+      in.readFully(bytes);
+      return bytes;
+    }
+
+    private int readSize() throws IOException {
+      long size = readVarLong();
+      if (size < 0 || size > Integer.MAX_VALUE) {
+        throw new SerializationException(format("Invalid binary serialization size %d", size));
+      }
+      return (int) size;
+    }
+
+    private long readVarLong() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = in.readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new SerializationException("Malformed binary serialization variable length number");
+    }
+
+    private long unZigZag(long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
@@ -6,9 +6,17 @@
  */
 package org.mule.runtime.core.internal.store;
 
+import static java.lang.Boolean.getBoolean;
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.System.getProperty;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.MULE_OBJECT_STORE_LOG_STRUCTURED;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.MULE_OBJECT_STORE_LOG_SYNC;
+import static org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition.isLogStructured;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.i18n.I18nMessage;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.api.store.ExpirableObjectStore;
 import org.mule.runtime.api.store.ObjectStoreException;
 import org.mule.runtime.api.store.PartitionableExpirableObjectStore;
 import org.mule.runtime.core.api.MuleContext;
@@ -17,6 +25,7 @@ import org.mule.runtime.core.api.config.i18n.CoreMessages;
 import org.mule.runtime.core.api.context.MuleContextAware;
 import org.mule.runtime.core.api.util.FileUtils;
 import org.mule.runtime.core.api.util.UUID;
+import org.mule.runtime.core.internal.util.store.LogStructuredObjectStorePartition;
 import org.mule.runtime.core.internal.util.store.PersistentObjectStorePartition;
 
 import java.io.File;
@@ -29,16 +38,26 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 
+/**
+ * A persistent {@link PartitionableExpirableObjectStore} which keeps each partition in its own directory.
+ * <p>
+ * By default, each partition writes one file per entry through a {@link PersistentObjectStorePartition}. When the
+ * {@link LogStructuredObjectStorePartition#MULE_OBJECT_STORE_LOG_STRUCTURED} system property is set, new partitions are created
+ * as {@link LogStructuredObjectStorePartition} instead. Existing partitions are always restored with the implementation that
+ * wrote them.
+ */
 public class PartitionedPersistentObjectStore<T extends Serializable> extends AbstractPartitionableObjectStore<T>
-    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware {
+    implements PartitionableExpirableObjectStore<T>, InternalComponent, MuleContextAware, Disposable {
 
   private static final Logger LOGGER = getLogger(PartitionedPersistentObjectStore.class);
   public static final String OBJECT_STORE_DIR = "objectstore";
 
   private MuleContext muleContext;
   private File storeDirectory;
-  private Map<String, PersistentObjectStorePartition> partitionsByName = new HashMap<>();
+  private Map<String, ExpirableObjectStore<T>> partitionsByName = new HashMap<>();
   private boolean initialized = false;
+  private final boolean logStructured = getBoolean(MULE_OBJECT_STORE_LOG_STRUCTURED);
+  private final boolean syncLogWrites = parseBoolean(getProperty(MULE_OBJECT_STORE_LOG_SYNC, "true"));
 
   public PartitionedPersistentObjectStore() {
     super();
@@ -74,13 +93,16 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
   }
 
   @Override
-  public void close(String partitionName) throws ObjectStoreException {}
+  public void close(String partitionName) throws ObjectStoreException {
+    getPartitionObjectStore(partitionName).close();
+  }
 
   private void createPartition(String partitionName) throws ObjectStoreException {
-    PersistentObjectStorePartition persistentObjectStorePartition =
-        new PersistentObjectStorePartition(muleContext, partitionName, getNewPartitionDirectory());
-    persistentObjectStorePartition.open();
-    partitionsByName.put(partitionName, persistentObjectStorePartition);
+    ExpirableObjectStore<T> partition = logStructured
+        ? new LogStructuredObjectStorePartition<T>(muleContext, partitionName, getNewPartitionDirectory(), syncLogWrites)
+        : new PersistentObjectStorePartition<T>(muleContext, partitionName, getNewPartitionDirectory());
+    partition.open();
+    partitionsByName.put(partitionName, partition);
   }
 
   private File getNewPartitionDirectory() {
@@ -127,7 +149,7 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).clear();
   }
 
-  private PersistentObjectStorePartition<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
+  private ExpirableObjectStore<T> getPartitionObjectStore(String partitionName) throws ObjectStoreException {
     if (!partitionsByName.containsKey(partitionName)) {
       throw new ObjectStoreException(CoreMessages.createStaticMessage("No partition named: " + partitionName));
     }
@@ -181,10 +203,16 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     }
     for (File partitionDirectory : directories) {
       try {
-        PersistentObjectStorePartition persistentObjectStorePartition =
-            new PersistentObjectStorePartition(muleContext, partitionDirectory);
-        persistentObjectStorePartition.open();
-        partitionsByName.put(persistentObjectStorePartition.getPartitionName(), persistentObjectStorePartition);
+        if (isLogStructured(partitionDirectory)) {
+          LogStructuredObjectStorePartition<T> partition =
+              new LogStructuredObjectStorePartition<>(muleContext, partitionDirectory, syncLogWrites);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        } else {
+          PersistentObjectStorePartition<T> partition = new PersistentObjectStorePartition<>(muleContext, partitionDirectory);
+          partition.open();
+          partitionsByName.put(partition.getPartitionName(), partition);
+        }
       } catch (Exception e) {
         LOGGER.error("Could not restore partition under directory " + partitionDirectory.getAbsolutePath());
       }
@@ -211,6 +239,17 @@ public class PartitionedPersistentObjectStore<T extends Serializable> extends Ab
     getPartitionObjectStore(partitionName).expire(entryTTL, maxEntries);
   }
 
+  @Override
+  public synchronized void dispose() {
+    for (Map.Entry<String, ExpirableObjectStore<T>> partition : partitionsByName.entrySet()) {
+      try {
+        partition.getValue().close();
+      } catch (ObjectStoreException e) {
+        LOGGER.warn("Could not close partition " + partition.getKey(), e);
+      }
+    }
+  }
+
   protected String getWorkingDirectory() {
     return muleContext.getConfiguration().getWorkingDirectory();
   }
@@ -6,10 +6,17 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import static java.util.Collections.unmodifiableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Implementation of {@link MutableStreamingStatistics} based on {@link AtomicInteger}
+ * Implementation of {@link MutableStreamingStatistics} based on {@link AtomicInteger}. Buffer usage
+ * is tracked through one {@link LongAdder} per capacity so that buffer managers don't contend on it.
  *
  * @since 4.2.0
  */
@@ -17,6 +24,7 @@ public class AtomicStreamingStatistics implements MutableStreamingStatistics {
 
   private final AtomicInteger openProviders = new AtomicInteger(0);
   private final AtomicInteger openCursors = new AtomicInteger(0);
+  private final Map<Integer, LongAdder> buffersInUse = new ConcurrentHashMap<>();
 
   @Override
   public int incrementOpenProviders() {
@@ -53,4 +61,29 @@ public class AtomicStreamingStatistics implements MutableStreamingStatistics {
   public int getOpenCursorsCount() {
     return openCursors.get();
   }
+
+  @Override
+  public void onBufferAllocated(int capacity) {
+    getBufferCounter(capacity).increment();
+  }
+
+  @Override
+  public void onBufferDeallocated(int capacity) {
+    getBufferCounter(capacity).decrement();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<Integer, Long> getBuffersInUseByCapacity() {
+    Map<Integer, Long> snapshot = new HashMap<>();
+    buffersInUse.forEach((capacity, counter) -> snapshot.put(capacity, counter.sum()));
+    return unmodifiableMap(snapshot);
+  }
+
+  private LongAdder getBufferCounter(int capacity) {
+    LongAdder counter = buffersInUse.get(capacity);
+    return counter != null ? counter : buffersInUse.computeIfAbsent(capacity, k -> new LongAdder());
+  }
 }
@@ -8,6 +8,8 @@ package org.mule.runtime.core.internal.streaming;
 
 import org.mule.runtime.core.api.streaming.StreamingStatistics;
 
+import java.util.Map;
+
 /**
  * Augmented version of the {@link StreamingStatistics} contract which allows to manipulate
  * the held values.
@@ -43,4 +45,23 @@ public interface MutableStreamingStatistics extends StreamingStatistics {
    * @return the updated value
    */
   int decrementOpenCursors();
+
+  /**
+   * Registers that a byte buffer of the given {@code capacity} has been handed out by a buffer manager
+   *
+   * @param capacity the buffer's capacity
+   */
+  void onBufferAllocated(int capacity);
+
+  /**
+   * Registers that a byte buffer of the given {@code capacity} has been returned to its buffer manager
+   *
+   * @param capacity the buffer's capacity
+   */
+  void onBufferDeallocated(int capacity);
+
+  /**
+   * @return How many byte buffers are currently in use, grouped by their capacity
+   */
+  Map<Integer, Long> getBuffersInUseByCapacity();
 }
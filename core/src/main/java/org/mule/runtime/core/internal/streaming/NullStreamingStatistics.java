@@ -6,8 +6,12 @@
  */
 package org.mule.runtime.core.internal.streaming;
 
+import static java.util.Collections.emptyMap;
+
+import java.util.Map;
+
 /**
- * Null implementation of {@link MutableStreamingStatistics}. All methods simply return zero.
+ * Null implementation of {@link MutableStreamingStatistics}. All methods simply return zero or an empty value.
  *
  * @since 4.2.0
  */
@@ -42,4 +46,15 @@ public class NullStreamingStatistics implements MutableStreamingStatistics {
   public int getOpenCursorsCount() {
     return 0;
   }
+
+  @Override
+  public void onBufferAllocated(int capacity) {}
+
+  @Override
+  public void onBufferDeallocated(int capacity) {}
+
+  @Override
+  public Map<Integer, Long> getBuffersInUseByCapacity() {
+    return emptyMap();
+  }
 }
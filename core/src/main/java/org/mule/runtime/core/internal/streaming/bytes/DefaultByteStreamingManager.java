@@ -6,8 +6,12 @@
  */
 package org.mule.runtime.core.internal.streaming.bytes;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+
 import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
 import org.mule.runtime.core.api.streaming.bytes.factory.InMemoryCursorStreamProviderFactory;
+import org.mule.runtime.core.internal.streaming.bytes.factory.FileStoreCursorStreamProviderFactory;
 import org.mule.runtime.core.internal.streaming.bytes.factory.NullCursorStreamProviderFactory;
 import org.mule.runtime.core.api.streaming.StreamingManager;
 import org.mule.runtime.core.api.streaming.bytes.ByteStreamingManager;
@@ -21,6 +25,14 @@ import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
  */
 public class DefaultByteStreamingManager implements ByteStreamingManager {
 
+  /**
+   * System property to make the default streaming strategy spill the streams which exceed the default in memory buffer size
+   * into a local file, instead of failing.
+   *
+   * @since 4.2.0
+   */
+  public static final String MULE_FILE_STORE_BYTE_STREAMING_DEFAULT = SYSTEM_PROPERTY_PREFIX + "streaming.bytes.fileStoreDefault";
+
   private final ByteBufferManager bufferManager;
   protected final StreamingManager streamingManager;
 
@@ -37,6 +49,18 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
     return new InMemoryCursorStreamProviderFactory(bufferManager, config, streamingManager);
   }
 
+  /**
+   * Creates a {@link CursorStreamProviderFactory} which buffers in memory up to a threshold and then
+   * spills into a local file
+   *
+   * @param config the configuration for the produced providers
+   * @return a new {@link CursorStreamProviderFactory}
+   * @since 4.2.0
+   */
+  public CursorStreamProviderFactory getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig config) {
+    return new FileStoreCursorStreamProviderFactory(bufferManager, config, streamingManager);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -47,9 +71,16 @@ public class DefaultByteStreamingManager implements ByteStreamingManager {
 
   /**
    * {@inheritDoc}
+   * <p>
+   * If {@link #MULE_FILE_STORE_BYTE_STREAMING_DEFAULT} is set, the returned factory is the one from
+   * {@link #getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig)} with its default config.
    */
   @Override
   public CursorStreamProviderFactory getDefaultCursorProviderFactory() {
+    if (getBoolean(MULE_FILE_STORE_BYTE_STREAMING_DEFAULT)) {
+      return getFileStoreCursorProviderFactory(FileStoreCursorStreamConfig.getDefault());
+    }
+
     return new InMemoryCursorStreamProviderFactory(bufferManager, InMemoryCursorStreamConfig.getDefault(), streamingManager);
   }
 
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.internal.streaming.TempBufferFileUtils.createBufferFile;
+import static org.mule.runtime.core.internal.streaming.bytes.ByteStreamingConstants.DEFAULT_BUFFER_BUCKET_SIZE;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.util.MappedByteBufferUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An implementation of {@link AbstractInputStreamBuffer} which holds the first bytes of the stream in memory and
+ * spills the rest into a temporal file.
+ * <p>
+ * The in memory part of the buffer is composed of buckets of {@link ByteStreamingConstants#DEFAULT_BUFFER_BUCKET_SIZE}
+ * bytes which are obtained from the {@link ByteBufferManager}. As many buckets as fit into the configured
+ * {@link FileStoreCursorStreamConfig#getMaxInMemorySize()} are used. Once those are full, the rest of the stream is
+ * written into a temporal file which is memory mapped in segments of {@link #FILE_SEGMENT_SIZE} bytes.
+ * <p>
+ * Because the stream is only appended to, the data below the buffer's tip never changes. That allows this buffer
+ * to hand out read only slices of the buckets instead of copying the data. The data of the file segments is copied
+ * instead, since their mappings are released when this buffer is closed, and reading a slice of a released mapping
+ * would access unmapped memory.
+ *
+ * @since 4.2.0
+ */
+public class FileStoreInputStreamBuffer extends AbstractInputStreamBuffer {
+
+  /**
+   * The size of each memory mapped region of the buffer file
+   */
+  static final int FILE_SEGMENT_SIZE = 8 * 1024 * 1024;
+
+  private final int bucketSize;
+  private final long maxInMemorySize;
+  private final List<ByteBuffer> memoryBuckets = new ArrayList<>();
+  private final List<MappedByteBuffer> fileSegments = new ArrayList<>();
+
+  private File bufferFile;
+  private FileChannel bufferFileChannel;
+  private long bufferTip = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param stream        the stream to be buffered
+   * @param config        this buffer's configuration
+   * @param bufferManager the {@link ByteBufferManager} that will be used to allocate the in memory buckets
+   */
+  public FileStoreInputStreamBuffer(InputStream stream, FileStoreCursorStreamConfig config, ByteBufferManager bufferManager) {
+    super(stream, bufferManager);
+    bucketSize = DEFAULT_BUFFER_BUCKET_SIZE;
+    maxInMemorySize = (config.getMaxInMemorySize().toBytes() / bucketSize) * (long) bucketSize;
+  }
+
+  @Override
+  protected ByteBuffer doGet(long position, int length) {
+    return doGet(position, length, true);
+  }
+
+  private ByteBuffer doGet(long position, int length, boolean consumeStreamIfNecessary) {
+    return withReadLock(releaser -> {
+
+      ByteBuffer presentRead = getFromCurrentData(position, length);
+      if (presentRead != null) {
+        return presentRead;
+      }
+
+      if (consumeStreamIfNecessary) {
+        releaser.release();
+        return withWriteLock(() -> {
+
+          ByteBuffer refetch = getFromCurrentData(position, length);
+          if (refetch != null) {
+            return refetch;
+          }
+
+          while (!isStreamFullyConsumed() && bufferTip <= position) {
+            try {
+              if (consumeForwardData() <= 0) {
+                streamFullyConsumed();
+              }
+            } catch (IOException e) {
+              throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
+            }
+          }
+
+          return doGet(position, length, false);
+        });
+      } else {
+        return getFromCurrentData(position, length);
+      }
+    });
+  }
+
+  private ByteBuffer getFromCurrentData(long position, int length) {
+    if (position >= bufferTip) {
+      return null;
+    }
+
+    length = min(length, toIntExact(min(Integer.MAX_VALUE, bufferTip - position)));
+    return copy(position, length);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Data is read directly into the current memory bucket or file segment. New buckets or segments are obtained
+   * when the current one is full.
+   */
+  @Override
+  public int consumeForwardData() throws IOException {
+    ByteBuffer target = getWritableBuffer();
+    final int read = consumeStream(target);
+    if (read > 0) {
+      bufferTip += read;
+    }
+
+    return read;
+  }
+
+  private ByteBuffer getWritableBuffer() throws IOException {
+    if (bufferTip < maxInMemorySize) {
+      ByteBuffer bucket = memoryBuckets.isEmpty() ? null : memoryBuckets.get(memoryBuckets.size() - 1);
+      if (bucket == null || !bucket.hasRemaining()) {
+        bucket = bufferManager.allocate(bucketSize);
+        memoryBuckets.add(bucket);
+      }
+
+      return bucket;
+    }
+
+    MappedByteBuffer segment = fileSegments.isEmpty() ? null : fileSegments.get(fileSegments.size() - 1);
+    if (segment == null || !segment.hasRemaining()) {
+      segment = mapNextSegment();
+      fileSegments.add(segment);
+    }
+
+    return segment;
+  }
+
+  private MappedByteBuffer mapNextSegment() throws IOException {
+    if (bufferFileChannel == null) {
+      bufferFile = createBufferFile("bytes");
+      bufferFileChannel = new RandomAccessFile(bufferFile, "rw").getChannel();
+    }
+
+    return bufferFileChannel.map(READ_WRITE, (long) fileSegments.size() * FILE_SEGMENT_SIZE, FILE_SEGMENT_SIZE);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned buffer is a read only view over the bucket which contains the given {@code position}, or a copy of the
+   * data of the file segment which contains it. It might hold less than {@code length} bytes if the requested range
+   * spans more than one of them.
+   */
+  @Override
+  protected ByteBuffer copy(long position, int length) {
+    if (position < maxInMemorySize) {
+      final int offset = toIntExact(position % bucketSize);
+      return view(memoryBuckets.get(toIntExact(position / bucketSize)), offset, min(length, bucketSize - offset)).slice();
+    }
+
+    final long filePosition = position - maxInMemorySize;
+    final int offset = toIntExact(filePosition % FILE_SEGMENT_SIZE);
+    final ByteBuffer segmentData =
+        view(fileSegments.get(toIntExact(filePosition / FILE_SEGMENT_SIZE)), offset, min(length, FILE_SEGMENT_SIZE - offset));
+
+    ByteBuffer copy = ByteBuffer.allocate(segmentData.remaining());
+    copy.put(segmentData);
+    copy.flip();
+    return copy;
+  }
+
+  private ByteBuffer view(ByteBuffer source, int offset, int length) {
+    ByteBuffer view = source.asReadOnlyBuffer();
+    view.clear();
+    view.position(offset);
+    view.limit(offset + length);
+    return view;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void doClose() {
+    memoryBuckets.forEach(this::deallocate);
+    memoryBuckets.clear();
+
+    // the mappings have to be released for the file to be actually freed, and deleted at all on some platforms.
+    // Nothing handed out by this buffer references them, since the data of the file segments is always copied.
+    fileSegments.forEach(MappedByteBufferUtils::unmap);
+    fileSegments.clear();
+
+    if (bufferFileChannel != null) {
+      closeSafely(bufferFileChannel::close);
+      bufferFileChannel = null;
+    }
+
+    if (bufferFile != null) {
+      if (!bufferFile.delete()) {
+        bufferFile.deleteOnExit();
+      }
+      bufferFile = null;
+    }
+  }
+}
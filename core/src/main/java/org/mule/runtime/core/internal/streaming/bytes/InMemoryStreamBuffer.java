@@ -8,8 +8,6 @@ package org.mule.runtime.core.internal.streaming.bytes;
 
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
-import static java.lang.System.arraycopy;
-import static java.nio.ByteBuffer.wrap;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.streaming.exception.StreamingBufferSizeExceededException;
@@ -19,15 +17,22 @@ import org.mule.runtime.core.api.streaming.bytes.InMemoryCursorStreamConfig;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * An implementation of {@link AbstractInputStreamBuffer} which holds the buffered
  * information in memory.
  * <p>
- * If the buffer does not have enough capacity to hold all the data, then it will
- * expanded up to a certain threshold configured in the constructor. Once that threshold
- * is reached, a {@link StreamingBufferSizeExceededException} will be thrown. If no threshold
- * is provided, then the buffer will be allowed to grow indefinitely.
+ * The buffered data is kept in an append-only list of segments. The first segment has the
+ * configured initial size and each new one has the size of the configured increment. If the buffer
+ * does not have enough capacity to hold all the data, then new segments will be added up to a certain
+ * threshold configured in the constructor. Once that threshold is reached, a
+ * {@link StreamingBufferSizeExceededException} will be thrown. If no threshold is provided, then
+ * the buffer will be allowed to grow indefinitely.
+ * <p>
+ * Because segments are never moved nor rewritten once data is appended to them, growing the buffer doesn't
+ * copy the existing data and reads are served through read only slices of the segments.
  *
  * @since 4.0
  */
@@ -35,11 +40,12 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
 
   private static final int STREAM_FINISHED_PROBE = 10;
 
-  private ByteBuffer buffer;
+  private final List<ByteBuffer> segments = new ArrayList<>();
+  private final int initialBufferSize;
   private final int bufferSizeIncrement;
   private final int maxBufferSize;
+  private long capacity;
   private long bufferTip = 0;
-  private boolean streamFullyConsumed = false;
 
   /**
    * Creates a new instance
@@ -49,7 +55,9 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
    */
   public InMemoryStreamBuffer(InputStream stream, InMemoryCursorStreamConfig config, ByteBufferManager bufferManager) {
     super(stream, bufferManager);
-    buffer = bufferManager.allocate(config.getInitialBufferSize().toBytes());
+    initialBufferSize = config.getInitialBufferSize().toBytes();
+    segments.add(bufferManager.allocate(initialBufferSize));
+    capacity = initialBufferSize;
     this.bufferSizeIncrement = config.getBufferSizeIncrement() != null
         ? config.getBufferSizeIncrement().toBytes()
         : 0;
@@ -80,18 +88,10 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
             return refetch;
           }
 
-          final long requiredUpperBound = position + length;
-          while (!isStreamFullyConsumed() && bufferTip < requiredUpperBound) {
+          while (!isStreamFullyConsumed() && bufferTip <= position) {
             try {
-              final int read = consumeForwardData();
-              if (read > 0) {
-                refetch = getFromCurrentData(position, min(length, read));
-                if (refetch != null) {
-                  return refetch;
-                }
-              } else {
+              if (consumeForwardData() <= 0) {
                 streamFullyConsumed();
-                buffer.limit(buffer.position());
               }
             } catch (IOException e) {
               throw new MuleRuntimeException(createStaticMessage("Could not read stream"), e);
@@ -107,12 +107,8 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
   }
 
   private ByteBuffer getFromCurrentData(long position, int length) {
-    if (isStreamFullyConsumed() && position > bufferTip) {
-      return null;
-    }
-
     if (position < bufferTip) {
-      length = min(length, toIntExact(bufferTip - position));
+      length = toIntExact(min(length, bufferTip - position));
       return copy(position, length);
     }
 
@@ -124,101 +120,94 @@ public class InMemoryStreamBuffer extends AbstractInputStreamBuffer {
    */
   @Override
   public void doClose() {
-    deallocate(buffer);
-    buffer = null;
+    segments.forEach(this::deallocate);
+    segments.clear();
   }
 
   /**
    * {@inheritDoc}
-   * If {@code buffer} doesn't have any remaining capacity, then {@link #expandBuffer()}
-   * is invoked before attempting to consume new information.
+   * If the last segment doesn't have any remaining capacity, then a new one is read into and
+   * only appended to the buffer if the stream actually yielded data.
    *
    * @throws StreamingBufferSizeExceededException if the buffer is not big enough and cannot be expanded
    */
   @Override
   public int consumeForwardData() throws IOException {
-    ByteBuffer b = buffer;
-    ByteBuffer readBuffer = b.hasRemaining()
-        ? b
-        : bufferManager.allocate(bufferSizeIncrement > 0 ? bufferSizeIncrement : STREAM_FINISHED_PROBE);
-
-    final boolean auxBuffer = readBuffer != b;
-    final int read;
+    ByteBuffer segment = segments.get(segments.size() - 1);
+    if (segment.hasRemaining()) {
+      final int read = consumeStream(segment);
+      if (read > 0) {
+        bufferTip += read;
+      }
+      return read;
+    }
 
+    final ByteBuffer newSegment = bufferManager.allocate(bufferSizeIncrement > 0 ? bufferSizeIncrement : STREAM_FINISHED_PROBE);
+    boolean appended = false;
     try {
-      read = consumeStream(readBuffer);
-
+      final int read = consumeStream(newSegment);
       if (read > 0) {
-        if (auxBuffer) {
-          b = expandBuffer();
-          readBuffer.flip();
-          b.put(readBuffer);
-          buffer = b;
-        }
-
+        appendSegment(newSegment);
+        appended = true;
         bufferTip += read;
-      } else {
-        streamFullyConsumed = true;
       }
+
+      return read;
     } finally {
-      if (auxBuffer) {
-        bufferManager.deallocate(readBuffer);
+      if (!appended) {
+        deallocate(newSegment);
       }
     }
-
-
-    return read;
   }
 
   /**
-   * Expands the size of the buffer by {@link #bufferSizeIncrement}
+   * Appends a new segment of {@link #bufferSizeIncrement} bytes to the buffer
    *
-   * @return a new, expanded {@link ByteBuffer}
+   * @param segment the segment to append
+   * @throws StreamingBufferSizeExceededException if the buffer cannot grow any further
    */
-  private ByteBuffer expandBuffer() {
-    ByteBuffer b = buffer;
-    int newSize = b.capacity() + bufferSizeIncrement;
+  private void appendSegment(ByteBuffer segment) {
+    final long newSize = capacity + bufferSizeIncrement;
     if (!canBeExpandedTo(newSize)) {
       throw new StreamingBufferSizeExceededException(maxBufferSize);
     }
 
-    ByteBuffer newBuffer = bufferManager.allocate(newSize);
-    b.position(0);
-    newBuffer.put(b);
-    ByteBuffer oldBuffer = b;
-    b = newBuffer;
-    buffer = b;
-    deallocate(oldBuffer);
-
-    return b;
+    segments.add(segment);
+    capacity = newSize;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned buffer is a read only view over the segment which holds the given {@code position}.
+   * It might hold less than {@code length} bytes if the requested range spans more than one segment.
+   */
   @Override
   protected ByteBuffer copy(long position, int length) {
-    return canDoSoftCopy() ? softCopy(position, length) : hardCopy(position, length);
-  }
-
-  private ByteBuffer softCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    return wrap(buffer.array(), offset, min(length, buffer.limit() - offset)).slice();
-  }
-
-  protected ByteBuffer hardCopy(long position, int length) {
-    final int offset = toIntExact(position);
-    length = min(length, buffer.limit() - offset);
+    final ByteBuffer segment;
+    final int offset;
+    final int segmentSize;
+
+    if (position < initialBufferSize) {
+      segment = segments.get(0);
+      offset = toIntExact(position);
+      segmentSize = initialBufferSize;
+    } else {
+      final long incrementPosition = position - initialBufferSize;
+      segment = segments.get(1 + toIntExact(incrementPosition / bufferSizeIncrement));
+      offset = toIntExact(incrementPosition % bufferSizeIncrement);
+      segmentSize = bufferSizeIncrement;
+    }
 
-    byte[] b = new byte[length];
-    arraycopy(buffer.array(), offset, b, 0, length);
-    return wrap(b);
-  }
+    ByteBuffer view = segment.asReadOnlyBuffer();
+    view.clear();
+    view.position(offset);
+    view.limit(offset + min(length, segmentSize - offset));
 
-  private boolean canDoSoftCopy() {
-    return streamFullyConsumed ||
-        buffer.capacity() >= maxBufferSize ||
-        bufferSizeIncrement == 0;
+    return view.slice();
   }
 
-  private boolean canBeExpandedTo(int newSize) {
+  private boolean canBeExpandedTo(long newSize) {
     if (bufferSizeIncrement <= 0) {
       return false;
     } else if (maxBufferSize == 0) {
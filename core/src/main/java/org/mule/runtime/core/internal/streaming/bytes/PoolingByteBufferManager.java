@@ -24,6 +24,8 @@ import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
 import org.mule.runtime.core.api.util.func.CheckedRunnable;
 import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
 import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+import org.mule.runtime.core.internal.streaming.NullStreamingStatistics;
 
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
@@ -99,6 +101,7 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
       });
 
   private ExecutorService allocationScheduler;
+  private final MutableStreamingStatistics statistics;
 
   /**
    * Creates a new instance which allows the pool to grow up to 50% of the runtime's max memory and has a wait timeout of 10
@@ -108,7 +111,20 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
    *        this schedulet threadGroup.
    */
   public PoolingByteBufferManager(ExecutorService allocationScheduler) {
-    this(allocationScheduler, new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT);
+    this(allocationScheduler, new NullStreamingStatistics());
+  }
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of the runtime's max memory and has a wait timeout of 10
+   * seconds. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   *
+   * @param allocationScheduler executor to use to allocate the buffer. The pools expiration thread group will be inherited by
+   *        this schedulet threadGroup.
+   * @param statistics the {@link MutableStreamingStatistics} in which buffer usage is reported
+   * @since 4.2.0
+   */
+  public PoolingByteBufferManager(ExecutorService allocationScheduler, MutableStreamingStatistics statistics) {
+    this(allocationScheduler, new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, statistics);
   }
 
   /**
@@ -121,13 +137,37 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
    * @param waitTimeoutMillis how long to wait when the pool is exhausted
    */
   public PoolingByteBufferManager(ExecutorService allocationScheduler, MemoryManager memoryManager, long waitTimeoutMillis) {
+    this(allocationScheduler, memoryManager, waitTimeoutMillis, new NullStreamingStatistics());
+  }
+
+  /**
+   * Creates a new instance which allows the pool to grow up to 50% of calling {@link MemoryManager#getMaxMemory()} on the given
+   * {@code memoryManager}, and has {@code waitTimeoutMillis} as wait timeout.
+   *
+   * @param allocationScheduler executor to use to allocate the buffer. The pools expiration thread group will be inherited by
+   *        this scheduler threadGroup.
+   * @param memoryManager a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait when the pool is exhausted
+   * @param statistics the {@link MutableStreamingStatistics} in which buffer usage is reported
+   * @since 4.2.0
+   */
+  public PoolingByteBufferManager(ExecutorService allocationScheduler, MemoryManager memoryManager, long waitTimeoutMillis,
+                                  MutableStreamingStatistics statistics) {
     this.allocationScheduler = allocationScheduler;
+    this.statistics = statistics;
     maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
     this.waitTimeoutMillis = waitTimeoutMillis;
     defaultSizePool = newBufferPool(DEFAULT_BUFFER_BUCKET_SIZE);
   }
 
-  private long calculateMaxStreamingMemory(MemoryManager memoryManager) {
+  /**
+   * Calculates how much memory can be used for streaming buffers, either from the {@code MULE_STREAMING_MAX_MEMORY} system
+   * property or as a percentile of the runtime's max memory.
+   *
+   * @param memoryManager a {@link MemoryManager} used to determine the runtime's max memory
+   * @return the max streaming memory, in bytes
+   */
+  static long calculateMaxStreamingMemory(MemoryManager memoryManager) {
     String maxMemoryProperty = getProperty(MULE_STREAMING_MAX_MEMORY);
     if (maxMemoryProperty == null) {
       return round(memoryManager.getMaxMemory() * MAX_STREAMING_PERCENTILE);
@@ -162,11 +202,15 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
    */
   @Override
   public ByteBuffer allocate(int capacity) {
+    ByteBuffer buffer;
     try {
-      return getBufferPool(capacity).take();
+      buffer = getBufferPool(capacity).take();
     } catch (Exception e) {
       throw new MuleRuntimeException(createStaticMessage("Could not allocate byte buffer. " + e.getMessage()), e);
     }
+
+    statistics.onBufferAllocated(buffer.capacity());
+    return buffer;
   }
 
   /**
@@ -175,6 +219,8 @@ public class PoolingByteBufferManager implements ByteBufferManager, Disposable {
   @Override
   public void deallocate(ByteBuffer byteBuffer) {
     int capacity = byteBuffer.capacity();
+    statistics.onBufferDeallocated(capacity);
+
     BufferPool pool = getBufferPool(capacity);
     if (pool != null) {
       try {
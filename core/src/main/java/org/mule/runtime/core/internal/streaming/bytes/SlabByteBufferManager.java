@@ -0,0 +1,434 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.streaming.bytes;
+
+import static java.lang.Integer.bitCount;
+import static java.lang.Integer.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Runtime.getRuntime;
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.lang.Thread.currentThread;
+import static java.nio.ByteBuffer.allocateDirect;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.mule.runtime.api.config.PoolingProfile.DEFAULT_MAX_POOL_WAIT;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.streaming.bytes.PoolingByteBufferManager.calculateMaxStreamingMemory;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.lifecycle.Disposable;
+import org.mule.runtime.core.api.streaming.bytes.ByteBufferManager;
+import org.mule.runtime.core.internal.streaming.DefaultMemoryManager;
+import org.mule.runtime.core.internal.streaming.MemoryManager;
+import org.mule.runtime.core.internal.streaming.MutableStreamingStatistics;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link ByteBufferManager} implementation which recycles buffers through power-of-two size classes.
+ * <p>
+ * Each requested capacity is rounded up to the closest size class. Every thread keeps a small magazine of idle buffers
+ * per size class, so most allocations and deallocations don't touch any shared state at all. When a magazine runs empty
+ * or gets full, it's exchanged as a whole against a global, lock-free depot. Memory is only accounted for when buffers are
+ * actually created or discarded, which is also when the max streaming memory limit is enforced. When that limit is reached,
+ * the idle buffers held by the depot and by the magazines of every thread are discarded to make room for the new ones. No
+ * locks are involved: a thread takes its magazine out of an atomic slot while using it, and other threads reclaim the
+ * buffers of a magazine by taking it out of that same slot, so a magazine is never used by two threads at once.
+ * <p>
+ * Buffers returned by {@link #allocate(int)} have their limit set to the requested capacity, while their actual capacity is
+ * the one of their size class. Requests bigger than the largest size class are not pooled.
+ * <p>
+ * Buffers can optionally be allocated off-heap (as direct buffers). Usage per size class is reported to the given
+ * {@link MutableStreamingStatistics}.
+ *
+ * @since 4.2.0
+ */
+public class SlabByteBufferManager implements ByteBufferManager, Disposable {
+
+  /**
+   * System property to use this buffer manager instead of the {@link PoolingByteBufferManager}
+   */
+  public static final String MULE_STREAMING_SLAB_ALLOCATOR = SYSTEM_PROPERTY_PREFIX + "streaming.slabAllocator";
+
+  /**
+   * System property to make this buffer manager allocate direct (off-heap) buffers
+   */
+  public static final String MULE_STREAMING_SLAB_ALLOCATOR_DIRECT = SYSTEM_PROPERTY_PREFIX + "streaming.slabAllocator.direct";
+
+  static final int MIN_SIZE_CLASS_SHIFT = 4;
+  static final int MAX_SIZE_CLASS_SHIFT = 30;
+  static final int MAGAZINE_SIZE = 16;
+
+  private static final int MAX_DEPOT_MAGAZINES = getRuntime().availableProcessors() * 2;
+  private static final long WAIT_INTERVAL_NANOS = MILLISECONDS.toNanos(10);
+
+  private final SizeClass[] sizeClasses = new SizeClass[MAX_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1];
+  private final Queue<ThreadMagazines> threadMagazines = new ConcurrentLinkedQueue<>();
+  private final ThreadLocal<ThreadMagazines> magazines = ThreadLocal.withInitial(this::registerThreadMagazines);
+  private final AtomicLong streamingMemory = new AtomicLong(0);
+  private final AtomicInteger waiters = new AtomicInteger(0);
+  private final long maxStreamingMemory;
+  private final long waitTimeoutMillis;
+  private final boolean direct;
+  private final MutableStreamingStatistics statistics;
+
+  private volatile boolean disposed = false;
+
+  /**
+   * Creates a new instance which uses the same memory limit as the {@link PoolingByteBufferManager} and has the default
+   * pool wait timeout. The definition of max memory is that of {@link MemoryManager#getMaxMemory()}
+   *
+   * @param statistics the {@link MutableStreamingStatistics} in which buffer usage is reported
+   * @param direct     whether to allocate direct (off-heap) buffers
+   */
+  public SlabByteBufferManager(MutableStreamingStatistics statistics, boolean direct) {
+    this(new DefaultMemoryManager(), DEFAULT_MAX_POOL_WAIT, statistics, direct);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param memoryManager     a {@link MemoryManager} used to determine the runtime's max memory
+   * @param waitTimeoutMillis how long to wait for memory to become available when the limit is reached
+   * @param statistics        the {@link MutableStreamingStatistics} in which buffer usage is reported
+   * @param direct            whether to allocate direct (off-heap) buffers
+   */
+  public SlabByteBufferManager(MemoryManager memoryManager, long waitTimeoutMillis, MutableStreamingStatistics statistics,
+                               boolean direct) {
+    maxStreamingMemory = calculateMaxStreamingMemory(memoryManager);
+    this.waitTimeoutMillis = waitTimeoutMillis;
+    this.statistics = statistics;
+    this.direct = direct;
+
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(1 << (i + MIN_SIZE_CLASS_SHIFT));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @return a {@link ByteBuffer} which limit is the given {@code capacity} and which actual capacity is that of the size
+   *         class that fits it
+   */
+  @Override
+  public ByteBuffer allocate(int capacity) {
+    final int sizeClassIndex = sizeClassIndex(capacity);
+    ByteBuffer buffer;
+
+    try {
+      if (sizeClassIndex < 0) {
+        buffer = create(capacity);
+      } else if (disposed) {
+        buffer = create(sizeClasses[sizeClassIndex].capacity);
+      } else {
+        final SizeClass sizeClass = sizeClasses[sizeClassIndex];
+        final ThreadMagazines threadMagazines = magazines.get();
+        final Magazine magazine = threadMagazines.take(sizeClassIndex);
+
+        buffer = magazine.pop();
+        if (buffer == null) {
+          buffer = sizeClass.refill(magazine);
+        }
+        threadMagazines.put(sizeClassIndex, magazine);
+
+        if (buffer == null) {
+          buffer = create(sizeClass.capacity);
+        }
+      }
+    } catch (MaxStreamingMemoryExceededException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not allocate byte buffer. " + e.getMessage()), e);
+    }
+
+    buffer.clear();
+    buffer.limit(capacity);
+    statistics.onBufferAllocated(buffer.capacity());
+
+    return buffer;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void deallocate(ByteBuffer byteBuffer) {
+    final int capacity = byteBuffer.capacity();
+    statistics.onBufferDeallocated(capacity);
+
+    final int sizeClassIndex = exactSizeClassIndex(capacity);
+    if (sizeClassIndex < 0 || disposed || waiters.get() > 0) {
+      // give the memory back right away so that threads waiting for it can proceed
+      release(capacity);
+      return;
+    }
+
+    final ThreadMagazines threadMagazines = magazines.get();
+    final Magazine magazine = threadMagazines.take(sizeClassIndex);
+    if (!magazine.push(byteBuffer)) {
+      sizeClasses[sizeClassIndex].flush(magazine);
+      magazine.push(byteBuffer);
+    }
+    threadMagazines.put(sizeClassIndex, magazine);
+  }
+
+  /**
+   * Discards all the idle buffers. The magazines of the threads that used this manager are left empty, so they don't retain
+   * any buffer after this manager is disposed.
+   */
+  @Override
+  public void dispose() {
+    disposed = true;
+    drainDepots();
+    reclaimMagazines();
+    threadMagazines.clear();
+    magazines.remove();
+  }
+
+  private ThreadMagazines registerThreadMagazines() {
+    // a new thread is a good time to discard the buffers retained by the threads that are gone
+    threadMagazines.removeIf(registered -> {
+      if (registered.isOwnerAlive()) {
+        return false;
+      }
+
+      reclaim(registered);
+      return true;
+    });
+
+    final ThreadMagazines created = new ThreadMagazines(sizeClasses.length);
+    threadMagazines.add(created);
+    return created;
+  }
+
+  private void reclaimMagazines() {
+    threadMagazines.forEach(this::reclaim);
+  }
+
+  private void reclaim(ThreadMagazines reclaimed) {
+    for (int i = 0; i < sizeClasses.length; i++) {
+      // a magazine in use by its owner is not in its slot, so it's left alone. Its owner starts with an empty one when it
+      // finds the slot empty.
+      final Magazine magazine = reclaimed.bySizeClass.getAndSet(i, null);
+      if (magazine != null) {
+        release((long) sizeClasses[i].capacity * magazine.clear());
+      }
+    }
+  }
+
+  private ByteBuffer create(int capacity) {
+    if (!reserve(capacity)) {
+      waitForMemory(capacity);
+    }
+
+    return direct ? allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+  }
+
+  private boolean reserve(int capacity) {
+    if (streamingMemory.addAndGet(capacity) <= maxStreamingMemory) {
+      return true;
+    }
+
+    streamingMemory.addAndGet(-capacity);
+    return false;
+  }
+
+  private void release(long bytes) {
+    streamingMemory.addAndGet(-bytes);
+  }
+
+  private void waitForMemory(int capacity) {
+    waiters.incrementAndGet();
+    try {
+      final long deadline = nanoTime() + MILLISECONDS.toNanos(waitTimeoutMillis);
+      do {
+        drainDepots();
+        if (reserve(capacity)) {
+          return;
+        }
+
+        reclaimMagazines();
+        if (reserve(capacity)) {
+          return;
+        }
+        parkNanos(WAIT_INTERVAL_NANOS);
+      } while (nanoTime() < deadline);
+
+      throw new MaxStreamingMemoryExceededException(createStaticMessage(format(
+                                                                               "Max streaming memory limit of %d bytes was exceeded",
+                                                                               maxStreamingMemory)));
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  private void drainDepots() {
+    for (SizeClass sizeClass : sizeClasses) {
+      sizeClass.drain();
+    }
+  }
+
+  /**
+   * @param capacity a requested capacity
+   * @return the index of the smallest size class which can hold the given {@code capacity}, or {@code -1} if it's bigger
+   *         than the largest size class
+   */
+  static int sizeClassIndex(int capacity) {
+    if (capacity <= 0) {
+      return 0;
+    }
+
+    final int shift = max(MIN_SIZE_CLASS_SHIFT, Integer.SIZE - numberOfLeadingZeros(capacity - 1));
+    return shift > MAX_SIZE_CLASS_SHIFT ? -1 : shift - MIN_SIZE_CLASS_SHIFT;
+  }
+
+  private static int exactSizeClassIndex(int capacity) {
+    if (bitCount(capacity) != 1) {
+      return -1;
+    }
+
+    final int shift = Integer.SIZE - 1 - numberOfLeadingZeros(capacity);
+    return shift < MIN_SIZE_CLASS_SHIFT || shift > MAX_SIZE_CLASS_SHIFT ? -1 : shift - MIN_SIZE_CLASS_SHIFT;
+  }
+
+  /**
+   * The magazines of one thread, by size class. The owner thread takes a magazine out of its slot while using it and puts it
+   * back afterwards, and other threads take it out to reclaim its buffers, so whoever took it out has exclusive access to it.
+   */
+  private static final class ThreadMagazines {
+
+    private final WeakReference<Thread> owner = new WeakReference<>(currentThread());
+    private final AtomicReferenceArray<Magazine> bySizeClass;
+
+    private ThreadMagazines(int sizeClasses) {
+      bySizeClass = new AtomicReferenceArray<>(sizeClasses);
+    }
+
+    /**
+     * @return the magazine of the given size class, or a new one if it was reclaimed or never used
+     */
+    private Magazine take(int sizeClassIndex) {
+      final Magazine magazine = bySizeClass.getAndSet(sizeClassIndex, null);
+      return magazine != null ? magazine : new Magazine();
+    }
+
+    private void put(int sizeClassIndex, Magazine magazine) {
+      // only the owner puts magazines, so there's nothing to overwrite
+      bySizeClass.lazySet(sizeClassIndex, magazine);
+    }
+
+    private boolean isOwnerAlive() {
+      final Thread thread = owner.get();
+      return thread != null && thread.isAlive();
+    }
+  }
+
+  /**
+   * A fixed size stack of idle buffers. It's not thread safe, {@link ThreadMagazines} guarantees that only one thread accesses
+   * it at a time.
+   */
+  private static final class Magazine {
+
+    private ByteBuffer[] rounds = new ByteBuffer[MAGAZINE_SIZE];
+    private int size = 0;
+
+    private ByteBuffer pop() {
+      if (size == 0) {
+        return null;
+      }
+
+      final ByteBuffer buffer = rounds[--size];
+      rounds[size] = null;
+      return buffer;
+    }
+
+    private boolean push(ByteBuffer buffer) {
+      if (size == rounds.length) {
+        return false;
+      }
+
+      rounds[size++] = buffer;
+      return true;
+    }
+
+    /**
+     * Discards all the buffers in this magazine
+     *
+     * @return how many buffers were discarded
+     */
+    private int clear() {
+      final int cleared = size;
+      for (int i = 0; i < size; i++) {
+        rounds[i] = null;
+      }
+      size = 0;
+      return cleared;
+    }
+  }
+
+  /**
+   * Holds the full magazines of one size class which are shared among all threads
+   */
+  private final class SizeClass {
+
+    private final int capacity;
+    private final Queue<ByteBuffer[]> depot = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depotSize = new AtomicInteger(0);
+
+    private SizeClass(int capacity) {
+      this.capacity = capacity;
+    }
+
+    /**
+     * Replaces the content of the given empty {@code magazine} with a full one from the depot
+     *
+     * @return a buffer from the refilled magazine, or {@code null} if the depot was empty
+     */
+    private ByteBuffer refill(Magazine magazine) {
+      final ByteBuffer[] full = depot.poll();
+      if (full == null) {
+        return null;
+      }
+
+      depotSize.decrementAndGet();
+      magazine.rounds = full;
+      magazine.size = full.length;
+      return magazine.pop();
+    }
+
+    /**
+     * Moves the content of the given full {@code magazine} into the depot, leaving it empty. If the depot already
+     * holds too many magazines, the buffers are discarded instead.
+     */
+    private void flush(Magazine magazine) {
+      final ByteBuffer[] full = magazine.rounds;
+      magazine.rounds = new ByteBuffer[MAGAZINE_SIZE];
+      magazine.size = 0;
+
+      if (depotSize.incrementAndGet() <= MAX_DEPOT_MAGAZINES) {
+        depot.offer(full);
+      } else {
+        depotSize.decrementAndGet();
+        release((long) capacity * full.length);
+      }
+    }
+
+    private void drain() {
+      ByteBuffer[] full;
+      while ((full = depot.poll()) != null) {
+        depotSize.decrementAndGet();
+        release((long) capacity * full.length);
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.transformer;
+
+import org.mule.runtime.api.metadata.DataType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of values resolved for a pair of source and result {@link DataType}s, such as the transformer that converts from one to
+ * the other.
+ * <p>
+ * Values are held in two levels of concurrent maps keyed by the {@link DataType}s themselves, so a lookup doesn't take any lock
+ * nor build any key, and the shared {@link DataType} instances are matched by identity before resorting to
+ * {@link DataType#equals(Object)}.
+ * <p>
+ * This cache is meant to be invalidated only when the registered transformers change. A value that was being resolved while the
+ * cache was invalidated is not kept, since it may have been resolved from the previous state.
+ * <p>
+ * Optionally, the number of cached pairs can be bounded. Once the bound is exceeded all the cached values are discarded, so the
+ * pairs that are still being looked up are cached again while the ones that are no longer used don't take memory.
+ *
+ * @param <V> the type of the cached values
+ * @since 4.2.0
+ */
+public final class DataTypePairCache<V> {
+
+  private static final Object NULL_VALUE = new Object();
+
+  private final boolean cacheNullValues;
+  private final int maxSize;
+  private volatile Generation cache = new Generation();
+
+  /**
+   * Creates a cache with no bound on the number of cached pairs.
+   *
+   * @param cacheNullValues whether a {@code null} value returned by a {@link Resolver} has to be cached, or resolved again on the
+   *        next lookup.
+   */
+  public DataTypePairCache(boolean cacheNullValues) {
+    this(cacheNullValues, 0);
+  }
+
+  /**
+   * @param cacheNullValues whether a {@code null} value returned by a {@link Resolver} has to be cached, or resolved again on the
+   *        next lookup.
+   * @param maxSize the maximum number of pairs to cache, or {@code 0} for no limit.
+   */
+  public DataTypePairCache(boolean cacheNullValues, int maxSize) {
+    this.cacheNullValues = cacheNullValues;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the value cached for the given pair, resolving and caching it with {@code resolver} if there is none.
+   *
+   * @param source the source {@link DataType}
+   * @param result the result {@link DataType}
+   * @param resolver resolves the value when it is not cached
+   * @return the cached or resolved value
+   * @throws E if {@code resolver} fails
+   */
+  public <E extends Exception> V get(DataType source, DataType result, Resolver<V, E> resolver) throws E {
+    final Generation current = cache;
+
+    Map<DataType, Object> resultCache = current.values.get(source);
+    if (resultCache != null) {
+      Object cached = resultCache.get(result);
+      if (cached != null) {
+        return unmask(cached);
+      }
+    }
+
+    V value = resolver.resolve(source, result);
+    if (value == null && !cacheNullValues) {
+      return null;
+    }
+
+    if (resultCache == null) {
+      resultCache = current.values.computeIfAbsent(source, k -> new ConcurrentHashMap<>(4));
+    }
+    Object concurrentlyAdded = resultCache.putIfAbsent(result, value == null ? NULL_VALUE : value);
+    if (concurrentlyAdded != null) {
+      return unmask(concurrentlyAdded);
+    }
+
+    if (maxSize > 0 && current.size.incrementAndGet() > maxSize && cache == current) {
+      invalidate();
+    }
+    return value;
+  }
+
+  /**
+   * Discards all the cached values.
+   */
+  public void invalidate() {
+    cache = new Generation();
+  }
+
+  private V unmask(Object cached) {
+    return cached == NULL_VALUE ? null : (V) cached;
+  }
+
+  private static final class Generation {
+
+    private final Map<DataType, Map<DataType, Object>> values = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+  }
+
+  /**
+   * Resolves the value to cache for a pair of {@link DataType}s.
+   *
+   * @param <V> the type of the resolved value
+   * @param <E> the type of exception thrown when the resolution fails
+   */
+  @FunctionalInterface
+  public interface Resolver<V, E extends Exception> {
+
+    V resolve(DataType source, DataType result) throws E;
+  }
+}
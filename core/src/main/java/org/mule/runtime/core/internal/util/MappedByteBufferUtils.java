@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import org.slf4j.Logger;
+
+/**
+ * Utilities for {@link MappedByteBuffer}s
+ *
+ * @since 4.2.0
+ */
+public class MappedByteBufferUtils {
+
+  private static final Logger LOGGER = getLogger(MappedByteBufferUtils.class);
+
+  private static final Unmapper UNMAPPER = createUnmapper();
+
+  private MappedByteBufferUtils() {}
+
+  /**
+   * Releases the memory mapping of the given {@code buffer} right away, instead of waiting for it to be garbage collected.
+   * <p>
+   * Until the mapping is released the mapped file can't be deleted on some platforms, and the address space it takes is not
+   * reclaimed. The {@code buffer}, and any view created from it, must not be accessed after this method is invoked.
+   * <p>
+   * If the mapping can't be released, this method does nothing and the mapping is released when the buffer is garbage
+   * collected.
+   *
+   * @param buffer a {@link MappedByteBuffer} obtained by mapping a file, not a view of one.
+   */
+  public static void unmap(MappedByteBuffer buffer) {
+    if (buffer == null || UNMAPPER == null) {
+      return;
+    }
+
+    try {
+      UNMAPPER.unmap(buffer);
+    } catch (Exception e) {
+      LOGGER.debug("Could not release file mapping", e);
+    }
+  }
+
+  private static Unmapper createUnmapper() {
+    try {
+      // Java 9+
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Object unsafe = theUnsafe.get(null);
+      return buffer -> invokeCleaner.invoke(unsafe, buffer);
+    } catch (Exception e) {
+      // fall back to the Java 8 mechanism
+    }
+
+    try {
+      Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> {
+        Object bufferCleaner = cleaner.invoke(buffer);
+        if (bufferCleaner != null) {
+          clean.invoke(bufferCleaner);
+        }
+      };
+    } catch (Exception e) {
+      LOGGER.debug("File mappings will be released upon garbage collection", e);
+      return null;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Unmapper {
+
+    void unmap(MappedByteBuffer buffer) throws Exception;
+  }
+}
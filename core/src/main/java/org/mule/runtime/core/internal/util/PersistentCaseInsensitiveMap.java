@@ -0,0 +1,538 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util;
+
+import static java.lang.Integer.bitCount;
+import static java.lang.Integer.compareUnsigned;
+import static java.lang.Integer.lowestOneBit;
+import static java.lang.System.arraycopy;
+import static java.util.Objects.requireNonNull;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable {@link Map} with {@link String} keys which are compared ignoring their case, in the same way as
+ * {@link org.mule.runtime.core.api.util.CaseInsensitiveHashMap}.
+ * <p>
+ * Instead of being modified, new versions of the map are derived through {@link #plus(String, Object)} and
+ * {@link #minus(String)}. The map is implemented as a hash array mapped trie, so each derived version shares all of its
+ * structure with the previous one but for the path to the changed entry. That makes deriving a version cost
+ * {@code O(log32 n)} regardless of how many entries the map holds.
+ * <p>
+ * The key of an entry keeps the case with which it was first added, even if its value is later replaced using a key with a
+ * different case. Iteration order is not defined.
+ *
+ * @param <V> the type of the values
+ * @since 4.2.0
+ */
+public final class PersistentCaseInsensitiveMap<V> extends AbstractMap<String, V> implements Serializable {
+
+  private static final long serialVersionUID = 2891426153640128352L;
+
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+  @SuppressWarnings("rawtypes")
+  private static final PersistentCaseInsensitiveMap EMPTY = new PersistentCaseInsensitiveMap<>(null, 0);
+
+  private final Node<V> root;
+  private final int size;
+  private transient Set<Entry<String, V>> entrySet;
+
+  /**
+   * @return an empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> emptyPersistentCaseInsensitiveMap() {
+    return EMPTY;
+  }
+
+  /**
+   * @param map the map to copy
+   * @return a map with the same entries as the given {@code map}. If it already is a {@link PersistentCaseInsensitiveMap}, it
+   *         is returned as is.
+   */
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentCaseInsensitiveMap<V> copyOf(Map<String, ? extends V> map) {
+    if (map instanceof PersistentCaseInsensitiveMap) {
+      return (PersistentCaseInsensitiveMap<V>) map;
+    }
+
+    PersistentCaseInsensitiveMap<V> copy = emptyPersistentCaseInsensitiveMap();
+    for (Entry<String, ? extends V> entry : map.entrySet()) {
+      copy = copy.plus(entry.getKey(), entry.getValue());
+    }
+    return copy;
+  }
+
+  private PersistentCaseInsensitiveMap(Node<V> root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * @param key   the key of the entry to add
+   * @param value the value of the entry to add
+   * @return a map with the entries of this one plus the given one. If there's already an entry with the given {@code key}, its
+   *         value is replaced.
+   */
+  public PersistentCaseInsensitiveMap<V> plus(String key, V value) {
+    requireNonNull(key);
+    final int hash = hash(key);
+    final Leaf<V> existing = root == null ? null : root.find(hash, key, 0);
+
+    if (existing == null) {
+      final Leaf<V> leaf = new Leaf<>(hash, key, value);
+      return new PersistentCaseInsensitiveMap<>(root == null ? new BitmapNode<V>(0, new Object[0]).put(leaf, 0)
+          : root.put(leaf, 0), size + 1);
+    } else if (existing.getValue() == value) {
+      return this;
+    } else {
+      return new PersistentCaseInsensitiveMap<>(root.put(new Leaf<>(hash, existing.getKey(), value), 0), size);
+    }
+  }
+
+  /**
+   * @param key the key of the entry to remove
+   * @return a map with the entries of this one except the one with the given {@code key}, or this same instance if there
+   *         wasn't one.
+   */
+  public PersistentCaseInsensitiveMap<V> minus(String key) {
+    if (root == null || key == null) {
+      return this;
+    }
+
+    final int hash = hash(key);
+    if (root.find(hash, key, 0) == null) {
+      return this;
+    }
+
+    final Node<V> newRoot = root.remove(hash, key, 0);
+    return newRoot == null ? emptyPersistentCaseInsensitiveMap() : new PersistentCaseInsensitiveMap<>(newRoot, size - 1);
+  }
+
+  @Override
+  public V get(Object key) {
+    final Leaf<V> leaf = find(key);
+    return leaf == null ? null : leaf.getValue();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    if (root != null) {
+      root.forEach(action);
+    }
+  }
+
+  /**
+   * Performs the given {@code action} for each entry of this map which is not in the {@code base} map with an equal value.
+   * <p>
+   * The parts of the trie this map shares with {@code base} are skipped, so when this map was derived from {@code base} the
+   * cost is proportional to the number of entries added or replaced since then rather than to the size of the map.
+   *
+   * @param base   the map to compare against
+   * @param action the action to perform for each added or changed entry
+   */
+  public void forEachChange(PersistentCaseInsensitiveMap<V> base, BiConsumer<? super String, ? super V> action) {
+    if (root != null) {
+      forEachChange(root, base.root, 0, action);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> void forEachChange(Object child, Object baseChild, int shift, BiConsumer<? super String, ? super V> action) {
+    if (child == baseChild) {
+      return;
+    }
+
+    if (child instanceof Leaf) {
+      final Leaf<V> leaf = (Leaf<V>) child;
+      if (!sameEntry(leaf.hash, leaf.getKey(), leaf.getValue(), baseChild, shift)) {
+        action.accept(leaf.getKey(), leaf.getValue());
+      }
+    } else if (child instanceof BitmapNode && baseChild instanceof BitmapNode) {
+      final BitmapNode<V> node = (BitmapNode<V>) child;
+      final BitmapNode<V> baseNode = (BitmapNode<V>) baseChild;
+      int remaining = node.bitmap;
+      for (Object nodeChild : node.children) {
+        final int bit = lowestOneBit(remaining);
+        remaining &= ~bit;
+        forEachChange(nodeChild, (baseNode.bitmap & bit) == 0 ? null : baseNode.children[baseNode.index(bit)],
+                      shift + BITS_PER_LEVEL, action);
+      }
+    } else {
+      // The structures differ at this level, so each entry is looked up in the base
+      ((Node<V>) child).forEach((key, value) -> {
+        if (!sameEntry(hash(key), key, value, baseChild, shift)) {
+          action.accept(key, value);
+        }
+      });
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> boolean sameEntry(int hash, String key, V value, Object baseChild, int shift) {
+    final Leaf<V> baseLeaf;
+    if (baseChild instanceof Leaf) {
+      baseLeaf = ((Leaf<V>) baseChild).matches(hash, key) ? (Leaf<V>) baseChild : null;
+    } else {
+      baseLeaf = baseChild == null ? null : ((Node<V>) baseChild).find(hash, key, shift);
+    }
+    return baseLeaf != null && Objects.equals(value, baseLeaf.getValue());
+  }
+
+  @Override
+  public Set<Entry<String, V>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private Leaf<V> find(Object key) {
+    if (root == null || key == null) {
+      return null;
+    }
+
+    final String stringKey = key.toString();
+    return root.find(hash(stringKey), stringKey, 0);
+  }
+
+  /**
+   * Computes a hash which is consistent with {@link String#equalsIgnoreCase(String)}, without creating a lower case copy of the
+   * key.
+   */
+  static int hash(String key) {
+    int hash = 0;
+    for (int i = 0; i < key.length(); i++) {
+      hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(key.charAt(i)));
+    }
+    // spread the bits, so that the lower levels of the trie are used as much as the upper ones
+    return hash ^ (hash >>> 16);
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & LEVEL_MASK);
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm<>(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws InvalidObjectException {
+    throw new InvalidObjectException("Serialization proxy required");
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<String, V>> {
+
+    @Override
+    public Iterator<Entry<String, V>> iterator() {
+      final List<Entry<String, V>> entries = new ArrayList<>(size);
+      PersistentCaseInsensitiveMap.this.forEach((key, value) -> entries.add(new SimpleImmutableEntry<>(key, value)));
+      final Iterator<Entry<String, V>> delegate = entries.iterator();
+
+      // the default remove of the list iterator would not affect the map
+      return new Iterator<Entry<String, V>>() {
+
+        @Override
+        public boolean hasNext() {
+          return delegate.hasNext();
+        }
+
+        @Override
+        public Entry<String, V> next() {
+          return delegate.next();
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * An entry of the map, along with the hash of its key
+   */
+  private static final class Leaf<V> extends SimpleImmutableEntry<String, V> {
+
+    private static final long serialVersionUID = -2287542733165414566L;
+
+    private final int hash;
+
+    private Leaf(int hash, String key, V value) {
+      super(key, value);
+      this.hash = hash;
+    }
+
+    private boolean matches(int hash, String key) {
+      return this.hash == hash && getKey().equalsIgnoreCase(key);
+    }
+  }
+
+  private interface Node<V> {
+
+    Leaf<V> find(int hash, String key, int shift);
+
+    /**
+     * @return a node with the given {@code leaf} added, replacing any existing leaf with the same key
+     */
+    Node<V> put(Leaf<V> leaf, int shift);
+
+    /**
+     * @return a node without the leaf for the given {@code key}, or {@code null} if the node becomes empty
+     */
+    Node<V> remove(int hash, String key, int shift);
+
+    void forEach(BiConsumer<? super String, ? super V> action);
+  }
+
+  /**
+   * A node which holds up to 32 children, each being either a {@link Leaf} or a nested {@link Node}. Only the slots in use are
+   * allocated, and which ones those are is tracked by a bitmap.
+   */
+  private static final class BitmapNode<V> implements Node<V> {
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private BitmapNode(int bitmap, Object[] children) {
+      this.bitmap = bitmap;
+      this.children = children;
+    }
+
+    private int index(int bit) {
+      return bitCount(bitmap & (bit - 1));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Leaf<V> find(int hash, String key, int shift) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return null;
+      }
+
+      final Object child = children[index(bit)];
+      if (child instanceof Leaf) {
+        final Leaf<V> leaf = (Leaf<V>) child;
+        return leaf.matches(hash, key) ? leaf : null;
+      }
+      return ((Node<V>) child).find(hash, key, shift + BITS_PER_LEVEL);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Node<V> put(Leaf<V> leaf, int shift) {
+      final int bit = bit(leaf.hash, shift);
+      final int index = index(bit);
+
+      if ((bitmap & bit) == 0) {
+        final Object[] newChildren = new Object[children.length + 1];
+        arraycopy(children, 0, newChildren, 0, index);
+        newChildren[index] = leaf;
+        arraycopy(children, index, newChildren, index + 1, children.length - index);
+        return new BitmapNode<>(bitmap | bit, newChildren);
+      }
+
+      final Object child = children[index];
+      final Object newChild;
+      if (child instanceof Leaf) {
+        final Leaf<V> existing = (Leaf<V>) child;
+        newChild = existing.matches(leaf.hash, leaf.getKey()) ? leaf : merge(existing, leaf, shift + BITS_PER_LEVEL);
+      } else {
+        newChild = ((Node<V>) child).put(leaf, shift + BITS_PER_LEVEL);
+      }
+
+      return withChild(index, newChild);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Node<V> remove(int hash, String key, int shift) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+
+      final int index = index(bit);
+      final Object child = children[index];
+      final Object newChild;
+      if (child instanceof Leaf) {
+        newChild = ((Leaf<V>) child).matches(hash, key) ? null : child;
+      } else {
+        newChild = ((Node<V>) child).remove(hash, key, shift + BITS_PER_LEVEL);
+      }
+
+      if (newChild == child) {
+        return this;
+      } else if (newChild != null) {
+        return withChild(index, newChild);
+      } else if (children.length == 1) {
+        return null;
+      }
+
+      final Object[] newChildren = new Object[children.length - 1];
+      arraycopy(children, 0, newChildren, 0, index);
+      arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+      return new BitmapNode<>(bitmap & ~bit, newChildren);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+      for (Object child : children) {
+        if (child instanceof Leaf) {
+          final Leaf<V> leaf = (Leaf<V>) child;
+          action.accept(leaf.getKey(), leaf.getValue());
+        } else {
+          ((Node<V>) child).forEach(action);
+        }
+      }
+    }
+
+    private Node<V> withChild(int index, Object child) {
+      final Object[] newChildren = children.clone();
+      newChildren[index] = child;
+      return new BitmapNode<>(bitmap, newChildren);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> Node<V> merge(Leaf<V> first, Leaf<V> second, int shift) {
+      if (first.hash == second.hash) {
+        return new CollisionNode<>(first.hash, new Leaf[] {first, second});
+      }
+
+      final int firstBit = bit(first.hash, shift);
+      final int secondBit = bit(second.hash, shift);
+      if (firstBit == secondBit) {
+        return new BitmapNode<>(firstBit, new Object[] {merge(first, second, shift + BITS_PER_LEVEL)});
+      }
+
+      // children are sorted by their bit, which for the highest one is negative
+      return new BitmapNode<>(firstBit | secondBit,
+                              compareUnsigned(firstBit, secondBit) < 0 ? new Object[] {first, second}
+                                  : new Object[] {second, first});
+    }
+  }
+
+  /**
+   * A node holding leaves which keys have the same hash
+   */
+  private static final class CollisionNode<V> implements Node<V> {
+
+    private final int hash;
+    private final Leaf<V>[] leaves;
+
+    private CollisionNode(int hash, Leaf<V>[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    @Override
+    public Leaf<V> find(int hash, String key, int shift) {
+      for (Leaf<V> leaf : leaves) {
+        if (leaf.matches(hash, key)) {
+          return leaf;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Node<V> put(Leaf<V> leaf, int shift) {
+      if (leaf.hash != hash) {
+        // a key with a different hash reached this level, so the collision has to be pushed one level down
+        return new BitmapNode<V>(bit(hash, shift), new Object[] {this}).put(leaf, shift);
+      }
+
+      for (int i = 0; i < leaves.length; i++) {
+        if (leaves[i].matches(leaf.hash, leaf.getKey())) {
+          final Leaf<V>[] newLeaves = leaves.clone();
+          newLeaves[i] = leaf;
+          return new CollisionNode<>(hash, newLeaves);
+        }
+      }
+
+      final Leaf<V>[] newLeaves = new Leaf[leaves.length + 1];
+      arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+      newLeaves[leaves.length] = leaf;
+      return new CollisionNode<>(hash, newLeaves);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Node<V> remove(int hash, String key, int shift) {
+      for (int i = 0; i < leaves.length; i++) {
+        if (leaves[i].matches(hash, key)) {
+          if (leaves.length == 1) {
+            return null;
+          }
+          final Leaf<V>[] newLeaves = new Leaf[leaves.length - 1];
+          arraycopy(leaves, 0, newLeaves, 0, i);
+          arraycopy(leaves, i + 1, newLeaves, i, leaves.length - i - 1);
+          return new CollisionNode<>(hash, newLeaves);
+        }
+      }
+      return this;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+      for (Leaf<V> leaf : leaves) {
+        action.accept(leaf.getKey(), leaf.getValue());
+      }
+    }
+  }
+
+  /**
+   * The serialized form of the map, which only holds its entries
+   */
+  private static final class SerializedForm<V> implements Serializable {
+
+    private static final long serialVersionUID = -6380264407326812874L;
+
+    private final LinkedHashMap<String, V> entries;
+
+    private SerializedForm(PersistentCaseInsensitiveMap<V> map) {
+      entries = new LinkedHashMap<>(map);
+    }
+
+    private Object readResolve() {
+      return copyOf(entries);
+    }
+  }
+}
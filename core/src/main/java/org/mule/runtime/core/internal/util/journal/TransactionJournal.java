@@ -6,6 +6,8 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.lang.Boolean.getBoolean;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import org.mule.runtime.api.util.Preconditions;
 
 import com.google.common.collect.LinkedHashMultimap;
@@ -14,6 +16,9 @@ import com.google.common.collect.Multimap;
 import java.io.File;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,12 +30,21 @@ import org.slf4j.LoggerFactory;
  *
  * Keeps a memory cache of the log entries for performance reasons. Once a transaction finishes the client of this class must
  * manually remove the entries related to such transaction to clear the cache.
+ *
+ * Entries from different transactions can be logged concurrently. Only swapping or emptying the files requires exclusive
+ * access to the journal. If the {@link #MULE_TRANSACTION_JOURNAL_GROUP_COMMIT} system property is set, concurrent writes are
+ * batched and each checkpoint is synced to disk, see {@link TransactionJournalFile}.
  */
 public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   public static final String TX1_LOG_FILE_NAME = "tx1.log";
   public static final String TX2_LOG_FILE_NAME = "tx2.log";
 
+  /**
+   * System property to batch the writes of concurrent transactions into the journal file and sync it on every checkpoint
+   */
+  public static final String MULE_TRANSACTION_JOURNAL_GROUP_COMMIT = SYSTEM_PROPERTY_PREFIX + "transaction.journal.groupCommit";
+
   private static final int MAXIMUM_LOG_FILE_ENTRIES = 50000;
   private static final int ONE_MEGABYTE_IN_BYTES = 1024 * 1024;
 
@@ -38,6 +52,8 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
 
   private final TransactionCompletePredicate transactionCompletePredicate;
 
+  private final ReadWriteLock filesLock = new ReentrantReadWriteLock();
+
   /**
    * Log file in which we are currently writing new entries.
    */
@@ -62,6 +78,17 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    */
   public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
                             JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes) {
+    this(logFilesDirectory, transactionCompletePredicate, journalEntrySerializer, maximumFileSizeInMegabytes,
+         getBoolean(MULE_TRANSACTION_JOURNAL_GROUP_COMMIT));
+  }
+
+  /**
+   * @param logFilesDirectory directory used to store the journal files.
+   * @param groupCommit whether to batch the writes of concurrent transactions and sync the files on checkpoints
+   */
+  public TransactionJournal(String logFilesDirectory, TransactionCompletePredicate transactionCompletePredicate,
+                            JournalEntrySerializer journalEntrySerializer, Integer maximumFileSizeInMegabytes,
+                            boolean groupCommit) {
     File logFileDirectory = new File(logFilesDirectory);
     if (!logFileDirectory.exists()) {
       Preconditions.checkState(logFileDirectory.mkdirs(),
@@ -72,10 +99,10 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
     File logFile2 = new File(logFileDirectory, TX2_LOG_FILE_NAME);
     logger.info(String.format("Using files for tx logs %s and %s", logFile1.getAbsolutePath(), logFile2.getAbsolutePath()));
 
-    this.currentLogFile =
-        new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
-    this.notCurrentLogFile =
-        new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes);
+    this.currentLogFile = new TransactionJournalFile(logFile1, journalEntrySerializer, transactionCompletePredicate,
+                                                     clearFileMinimumSizeInBytes, groupCommit);
+    this.notCurrentLogFile = new TransactionJournalFile(logFile2, journalEntrySerializer, transactionCompletePredicate,
+                                                        clearFileMinimumSizeInBytes, groupCommit);
     this.transactionCompletePredicate = transactionCompletePredicate;
 
   }
@@ -92,9 +119,13 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the update operation details
    */
-  public synchronized void logUpdateOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
+  public void logUpdateOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile = lockLogFile(journalEntry.getTxId());
+    try {
+      logFile.logOperation(journalEntry, false);
+    } finally {
+      filesLock.readLock().unlock();
+    }
   }
 
   /**
@@ -104,11 +135,28 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    *
    * @param journalEntry journal entry with the checkpoint operation details
    */
-  public synchronized void logCheckpointOperation(JournalEntry<T> journalEntry) {
-    TransactionJournalFile logFile = determineLogFile(journalEntry.getTxId());
-    logFile.logOperation(journalEntry);
-    if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-      logFile.clearEntriesForTransaction(journalEntry.getTxId());
+  public void logCheckpointOperation(JournalEntry<T> journalEntry) {
+    TransactionJournalFile logFile = lockLogFile(journalEntry.getTxId());
+    boolean clearFile = false;
+    try {
+      logFile.logOperation(journalEntry, true);
+      if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
+        logFile.doClearEntriesForTransaction(journalEntry.getTxId());
+        clearFile = logFile.isClearFileNeeded();
+      }
+    } finally {
+      filesLock.readLock().unlock();
+    }
+
+    if (clearFile) {
+      // emptying the file requires that no other transaction is logging into it
+      Lock lock = filesLock.writeLock();
+      lock.lock();
+      try {
+        logFile.clearFileIfNeeded();
+      } finally {
+        lock.unlock();
+      }
     }
   }
 
@@ -117,57 +165,102 @@ public class TransactionJournal<T, K extends JournalEntry<T>> {
    * @return all the transaction entries for a certain transaction identifier
    */
   public Collection<K> getLogEntriesForTx(T txId) {
-    TransactionJournalFile logFile = determineLogFileWithoutModifyingCurrent(txId);
-    if (logFile == null || !logFile.containsTx(txId)) {
-      return Collections.emptyList();
+    Lock lock = filesLock.readLock();
+    lock.lock();
+    try {
+      TransactionJournalFile logFile = determineLogFileWithoutModifyingCurrent(txId);
+      if (logFile == null || !logFile.containsTx(txId)) {
+        return Collections.emptyList();
+      }
+      return logFile.getLogEntries(txId);
+    } finally {
+      lock.unlock();
     }
-    return logFile.getLogEntries(txId);
   }
 
   /**
    * @return all the transactional entries from the journal
    */
-  public synchronized Multimap<T, K> getAllLogEntries() {
-    LinkedHashMultimap<T, K> logEntries = LinkedHashMultimap.create();
-    logEntries.putAll(currentLogFile.getAllLogEntries());
-    logEntries.putAll(notCurrentLogFile.getAllLogEntries());
-    return logEntries;
+  public Multimap<T, K> getAllLogEntries() {
+    Lock lock = filesLock.readLock();
+    lock.lock();
+    try {
+      LinkedHashMultimap<T, K> logEntries = LinkedHashMultimap.create();
+      logEntries.putAll(currentLogFile.getAllLogEntries());
+      logEntries.putAll(notCurrentLogFile.getAllLogEntries());
+      return logEntries;
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
    * Release the resources used by the transaction journal
    */
-  public synchronized void close() {
-    currentLogFile.close();
-    notCurrentLogFile.close();
+  public void close() {
+    Lock lock = filesLock.writeLock();
+    lock.lock();
+    try {
+      currentLogFile.close();
+      notCurrentLogFile.close();
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
    * Removes all the entries from the transactional journal
    */
-  public synchronized void clear() {
-    currentLogFile.clear();
-    notCurrentLogFile.clear();
+  public void clear() {
+    Lock lock = filesLock.writeLock();
+    lock.lock();
+    try {
+      currentLogFile.clear();
+      notCurrentLogFile.clear();
+    } finally {
+      lock.unlock();
+    }
   }
 
-  private TransactionJournalFile determineLogFile(T txId) {
-    final TransactionJournalFile logFile = determineLogFileWithoutModifyingCurrent(txId);
+  /**
+   * Determines the file in which the entries for {@code txId} have to be logged, swapping the current file if needed.
+   * <p>
+   * Returns holding the read lock of {@link #filesLock}, which the caller must release once the entry is logged.
+   */
+  private TransactionJournalFile lockLogFile(T txId) {
+    filesLock.readLock().lock();
+    TransactionJournalFile logFile = determineLogFileWithoutModifyingCurrent(txId);
     if (logFile != null) {
       return logFile;
     }
-    // we keep this condition for backward compatibility.
-    if (maximumFileSizeInBytes == null) {
-      if (currentLogFile.size() > MAXIMUM_LOG_FILE_ENTRIES && notCurrentLogFile.size() == 0) {
+    if (!isLogFilesSwapNeeded()) {
+      return currentLogFile;
+    }
+
+    filesLock.readLock().unlock();
+    filesLock.writeLock().lock();
+    try {
+      if (determineLogFileWithoutModifyingCurrent(txId) == null && isLogFilesSwapNeeded()) {
         debugLogFilesSwap();
         changeCurrentLogFile();
       }
+      // downgrade the lock so that the file can't be swapped again before the entry is logged
+      filesLock.readLock().lock();
+    } finally {
+      filesLock.writeLock().unlock();
+    }
+
+    logFile = determineLogFileWithoutModifyingCurrent(txId);
+    return logFile != null ? logFile : currentLogFile;
+  }
+
+  private boolean isLogFilesSwapNeeded() {
+    // we keep this condition for backward compatibility.
+    if (maximumFileSizeInBytes == null) {
+      return currentLogFile.size() > MAXIMUM_LOG_FILE_ENTRIES && notCurrentLogFile.size() == 0;
     } else {
-      if (currentLogFile.fileLength() > maximumFileSizeInBytes && notCurrentLogFile.size() == 0) {
-        debugLogFilesSwap();
-        changeCurrentLogFile();
-      }
+      return currentLogFile.fileLength() > maximumFileSizeInBytes && notCurrentLogFile.size() == 0;
     }
-    return currentLogFile;
   }
 
   private void debugLogFilesSwap() {
@@ -6,6 +6,7 @@
  */
 package org.mule.runtime.core.internal.util.journal;
 
+import static java.util.Comparator.comparingLong;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 
@@ -13,6 +14,7 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -24,12 +26,27 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 
 /**
  * Manages a transaction journal file.
+ * <p>
+ * Entries are indexed in memory by transaction identifier using a concurrent map, so logging or clearing the entries of one
+ * transaction doesn't block the others.
+ * <p>
+ * When {@code groupCommit} is enabled, serialized entries from concurrent transactions are buffered and written to the file
+ * with a single write by whichever thread gets to flush first. Batches containing a checkpoint entry are also forced to disk
+ * before the logging threads return.
  *
  * @param <T> type of the transaction identifier
  * @param <K> type of the journal entry
@@ -47,11 +64,22 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   private final File journalFile;
   private final JournalEntrySerializer<T, K> journalEntrySerializer;
   private final Long clearFileMinimumSizeInBytes;
+  private final boolean groupCommit;
 
-  private Multimap<T, K> entries = LinkedHashMultimap.create();
+  private final ConcurrentMap<T, TxEntries<K>> entries = new ConcurrentHashMap<>();
+  private final AtomicLong txSequence = new AtomicLong(0);
+  private final AtomicInteger entriesCount = new AtomicInteger(0);
+  private final AtomicInteger journalOperations = new AtomicInteger(0);
 
-  private DataOutputStream logFileOutputStream;
-  private int journalOperations = 0;
+  private final Lock outputLock = new ReentrantLock();
+  private FileOutputStream logFileOutputStream;
+  private DataOutputStream logFileDataOutputStream;
+
+  // guarded by batch
+  private final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+  private long batchedEntries = 0;
+  private boolean batchRequiresSync = false;
+  private volatile long flushedEntries = 0;
 
   /**
    * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
@@ -61,9 +89,23 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    */
   public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
                                 TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes) {
+    this(journalFile, journalEntrySerializer, transactionCompletePredicate, clearFileMinimumSizeInBytes, false);
+  }
+
+  /**
+   * @param journalFile journal file to use. Will be created if it doesn't exists. If exists then transaction entries will get
+   *        loaded from it.
+   * @param journalEntrySerializer serializer for {@link JournalEntry}
+   * @param transactionCompletePredicate a callback to determine if a transaction is complete.
+   * @param groupCommit whether to batch the writes of concurrent transactions and sync the file on checkpoints
+   */
+  public TransactionJournalFile(File journalFile, JournalEntrySerializer journalEntrySerializer,
+                                TransactionCompletePredicate transactionCompletePredicate, Long clearFileMinimumSizeInBytes,
+                                boolean groupCommit) {
     this.journalFile = journalFile;
     this.journalEntrySerializer = journalEntrySerializer;
     this.clearFileMinimumSizeInBytes = clearFileMinimumSizeInBytes;
+    this.groupCommit = groupCommit;
     if (journalFile.exists()) {
       loadAllEntries(transactionCompletePredicate);
     }
@@ -75,10 +117,87 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * 
    * @param journalEntry operation details
    */
-  public synchronized void logOperation(K journalEntry) {
-    entries.put(journalEntry.getTxId(), journalEntry);
-    journalEntrySerializer.serialize(journalEntry, logFileOutputStream);
-    journalOperations++;
+  public void logOperation(K journalEntry) {
+    logOperation(journalEntry, false);
+  }
+
+  /**
+   * Adds a journal entry for an operation done over a transactional resource
+   *
+   * @param journalEntry operation details
+   * @param checkpoint whether the entry is a checkpoint, such as a commit, rollback or prepare of a transaction
+   */
+  public void logOperation(K journalEntry, boolean checkpoint) {
+    addEntry(journalEntry);
+    journalOperations.incrementAndGet();
+
+    if (!groupCommit) {
+      outputLock.lock();
+      try {
+        journalEntrySerializer.serialize(journalEntry, logFileDataOutputStream);
+      } finally {
+        outputLock.unlock();
+      }
+      return;
+    }
+
+    final ByteArrayOutputStream serializedEntry = new ByteArrayOutputStream();
+    journalEntrySerializer.serialize(journalEntry, new DataOutputStream(serializedEntry));
+
+    final long ticket;
+    synchronized (batch) {
+      serializedEntry.writeTo(batch);
+      ticket = ++batchedEntries;
+      batchRequiresSync |= checkpoint;
+    }
+    flush(ticket);
+  }
+
+  /**
+   * Writes the batched entries up to the given {@code ticket}. If another thread is already writing, this one waits for it and
+   * only writes again if that didn't include its own entry.
+   */
+  private void flush(long ticket) {
+    if (flushedEntries >= ticket) {
+      return;
+    }
+
+    outputLock.lock();
+    try {
+      if (flushedEntries >= ticket) {
+        return;
+      }
+
+      final byte[] bytes;
+      final long flushUpTo;
+      final boolean sync;
+      synchronized (batch) {
+        bytes = batch.toByteArray();
+        batch.reset();
+        flushUpTo = batchedEntries;
+        sync = batchRequiresSync;
+        batchRequiresSync = false;
+      }
+
+      logFileOutputStream.write(bytes);
+      if (sync) {
+        logFileOutputStream.getChannel().force(false);
+      }
+      flushedEntries = flushUpTo;
+    } catch (IOException e) {
+      throw new MuleRuntimeException(e);
+    } finally {
+      outputLock.unlock();
+    }
+  }
+
+  private void addEntry(K journalEntry) {
+    final TxEntries<K> txEntries =
+        entries.computeIfAbsent(journalEntry.getTxId(), txId -> new TxEntries<>(txSequence.getAndIncrement()));
+    synchronized (txEntries) {
+      txEntries.entries.add(journalEntry);
+    }
+    entriesCount.incrementAndGet();
   }
 
   /**
@@ -88,30 +207,58 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *
    * @param txId transaction identifier
    */
-  public synchronized void clearEntriesForTransaction(T txId) {
+  public void clearEntriesForTransaction(T txId) {
     doClearEntriesForTransaction(txId);
     clearFileIfNeeded();
   }
 
   protected void doClearEntriesForTransaction(T txId) {
-    Collection<K> entries = this.entries.removeAll(txId);
+    final TxEntries<K> txEntries = this.entries.remove(txId);
+    final int evicted;
+    if (txEntries == null) {
+      evicted = 0;
+    } else {
+      synchronized (txEntries) {
+        evicted = txEntries.entries.size();
+      }
+      entriesCount.addAndGet(-evicted);
+    }
     if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Evicted from tx log file " + entries.size() + " entries from txid " + txId);
+      LOGGER.debug("Evicted from tx log file " + evicted + " entries from txid " + txId);
     }
   }
 
-  protected void clearFileIfNeeded() {
+  /**
+   * @return whether there are no transaction entries left and the file is big enough to be emptied
+   */
+  protected boolean isClearFileNeeded() {
     if (this.entries.isEmpty()) {
       if (clearFileMinimumSizeInBytes != null) {
-        if (fileLength() > clearFileMinimumSizeInBytes) {
-          clear();
-          journalOperations = 0;
-        }
-      } else if (journalOperations > MINIMUM_ENTRIES_TO_CLEAR_FILE) {
-        clear();
-        journalOperations = 0;
+        return fileLength() > clearFileMinimumSizeInBytes;
+      } else {
+        return journalOperations.get() > MINIMUM_ENTRIES_TO_CLEAR_FILE;
       }
     }
+    return false;
+  }
+
+  protected void clearFileIfNeeded() {
+    if (!isClearFileNeeded()) {
+      return;
+    }
+
+    outputLock.lock();
+    try {
+      // re-checked since a transaction may have logged in the meantime. One logging afterwards writes to the new file.
+      if (isClearFileNeeded()) {
+        close();
+        FileUtils.deleteQuietly(journalFile);
+        createLogOutputStream();
+        journalOperations.set(0);
+      }
+    } finally {
+      outputLock.unlock();
+    }
   }
 
   /**
@@ -119,14 +266,19 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    *
    * Will not remove the transaction context.
    */
-  public synchronized void close() {
+  public void close() {
+    outputLock.lock();
     try {
-      logFileOutputStream.close();
+      if (logFileDataOutputStream != null) {
+        logFileDataOutputStream.close();
+      }
     } catch (IOException e) {
       LOGGER.warn(e.getMessage());
       if (LOGGER.isDebugEnabled()) {
         LOGGER.debug("Error closing transaction journal file", e);
       }
+    } finally {
+      outputLock.unlock();
     }
   }
 
@@ -135,31 +287,45 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
    * @return a copy collection of the journal entries for txId
    */
   public Collection<K> getLogEntries(T txId) {
-    final Collection<K> entries = this.entries.asMap().get(txId);
-    if (entries == null) {
+    final TxEntries<K> txEntries = this.entries.get(txId);
+    if (txEntries == null) {
       return Collections.emptyList();
     }
-    synchronized (entries) {
-      return Collections.unmodifiableCollection(new ArrayList<>(entries));
+    synchronized (txEntries) {
+      return Collections.unmodifiableCollection(new ArrayList<>(txEntries.entries));
     }
   }
 
   /**
-   * @return all journal entries exactly as stored in the journal. No modifications should be done to such collections and the
-   *         journal file should not be access concurrently for other purposes while working with the collection.
+   * @return a snapshot of all the journal entries, with the transactions in the order in which they were first logged.
    */
-  public synchronized Multimap<T, K> getAllLogEntries() {
-    return entries;
+  public Multimap<T, K> getAllLogEntries() {
+    final List<Map.Entry<T, TxEntries<K>>> transactions = new ArrayList<>(entries.entrySet());
+    transactions.sort(comparingLong(transaction -> transaction.getValue().sequence));
+
+    final Multimap<T, K> allEntries = LinkedHashMultimap.create();
+    for (Map.Entry<T, TxEntries<K>> transaction : transactions) {
+      synchronized (transaction.getValue()) {
+        allEntries.putAll(transaction.getKey(), transaction.getValue().entries);
+      }
+    }
+    return allEntries;
   }
 
   /**
    * Remove all the entries from the transaction journal and cleans the transaction journal fle.
    */
-  public synchronized void clear() {
-    close();
-    entries.clear();
-    FileUtils.deleteQuietly(journalFile);
-    createLogOutputStream();
+  public void clear() {
+    outputLock.lock();
+    try {
+      close();
+      entries.clear();
+      entriesCount.set(0);
+      FileUtils.deleteQuietly(journalFile);
+      createLogOutputStream();
+    } finally {
+      outputLock.unlock();
+    }
   }
 
   private void createLogOutputStream() {
@@ -171,7 +337,8 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
       }
     }
     try {
-      this.logFileOutputStream = new DataOutputStream(new FileOutputStream(journalFile, true));
+      this.logFileOutputStream = new FileOutputStream(journalFile, true);
+      this.logFileDataOutputStream = new DataOutputStream(logFileOutputStream);
     } catch (FileNotFoundException e) {
       throw new MuleRuntimeException(e);
     }
@@ -194,11 +361,11 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
         try {
           K journalEntry = journalEntrySerializer.deserialize(dataInputStream);
           if (journalEntry != null) {
-            this.entries.put(journalEntry.getTxId(), journalEntry);
-            journalOperations++;
+            addEntry(journalEntry);
+            journalOperations.incrementAndGet();
 
             if (transactionCompletePredicate.isTransactionComplete(journalEntry)) {
-              journalOperations -= this.entries.get(journalEntry.getTxId()).size();
+              journalOperations.addAndGet(-getLogEntries(journalEntry.getTxId()).size());
               doClearEntriesForTransaction(journalEntry.getTxId());
             }
           } else {
@@ -231,10 +398,10 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   }
 
   /**
-   * @return the number different transaction identifier held by the journal.
+   * @return the number of entries held by the journal.
    */
   public int size() {
-    return entries.size();
+    return entriesCount.get();
   }
 
   /**
@@ -251,5 +418,17 @@ class TransactionJournalFile<T, K extends JournalEntry<T>> {
   public long fileLength() {
     return journalFile.length();
   }
-}
 
+  /**
+   * The entries of a single transaction, along with the order in which the transaction was first logged.
+   */
+  private static final class TxEntries<K> {
+
+    private final long sequence;
+    private final List<K> entries = new ArrayList<>();
+
+    private TxEntries(long sequence) {
+      this.sequence = sequence;
+    }
+  }
+}
@@ -0,0 +1,797 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.util.queue;
+
+import static java.lang.Boolean.parseBoolean;
+import static java.lang.Integer.getInteger;
+import static java.lang.Math.max;
+import static java.lang.System.getProperty;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.apache.commons.io.FileUtils.deleteQuietly;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.internal.util.queue.QueueFileProvider.toHex;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.util.Preconditions;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.internal.util.MappedByteBufferUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * {@link TransactionalQueueStoreDelegate} which persists the queue into a sequence of fixed size, memory mapped segment files.
+ * <p>
+ * Items are always appended to the last segment (the tail) and taken from the first one (the head). The tail and the head are
+ * guarded by different locks, so producers and consumers don't contend with each other. Each record has the following layout:
+ *
+ * <pre>
+ * [int length][int crc32][byte status][serialized item]
+ * </pre>
+ *
+ * The length is written last, so a record which was only partially written is never recognized. Taking an item flips its
+ * status to consumed, and once every record of a segment has been consumed the whole segment file is deleted. When a record
+ * doesn't fit into the tail segment, an end of segment marker is written and a new segment is started. Items put back through
+ * {@link #untake(Serializable)} are written into a small segment of their own placed before the head.
+ * <p>
+ * When {@code syncWrites} is enabled, each write only returns once its record has been forced to disk. Concurrent writers
+ * share a single {@link MappedByteBuffer#force()} call (group commit), so the cost of syncing is amortized across all of them.
+ * <p>
+ * Once {@link #close() closed} or {@link #dispose() disposed}, the segments are unmapped and any operation on the queue fails
+ * with an {@link IllegalStateException}. The pending items of a closed queue are recovered by a new instance.
+ *
+ * @since 4.2.0
+ */
+public class SegmentedMappedFileQueueStoreDelegate implements TransactionalQueueStoreDelegate {
+
+  /**
+   * System property to use this delegate for persistent queues instead of the {@link DualRandomAccessFileQueueStoreDelegate}
+   */
+  public static final String MULE_QUEUE_SEGMENTED_STORE = SYSTEM_PROPERTY_PREFIX + "queue.segmentedStore";
+
+  /**
+   * System property to set the size in bytes of each segment file. Defaults to {@link #DEFAULT_SEGMENT_SIZE}
+   */
+  public static final String MULE_QUEUE_SEGMENT_SIZE = SYSTEM_PROPERTY_PREFIX + "queue.segmentedStore.segmentSize";
+
+  /**
+   * System property to disable forcing each write to disk before returning. Defaults to {@code true}
+   */
+  public static final String MULE_QUEUE_SEGMENTED_STORE_SYNC = SYSTEM_PROPERTY_PREFIX + "queue.segmentedStore.sync";
+
+  static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+  private static final Logger LOGGER = getLogger(SegmentedMappedFileQueueStoreDelegate.class);
+
+  private static final String QUEUE_STORE_DIRECTORY = "queuestore";
+  private static final String SEGMENTS_DIRECTORY_SUFFIX = "-segments";
+  private static final String SEGMENT_FILE_EXTENSION = ".qseg";
+
+  private static final int HEADER_SIZE = 9;
+  private static final int CRC_OFFSET = 4;
+  private static final int STATUS_OFFSET = 8;
+  private static final int END_OF_SEGMENT = -1;
+  private static final byte LIVE = 1;
+  private static final byte CONSUMED = 2;
+
+  private final ObjectSerializer serializer;
+  private final File segmentsDirectory;
+  private final int capacity;
+  private final int segmentSize;
+  private final boolean syncWrites;
+
+  private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+  private final AtomicInteger count = new AtomicInteger(0);
+
+  private final ReentrantLock tailLock = new ReentrantLock();
+  private final Condition notFull = tailLock.newCondition();
+  private final ReentrantLock headLock = new ReentrantLock();
+  private final Condition notEmpty = headLock.newCondition();
+
+  private final Lock syncLock = new ReentrantLock();
+  private final AtomicLong syncedBytes = new AtomicLong(0);
+
+  // guarded by tailLock
+  private volatile Segment tail;
+  private int tailPosition;
+  private volatile long appendedBytes = 0;
+
+  // guarded by headLock
+  private Segment head;
+  private int headPosition;
+
+  // written holding both tailLock and headLock
+  private volatile boolean closed = false;
+
+  public SegmentedMappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext,
+                                               int capacity) {
+    this(queueName, workingDirectory, muleContext, capacity, getInteger(MULE_QUEUE_SEGMENT_SIZE, DEFAULT_SEGMENT_SIZE),
+         parseBoolean(getProperty(MULE_QUEUE_SEGMENTED_STORE_SYNC, "true")));
+  }
+
+  SegmentedMappedFileQueueStoreDelegate(String queueName, String workingDirectory, MuleContext muleContext, int capacity,
+                                        int segmentSize, boolean syncWrites) {
+    this.serializer = muleContext.getObjectSerializer();
+    this.capacity = capacity;
+    this.segmentSize = segmentSize;
+    this.syncWrites = syncWrites;
+
+    segmentsDirectory = getSegmentsDirectory(queueName, workingDirectory);
+    if (!segmentsDirectory.exists()) {
+      Preconditions.checkState(segmentsDirectory.mkdirs(),
+                               "Could not create queue store directory " + segmentsDirectory.getAbsolutePath());
+    }
+    open();
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(String.format("Queue %s has %s messages", queueName, getSize()));
+    }
+  }
+
+  static File getSegmentsDirectory(String queueName, String workingDirectory) {
+    final File queuesDirectory = new File(workingDirectory + File.separator + QUEUE_STORE_DIRECTORY);
+    final String directoryName = queueName.matches("[\\w.\\-]+") ? queueName : toHex(queueName);
+    return new File(queuesDirectory, directoryName + SEGMENTS_DIRECTORY_SUFFIX);
+  }
+
+  private void open() {
+    final List<Long> ids = new ArrayList<>();
+    final File[] files = segmentsDirectory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_EXTENSION));
+    if (files != null) {
+      for (File file : files) {
+        final String name = file.getName();
+        try {
+          ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_EXTENSION.length())));
+        } catch (NumberFormatException e) {
+          LOGGER.warn("Ignoring unexpected file {} in queue store directory", file.getAbsolutePath());
+        }
+      }
+    }
+
+    for (Long id : ids) {
+      final long length = segmentFile(id).length();
+      if (length < HEADER_SIZE) {
+        deleteQuietly(segmentFile(id));
+      } else {
+        segments.put(id, mapSegment(id, (int) length));
+      }
+    }
+
+    if (!segments.isEmpty()) {
+      recover();
+    }
+    if (tail == null) {
+      tail = mapSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1, segmentSize);
+      tailPosition = 0;
+      segments.put(tail.id, tail);
+    }
+
+    head = segments.firstEntry().getValue();
+    headPosition = 0;
+    advanceHead();
+  }
+
+  /**
+   * Scans every segment counting the items which were not consumed yet. The last segment becomes the tail, unless it was
+   * already sealed. Scanning a segment stops at the first record which is incomplete or doesn't match its checksum.
+   */
+  private void recover() {
+    final Segment last = segments.lastEntry().getValue();
+    int live = 0;
+
+    for (Segment segment : segments.values()) {
+      final ByteBuffer buffer = segment.buffer;
+      int position = 0;
+      boolean sealed = false;
+
+      while (position + HEADER_SIZE <= segment.size()) {
+        final int length = buffer.getInt(position);
+        if (length == END_OF_SEGMENT) {
+          sealed = true;
+          break;
+        }
+
+        final byte status = buffer.get(position + STATUS_OFFSET);
+        if (length <= 0 || position + HEADER_SIZE + length > segment.size() || (status != LIVE && status != CONSUMED)
+            || buffer.getInt(position + CRC_OFFSET) != crc(segment, position, length)) {
+          if (length != 0) {
+            LOGGER.warn("Queue segment {} is corrupted at position {}. Discarding its remaining content",
+                        segment.file.getAbsolutePath(), position);
+          }
+          break;
+        }
+
+        if (status == LIVE) {
+          live++;
+        }
+        position += HEADER_SIZE + length;
+      }
+
+      if (segment == last && !sealed) {
+        tail = segment;
+        tailPosition = position;
+      } else {
+        segment.limit = position;
+      }
+    }
+
+    count.set(live);
+  }
+
+  @Override
+  public void putNow(Serializable o) {
+    final byte[] data = serialize(o);
+    final long writtenUpTo;
+    final int c;
+
+    tailLock.lock();
+    try {
+      checkOpen();
+      append(data);
+      writtenUpTo = appendedBytes;
+      c = count.getAndIncrement();
+    } finally {
+      tailLock.unlock();
+    }
+
+    if (c == 0) {
+      signalNotEmpty();
+    }
+    sync(writtenUpTo);
+  }
+
+  @Override
+  public boolean offer(Serializable o, int room, long timeout) throws InterruptedException {
+    checkInterrupted();
+    final byte[] data = o != null ? serialize(o) : null;
+    long writtenUpTo = 0;
+    int c = -1;
+
+    tailLock.lockInterruptibly();
+    try {
+      checkOpen();
+      if (capacity > 0) {
+        if (capacity <= room) {
+          throw new IllegalStateException("Can not add more objects than the capacity in one time");
+        }
+        long nanos = MILLISECONDS.toNanos(timeout);
+        while (count.get() >= capacity - room) {
+          if (timeout < 0) {
+            notFull.await();
+          } else {
+            if (nanos <= 0L) {
+              return false;
+            }
+            nanos = notFull.awaitNanos(nanos);
+          }
+          checkOpen();
+        }
+      }
+
+      if (data != null) {
+        append(data);
+        writtenUpTo = appendedBytes;
+        c = count.getAndIncrement();
+      }
+      if (capacity > 0 && count.get() < capacity) {
+        notFull.signal();
+      }
+    } finally {
+      tailLock.unlock();
+    }
+
+    if (c == 0) {
+      signalNotEmpty();
+    }
+    sync(writtenUpTo);
+    return true;
+  }
+
+  @Override
+  public Serializable poll(long timeout) throws InterruptedException {
+    checkInterrupted();
+    final byte[] data;
+
+    headLock.lockInterruptibly();
+    try {
+      checkOpen();
+      long nanos = MILLISECONDS.toNanos(timeout);
+      while (count.get() == 0) {
+        if (nanos <= 0L) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+        checkOpen();
+      }
+
+      data = readFirst(true);
+      if (count.getAndDecrement() > 1) {
+        notEmpty.signal();
+      }
+    } finally {
+      headLock.unlock();
+    }
+
+    if (capacity > 0) {
+      signalNotFull();
+    }
+    return deserialize(data);
+  }
+
+  @Override
+  public Serializable peek() throws InterruptedException {
+    checkInterrupted();
+    final byte[] data;
+
+    headLock.lockInterruptibly();
+    try {
+      checkOpen();
+      if (count.get() == 0) {
+        return null;
+      }
+      data = readFirst(false);
+    } finally {
+      headLock.unlock();
+    }
+
+    return deserialize(data);
+  }
+
+  @Override
+  public void untake(Serializable item) throws InterruptedException {
+    checkInterrupted();
+    final byte[] data = serialize(item);
+
+    headLock.lockInterruptibly();
+    try {
+      checkOpen();
+      final Segment segment = mapSegment(segments.firstKey() - 1, HEADER_SIZE + data.length);
+      write(segment, 0, data);
+      if (syncWrites) {
+        segment.buffer.force();
+      }
+      segment.limit = HEADER_SIZE + data.length;
+      segments.put(segment.id, segment);
+
+      head = segment;
+      headPosition = 0;
+      count.getAndIncrement();
+      notEmpty.signal();
+    } finally {
+      headLock.unlock();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return count.get();
+  }
+
+  @Override
+  public void clear() throws InterruptedException {
+    checkInterrupted();
+    fullyLock();
+    try {
+      checkOpen();
+      final long nextId = tail.id + 1;
+      deleteSegments();
+
+      tail = mapSegment(nextId, segmentSize);
+      tailPosition = 0;
+      segments.put(tail.id, tail);
+      head = tail;
+      headPosition = 0;
+
+      count.set(0);
+      notFull.signalAll();
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends Serializable> items) {
+    if (items.isEmpty()) {
+      return true;
+    }
+
+    final List<byte[]> serializedItems = new ArrayList<>(items.size());
+    for (Serializable item : items) {
+      serializedItems.add(serialize(item));
+    }
+
+    final long writtenUpTo;
+    final int c;
+    tailLock.lock();
+    try {
+      checkOpen();
+      for (byte[] data : serializedItems) {
+        append(data);
+      }
+      writtenUpTo = appendedBytes;
+      c = count.getAndAdd(serializedItems.size());
+    } finally {
+      tailLock.unlock();
+    }
+
+    if (c == 0) {
+      signalNotEmpty();
+    }
+    sync(writtenUpTo);
+    return true;
+  }
+
+  @Override
+  public void remove(Serializable value) {
+    fullyLock();
+    try {
+      checkOpen();
+      if (findLiveRecord(value, true)) {
+        count.decrementAndGet();
+        notFull.signal();
+      }
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public boolean contains(Serializable value) {
+    fullyLock();
+    try {
+      checkOpen();
+      return findLiveRecord(value, false);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    fullyLock();
+    syncLock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      // waiting producers and consumers fail right away instead of waiting for their timeout
+      notFull.signalAll();
+      notEmpty.signalAll();
+
+      if (syncWrites) {
+        segments.values().forEach(segment -> segment.buffer.force());
+      }
+      segments.values().forEach(Segment::unmap);
+      segments.clear();
+
+      tail = null;
+      tailPosition = 0;
+      head = null;
+      headPosition = 0;
+      count.set(0);
+    } finally {
+      syncLock.unlock();
+      fullyUnlock();
+    }
+  }
+
+  @Override
+  public void dispose() {
+    fullyLock();
+    try {
+      closed = true;
+      notFull.signalAll();
+      notEmpty.signalAll();
+      deleteSegments();
+      deleteQuietly(segmentsDirectory);
+
+      tail = null;
+      head = null;
+      count.set(0);
+    } finally {
+      fullyUnlock();
+    }
+  }
+
+  /**
+   * Unmaps and deletes all the segments. Must be called holding both the {@link #tailLock} and the {@link #headLock}.
+   */
+  private void deleteSegments() {
+    // a concurrent sync may still be forcing the tail it read before acquiring the locks
+    syncLock.lock();
+    try {
+      segments.values().forEach(Segment::delete);
+      segments.clear();
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Writes the given {@code data} at the current tail position, starting a new segment if it doesn't fit in the current one.
+   * Must be called holding the {@link #tailLock}.
+   */
+  private void append(byte[] data) {
+    final int recordSize = HEADER_SIZE + data.length;
+    if (tailPosition + recordSize > tail.size()) {
+      roll(recordSize);
+    }
+
+    write(tail, tailPosition, data);
+    tailPosition += recordSize;
+    appendedBytes += recordSize;
+  }
+
+  private void roll(int recordSize) {
+    final Segment previous = tail;
+    final Segment next = mapSegment(previous.id + 1, max(segmentSize, recordSize));
+    // the next segment has to be reachable before consumers learn that the previous one is sealed
+    segments.put(next.id, next);
+
+    if (tailPosition + Integer.BYTES <= previous.size()) {
+      previous.buffer.putInt(tailPosition, END_OF_SEGMENT);
+    }
+    if (syncWrites) {
+      previous.buffer.force();
+    }
+    previous.limit = tailPosition;
+
+    tail = next;
+    tailPosition = 0;
+  }
+
+  private void write(Segment segment, int position, byte[] data) {
+    final CRC32 crc = new CRC32();
+    crc.update(data);
+
+    final ByteBuffer view = segment.buffer.duplicate();
+    view.position(position + CRC_OFFSET);
+    view.putInt((int) crc.getValue());
+    view.put(LIVE);
+    view.put(data);
+    // written last so that a partially written record is never recognized
+    segment.buffer.putInt(position, data.length);
+  }
+
+  /**
+   * Reads the first live item, moving the head past any consumed record or exhausted segment. If {@code consume} is
+   * {@code true}, the record is also marked as consumed. Must be called holding the {@link #headLock} and only when the
+   * queue is not empty.
+   */
+  private byte[] readFirst(boolean consume) {
+    while (true) {
+      if (isHeadExhausted()) {
+        Preconditions.checkState(segments.higherKey(head.id) != null, "Queue store segments are inconsistent");
+        moveHeadToNextSegment();
+        continue;
+      }
+
+      final int length = head.buffer.getInt(headPosition);
+      Preconditions.checkState(length > 0, "Queue store segment " + head.file.getAbsolutePath() + " is inconsistent");
+      if (head.buffer.get(headPosition + STATUS_OFFSET) != LIVE) {
+        headPosition += HEADER_SIZE + length;
+        continue;
+      }
+
+      final byte[] data = read(head, headPosition, length);
+      if (consume) {
+        head.buffer.put(headPosition + STATUS_OFFSET, CONSUMED);
+        headPosition += HEADER_SIZE + length;
+        advanceHead();
+      }
+      return data;
+    }
+  }
+
+  /**
+   * Deletes the segments which were fully consumed
+   */
+  private void advanceHead() {
+    while (isHeadExhausted() && segments.higherKey(head.id) != null) {
+      moveHeadToNextSegment();
+    }
+  }
+
+  private boolean isHeadExhausted() {
+    final int limit = head.limit;
+    return limit >= 0 && headPosition >= limit;
+  }
+
+  private void moveHeadToNextSegment() {
+    final Segment exhausted = head;
+    head = segments.higherEntry(exhausted.id).getValue();
+    headPosition = 0;
+
+    segments.remove(exhausted.id);
+    // a sync that started before the segment was sealed may still be forcing it
+    syncLock.lock();
+    try {
+      exhausted.delete();
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private boolean findLiveRecord(Serializable value, boolean consume) {
+    for (Segment segment : segments.values()) {
+      int position = segment == head ? headPosition : 0;
+      final int end = segment == tail ? tailPosition : segment.limit;
+
+      while (position < end) {
+        final int length = segment.buffer.getInt(position);
+        if (segment.buffer.get(position + STATUS_OFFSET) == LIVE
+            && deserialize(read(segment, position, length)).equals(value)) {
+          if (consume) {
+            segment.buffer.put(position + STATUS_OFFSET, CONSUMED);
+          }
+          return true;
+        }
+        position += HEADER_SIZE + length;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Makes sure that all the data appended up to {@code writtenUpTo} has been forced to disk. If another thread is already
+   * syncing, this one waits for it and only syncs again if that didn't cover its own writes.
+   */
+  private void sync(long writtenUpTo) {
+    if (!syncWrites || syncedBytes.get() >= writtenUpTo) {
+      return;
+    }
+
+    syncLock.lock();
+    try {
+      if (syncedBytes.get() >= writtenUpTo) {
+        return;
+      }
+      // read before the tail, since sealed segments are forced when rolling
+      final long syncUpTo = appendedBytes;
+      final Segment segment = tail;
+      if (segment == null) {
+        // closed
+        return;
+      }
+      segment.buffer.force();
+      syncedBytes.set(syncUpTo);
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void signalNotEmpty() {
+    headLock.lock();
+    try {
+      notEmpty.signal();
+    } finally {
+      headLock.unlock();
+    }
+  }
+
+  private void signalNotFull() {
+    tailLock.lock();
+    try {
+      notFull.signal();
+    } finally {
+      tailLock.unlock();
+    }
+  }
+
+  private void fullyLock() {
+    tailLock.lock();
+    headLock.lock();
+  }
+
+  private void fullyUnlock() {
+    headLock.unlock();
+    tailLock.unlock();
+  }
+
+  private Segment mapSegment(long id, int size) {
+    final File file = segmentFile(id);
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        FileChannel channel = randomAccessFile.getChannel()) {
+      return new Segment(id, file, channel.map(READ_WRITE, 0, size));
+    } catch (IOException e) {
+      throw new MuleRuntimeException(createStaticMessage("Could not map queue segment " + file.getAbsolutePath()), e);
+    }
+  }
+
+  private File segmentFile(long id) {
+    return new File(segmentsDirectory, id + SEGMENT_FILE_EXTENSION);
+  }
+
+  private static byte[] read(Segment segment, int position, int length) {
+    final byte[] data = new byte[length];
+    final ByteBuffer view = segment.buffer.duplicate();
+    view.position(position + HEADER_SIZE);
+    view.get(data);
+    return data;
+  }
+
+  private static int crc(Segment segment, int position, int length) {
+    final CRC32 crc = new CRC32();
+    crc.update(read(segment, position, length));
+    return (int) crc.getValue();
+  }
+
+  private byte[] serialize(Serializable item) {
+    return serializer.getInternalProtocol().serialize(item);
+  }
+
+  private Serializable deserialize(byte[] data) {
+    return serializer.getInternalProtocol().deserialize(data);
+  }
+
+  private void checkOpen() {
+    Preconditions.checkState(!closed, "Queue store " + segmentsDirectory.getAbsolutePath() + " is closed");
+  }
+
+  private void checkInterrupted() throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  /**
+   * A memory mapped segment file. Its {@code limit} is set once the segment is sealed, meaning that no more records will be
+   * written into it.
+   */
+  private static final class Segment {
+
+    private final long id;
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private volatile int limit = -1;
+
+    private Segment(long id, File file, MappedByteBuffer buffer) {
+      this.id = id;
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    private int size() {
+      return buffer.capacity();
+    }
+
+    /**
+     * Releases the mapping of this segment. Its buffer must not be accessed afterwards.
+     */
+    private void unmap() {
+      MappedByteBufferUtils.unmap(buffer);
+    }
+
+    private void delete() {
+      unmap();
+      if (!file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+}
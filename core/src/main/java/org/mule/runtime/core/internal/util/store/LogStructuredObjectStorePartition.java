@@ -0,0 +1,847 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+
+package org.mule.runtime.core.internal.util.store;
+
+import static java.lang.Long.parseLong;
+import static java.lang.String.format;
+import static java.lang.System.currentTimeMillis;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOfRange;
+import static java.util.Arrays.sort;
+import static java.util.Collections.unmodifiableList;
+import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
+import static org.mule.runtime.core.api.config.i18n.CoreMessages.failedToCreate;
+import static org.mule.runtime.core.internal.util.store.MuleObjectStoreManager.UNBOUNDED;
+import static org.slf4j.LoggerFactory.getLogger;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.serialization.ObjectSerializer;
+import org.mule.runtime.api.store.ExpirableObjectStore;
+import org.mule.runtime.api.store.ObjectAlreadyExistsException;
+import org.mule.runtime.api.store.ObjectDoesNotExistException;
+import org.mule.runtime.api.store.ObjectStoreException;
+import org.mule.runtime.api.store.ObjectStoreNotAvailableException;
+import org.mule.runtime.api.store.TemplateObjectStore;
+import org.mule.runtime.core.api.MuleContext;
+import org.mule.runtime.core.privileged.store.DeserializationPostInitialisable;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+
+/**
+ * A persistent {@link ExpirableObjectStore} partition which appends all its changes to a log of segment files instead of
+ * writing one file per entry.
+ * <p>
+ * Each {@link #store(String, Serializable)} appends a record to the active segment and each {@link #remove(String)} appends a
+ * tombstone. An in-memory index maps every key to the position of its latest record, so reads are a single positional read on
+ * the segment which holds it and don't require any lock. Once a segment reaches its max size ({@link #MAX_SEGMENT_SIZE} by
+ * default), a new one is started.
+ * <p>
+ * When {@code syncWrites} is enabled, each write only returns once its record has been forced to disk. Concurrent writers
+ * share a single {@link FileChannel#force(boolean)} call (group commit), so the cost of syncing is amortized across all of
+ * them.
+ * <p>
+ * Expiration walks the index, so it never needs to list the partition directory. Every entry is checked against the TTL,
+ * since compaction and restarts don't keep the entries ordered by timestamp. Each expiration run also compacts the segments
+ * in which less than half of the data is still live by copying the live records into the active segment and deleting the old
+ * file. Only one expiration run compacts at a time.
+ * <p>
+ * When the partition is loaded, segments are replayed in order to rebuild the index. A record which fails its checksum is
+ * assumed to be the result of an interrupted write, so the segment is truncated at that point.
+ *
+ * @since 4.2.0
+ */
+public class LogStructuredObjectStorePartition<T extends Serializable> extends TemplateObjectStore<T>
+    implements ExpirableObjectStore<T> {
+
+  /**
+   * System property to make the {@link org.mule.runtime.core.internal.store.PartitionedPersistentObjectStore} create new
+   * partitions with this implementation
+   */
+  public static final String MULE_OBJECT_STORE_LOG_STRUCTURED = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured";
+
+  /**
+   * System property to disable forcing each write to disk before returning. Enabled by default.
+   */
+  public static final String MULE_OBJECT_STORE_LOG_SYNC = SYSTEM_PROPERTY_PREFIX + "objectStore.logStructured.sync";
+
+  static final String SEGMENT_FILE_EXTENSION = ".seg";
+  static final long MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final String PARTITION_DESCRIPTOR_FILE = "partition-descriptor";
+  private static final double COMPACTION_LIVE_RATIO = 0.5;
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+  private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+  private static final int BODY_HEADER_SIZE = 1 + Long.BYTES + Integer.BYTES;
+
+  private static final Logger LOGGER = getLogger(LogStructuredObjectStorePartition.class);
+
+  private final MuleContext muleContext;
+  private final ObjectSerializer serializer;
+  private final File partitionDirectory;
+  private final boolean syncWrites;
+  private final long maxSegmentSize;
+  private String partitionName;
+
+  private final Map<String, IndexEntry> index = new ConcurrentHashMap<>();
+  private final NavigableMap<Long, IndexEntry> insertionOrder = new ConcurrentSkipListMap<>();
+  private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+  private final Lock appendLock = new ReentrantLock();
+  private final Lock syncLock = new ReentrantLock();
+  private final Lock compactionLock = new ReentrantLock();
+  private final AtomicLong syncedBytes = new AtomicLong(0);
+
+  private volatile Segment activeSegment;
+  private volatile long appendedBytes = 0;
+  private volatile boolean loaded = false;
+  private long nextSequence = 0;
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory,
+                                           boolean syncWrites) {
+    this(muleContext, partitionName, partitionDirectory, syncWrites, MAX_SEGMENT_SIZE);
+  }
+
+  LogStructuredObjectStorePartition(MuleContext muleContext, String partitionName, File partitionDirectory, boolean syncWrites,
+                                    long maxSegmentSize) {
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer();
+    this.partitionName = partitionName;
+    this.partitionDirectory = partitionDirectory;
+    this.syncWrites = syncWrites;
+    this.maxSegmentSize = maxSegmentSize;
+  }
+
+  public LogStructuredObjectStorePartition(MuleContext muleContext, File partitionDirectory, boolean syncWrites)
+      throws ObjectStoreNotAvailableException {
+    this.muleContext = muleContext;
+    serializer = muleContext.getObjectSerializer();
+    this.partitionDirectory = partitionDirectory;
+    this.syncWrites = syncWrites;
+    this.maxSegmentSize = MAX_SEGMENT_SIZE;
+    this.partitionName = readPartitionFileName(partitionDirectory);
+  }
+
+  /**
+   * @param partitionDirectory a partition's directory
+   * @return whether the given directory holds a partition written by this class
+   */
+  public static boolean isLogStructured(File partitionDirectory) {
+    File[] segmentFiles = listSegmentFiles(partitionDirectory);
+    return segmentFiles.length > 0;
+  }
+
+  private static String readPartitionFileName(File partitionDirectory) throws ObjectStoreNotAvailableException {
+    File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+    try {
+      return readFileToString(partitionDescriptorFile);
+    } catch (IOException e) {
+      throw new ObjectStoreNotAvailableException(e);
+    }
+  }
+
+  @Override
+  public synchronized void open() throws ObjectStoreException {
+    createDirectory(partitionDirectory);
+    createOrRetrievePartitionDescriptorFile();
+    createFirstSegmentFile();
+  }
+
+  /**
+   * Creates an empty segment for new partitions, so that they're recognized as log structured when restored.
+   */
+  private void createFirstSegmentFile() throws ObjectStoreException {
+    if (listSegmentFiles(partitionDirectory).length == 0) {
+      try {
+        new RandomAccessFile(segmentFile(0), "rw").close();
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+  }
+
+  /**
+   * Closes the channels of all the segments. The partition is loaded again from disk the next time it's accessed.
+   */
+  @Override
+  public void close() throws ObjectStoreException {
+    appendLock.lock();
+    try {
+      Segment segment = activeSegment;
+      if (segment != null && syncWrites) {
+        try {
+          segment.channel.force(false);
+          markSynced(appendedBytes);
+        } catch (IOException e) {
+          LOGGER.warn("Could not sync object store segment " + segment.file.getAbsolutePath(), e);
+        }
+      }
+
+      for (Segment closing : segments.values()) {
+        closeQuietly(closing.channel);
+      }
+      segments.clear();
+      index.clear();
+      insertionOrder.clear();
+      activeSegment = null;
+      // counted again when the segments are replayed
+      appendedBytes = 0;
+      syncedBytes.set(0);
+      nextSequence = 0;
+      loaded = false;
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isPersistent() {
+    return true;
+  }
+
+  public String getPartitionName() {
+    return partitionName;
+  }
+
+  @Override
+  public List<String> allKeys() throws ObjectStoreException {
+    assureLoaded();
+
+    List<String> keys = new ArrayList<>(index.size());
+    insertionOrder.values().forEach(entry -> keys.add(entry.key));
+    return unmodifiableList(keys);
+  }
+
+  @Override
+  protected boolean doContains(String key) throws ObjectStoreException {
+    assureLoaded();
+    return index.containsKey(key);
+  }
+
+  @Override
+  protected void doStore(String key, T value) throws ObjectStoreException {
+    assureLoaded();
+
+    if (index.containsKey(key)) {
+      throw new ObjectAlreadyExistsException();
+    }
+
+    final byte[] serializedValue = serializer.getInternalProtocol().serialize(value);
+    final long writtenUpTo;
+
+    appendLock.lock();
+    try {
+      if (index.containsKey(key)) {
+        throw new ObjectAlreadyExistsException();
+      }
+
+      publish(append(PUT, key, serializedValue, currentTimeMillis(), nextSequence++));
+      writtenUpTo = appendedBytes;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      appendLock.unlock();
+    }
+
+    sync(writtenUpTo);
+  }
+
+  @Override
+  protected T doRetrieve(String key) throws ObjectStoreException {
+    assureLoaded();
+    return load(key);
+  }
+
+  @Override
+  public Map<String, T> retrieveAll() throws ObjectStoreException {
+    assureLoaded();
+
+    Map<String, T> values = new LinkedHashMap<>(index.size());
+    for (IndexEntry entry : insertionOrder.values()) {
+      try {
+        values.put(entry.key, load(entry.key));
+      } catch (ObjectDoesNotExistException e) {
+        // removed while iterating
+      }
+    }
+
+    return values;
+  }
+
+  @Override
+  protected T doRemove(String key) throws ObjectStoreException {
+    assureLoaded();
+
+    final byte[] serializedValue;
+    final long writtenUpTo;
+
+    appendLock.lock();
+    try {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+
+      serializedValue = readValue(entry);
+      appendTombstone(entry);
+      writtenUpTo = appendedBytes;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      appendLock.unlock();
+    }
+
+    sync(writtenUpTo);
+    return deserialize(serializedValue);
+  }
+
+  @Override
+  public void clear() throws ObjectStoreException {
+    appendLock.lock();
+    try {
+      for (Segment segment : segments.values()) {
+        closeQuietly(segment.channel);
+      }
+      segments.clear();
+      index.clear();
+      insertionOrder.clear();
+      activeSegment = null;
+
+      for (File segmentFile : listSegmentFiles(partitionDirectory)) {
+        if (!segmentFile.delete()) {
+          throw new ObjectStoreException(createStaticMessage("Deleting " + segmentFile.getAbsolutePath() + " failed"));
+        }
+      }
+
+      createOrRetrievePartitionDescriptorFile();
+      rollSegment();
+      loaded = true;
+    } catch (IOException e) {
+      throw new ObjectStoreException(createStaticMessage("Could not clear ObjectStore"), e);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  @Override
+  public void expire(long entryTTL, int maxEntries) throws ObjectStoreException {
+    assureLoaded();
+
+    final long writtenUpTo;
+    appendLock.lock();
+    try {
+      if (maxEntries != UNBOUNDED) {
+        int excess = index.size() - maxEntries;
+        while (excess-- > 0 && !insertionOrder.isEmpty()) {
+          appendTombstone(insertionOrder.firstEntry().getValue());
+        }
+      }
+
+      if (entryTTL != UNBOUNDED) {
+        final long now = currentTimeMillis();
+        for (IndexEntry entry : insertionOrder.values()) {
+          if ((now - entry.timestamp) >= entryTTL) {
+            appendTombstone(entry);
+          }
+        }
+      }
+
+      writtenUpTo = appendedBytes;
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      appendLock.unlock();
+    }
+
+    sync(writtenUpTo);
+    compact();
+  }
+
+  private void assureLoaded() throws ObjectStoreException {
+    if (!loaded) {
+      appendLock.lock();
+      try {
+        // re-checked so that only the first access contends on the lock
+        if (!loaded) {
+          loadSegments();
+          loaded = true;
+        }
+      } finally {
+        appendLock.unlock();
+      }
+    }
+  }
+
+  private void loadSegments() throws ObjectStoreException {
+    try {
+      File[] segmentFiles = listSegmentFiles(partitionDirectory);
+      sort(segmentFiles);
+
+      for (File segmentFile : segmentFiles) {
+        String fileName = segmentFile.getName();
+        Segment segment = openSegment(parseLong(fileName.substring(0, fileName.length() - SEGMENT_FILE_EXTENSION.length())));
+        segments.put(segment.id, segment);
+        replay(segment);
+      }
+
+      if (segments.isEmpty() || segments.lastEntry().getValue().size >= maxSegmentSize) {
+        rollSegment();
+      } else {
+        activeSegment = segments.lastEntry().getValue();
+      }
+    } catch (Exception e) {
+      throw new ObjectStoreException(createStaticMessage(format("Could not restore object store data from %1s",
+                                                                partitionDirectory.getAbsolutePath())),
+                                     e);
+    }
+  }
+
+  private void replay(Segment segment) throws IOException {
+    long validSize = scan(segment, record -> {
+      if (record.type == PUT) {
+        publish(new IndexEntry(record.key, segment, record.offset, record.length, record.valueOffset(), record.valueLength(),
+                               record.timestamp, nextSequence++));
+      } else {
+        IndexEntry previous = index.remove(record.key);
+        if (previous != null) {
+          retire(previous);
+        }
+      }
+    });
+
+    if (validSize < segment.channel.size()) {
+      LOGGER.warn(format("Found an incomplete record at position %d of object store segment %s. The segment will be truncated",
+                         validSize, segment.file.getAbsolutePath()));
+      segment.channel.truncate(validSize);
+    }
+
+    segment.size = validSize;
+    appendedBytes += validSize;
+    syncedBytes.set(appendedBytes);
+  }
+
+  /**
+   * Reads all the valid records of the given {@code segment} in order.
+   *
+   * @return the position right after the last valid record
+   */
+  private long scan(Segment segment, RecordVisitor visitor) throws IOException {
+    long position = 0;
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+      while (true) {
+        final int bodyLength;
+        final int checksum;
+        final byte[] body;
+        try {
+          bodyLength = input.readInt();
+          checksum = input.readInt();
+          if (bodyLength < BODY_HEADER_SIZE || position + RECORD_HEADER_SIZE + bodyLength > segment.file.length()) {
+            return position;
+          }
+
+          body = new byte[bodyLength];
+          input.readFully(body);
+        } catch (EOFException e) {
+          return position;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, bodyLength);
+        if ((int) crc.getValue() != checksum) {
+          return position;
+        }
+
+        visitor.visit(new Record(position, body));
+        position += RECORD_HEADER_SIZE + bodyLength;
+      }
+    }
+  }
+
+  private IndexEntry append(byte type, String key, byte[] value, long timestamp, long sequence) throws IOException {
+    final byte[] keyBytes = key.getBytes(UTF_8);
+    final int bodyLength = BODY_HEADER_SIZE + keyBytes.length + value.length;
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + bodyLength);
+    record.putInt(bodyLength);
+    record.putInt(0);
+    record.put(type);
+    record.putLong(timestamp);
+    record.putInt(keyBytes.length);
+    record.put(keyBytes);
+    record.put(value);
+
+    CRC32 crc = new CRC32();
+    crc.update(record.array(), RECORD_HEADER_SIZE, bodyLength);
+    record.putInt(Integer.BYTES, (int) crc.getValue());
+    record.flip();
+
+    Segment segment = activeSegment;
+    if (segment.size > 0 && segment.size + record.remaining() > maxSegmentSize) {
+      segment = rollSegment();
+    }
+
+    final long offset = segment.size;
+    final int recordLength = record.remaining();
+    long position = offset;
+    while (record.hasRemaining()) {
+      position += segment.channel.write(record, position);
+    }
+
+    segment.size += recordLength;
+    appendedBytes += recordLength;
+
+    return new IndexEntry(key, segment, offset, recordLength, offset + RECORD_HEADER_SIZE + BODY_HEADER_SIZE + keyBytes.length,
+                          value.length, timestamp, sequence);
+  }
+
+  private void appendTombstone(IndexEntry entry) throws IOException {
+    if (index.remove(entry.key, entry)) {
+      append(DELETE, entry.key, new byte[0], currentTimeMillis(), nextSequence++);
+      retire(entry);
+    }
+  }
+
+  private void publish(IndexEntry entry) {
+    IndexEntry previous = index.put(entry.key, entry);
+    if (previous != null) {
+      retire(previous);
+    }
+    insertionOrder.put(entry.sequence, entry);
+    entry.segment.liveBytes += entry.recordLength;
+  }
+
+  private void retire(IndexEntry entry) {
+    entry.segment.liveBytes -= entry.recordLength;
+    insertionOrder.remove(entry.sequence, entry);
+  }
+
+  private Segment rollSegment() throws IOException {
+    Segment previous = activeSegment;
+    if (previous != null && syncWrites) {
+      previous.channel.force(false);
+      markSynced(appendedBytes);
+    }
+
+    Segment next = openSegment(segments.isEmpty() ? 0 : segments.lastKey() + 1);
+    segments.put(next.id, next);
+    activeSegment = next;
+
+    return next;
+  }
+
+  /**
+   * Makes sure that all the data appended up to {@code writtenUpTo} has been forced to disk. If another thread is already
+   * syncing, this one waits for it and only syncs again if that didn't cover its own writes.
+   */
+  private void sync(long writtenUpTo) throws ObjectStoreException {
+    if (!syncWrites || syncedBytes.get() >= writtenUpTo) {
+      return;
+    }
+
+    syncLock.lock();
+    try {
+      if (syncedBytes.get() >= writtenUpTo) {
+        return;
+      }
+
+      final long syncUpTo = appendedBytes;
+      final Segment segment = activeSegment;
+      if (segment != null) {
+        segment.channel.force(false);
+      }
+      markSynced(syncUpTo);
+    } catch (ClosedChannelException e) {
+      // the partition was cleared, nothing left to sync
+    } catch (IOException e) {
+      throw new ObjectStoreException(e);
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void markSynced(long bytes) {
+    syncedBytes.accumulateAndGet(bytes, Math::max);
+  }
+
+  private void compact() throws ObjectStoreException {
+    if (!compactionLock.tryLock()) {
+      // another expiration run is already compacting the same segments
+      return;
+    }
+
+    try {
+      for (Segment segment : segments.values()) {
+        if (segment != activeSegment && segment.liveBytes < segment.size * COMPACTION_LIVE_RATIO) {
+          try {
+            compact(segment);
+          } catch (IOException e) {
+            if (segments.get(segment.id) != segment) {
+              // the partition was closed or cleared while compacting
+              return;
+            }
+            throw new ObjectStoreException(createStaticMessage("Could not compact object store segment "
+                + segment.file.getAbsolutePath()), e);
+          }
+        }
+      }
+    } finally {
+      compactionLock.unlock();
+    }
+  }
+
+  /**
+   * Copies the records of the given {@code segment} which are still live into the active one, and then deletes it.
+   * <p>
+   * The segment is scanned without holding the append lock, since it's no longer written to. The lock is only taken to move
+   * each live record, so writers are not blocked for the whole compaction. Nothing is moved once the partition is closed or
+   * cleared.
+   */
+  private void compact(Segment segment) throws IOException, ObjectStoreException {
+    scan(segment, record -> {
+      appendLock.lock();
+      try {
+        if (segments.get(segment.id) != segment) {
+          return;
+        }
+
+        if (record.type == PUT) {
+          IndexEntry entry = index.get(record.key);
+          if (entry != null && entry.segment == segment && entry.offset == record.offset) {
+            publish(append(PUT, record.key, record.value(), record.timestamp, entry.sequence));
+          }
+        } else if (!index.containsKey(record.key) && segments.firstKey() < segment.id) {
+          // older segments may still hold the value this tombstone removed
+          append(DELETE, record.key, new byte[0], record.timestamp, nextSequence++);
+        }
+      } finally {
+        appendLock.unlock();
+      }
+    });
+
+    sync(appendedBytes);
+
+    appendLock.lock();
+    try {
+      if (segments.remove(segment.id, segment)) {
+        closeQuietly(segment.channel);
+        if (!segment.file.delete()) {
+          LOGGER.warn("Could not delete compacted object store segment " + segment.file.getAbsolutePath());
+        }
+      }
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private T load(String key) throws ObjectStoreException {
+    while (true) {
+      IndexEntry entry = index.get(key);
+      if (entry == null) {
+        throw new ObjectDoesNotExistException(createStaticMessage("Key does not exist: " + key));
+      }
+
+      try {
+        return deserialize(readValue(entry));
+      } catch (ClosedChannelException e) {
+        // the segment was compacted while reading, the key now lives elsewhere
+        if (index.get(key) == entry) {
+          throw new ObjectStoreException(e);
+        }
+      } catch (IOException e) {
+        throw new ObjectStoreException(e);
+      }
+    }
+  }
+
+  private byte[] readValue(IndexEntry entry) throws IOException {
+    ByteBuffer value = ByteBuffer.allocate(entry.valueLength);
+    long position = entry.valueOffset;
+    while (value.hasRemaining()) {
+      int read = entry.segment.channel.read(value, position);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of object store segment " + entry.segment.file.getAbsolutePath());
+      }
+      position += read;
+    }
+
+    return value.array();
+  }
+
+  @SuppressWarnings("unchecked")
+  private T deserialize(byte[] serializedValue) throws ObjectStoreException {
+    try {
+      T value = serializer.getInternalProtocol().deserialize(serializedValue);
+      if (value instanceof DeserializationPostInitialisable) {
+        DeserializationPostInitialisable.Implementation.init(value, muleContext);
+      }
+      return value;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  private Segment openSegment(long id) throws IOException {
+    File file = segmentFile(id);
+    return new Segment(id, file, new RandomAccessFile(file, "rw").getChannel());
+  }
+
+  private File segmentFile(long id) {
+    return new File(partitionDirectory, format("%019d%s", id, SEGMENT_FILE_EXTENSION));
+  }
+
+  private static File[] listSegmentFiles(File partitionDirectory) {
+    File[] files = partitionDirectory.listFiles(file -> file.isFile() && file.getName().endsWith(SEGMENT_FILE_EXTENSION));
+    return files != null ? files : new File[0];
+  }
+
+  private void closeQuietly(FileChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOGGER.debug("Found exception closing object store segment", e);
+    }
+  }
+
+  protected void createDirectory(File directory) throws ObjectStoreException {
+    try {
+      if (!directory.exists() && !directory.mkdirs()) {
+        throw new MuleRuntimeException(failedToCreate("object store directory " + directory.getAbsolutePath()));
+      }
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  protected File createOrRetrievePartitionDescriptorFile() throws ObjectStoreException {
+    try {
+      File partitionDescriptorFile = new File(partitionDirectory, PARTITION_DESCRIPTOR_FILE);
+      if (partitionDescriptorFile.exists()) {
+        this.partitionName = readPartitionFileName(partitionDirectory);
+        return partitionDescriptorFile;
+      }
+      try (FileWriter fileWriter = new FileWriter(partitionDescriptorFile.getAbsolutePath(), false)) {
+        fileWriter.write(partitionName);
+        fileWriter.flush();
+      }
+      return partitionDescriptorFile;
+    } catch (Exception e) {
+      throw new ObjectStoreException(e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface RecordVisitor {
+
+    void visit(Record record) throws IOException;
+  }
+
+  /**
+   * A record read from a segment file
+   */
+  private static final class Record {
+
+    private final long offset;
+    private final int length;
+    private final byte[] body;
+    private final byte type;
+    private final long timestamp;
+    private final int keyLength;
+    private final String key;
+
+    private Record(long offset, byte[] body) {
+      this.offset = offset;
+      this.body = body;
+      length = RECORD_HEADER_SIZE + body.length;
+
+      ByteBuffer buffer = ByteBuffer.wrap(body);
+      type = buffer.get();
+      timestamp = buffer.getLong();
+      keyLength = buffer.getInt();
+      key = new String(body, BODY_HEADER_SIZE, keyLength, UTF_8);
+    }
+
+    private long valueOffset() {
+      return offset + RECORD_HEADER_SIZE + BODY_HEADER_SIZE + keyLength;
+    }
+
+    private int valueLength() {
+      return body.length - BODY_HEADER_SIZE - keyLength;
+    }
+
+    private byte[] value() {
+      return copyOfRange(body, BODY_HEADER_SIZE + keyLength, body.length);
+    }
+  }
+
+  /**
+   * Points to the latest record of a key
+   */
+  private static final class IndexEntry {
+
+    private final String key;
+    private final Segment segment;
+    private final long offset;
+    private final int recordLength;
+    private final long valueOffset;
+    private final int valueLength;
+    private final long timestamp;
+    private final long sequence;
+
+    private IndexEntry(String key, Segment segment, long offset, int recordLength, long valueOffset, int valueLength,
+                       long timestamp, long sequence) {
+      this.key = key;
+      this.segment = segment;
+      this.offset = offset;
+      this.recordLength = recordLength;
+      this.valueOffset = valueOffset;
+      this.valueLength = valueLength;
+      this.timestamp = timestamp;
+      this.sequence = sequence;
+    }
+  }
+
+  private static final class Segment {
+
+    private final long id;
+    private final File file;
+    private final FileChannel channel;
+    private volatile long size = 0;
+    private volatile long liveBytes = 0;
+
+    private Segment(long id, File file, FileChannel channel) {
+      this.id = id;
+      this.file = file;
+      this.channel = channel;
+    }
+  }
+}
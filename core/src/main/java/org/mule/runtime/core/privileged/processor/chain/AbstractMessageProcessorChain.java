@@ -6,17 +6,27 @@
  */
 package org.mule.runtime.core.privileged.processor.chain;
 
+import static java.lang.Boolean.getBoolean;
 import static java.lang.String.format;
 import static java.lang.Thread.currentThread;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.StringUtils.replace;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_POST_INVOKE;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.MESSAGE_PROCESSOR_PRE_INVOKE;
 import static org.mule.runtime.api.notification.MessageProcessorNotification.createFrom;
+import static org.mule.runtime.core.api.config.MuleProperties.SYSTEM_PROPERTY_PREFIX;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.setMuleContextIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.BLOCKING;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_INTENSIVE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.CPU_LITE_ASYNC;
+import static org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType.IO_RW;
 import static org.mule.runtime.core.api.rx.Exceptions.unwrap;
+import static org.mule.runtime.core.api.rx.Exceptions.wrapFatal;
 import static org.mule.runtime.core.api.util.StreamingUtils.updateEventForStreaming;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
 import static org.mule.runtime.core.internal.context.DefaultMuleContext.currentMuleContext;
@@ -39,6 +49,7 @@ import org.mule.runtime.core.api.context.thread.notification.ThreadNotificationS
 import org.mule.runtime.core.api.event.CoreEvent;
 import org.mule.runtime.core.api.processor.Processor;
 import org.mule.runtime.core.api.processor.ReactiveProcessor;
+import org.mule.runtime.core.api.processor.ReactiveProcessor.ProcessingType;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.api.rx.Exceptions;
 import org.mule.runtime.core.api.streaming.StreamingManager;
@@ -79,6 +90,14 @@ import reactor.util.context.Context;
  */
 abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent implements MessageProcessorChain {
 
+  /**
+   * System property to execute consecutive {@link ReactiveProcessor.ProcessingType#CPU_LITE} processors of a chain as a single
+   * fused stage when no interceptors are applied to them and no {@link MessageProcessorNotification} listener may be registered.
+   *
+   * @since 4.2.0
+   */
+  public static final String MULE_PROCESSOR_CHAIN_FUSE_CPU_LITE = SYSTEM_PROPERTY_PREFIX + "processorChain.fuseCpuLite";
+
   private static final String TCCL_REACTOR_CTX_KEY = "mule.context.tccl";
   private static final String TCCL_ORIGINAL_REACTOR_CTX_KEY = "mule.context.tccl_original";
   private static final String REACTOR_ON_OPERATOR_ERROR_LOCAL = "reactor.onOperatorError.local";
@@ -89,6 +108,9 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
 
   private static final Logger LOGGER = getLogger(AbstractMessageProcessorChain.class);
 
+  private static final List<ProcessingType> PROCESSING_TYPE_RESTRICTION =
+      asList(CPU_LITE, CPU_LITE_ASYNC, CPU_INTENSIVE, IO_RW, BLOCKING);
+
   private static final Consumer<Context> TCCL_REACTOR_CTX_CONSUMER =
       context -> context.getOrEmpty(TCCL_REACTOR_CTX_KEY)
           .ifPresent(cl -> currentThread().setContextClassLoader((ClassLoader) cl));
@@ -138,7 +160,17 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
   public Publisher<CoreEvent> apply(Publisher<CoreEvent> publisher) {
     List<BiFunction<Processor, ReactiveProcessor, ReactiveProcessor>> interceptors = resolveInterceptors();
     Flux<CoreEvent> stream = from(publisher);
-    for (Processor processor : getProcessorsToExecute()) {
+    for (List<Processor> run : resolveProcessorRuns()) {
+      if (run.size() > 1) {
+        Processor first = run.get(0);
+        // Perform assembly of the whole run as a single stage, error attribution is done per processor inside it.
+        stream = stream.transform(fusedProcessor(run))
+            .subscriberContext(context -> context.put(REACTOR_ON_OPERATOR_ERROR_LOCAL, getLocalOperatorErrorHook(first)))
+            .onErrorContinue(getContinueStrategyErrorHandler(first));
+        continue;
+      }
+
+      Processor processor = run.get(0);
       // Perform assembly for processor chain by transforming the existing publisher with a publisher function for each processor
       // along with the interceptors that decorate it.
       stream = stream.transform(applyInterceptors(interceptors, processor))
@@ -160,6 +192,117 @@ abstract class AbstractMessageProcessorChain extends AbstractExecutableComponent
     });
   }
 
+  /*
+   * Groups the processors to execute in runs of consecutive processors that may be fused. Processors that cannot be fused are
+   * returned in a run of their own.
+   */
+  private List<List<Processor>> resolveProcessorRuns() {
+    boolean fuse = getBoolean(MULE_PROCESSOR_CHAIN_FUSE_CPU_LITE) && additionalInterceptors.isEmpty()
+        && !muleContext.getConfiguration().isThreadLoggingEnabled() && !isMessageProcessorNotificationPossible();
+
+    List<List<Processor>> runs = new ArrayList<>();
+    List<Processor> currentRun = new ArrayList<>();
+    for (Processor processor : getProcessorsToExecute()) {
+      if (fuse && isFusable(processor)) {
+        currentRun.add(processor);
+      } else {
+        if (!currentRun.isEmpty()) {
+          runs.add(currentRun);
+          currentRun = new ArrayList<>();
+        }
+        runs.add(singletonList(processor));
+      }
+    }
+    if (!currentRun.isEmpty()) {
+      runs.add(currentRun);
+    }
+    return runs;
+  }
+
+  /*
+   * Fused stages fire no message processor notifications, so fusing is only done if no listener for those may be registered.
+   */
+  private boolean isMessageProcessorNotificationPossible() {
+    ServerNotificationManager notificationManager = muleContext.getNotificationManager();
+    return notificationManager != null && (notificationManager.isNotificationDynamic()
+        || notificationManager.isNotificationEnabled(MessageProcessorNotification.class));
+  }
+
+  /*
+   * Only processors that rely on the default implementation of Processor#apply may be fused, since for those invoking process
+   * directly is equivalent.
+   */
+  private static boolean isFusable(Processor processor) {
+    if (processor.getProcessingType() != CPU_LITE) {
+      return false;
+    }
+    try {
+      return processor.getClass().getMethod("apply", Publisher.class).getDeclaringClass() == Processor.class;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private ReactiveProcessor fusedProcessor(List<Processor> run) {
+    ReactiveProcessor fused = stream -> from(stream).<CoreEvent>handle((event, sink) -> {
+      Context context = sink.currentContext();
+      CoreEvent result;
+      TCCL_REACTOR_CTX_CONSUMER.accept(context);
+      try {
+        result = processFused(run, event);
+      } finally {
+        TCCL_ORIGINAL_REACTOR_CTX_CONSUMER.accept(context);
+      }
+      if (result != null) {
+        sink.next(result);
+      }
+    });
+    return processingStrategy != null
+        ? processingStrategy.onProcessor(new InterceptedReactiveProcessor(run.get(0), mostRestrictiveProcessingType(run), fused,
+                                                                          null))
+        : fused;
+  }
+
+  /*
+   * The processing strategy handles the fused stage as it would its most restrictive processor.
+   */
+  private static ProcessingType mostRestrictiveProcessingType(List<Processor> run) {
+    ProcessingType processingType = run.get(0).getProcessingType();
+    for (Processor processor : run) {
+      if (PROCESSING_TYPE_RESTRICTION.indexOf(processor.getProcessingType()) > PROCESSING_TYPE_RESTRICTION
+          .indexOf(processingType)) {
+        processingType = processor.getProcessingType();
+      }
+    }
+    return processingType;
+  }
+
+  /*
+   * Invokes each processor of the run in turn. Failed events are dropped after signaling the error with the failing processor, as
+   * the continue error strategy does when each processor is assembled on its own.
+   */
+  private CoreEvent processFused(List<Processor> run, CoreEvent event) {
+    for (Processor processor : run) {
+      try {
+        currentMuleContext.set(muleContext);
+        setCurrentEvent((PrivilegedEvent) event);
+        CoreEvent result = processor.process(event);
+        if (result == null) {
+          return null;
+        }
+        setCurrentEvent((PrivilegedEvent) result);
+        event = updateEventForStreaming(streamingManager).apply(result);
+      } catch (Throwable throwable) {
+        throwable = unwrap(wrapFatal(throwable));
+        ((BaseEventContext) event.getContext()).error(throwable instanceof MessagingException
+            ? resolveMessagingException(processor).apply((MessagingException) throwable)
+            : resolveException(processor, event, throwable));
+        return null;
+      }
+    }
+    return event;
+  }
+
   /*
    * Used to catch exceptions emitted by reactor operators and wrap these in a MessagingException while conserving a reference to
    * the failed Event.
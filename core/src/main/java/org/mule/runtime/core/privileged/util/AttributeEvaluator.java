@@ -61,6 +61,9 @@ public final class AttributeEvaluator {
 
   public AttributeEvaluator initialize(final ExtendedExpressionManager expressionManager) {
     this.expressionManager = expressionManager;
+    if (expressionManager != null && evaluator instanceof ExpressionAttributeEvaluatorDelegate) {
+      ((ExpressionAttributeEvaluatorDelegate) evaluator).compile(expressionManager);
+    }
     return this;
   }
 
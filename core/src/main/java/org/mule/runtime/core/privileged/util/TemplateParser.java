@@ -40,6 +40,8 @@ public final class TemplateParser {
       "\tQuotation (%c) at line %d, column %d is not closed. Remember to use backslash (\\) if you are trying to use that character as a literal";
   private static final String PARSING_TEMPLATE_ERROR = "Error while parsing template:\n";
 
+  private static final Pattern ESCAPE_EXPRESSION_PATTERN = Pattern.compile("(^|[^\\\\])" + START_EXPRESSION);
+
   private static final Map<String, PatternInfo> patterns = new HashMap<>();
 
   static {
@@ -116,7 +118,34 @@ public final class TemplateParser {
     return parse(null, template, callback);
   }
 
-  private String parseMule(Map<?, ?> props, String template, TemplateCallback callback, boolean insideExpression) {
+  /**
+   * Splits a template of the {@link #WIGGLY_MULE_TEMPLATE_STYLE mule} style into its literal parts and expressions once, so that
+   * it can be parsed many times without scanning it again.
+   * <p>
+   * If the template is not valid, the returned {@link CompiledTemplate} fails with the error found while compiling it each time it
+   * is parsed.
+   *
+   * @param template the string containing the template place holders i.e. My name is #[name]
+   * @return the compiled template
+   * @throws IllegalStateException if this parser is not of the {@link #WIGGLY_MULE_TEMPLATE_STYLE mule} style
+   */
+  public CompiledTemplate compile(String template) {
+    if (!styleIs(WIGGLY_MULE_TEMPLATE_STYLE)) {
+      throw new IllegalStateException("Only templates of style '" + WIGGLY_MULE_TEMPLATE_STYLE + "' can be compiled");
+    }
+
+    try {
+      return compileMule(template, false);
+    } catch (RuntimeException e) {
+      return new CompiledTemplate(template, e);
+    }
+  }
+
+  private String parseMule(String template, TemplateCallback callback, boolean insideExpression) {
+    return compileMule(template, insideExpression).parse(callback);
+  }
+
+  private CompiledTemplate compileMule(String template, boolean insideExpression) {
     validateBalanceMuleStyle(template);
 
     boolean lastIsBackSlash = false;
@@ -124,13 +153,15 @@ public final class TemplateParser {
     boolean inExpression = insideExpression;
     boolean openSingleQuotes = false;
 
-    StringBuilder result = new StringBuilder();
+    List<String> literals = new ArrayList<>();
+    List<String> expressions = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
     int currentPosition = 0;
     while (currentPosition < template.length()) {
       char c = template.charAt(currentPosition);
 
       if (lastStartedExpression && c != OPEN_EXPRESSION) {
-        result.append(START_EXPRESSION);
+        literal.append(START_EXPRESSION);
       }
       if (lastStartedExpression && c == OPEN_EXPRESSION) {
         inExpression = true;
@@ -141,7 +172,7 @@ public final class TemplateParser {
 
       if (lastIsBackSlash) {
         if ((inExpression ? c != '\'' && c != '"' : true) && c != START_EXPRESSION) {
-          result.append("\\");
+          literal.append("\\");
         }
       } else {
         if (c == '\'') {
@@ -151,30 +182,22 @@ public final class TemplateParser {
 
       if (c == OPEN_EXPRESSION && lastStartedExpression && (!insideExpression || !openSingleQuotes)) {
         int closing = closingBracesPosition(template, currentPosition);
-        String enclosingTemplate = template.substring(currentPosition + 1, closing);
-
-        Object value = enclosingTemplate;
-        if (callback != null) {
-          value = callback.match(enclosingTemplate);
-          if (value == null) {
-            value = NULL_AS_STRING;
-          } else {
-            value = parseMule(props, escapeValue(enclosingTemplate, value.toString()), callback, value.equals(enclosingTemplate));
-          }
-        }
-        result.append(value);
+        literals.add(literal.toString());
+        literal.setLength(0);
+        expressions.add(template.substring(currentPosition + 1, closing));
 
         currentPosition = closing;
       } else if ((c != START_EXPRESSION || lastIsBackSlash) && c != '\\') {
-        result.append(c);
+        literal.append(c);
       }
 
       lastStartedExpression = !lastIsBackSlash && c == START_EXPRESSION;
       lastIsBackSlash = c == '\\';
       currentPosition++;
     }
+    literals.add(literal.toString());
 
-    return result.toString();
+    return new CompiledTemplate(template, literals, expressions);
   }
 
   private int closingBracesPosition(String template, int startingPosition) {
@@ -202,15 +225,15 @@ public final class TemplateParser {
   }
 
   private String escapeValue(String original, String processed) {
-    if (original.contains("#")) {
+    if (original.indexOf(START_EXPRESSION) != -1 || processed.indexOf(START_EXPRESSION) == -1) {
       return processed;
     }
-    return processed.replaceAll("(^|[^\\\\])" + START_EXPRESSION, "\\\\" + START_EXPRESSION);
+    return ESCAPE_EXPRESSION_PATTERN.matcher(processed).replaceAll("\\\\" + START_EXPRESSION);
   }
 
   protected String parse(Map<?, ?> props, String template, TemplateCallback callback) {
     if (styleIs(WIGGLY_MULE_TEMPLATE_STYLE)) {
-      return parseMule(props, template, callback, false);
+      return parseMule(template, callback, false);
     }
     String result = template;
     Map<?, ?> newProps = props;
@@ -423,6 +446,93 @@ public final class TemplateParser {
     style.validate(expression);
   }
 
+  /**
+   * A template of the {@link #WIGGLY_MULE_TEMPLATE_STYLE mule} style already split into its literal parts and expressions, as
+   * returned by {@link #compile(String)}.
+   *
+   * @since 4.2.0
+   */
+  public final class CompiledTemplate {
+
+    private final String template;
+    private final String[] literals;
+    private final String[] expressions;
+    private final int literalsLength;
+    private final RuntimeException compilationError;
+
+    private CompiledTemplate(String template, List<String> literals, List<String> expressions) {
+      this.template = template;
+      this.literals = literals.toArray(new String[literals.size()]);
+      this.expressions = expressions.toArray(new String[expressions.size()]);
+      this.literalsLength = literals.stream().mapToInt(String::length).sum();
+      this.compilationError = null;
+    }
+
+    private CompiledTemplate(String template, RuntimeException compilationError) {
+      this.template = template;
+      this.literals = null;
+      this.expressions = null;
+      this.literalsLength = 0;
+      this.compilationError = compilationError;
+    }
+
+    /**
+     * Resolves the expressions of the template with the given callback.
+     *
+     * @param callback a callback used to resolve the expressions
+     * @return the parsed String
+     * @throws IllegalArgumentException if the template is not valid
+     */
+    public String parse(TemplateCallback callback) {
+      if (compilationError != null) {
+        throw compilationError;
+      }
+      StringBuilder result = new StringBuilder(literalsLength + expressions.length * 16);
+      parse(callback, result);
+      return result.toString();
+    }
+
+    /**
+     * Resolves the expressions of the template with the given callback, appending the result to the given builder so that it can
+     * be reused.
+     *
+     * @param callback a callback used to resolve the expressions
+     * @param result the builder to append the parsed template to
+     * @throws IllegalArgumentException if the template is not valid
+     */
+    public void parse(TemplateCallback callback, StringBuilder result) {
+      if (compilationError != null) {
+        throw compilationError;
+      }
+      for (int i = 0; i < expressions.length; ++i) {
+        result.append(literals[i]);
+        appendValue(expressions[i], callback, result);
+      }
+      result.append(literals[expressions.length]);
+    }
+
+    private void appendValue(String expression, TemplateCallback callback, StringBuilder result) {
+      if (callback == null) {
+        result.append(expression);
+        return;
+      }
+
+      Object value = callback.match(expression);
+      if (value == null) {
+        result.append(NULL_AS_STRING);
+      } else {
+        compileMule(escapeValue(expression, value.toString()), value.equals(expression)).parse(callback, result);
+      }
+    }
+
+    /**
+     * @return the original template
+     */
+    public String getTemplate() {
+      return template;
+    }
+  }
+
   @FunctionalInterface
   public interface TemplateCallback {
 
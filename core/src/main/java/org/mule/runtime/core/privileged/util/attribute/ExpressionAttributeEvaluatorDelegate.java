@@ -20,6 +20,7 @@ import static org.mule.runtime.api.el.BindingContextUtils.NULL_BINDING_CONTEXT;
 
 import org.mule.runtime.api.metadata.DataType;
 import org.mule.runtime.api.metadata.TypedValue;
+import org.mule.runtime.core.api.el.CompiledExpression;
 import org.mule.runtime.core.api.el.ExpressionManagerSession;
 import org.mule.runtime.core.api.el.ExtendedExpressionManager;
 import org.mule.runtime.core.api.event.CoreEvent;
@@ -37,15 +38,35 @@ public final class ExpressionAttributeEvaluatorDelegate<T> implements AttributeE
 
   private final String attributeValue;
   private final DataType expectedDataType;
+  private CompiledExpression compiledExpression;
 
   public ExpressionAttributeEvaluatorDelegate(String attributeValue, DataType expectedDataType) {
     this.attributeValue = attributeValue;
     this.expectedDataType = expectedDataType;
   }
 
+  /**
+   * Compiles the expression with the given {@code expressionManager}, so that resolving it for an event doesn't require opening a
+   * session nor parsing it again.
+   *
+   * @param expressionManager the expression manager that will be used to resolve the expression for an event
+   */
+  public void compile(ExtendedExpressionManager expressionManager) {
+    this.compiledExpression = expressionManager.compile(attributeValue);
+  }
+
   @Override
   public TypedValue<T> resolve(CoreEvent event, ExtendedExpressionManager expressionManager) {
     ComponentLocation location = event.getContext().getOriginatingLocation();
+    if (compiledExpression != null) {
+      if (hasExpectedDataType()) {
+        return (TypedValue<T>) expressionManager.evaluate(compiledExpression, expectedDataType, NULL_BINDING_CONTEXT, event,
+                                                          location, false);
+      } else {
+        return (TypedValue<T>) expressionManager.evaluate(compiledExpression, event, location, NULL_BINDING_CONTEXT);
+      }
+    }
+
     try (ExpressionManagerSession session = expressionManager.openSession(location, event, NULL_BINDING_CONTEXT)) {
       return resolveExpressionWithSession(session);
     }
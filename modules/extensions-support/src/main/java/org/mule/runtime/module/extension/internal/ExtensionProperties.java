@@ -23,6 +23,21 @@ public class ExtensionProperties {
    */
   public static final String CONNECTION_PARAM = PROPERTY_PREFIX + "CONNECTION_PARAM";
 
+  /**
+   * The key of an execution context variable on which a connection obtained before the execution of the operation was set
+   *
+   * @since 4.2.0
+   */
+  public static final String ACQUIRED_CONNECTION_PARAM = PROPERTY_PREFIX + "ACQUIRED_CONNECTION_PARAM";
+
+  /**
+   * The key of an execution context variable on which the failure to obtain a connection before the execution of the
+   * operation was set
+   *
+   * @since 4.2.0
+   */
+  public static final String CONNECTION_ACQUISITION_ERROR_PARAM = PROPERTY_PREFIX + "CONNECTION_ACQUISITION_ERROR_PARAM";
+
   /**
    * The key of an execution context variable on which a {@link SourceCallbackContext} was set
    */
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.config;
+
+import static java.lang.Math.max;
+import static java.util.Collections.unmodifiableList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import org.mule.runtime.extension.api.runtime.ExpirationPolicy;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationStats;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Cache of the {@link ConfigurationInstance}s created by a {@link DynamicConfigurationProvider}, which expires the instances
+ * that have been idle for longer than what an {@link ExpirationPolicy} allows.
+ * <p>
+ * Lookups don't take any lock. Only one instance is created per key: concurrent lookups of a key which instance is being
+ * created wait for that creation to complete instead of creating their own.
+ * <p>
+ * Expiration happens only when {@link #getExpired()} is invoked. Instead of checking every cached instance, the instances are
+ * kept in buckets of a timing wheel according to the time in which they would expire if they aren't used again, so each
+ * invocation only checks the instances in the buckets that are already due. Instances which were used in the meantime are
+ * moved to the bucket of their new expiration time.
+ * <p>
+ * Optionally, the number of cached instances can be bounded. Since this bound is also enforced by {@link #getExpired()}, the
+ * cache may temporarily exceed it. In that case, the instances closest to expire which have no inflight operations are
+ * evicted.
+ * <p>
+ * An instance that was acquired concurrently with its expiration or eviction is no longer returned by this cache, but it's not
+ * disposed until it has been idle for a tick of the timing wheel, giving time to the operations which acquired it to account
+ * for their execution.
+ *
+ * @param <K> the type of the keys
+ * @since 4.2.0
+ */
+final class ConfigurationInstanceCache<K> {
+
+  private static final int TICKS_PER_MAX_IDLE_TIME = 16;
+
+  private final Map<K, Entry<K>> entries = new ConcurrentHashMap<>();
+  private final Queue<Entry<K>> created = new ConcurrentLinkedQueue<>();
+
+  // only accessed by the thread performing the expiration, while holding this instance's monitor
+  private final NavigableMap<Long, List<Entry<K>>> wheel = new TreeMap<>();
+  private final List<Entry<K>> retiring = new LinkedList<>();
+
+  private final ExpirationPolicy expirationPolicy;
+  private final long maxIdleMillis;
+  private final long tickMillis;
+  private final int maxSize;
+
+  /**
+   * Creates a new instance
+   *
+   * @param expirationPolicy the {@link ExpirationPolicy} for the unused instances
+   * @param maxSize          the maximum number of instances to keep, or {@code 0} for no limit
+   */
+  ConfigurationInstanceCache(ExpirationPolicy expirationPolicy, int maxSize) {
+    this.expirationPolicy = expirationPolicy;
+    this.maxIdleMillis = expirationPolicy.getTimeUnit().toMillis(expirationPolicy.getMaxIdleTime());
+    this.tickMillis = max(1, maxIdleMillis / TICKS_PER_MAX_IDLE_TIME);
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Returns the instance cached for the given {@code key}, creating it with the given {@code factory} if there is none.
+   * <p>
+   * The returned instance is accounted as used.
+   *
+   * @param key     the key of the instance
+   * @param factory creates the instance when it's not cached
+   * @return the cached or created {@link ConfigurationInstance}
+   * @throws Exception if {@code factory} fails, either on this invocation or on a concurrent one for the same {@code key}
+   */
+  ConfigurationInstance get(K key, Factory<K> factory) throws Exception {
+    while (true) {
+      Entry<K> entry = entries.get(key);
+      if (entry == null) {
+        Entry<K> newEntry = new Entry<>(key);
+        entry = entries.putIfAbsent(key, newEntry);
+        if (entry == null) {
+          return create(newEntry, factory);
+        }
+      }
+
+      ConfigurationInstance configuration = entry.acquire();
+      if (configuration != null) {
+        return configuration;
+      }
+
+      // the instance expired while being acquired
+      entries.remove(key, entry);
+    }
+  }
+
+  private ConfigurationInstance create(Entry<K> entry, Factory<K> factory) throws Exception {
+    ConfigurationInstance configuration;
+    try {
+      configuration = factory.create(entry.key);
+    } catch (Throwable t) {
+      entries.remove(entry.key, entry);
+      entry.instance.completeExceptionally(t);
+      throw t;
+    }
+
+    entry.instance.complete(configuration);
+    created.add(entry);
+    updateLastUsed(configuration);
+    return configuration;
+  }
+
+  /**
+   * Removes the instances that have expired or were evicted to keep this cache within its bound, and which can be disposed since
+   * nobody is using them anymore.
+   *
+   * @return the removed instances
+   */
+  synchronized List<ConfigurationInstance> getExpired() {
+    List<ConfigurationInstance> expired = new ArrayList<>();
+
+    for (Iterator<Entry<K>> iterator = retiring.iterator(); iterator.hasNext();) {
+      Entry<K> entry = iterator.next();
+      if (isIdleForATick(entry.getConfiguration())) {
+        iterator.remove();
+        expired.add(entry.getConfiguration());
+      }
+    }
+
+    for (Entry<K> entry; (entry = created.poll()) != null;) {
+      schedule(entry);
+    }
+
+    List<Entry<K>> notExpired = new ArrayList<>();
+    while (!wheel.isEmpty() && isDue(wheel.firstKey())) {
+      for (Entry<K> entry : wheel.pollFirstEntry().getValue()) {
+        if (isExpired(entry.getConfiguration())) {
+          expire(entry, expired);
+        } else {
+          notExpired.add(entry);
+        }
+      }
+    }
+    notExpired.forEach(this::schedule);
+
+    if (maxSize > 0) {
+      evictExceeding(expired);
+    }
+
+    return unmodifiableList(expired);
+  }
+
+  private void schedule(Entry<K> entry) {
+    wheel.computeIfAbsent(expirationTick(entry), tick -> new LinkedList<>()).add(entry);
+  }
+
+  private long expirationTick(Entry<K> entry) {
+    return (entry.getConfiguration().getStatistics().getLastUsedMillis() + maxIdleMillis) / tickMillis;
+  }
+
+  private boolean isDue(long tick) {
+    // the time of the tick has been reached if an instance last used maxIdle before it has expired
+    return expirationPolicy.isExpired(tick * tickMillis - maxIdleMillis, MILLISECONDS);
+  }
+
+  private boolean isExpired(ConfigurationInstance configuration) {
+    ConfigurationStats stats = configuration.getStatistics();
+    return stats.getInflightOperations() == 0 && expirationPolicy.isExpired(stats.getLastUsedMillis(), MILLISECONDS);
+  }
+
+  private boolean isIdleForATick(ConfigurationInstance configuration) {
+    ConfigurationStats stats = configuration.getStatistics();
+    return stats.getInflightOperations() == 0
+        && expirationPolicy.isExpired(stats.getLastUsedMillis() - maxIdleMillis + tickMillis, MILLISECONDS);
+  }
+
+  private void expire(Entry<K> entry, List<ConfigurationInstance> expired) {
+    retire(entry);
+
+    // an instance acquired before it was retired has been marked as used, so it's no longer expired
+    if (isExpired(entry.getConfiguration())) {
+      expired.add(entry.getConfiguration());
+    } else {
+      retiring.add(entry);
+    }
+  }
+
+  private void evictExceeding(List<ConfigurationInstance> expired) {
+    int exceeding = entries.size() - maxSize;
+    Long tick = wheel.isEmpty() ? null : wheel.firstKey();
+    while (exceeding > 0 && tick != null) {
+      List<Entry<K>> bucket = wheel.get(tick);
+      for (Iterator<Entry<K>> iterator = bucket.iterator(); exceeding > 0 && iterator.hasNext();) {
+        Entry<K> entry = iterator.next();
+        if (expirationTick(entry) > tick) {
+          // used since it was scheduled, so it's moved to a later bucket which is yet to be checked
+          iterator.remove();
+          schedule(entry);
+        } else if (entry.getConfiguration().getStatistics().getInflightOperations() == 0) {
+          iterator.remove();
+          evict(entry, expired);
+          exceeding--;
+        }
+      }
+
+      if (bucket.isEmpty()) {
+        wheel.remove(tick);
+      }
+      tick = wheel.higherKey(tick);
+    }
+  }
+
+  private void evict(Entry<K> entry, List<ConfigurationInstance> expired) {
+    retire(entry);
+
+    if (isIdleForATick(entry.getConfiguration())) {
+      expired.add(entry.getConfiguration());
+    } else {
+      retiring.add(entry);
+    }
+  }
+
+  private void retire(Entry<K> entry) {
+    entry.retired = true;
+    entries.remove(entry.key, entry);
+  }
+
+  private static void updateLastUsed(ConfigurationInstance configuration) {
+    ((MutableConfigurationStats) configuration.getStatistics()).updateLastUsed();
+  }
+
+  /**
+   * Creates the {@link ConfigurationInstance} to cache for a key.
+   *
+   * @param <K> the type of the keys
+   */
+  @FunctionalInterface
+  interface Factory<K> {
+
+    ConfigurationInstance create(K key) throws Exception;
+  }
+
+  private static final class Entry<K> {
+
+    private final K key;
+    private final CompletableFuture<ConfigurationInstance> instance = new CompletableFuture<>();
+    private volatile boolean retired;
+
+    private Entry(K key) {
+      this.key = key;
+    }
+
+    /**
+     * Marks the instance as used and returns it, or {@code null} if it was retired.
+     */
+    private ConfigurationInstance acquire() throws Exception {
+      ConfigurationInstance configuration;
+      try {
+        configuration = instance.join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        } else if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw e;
+      }
+
+      // the usage has to be visible before checking whether the instance was retired, which is done in the opposite order
+      // when retiring it, so that either the instance is not acquired or the retirement sees it was used.
+      updateLastUsed(configuration);
+      return retired ? null : configuration;
+    }
+
+    private ConfigurationInstance getConfiguration() {
+      return instance.getNow(null);
+    }
+  }
+}
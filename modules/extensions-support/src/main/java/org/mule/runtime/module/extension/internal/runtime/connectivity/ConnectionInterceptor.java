@@ -9,6 +9,8 @@ package org.mule.runtime.module.extension.internal.runtime.connectivity;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.core.api.util.ExceptionUtils.extractConnectionException;
 import static org.mule.runtime.core.api.util.StreamingUtils.supportsStreaming;
+import static org.mule.runtime.module.extension.internal.ExtensionProperties.ACQUIRED_CONNECTION_PARAM;
+import static org.mule.runtime.module.extension.internal.ExtensionProperties.CONNECTION_ACQUISITION_ERROR_PARAM;
 import static org.mule.runtime.module.extension.internal.ExtensionProperties.CONNECTION_PARAM;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionHandler;
@@ -28,6 +30,11 @@ import javax.inject.Inject;
 /**
  * Implements simple connection management by using the {@link #before(ExecutionContext)} phase to set a connection as parameter
  * value of key {@link ExtensionProperties#CONNECTION_PARAM} into an {@link ExecutionContext}.
+ * <p>
+ * If a connection was already obtained for the operation and set as the {@link ExtensionProperties#ACQUIRED_CONNECTION_PARAM}
+ * variable, that one is used instead of obtaining a new one. If obtaining it failed, the failure set as the
+ * {@link ExtensionProperties#CONNECTION_ACQUISITION_ERROR_PARAM} variable is thrown, so it's handled like any other connection
+ * failure of the execution.
  *
  * @since 4.0
  */
@@ -56,7 +63,13 @@ public final class ConnectionInterceptor implements Interceptor<ComponentModel>
     ExecutionContextAdapter<OperationModel> context = (ExecutionContextAdapter) executionContext;
     checkArgument(context.getVariable(CONNECTION_PARAM) == null, "A connection was already set for this operation context");
 
-    context.setVariable(CONNECTION_PARAM, getConnection(context));
+    ConnectionException acquisitionError = context.removeVariable(CONNECTION_ACQUISITION_ERROR_PARAM);
+    if (acquisitionError != null) {
+      throw acquisitionError;
+    }
+
+    ConnectionHandler<?> acquiredConnection = context.removeVariable(ACQUIRED_CONNECTION_PARAM);
+    context.setVariable(CONNECTION_PARAM, acquiredConnection != null ? acquiredConnection : getConnection(context));
 
     if (!supportsStreaming(componentModel)) {
       setCloseCommand(executionContext, () -> release(executionContext));
@@ -26,4 +26,22 @@ interface ArgumentResolverDelegate {
    * @return an object array
    */
   Supplier<Object>[] resolve(ExecutionContext executionContext, Class<?>[] parameterTypes);
+
+  /**
+   * Returns an object array with the already resolved argument values of the given {@code executionContext}, in the order in
+   * which they are to be passed to the method.
+   *
+   * @param executionContext the {@link ExecutionContext context} of an {@link ComponentModel} being currently executed
+   * @param parameterTypes the types of the arguments of the method
+   * @return an object array
+   * @since 4.2.0
+   */
+  default Object[] resolveValues(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+    final Supplier<Object>[] suppliers = resolve(executionContext, parameterTypes);
+    final Object[] values = new Object[suppliers.length];
+    for (int i = 0; i < suppliers.length; ++i) {
+      values[i] = suppliers[i].get();
+    }
+    return values;
+  }
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import java.lang.reflect.Field;
+
+/**
+ * Sets the value of a given {@link Field}. Instances are obtained through {@link InvokerFactory#createFieldInvoker(Field)}.
+ *
+ * @since 4.2.0
+ */
+@FunctionalInterface
+public interface FieldInvoker {
+
+  /**
+   * Sets the {@code value} into the field of the {@code target} instance.
+   *
+   * @param target the object on which the field value is to be set
+   * @param value the value to set
+   * @throws IllegalArgumentException if the {@code value} is not assignable to the field
+   */
+  void set(Object target, Object value);
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static java.lang.invoke.MethodHandles.dropArguments;
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isStatic;
+import static org.slf4j.LoggerFactory.getLogger;
+import static org.springframework.util.ReflectionUtils.invokeMethod;
+import static org.springframework.util.ReflectionUtils.setField;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.slf4j.Logger;
+
+/**
+ * Creates {@link MethodInvoker}s and {@link FieldInvoker}s backed by {@link MethodHandle}s, so that the access checks and
+ * argument validation of reflective calls are done once instead of on each invocation.
+ * <p>
+ * If a {@link MethodHandle} cannot be obtained for the given member, the returned invoker falls back to reflection.
+ *
+ * @since 4.2.0
+ */
+public final class InvokerFactory {
+
+  private static final Logger LOGGER = getLogger(InvokerFactory.class);
+
+  private static final Lookup LOOKUP = lookup();
+
+  private InvokerFactory() {}
+
+  /**
+   * @param method the {@link Method} to be invoked
+   * @return a {@link MethodInvoker} for the given {@code method}
+   */
+  public static MethodInvoker createMethodInvoker(Method method) {
+    final MethodHandle handle;
+    try {
+      handle = adapt(method, unreflect(method));
+    } catch (IllegalAccessException | RuntimeException e) {
+      LOGGER.debug("Could not create method handle for '{}', using reflection", method, e);
+      return (target, args) -> invokeMethod(method, target, args);
+    }
+
+    return (target, args) -> {
+      try {
+        return (Object) handle.invokeExact(target, args);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new UndeclaredThrowableException(t);
+      }
+    };
+  }
+
+  /**
+   * @param field the {@link Field} to be set
+   * @return a {@link FieldInvoker} for the given {@code field}
+   */
+  public static FieldInvoker createFieldInvoker(Field field) {
+    final MethodHandle handle;
+    try {
+      if (!field.isAccessible()) {
+        field.setAccessible(true);
+      }
+      handle = LOOKUP.unreflectSetter(field).asType(methodType(void.class, Object.class, Object.class));
+    } catch (IllegalAccessException | RuntimeException e) {
+      LOGGER.debug("Could not create method handle for '{}', using reflection", field, e);
+      return (target, value) -> setField(field, target, value);
+    }
+
+    return (target, value) -> {
+      try {
+        handle.invokeExact(target, value);
+      } catch (ClassCastException e) {
+        throw new IllegalArgumentException("Can not set " + field + " to " + value.getClass().getName(), e);
+      } catch (NullPointerException e) {
+        if (value == null && field.getType().isPrimitive()) {
+          throw new IllegalArgumentException("Can not set " + field + " to null value", e);
+        }
+        throw e;
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new UndeclaredThrowableException(t);
+      }
+    };
+  }
+
+  private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+    try {
+      return LOOKUP.unreflect(method);
+    } catch (IllegalAccessException e) {
+      // Non public methods or classes are also invokable through reflection once made accessible
+      method.setAccessible(true);
+      return LOOKUP.unreflect(method);
+    }
+  }
+
+  private static MethodHandle adapt(Method method, MethodHandle handle) {
+    MethodHandle adapted = handle.asFixedArity();
+    if (isStatic(method.getModifiers())) {
+      adapted = dropArguments(adapted, 0, Object.class);
+    }
+    return adapted.asSpreader(Object[].class, method.getParameterCount())
+        .asType(methodType(Object.class, Object.class, Object[].class));
+  }
+}
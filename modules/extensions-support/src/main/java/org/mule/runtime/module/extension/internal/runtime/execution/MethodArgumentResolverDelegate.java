@@ -143,6 +143,7 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
   private final Method method;
   private final JavaTypeLoader typeLoader = new JavaTypeLoader(this.getClass().getClassLoader());
   private ArgumentResolver<?>[] argumentResolvers;
+  private String[] byNameParameters;
   private Map<java.lang.reflect.Parameter, ParameterGroupArgumentResolver<?>> parameterGroupResolvers;
 
   /**
@@ -161,10 +162,12 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
 
     if (isEmpty(parameterTypes)) {
       argumentResolvers = new ArgumentResolver[] {};
+      byNameParameters = new String[] {};
       return;
     }
 
     argumentResolvers = new ArgumentResolver[parameterTypes.length];
+    byNameParameters = new String[parameterTypes.length];
     Annotation[][] parameterAnnotations = method.getParameterAnnotations();
     Parameter[] parameters = method.getParameters();
     parameterGroupResolvers = getParameterGroupResolvers(parameterGroupModels);
@@ -227,6 +230,7 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
         argumentResolver = NOTIFICATION_HANDLER_ARGUMENT_RESOLVER;
       } else {
         argumentResolver = new ByParameterNameArgumentResolver<>(paramNames.get(i));
+        byNameParameters[i] = paramNames.get(i);
       }
 
       argumentResolvers[i] = argumentResolver;
@@ -246,17 +250,43 @@ public final class MethodArgumentResolverDelegate implements ArgumentResolverDel
     return parameterValues;
   }
 
-  private Supplier<Object> wrapParameterResolution(Class<?> parameterType, Supplier<?> valueSupplier) {
-    return () -> {
-      Object parameterValue = valueSupplier.get();
-      if (parameterValue == null) {
-        return resolvePrimitiveTypeDefaultValue(parameterType);
-      } else if (parameterValue instanceof CursorStream) {
-        return new UnclosableCursorStream((CursorStream) parameterValue);
+  /**
+   * Resolves the arguments straight into the returned array. Parameters which are just looked up by name are read from the
+   * {@link ExecutionContext#getParameters() parameters} without going through their {@link ArgumentResolver}, so no
+   * intermediate {@link Supplier} is created for them.
+   */
+  @Override
+  public Object[] resolveValues(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+    final Object[] parameterValues = new Object[argumentResolvers.length];
+    Map<String, Object> parameters = null;
+    for (int i = 0; i < argumentResolvers.length; ++i) {
+      final Object parameterValue;
+      if (byNameParameters[i] != null) {
+        if (parameters == null) {
+          parameters = executionContext.getParameters();
+        }
+        parameterValue = parameters.get(byNameParameters[i]);
       } else {
-        return resolveCursor(parameterValue);
+        parameterValue = argumentResolvers[i].resolve(executionContext).get();
       }
-    };
+      parameterValues[i] = adaptParameterValue(parameterTypes[i], parameterValue);
+    }
+
+    return parameterValues;
+  }
+
+  private Supplier<Object> wrapParameterResolution(Class<?> parameterType, Supplier<?> valueSupplier) {
+    return () -> adaptParameterValue(parameterType, valueSupplier.get());
+  }
+
+  private Object adaptParameterValue(Class<?> parameterType, Object parameterValue) {
+    if (parameterValue == null) {
+      return resolvePrimitiveTypeDefaultValue(parameterType);
+    } else if (parameterValue instanceof CursorStream) {
+      return new UnclosableCursorStream((CursorStream) parameterValue);
+    } else {
+      return resolveCursor(parameterValue);
+    }
   }
 
   private Object resolvePrimitiveTypeDefaultValue(Class<?> type) {
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a given {@link Method}. Instances are obtained through {@link InvokerFactory#createMethodInvoker(Method)}.
+ *
+ * @since 4.2.0
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+
+  /**
+   * Invokes the method on the {@code target} with the given {@code args}.
+   * <p>
+   * Exceptions thrown by the method are propagated as is when unchecked, and wrapped in an
+   * {@link java.lang.reflect.UndeclaredThrowableException} otherwise.
+   *
+   * @param target the instance on which the method is invoked. Ignored for static methods.
+   * @param args the arguments of the invocation
+   * @return the value returned by the method, or {@code null} if it is {@code void}
+   */
+  Object invoke(Object target, Object[] args);
+}
@@ -6,7 +6,6 @@
  */
 package org.mule.runtime.module.extension.internal.runtime.execution;
 
-import static java.util.Arrays.stream;
 import static org.apache.commons.lang3.ArrayUtils.isEmpty;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.disposeIfNeeded;
@@ -14,8 +13,8 @@ import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.initialiseIfNee
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.startIfNeeded;
 import static org.mule.runtime.core.api.lifecycle.LifecycleUtils.stopIfNeeded;
 import static org.mule.runtime.core.api.util.ClassUtils.withContextClassLoader;
+import static org.mule.runtime.module.extension.internal.runtime.execution.InvokerFactory.createMethodInvoker;
 import static org.slf4j.LoggerFactory.getLogger;
-import static org.springframework.util.ReflectionUtils.invokeMethod;
 
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -49,11 +48,17 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   private static class NoArgumentsResolverDelegate implements ArgumentResolverDelegate {
 
     private static final Supplier[] EMPTY = new Supplier[] {};
+    private static final Object[] EMPTY_VALUES = new Object[] {};
 
     @Override
     public Supplier<Object>[] resolve(ExecutionContext executionContext, Class<?>[] parameterTypes) {
       return EMPTY;
     }
+
+    @Override
+    public Object[] resolveValues(ExecutionContext executionContext, Class<?>[] parameterTypes) {
+      return EMPTY_VALUES;
+    }
   }
 
   private static final Logger LOGGER = getLogger(ReflectiveMethodOperationExecutor.class);
@@ -61,6 +66,8 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
 
   private final List<ParameterGroupModel> groups;
   private final Method method;
+  private final Class<?>[] parameterTypes;
+  private final MethodInvoker methodInvoker;
   private final Object componentInstance;
   private final ClassLoader extensionClassLoader;
 
@@ -69,17 +76,33 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
   private MuleContext muleContext;
 
   public ReflectiveMethodComponentExecutor(List<ParameterGroupModel> groups, Method method, Object componentInstance) {
+    this(groups, method, createMethodInvoker(method), componentInstance);
+  }
+
+  /**
+   * @param groups the {@link ParameterGroupModel}s of the component
+   * @param method the {@link Method} to be executed
+   * @param methodInvoker a {@link MethodInvoker} previously created for the {@code method}
+   * @param componentInstance the instance on which the {@code method} is executed
+   * @since 4.2.0
+   */
+  public ReflectiveMethodComponentExecutor(List<ParameterGroupModel> groups, Method method, MethodInvoker methodInvoker,
+                                           Object componentInstance) {
     this.groups = groups;
     this.method = method;
+    this.parameterTypes = method.getParameterTypes();
+    this.methodInvoker = methodInvoker;
     this.componentInstance = componentInstance;
     extensionClassLoader = method.getDeclaringClass().getClassLoader();
   }
 
   public Object execute(ExecutionContext<M> executionContext) {
     return withContextClassLoader(extensionClassLoader,
-                                  () -> invokeMethod(method, componentInstance,
-                                                     stream(getParameterValues(executionContext, method.getParameterTypes()))
-                                                         .map(Supplier::get).toArray(Object[]::new)));
+                                  () -> methodInvoker.invoke(componentInstance, getArguments(executionContext)));
+  }
+
+  private Object[] getArguments(ExecutionContext<M> executionContext) {
+    return argumentResolverDelegate.resolveValues(executionContext, parameterTypes);
   }
 
   private Supplier<Object>[] getParameterValues(ExecutionContext<M> executionContext, Class<?>[] parameterTypes) {
@@ -91,7 +114,7 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
     initialiseIfNeeded(componentInstance, true, muleContext);
 
     argumentResolverDelegate =
-        isEmpty(method.getParameterTypes()) ? NO_ARGS_DELEGATE : getMethodArgumentResolver(groups, method);
+        isEmpty(parameterTypes) ? NO_ARGS_DELEGATE : getMethodArgumentResolver(groups, method);
   }
 
   private ArgumentResolverDelegate getMethodArgumentResolver(List<ParameterGroupModel> groups, Method method) {
@@ -132,7 +155,7 @@ public class ReflectiveMethodComponentExecutor<M extends ComponentModel>
     return ec -> withContextClassLoader(extensionClassLoader,
                                         () -> {
                                           final Object[] resolved =
-                                              getParameterValues(ec, method.getParameterTypes());
+                                              getParameterValues(ec, parameterTypes);
 
                                           final Map<String, Object> resolvedParams = new HashMap<>();
                                           for (int i = 0; i < method.getParameterCount(); ++i) {
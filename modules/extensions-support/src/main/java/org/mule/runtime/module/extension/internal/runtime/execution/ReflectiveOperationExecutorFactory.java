@@ -9,6 +9,7 @@ package org.mule.runtime.module.extension.internal.runtime.execution;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import static org.mule.runtime.api.util.Preconditions.checkArgument;
 import static org.mule.runtime.module.extension.api.util.MuleExtensionUtils.getInitialiserEvent;
+import static org.mule.runtime.module.extension.internal.runtime.execution.InvokerFactory.createMethodInvoker;
 
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.meta.model.ComponentModel;
@@ -35,6 +36,7 @@ public final class ReflectiveOperationExecutorFactory<T, M extends ComponentMode
 
   private final Class<T> implementationClass;
   private final Method operationMethod;
+  private final MethodInvoker operationInvoker;
 
   public ReflectiveOperationExecutorFactory(Class<T> implementationClass, Method operationMethod) {
     checkArgument(implementationClass != null, "implementationClass cannot be null");
@@ -42,6 +44,8 @@ public final class ReflectiveOperationExecutorFactory<T, M extends ComponentMode
 
     this.implementationClass = implementationClass;
     this.operationMethod = operationMethod;
+    // Shared by all the executors created by this factory
+    this.operationInvoker = createMethodInvoker(operationMethod);
   }
 
   @Override
@@ -62,6 +66,6 @@ public final class ReflectiveOperationExecutorFactory<T, M extends ComponentMode
       }
     }
 
-    return new ReflectiveMethodOperationExecutor(operationModel, operationMethod, delegate);
+    return new ReflectiveMethodOperationExecutor(operationModel, operationMethod, operationInvoker, delegate);
   }
 }
@@ -29,6 +29,8 @@ import static org.mule.runtime.core.privileged.processor.MessageProcessors.proce
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_VALUE_PARAMETER_NAME;
 import static org.mule.runtime.module.extension.api.util.MuleExtensionUtils.getInitialiserEvent;
+import static org.mule.runtime.module.extension.internal.ExtensionProperties.ACQUIRED_CONNECTION_PARAM;
+import static org.mule.runtime.module.extension.internal.ExtensionProperties.CONNECTION_ACQUISITION_ERROR_PARAM;
 import static org.mule.runtime.module.extension.internal.runtime.operation.ImmutableProcessorChainExecutor.INNER_CHAIN_CTX_MAPPING;
 import static org.mule.runtime.module.extension.internal.runtime.resolver.ResolverUtils.resolveValue;
 import static org.mule.runtime.module.extension.internal.util.IntrospectionUtils.getMemberField;
@@ -37,18 +39,24 @@ import static org.mule.runtime.module.extension.internal.util.IntrospectionUtils
 import static org.mule.runtime.module.extension.internal.util.MuleExtensionUtils.getOperationExecutorFactory;
 import static org.slf4j.LoggerFactory.getLogger;
 import static reactor.core.publisher.Flux.from;
+import static reactor.core.publisher.Mono.defer;
 import static reactor.core.publisher.Mono.error;
 import static reactor.core.publisher.Mono.fromCallable;
+import static reactor.core.publisher.Mono.fromFuture;
 import static reactor.core.publisher.Mono.subscriberContext;
+import static reactor.core.scheduler.Schedulers.fromExecutorService;
 
 import org.mule.runtime.api.component.Component;
 import org.mule.runtime.api.component.location.ComponentLocation;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.exception.DefaultMuleException;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 import org.mule.runtime.api.lifecycle.InitialisationException;
 import org.mule.runtime.api.lifecycle.Lifecycle;
 import org.mule.runtime.api.meta.model.ComponentModel;
+import org.mule.runtime.api.meta.model.ConnectableComponentModel;
 import org.mule.runtime.api.meta.model.ExtensionModel;
 import org.mule.runtime.api.meta.model.parameter.ParameterGroupModel;
 import org.mule.runtime.api.meta.model.parameter.ParameterModel;
@@ -74,6 +82,7 @@ import org.mule.runtime.extension.api.runtime.operation.ComponentExecutor;
 import org.mule.runtime.extension.api.runtime.operation.ComponentExecutorFactory;
 import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.extension.api.runtime.operation.Interceptor;
+import org.mule.runtime.extension.internal.property.PagedOperationModelProperty;
 import org.mule.runtime.module.extension.api.loader.java.property.ComponentExecutorModelProperty;
 import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
 import org.mule.runtime.module.extension.internal.loader.ParameterGroupDescriptor;
@@ -99,6 +108,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -150,6 +161,7 @@ public abstract class ComponentMessageProcessor<T extends ComponentModel> extend
   protected PolicyManager policyManager;
 
   private String resolvedProcessorRepresentation;
+  private boolean acquireConnectionAsync;
   private boolean initialised = false;
 
   public ComponentMessageProcessor(ExtensionModel extensionModel,
@@ -271,7 +283,13 @@ public abstract class ComponentMessageProcessor<T extends ComponentModel> extend
   }
 
   protected Mono<CoreEvent> doProcess(CoreEvent event, ExecutionContextAdapter<T> operationContext) {
-    return executeOperation(operationContext)
+    final Mono<Object> execution = shouldAcquireConnection(operationContext)
+        ? acquireConnection(operationContext)
+            .then(defer(() -> executeOperation(operationContext)))
+            .doFinally(signal -> releaseUnusedConnection(operationContext))
+        : executeOperation(operationContext);
+
+    return execution
         .map(value -> asReturnValue(operationContext, value))
         .switchIfEmpty(fromCallable(() -> asReturnValue(operationContext, null)))
         .onErrorMap(Exceptions::unwrap);
@@ -289,6 +307,63 @@ public abstract class ComponentMessageProcessor<T extends ComponentModel> extend
     return Mono.from(executionMediator.execute(componentExecutor, operationContext));
   }
 
+  private boolean shouldAcquireConnection(ExecutionContextAdapter<T> operationContext) {
+    // Transactions are bound to the thread, so their connections are obtained in the execution
+    return acquireConnectionAsync && !operationContext.getTransactionConfig().isPresent()
+        && operationContext.getConfiguration().flatMap(ConfigurationInstance::getConnectionProvider).isPresent();
+  }
+
+  /**
+   * Obtains the connection for the operation without blocking the current thread if the connection pool is exhausted.
+   * <p>
+   * If the connection could not be obtained, either because the pool is exhausted or because connecting failed, the failure is
+   * handed to the execution, so that it goes through the reconnection strategy and error handling of the operation like any
+   * other connection failure.
+   * <p>
+   * If the acquisition is cancelled, a connection that is obtained afterwards is released right away.
+   */
+  private Mono<Void> acquireConnection(ExecutionContextAdapter<T> operationContext) {
+    final CompletableFuture<ConnectionHandler<Object>> connection =
+        connectionManager.getConnectionAsync(operationContext.getConfiguration().get().getValue());
+    // whoever sets it owns the connection: either the execution or the cancellation
+    final AtomicBoolean claimed = new AtomicBoolean();
+
+    Mono<ConnectionHandler<Object>> acquired = fromFuture(connection);
+    if (!connection.isDone()) {
+      // Continue in the scheduler of the operation rather than in the thread that returned the connection to the pool
+      acquired = acquired.publishOn(fromExecutorService(operationContext.getCurrentScheduler()));
+    }
+
+    return acquired
+        .doOnNext(handler -> {
+          if (claimed.compareAndSet(false, true)) {
+            operationContext.setVariable(ACQUIRED_CONNECTION_PARAM, handler);
+          }
+        })
+        .doOnCancel(() -> {
+          if (!connection.cancel(false)) {
+            connection.thenAccept(handler -> {
+              if (claimed.compareAndSet(false, true)) {
+                handler.release();
+              }
+            });
+          }
+        })
+        .onErrorResume(e -> {
+          operationContext.setVariable(CONNECTION_ACQUISITION_ERROR_PARAM,
+                                       e instanceof ConnectionException ? e : new ConnectionException(e));
+          return Mono.empty();
+        })
+        .then();
+  }
+
+  private void releaseUnusedConnection(ExecutionContextAdapter<T> operationContext) {
+    final ConnectionHandler<?> unused = operationContext.removeVariable(ACQUIRED_CONNECTION_PARAM);
+    if (unused != null) {
+      unused.release();
+    }
+  }
+
   private ExecutionContextAdapter<T> createExecutionContext(Optional<ConfigurationInstance> configuration,
                                                             Map<String, Object> resolvedParameters,
                                                             CoreEvent event, Scheduler currentScheduler)
@@ -307,6 +382,9 @@ public abstract class ComponentMessageProcessor<T extends ComponentModel> extend
       componentExecutor = createComponentExecutor();
       executionMediator = createExecutionMediator();
       initialiseIfNeeded(componentExecutor, true, muleContext);
+      acquireConnectionAsync = componentModel instanceof ConnectableComponentModel
+          && ((ConnectableComponentModel) componentModel).requiresConnection()
+          && !componentModel.getModelProperty(PagedOperationModelProperty.class).isPresent();
 
       if (getLocation() != null) {
         resolvedProcessorRepresentation =
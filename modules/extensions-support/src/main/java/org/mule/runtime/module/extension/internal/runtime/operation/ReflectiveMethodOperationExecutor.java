@@ -27,6 +27,7 @@ import org.mule.runtime.extension.api.runtime.operation.ExecutionContext;
 import org.mule.runtime.extension.api.runtime.operation.ComponentExecutor;
 import org.mule.runtime.extension.api.runtime.process.CompletionCallback;
 import org.mule.runtime.module.extension.api.runtime.privileged.ExecutionContextAdapter;
+import org.mule.runtime.module.extension.internal.runtime.execution.MethodInvoker;
 import org.mule.runtime.module.extension.internal.runtime.execution.OperationArgumentResolverFactory;
 import org.mule.runtime.module.extension.internal.runtime.execution.ReflectiveMethodComponentExecutor;
 
@@ -55,6 +56,19 @@ public class ReflectiveMethodOperationExecutor<M extends ComponentModel>
         new ReflectiveMethodComponentExecutor<>(operationModel.getParameterGroupModels(), operationMethod, operationInstance);
   }
 
+  /**
+   * @param operationModel the model of the operation
+   * @param operationMethod the {@link Method} which implements the operation
+   * @param methodInvoker a {@link MethodInvoker} previously created for the {@code operationMethod}
+   * @param operationInstance the instance on which the {@code operationMethod} is executed
+   * @since 4.2.0
+   */
+  public ReflectiveMethodOperationExecutor(M operationModel, Method operationMethod, MethodInvoker methodInvoker,
+                                           Object operationInstance) {
+    executor = new ReflectiveMethodComponentExecutor<>(operationModel.getParameterGroupModels(), operationMethod,
+                                                       methodInvoker, operationInstance);
+  }
+
   /**
    * {@inheritDoc}
    */
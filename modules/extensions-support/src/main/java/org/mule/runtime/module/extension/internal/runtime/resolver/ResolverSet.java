@@ -37,10 +37,16 @@ import java.util.Map;
  */
 public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisable {
 
+  private static final Object NOT_STATIC = new Object();
+
   private Map<String, ValueResolver<?>> resolvers = new LinkedHashMap<>();
   private boolean dynamic = false;
   private final MuleContext muleContext;
 
+  // Flattened view of the resolvers, computed on initialise() so that each resolution doesn't have to iterate the map or
+  // re-resolve the static values.
+  private CompiledResolvers compiled;
+
   public ResolverSet(MuleContext muleContext) {
     this.muleContext = muleContext;
   }
@@ -61,6 +67,7 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
     if (resolvers.put(key, resolver) != null) {
       throw new IllegalStateException("A value was already given for key " + key);
     }
+    compiled = null;
 
     if (!dynamic && resolver.isDynamic()) {
       dynamic = true;
@@ -105,8 +112,19 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   public ResolverSetResult resolve(ValueResolvingContext context) throws MuleException {
     ResolverSetResult.Builder builder = getResolverSetBuilder();
 
-    for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
-      builder.add(entry.getKey(), resolveRecursively(entry.getValue(), context));
+    final CompiledResolvers compiled = this.compiled;
+    if (compiled == null) {
+      for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
+        builder.add(entry.getKey(), resolveRecursively(entry.getValue(), context));
+      }
+    } else {
+      final String[] keys = compiled.keys;
+      final ValueResolver<?>[] resolvers = compiled.resolvers;
+      final Object[] staticValues = compiled.staticValues;
+      for (int i = 0; i < keys.length; ++i) {
+        final Object staticValue = staticValues[i];
+        builder.add(keys[i], staticValue != NOT_STATIC ? staticValue : resolveRecursively(resolvers[i], context));
+      }
     }
 
     return builder.build();
@@ -135,10 +153,56 @@ public class ResolverSet implements ValueResolver<ResolverSetResult>, Initialisa
   @Override
   public void initialise() throws InitialisationException {
     initialiseIfNeeded(resolvers.values(), muleContext);
+    compile();
+  }
+
+  /**
+   * Flattens the resolvers into arrays, resolving once the values of the {@link StaticValueResolver}s since those don't depend
+   * on the {@link ValueResolvingContext}.
+   */
+  private void compile() throws InitialisationException {
+    final int size = resolvers.size();
+    final String[] keys = new String[size];
+    final ValueResolver<?>[] resolversArray = new ValueResolver<?>[size];
+    final Object[] staticValues = new Object[size];
+
+    int i = 0;
+    for (Map.Entry<String, ValueResolver<?>> entry : resolvers.entrySet()) {
+      keys[i] = entry.getKey();
+      resolversArray[i] = entry.getValue();
+      staticValues[i] = NOT_STATIC;
+
+      if (entry.getValue() instanceof StaticValueResolver) {
+        try {
+          Object value = entry.getValue().resolve(null);
+          if (!(value instanceof ValueResolver)) {
+            staticValues[i] = value;
+          }
+        } catch (MuleException e) {
+          throw new InitialisationException(e, this);
+        }
+      }
+      ++i;
+    }
+
+    compiled = new CompiledResolvers(keys, resolversArray, staticValues);
   }
 
   ResolverSetResult.Builder getResolverSetBuilder() {
     return ResolverSetResult.newBuilder();
   }
 
+  private static final class CompiledResolvers {
+
+    private final String[] keys;
+    private final ValueResolver<?>[] resolvers;
+    private final Object[] staticValues;
+
+    private CompiledResolvers(String[] keys, ValueResolver<?>[] resolvers, Object[] staticValues) {
+      this.keys = keys;
+      this.resolvers = resolvers;
+      this.staticValues = staticValues;
+    }
+  }
+
 }
@@ -6,7 +6,9 @@
  */
 package org.mule.runtime.module.extension.internal.util;
 
-import org.springframework.util.ReflectionUtils;
+import static org.mule.runtime.module.extension.internal.runtime.execution.InvokerFactory.createFieldInvoker;
+
+import org.mule.runtime.module.extension.internal.runtime.execution.FieldInvoker;
 
 import java.lang.reflect.Field;
 
@@ -22,10 +24,12 @@ public final class FieldSetter<Target, Value> {
    * The {@link Field} in which the value is to be assigned
    */
   private final Field field;
+  private final FieldInvoker invoker;
 
   public FieldSetter(Field field) {
     this.field = field;
     field.setAccessible(true);
+    invoker = createFieldInvoker(field);
   }
 
   /**
@@ -35,7 +39,7 @@ public final class FieldSetter<Target, Value> {
    * @param value the value to set
    */
   public void set(Target target, Value value) {
-    ReflectionUtils.setField(field, target, value);
+    invoker.set(target, value);
   }
 
   /**
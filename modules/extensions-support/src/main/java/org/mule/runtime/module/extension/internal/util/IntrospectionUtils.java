@@ -34,6 +34,7 @@ import static org.mule.runtime.module.extension.api.loader.java.type.PropertyEle
 import static org.mule.runtime.module.extension.api.loader.java.type.PropertyElement.Accessibility.READ_WRITE;
 import static org.reflections.ReflectionUtils.getAllFields;
 import static org.springframework.core.ResolvableType.NONE;
+import static org.springframework.util.ReflectionUtils.setField;
 
 import org.mule.metadata.api.ClassTypeLoader;
 import org.mule.metadata.api.builder.BaseTypeBuilder;
@@ -1378,7 +1379,7 @@ public final class IntrospectionUtils {
                                                                       annotationClass.getSimpleName(),
                                                                       target.getClass().getName()));
       }
-      new FieldSetter<>(field).set(target, value);
+      setFieldValue(field, target, value);
     });
   }
 
@@ -1399,7 +1400,15 @@ public final class IntrospectionUtils {
                                                        type.getName(), fields.size(), fieldType));
     }
 
-    new FieldSetter<>(fields.get(0)).set(target, value);
+    setFieldValue(fields.get(0), target, value);
+  }
+
+  /*
+   * Fields set only once don't pay off the cost of creating a FieldSetter for them.
+   */
+  private static void setFieldValue(Field field, Object target, Object value) {
+    field.setAccessible(true);
+    setField(field, target, value);
   }
 
   /**
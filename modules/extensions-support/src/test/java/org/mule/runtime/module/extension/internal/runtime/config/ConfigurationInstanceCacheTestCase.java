@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.config;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.mule.runtime.core.internal.config.ImmutableExpirationPolicy;
+import org.mule.runtime.extension.api.runtime.config.ConfigurationInstance;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+import org.mule.tck.util.TestTimeSupplier;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+@SmallTest
+public class ConfigurationInstanceCacheTestCase extends AbstractMuleTestCase {
+
+  private final TestTimeSupplier timeSupplier = new TestTimeSupplier(System.currentTimeMillis());
+  private final AtomicInteger creations = new AtomicInteger();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private ConfigurationInstanceCache<String> cache =
+      new ConfigurationInstanceCache<>(new ImmutableExpirationPolicy(5, MINUTES, timeSupplier), 0);
+
+  @After
+  public void after() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void createdOncePerKey() throws Exception {
+    ConfigurationInstance configuration = cache.get("key", this::create);
+    assertThat(cache.get("key", this::create), is(sameInstance(configuration)));
+    assertThat(creations.get(), is(1));
+
+    assertThat(cache.get("otherKey", this::create), is(not(sameInstance(configuration))));
+    assertThat(creations.get(), is(2));
+  }
+
+  @Test
+  public void concurrentLookupWaitsForCreation() throws Exception {
+    CountDownLatch creating = new CountDownLatch(1);
+    CountDownLatch created = new CountDownLatch(1);
+
+    Future<ConfigurationInstance> configuration = executor.submit(() -> cache.get("key", key -> {
+      creating.countDown();
+      created.await();
+      return create(key);
+    }));
+
+    creating.await();
+    Future<ConfigurationInstance> concurrentConfiguration = executor.submit(() -> cache.get("key", this::create));
+    created.countDown();
+
+    assertThat(concurrentConfiguration.get(5, SECONDS), is(sameInstance(configuration.get(5, SECONDS))));
+    assertThat(creations.get(), is(1));
+  }
+
+  @Test
+  public void failedCreationNotCached() throws Exception {
+    IllegalStateException failure = new IllegalStateException();
+    try {
+      cache.get("key", key -> {
+        throw failure;
+      });
+      fail("Creation should have failed");
+    } catch (IllegalStateException e) {
+      assertThat(e, is(sameInstance(failure)));
+    }
+
+    cache.get("key", this::create);
+    assertThat(creations.get(), is(1));
+  }
+
+  @Test
+  public void expired() throws Exception {
+    ConfigurationInstance configuration = cache.get("key", this::create);
+
+    timeSupplier.move(1, MINUTES);
+    assertThat(cache.getExpired(), is(empty()));
+
+    timeSupplier.move(10, MINUTES);
+    assertThat(cache.getExpired(), contains(configuration));
+    assertThat(cache.getExpired(), is(empty()));
+
+    assertThat(cache.get("key", this::create), is(not(sameInstance(configuration))));
+  }
+
+  @Test
+  public void usedNotExpired() throws Exception {
+    ConfigurationInstance configuration = cache.get("key", this::create);
+    cache.getExpired();
+
+    timeSupplier.move(4, MINUTES);
+    cache.get("key", this::create);
+
+    timeSupplier.move(4, MINUTES);
+    assertThat(cache.getExpired(), is(empty()));
+
+    timeSupplier.move(2, MINUTES);
+    assertThat(cache.getExpired(), contains(configuration));
+  }
+
+  @Test
+  public void inflightNotExpired() throws Exception {
+    ConfigurationInstance configuration = cache.get("key", this::create);
+    MutableConfigurationStats stats = (MutableConfigurationStats) configuration.getStatistics();
+    stats.addInflightOperation();
+
+    timeSupplier.move(10, MINUTES);
+    assertThat(cache.getExpired(), is(empty()));
+    assertThat(cache.get("key", this::create), is(sameInstance(configuration)));
+
+    stats.discountInflightOperation();
+    timeSupplier.move(10, MINUTES);
+    assertThat(cache.getExpired(), contains(configuration));
+  }
+
+  @Test
+  public void bounded() throws Exception {
+    cache = new ConfigurationInstanceCache<>(new ImmutableExpirationPolicy(5, MINUTES, timeSupplier), 1);
+
+    ConfigurationInstance configuration = cache.get("key", this::create);
+    timeSupplier.move(1, MINUTES);
+    ConfigurationInstance otherConfiguration = cache.get("otherKey", this::create);
+
+    assertThat(cache.getExpired(), contains(configuration));
+
+    assertThat(cache.get("otherKey", this::create), is(sameInstance(otherConfiguration)));
+    assertThat(creations.get(), is(2));
+  }
+
+  @Test
+  public void recentlyUsedEvictedWhenIdle() throws Exception {
+    cache = new ConfigurationInstanceCache<>(new ImmutableExpirationPolicy(5, MINUTES, timeSupplier), 1);
+
+    ConfigurationInstance configuration = cache.get("key", this::create);
+    ConfigurationInstance otherConfiguration = cache.get("otherKey", this::create);
+
+    assertThat(cache.getExpired(), is(empty()));
+    assertThat(cache.get("key", this::create), is(not(sameInstance(configuration))));
+
+    timeSupplier.move(1, MINUTES);
+    assertThat(cache.getExpired(), contains(configuration, otherConfiguration));
+  }
+
+  @Test
+  public void usedSinceScheduledNotEvicted() throws Exception {
+    cache = new ConfigurationInstanceCache<>(new ImmutableExpirationPolicy(5, MINUTES, timeSupplier), 1);
+
+    ConfigurationInstance configuration = cache.get("key", this::create);
+    assertThat(cache.getExpired(), is(empty()));
+
+    timeSupplier.move(1, MINUTES);
+    ConfigurationInstance otherConfiguration = cache.get("otherKey", this::create);
+    timeSupplier.move(1, MINUTES);
+    cache.get("key", this::create);
+
+    assertThat(cache.getExpired(), contains(otherConfiguration));
+    assertThat(cache.get("key", this::create), is(sameInstance(configuration)));
+    assertThat(creations.get(), is(2));
+  }
+
+  private ConfigurationInstance create(String key) {
+    creations.incrementAndGet();
+    ConfigurationInstance configuration = mock(ConfigurationInstance.class);
+    when(configuration.getStatistics()).thenReturn(new DefaultMutableConfigurationStats(timeSupplier));
+    return configuration;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.module.extension.internal.runtime.execution;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mule.runtime.module.extension.internal.runtime.execution.InvokerFactory.createFieldInvoker;
+import static org.mule.runtime.module.extension.internal.runtime.execution.InvokerFactory.createMethodInvoker;
+import org.mule.tck.junit4.AbstractMuleTestCase;
+import org.mule.tck.size.SmallTest;
+
+import java.io.IOException;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.junit.Test;
+
+@SmallTest
+public class InvokerFactoryTestCase extends AbstractMuleTestCase {
+
+  private final Component component = new Component();
+
+  @Test
+  public void publicMethod() throws Exception {
+    MethodInvoker invoker = createMethodInvoker(Component.class.getMethod("concat", String.class, int.class));
+    assertThat(invoker.invoke(component, new Object[] {"a", 1}), is("a1"));
+  }
+
+  @Test
+  public void privateMethod() throws Exception {
+    MethodInvoker invoker = createMethodInvoker(Component.class.getDeclaredMethod("secret"));
+    assertThat(invoker.invoke(component, new Object[0]), is("secret"));
+  }
+
+  @Test
+  public void staticMethod() throws Exception {
+    MethodInvoker invoker = createMethodInvoker(Component.class.getMethod("twice", int.class));
+    assertThat(invoker.invoke(null, new Object[] {2}), is(4));
+  }
+
+  @Test
+  public void voidMethod() throws Exception {
+    MethodInvoker invoker = createMethodInvoker(Component.class.getMethod("touch"));
+    assertThat(invoker.invoke(component, null), is(nullValue()));
+    assertThat(component.touched, is(true));
+  }
+
+  @Test
+  public void varArgsMethod() throws Exception {
+    MethodInvoker invoker = createMethodInvoker(Component.class.getMethod("count", String[].class));
+    assertThat(invoker.invoke(component, new Object[] {new String[] {"a", "b"}}), is(2));
+  }
+
+  @Test
+  public void uncheckedExceptionPropagated() throws Exception {
+    MethodInvoker invoker = createMethodInvoker(Component.class.getMethod("fail", Exception.class));
+    IllegalStateException exception = new IllegalStateException();
+    try {
+      invoker.invoke(component, new Object[] {exception});
+      fail("Was expecting an exception");
+    } catch (IllegalStateException e) {
+      assertThat(e, is(sameInstance(exception)));
+    }
+  }
+
+  @Test
+  public void checkedExceptionWrapped() throws Exception {
+    MethodInvoker invoker = createMethodInvoker(Component.class.getMethod("fail", Exception.class));
+    IOException exception = new IOException();
+    try {
+      invoker.invoke(component, new Object[] {exception});
+      fail("Was expecting an exception");
+    } catch (UndeclaredThrowableException e) {
+      assertThat(e.getCause(), is(sameInstance(exception)));
+    }
+  }
+
+  @Test
+  public void privateField() throws Exception {
+    FieldInvoker invoker = createFieldInvoker(Component.class.getDeclaredField("name"));
+    invoker.set(component, "value");
+    assertThat(component.name, is("value"));
+  }
+
+  @Test
+  public void primitiveField() throws Exception {
+    FieldInvoker invoker = createFieldInvoker(Component.class.getDeclaredField("size"));
+    invoker.set(component, 5);
+    assertThat(component.size, is(5));
+  }
+
+  @Test
+  public void incompatibleValue() throws Exception {
+    FieldInvoker invoker = createFieldInvoker(Component.class.getDeclaredField("name"));
+    try {
+      invoker.set(component, 5);
+      fail("Was expecting an exception");
+    } catch (Exception e) {
+      assertThat(e, is(instanceOf(IllegalArgumentException.class)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullIntoPrimitive() throws Exception {
+    createFieldInvoker(Component.class.getDeclaredField("size")).set(component, null);
+  }
+
+  public static class Component {
+
+    private String name;
+    private int size;
+    private boolean touched;
+
+    public String concat(String value, int number) {
+      return value + number;
+    }
+
+    private String secret() {
+      return "secret";
+    }
+
+    public static int twice(int value) {
+      return value * 2;
+    }
+
+    public void touch() {
+      touched = true;
+    }
+
+    public int count(String... values) {
+      return values.length;
+    }
+
+    public void fail(Exception exception) throws Exception {
+      throw exception;
+    }
+  }
+}
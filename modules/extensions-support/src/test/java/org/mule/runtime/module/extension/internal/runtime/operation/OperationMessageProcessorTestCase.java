@@ -10,6 +10,7 @@ import static java.lang.String.format;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singletonMap;
 import static java.util.Optional.of;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
@@ -40,6 +41,8 @@ import static org.mule.runtime.core.internal.interception.DefaultInterceptionEve
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.ExtensionConstants.TARGET_VALUE_PARAMETER_NAME;
 import static org.mule.runtime.extension.api.runtime.operation.Result.builder;
+import static org.mule.runtime.module.extension.internal.ExtensionProperties.ACQUIRED_CONNECTION_PARAM;
+import static org.mule.runtime.module.extension.internal.ExtensionProperties.CONNECTION_ACQUISITION_ERROR_PARAM;
 import static org.mule.runtime.module.extension.internal.ExtensionProperties.ENCODING_PARAMETER_NAME;
 import static org.mule.runtime.module.extension.internal.ExtensionProperties.MIME_TYPE_PARAMETER_NAME;
 import static org.mule.runtime.module.extension.internal.runtime.operation.OperationMessageProcessor.INVALID_TARGET_MESSAGE;
@@ -50,6 +53,8 @@ import static reactor.core.publisher.Mono.empty;
 import static reactor.core.publisher.Mono.just;
 
 import org.mule.metadata.api.model.MetadataType;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.el.DefaultExpressionLanguageFactoryService;
 import org.mule.runtime.api.event.EventContext;
 import org.mule.runtime.api.exception.MuleException;
@@ -105,9 +110,13 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
 
+import reactor.core.publisher.Mono;
+
 @SmallTest
 @RunWith(MockitoJUnitRunner.class)
 public class OperationMessageProcessorTestCase extends AbstractOperationMessageProcessorTestCase {
@@ -120,6 +129,10 @@ public class OperationMessageProcessorTestCase extends AbstractOperationMessageP
 
   private final ReflectionCache reflectionCache = new ReflectionCache();
 
+  private final AtomicReference<Object> acquiredConnection = new AtomicReference<>();
+
+  private final AtomicReference<Object> acquisitionError = new AtomicReference<>();
+
   @Mock
   private ExpressionManager expressionManager;
 
@@ -484,6 +497,71 @@ public class OperationMessageProcessorTestCase extends AbstractOperationMessageP
     verify(streamingManager).manage(same(provider), any(EventContext.class));
   }
 
+  @Test
+  public void connectionAcquiredBeforeExecution() throws Exception {
+    ConnectionHandler<Object> connection = mock(ConnectionHandler.class);
+    setUpConnectionAcquisition(completedFuture(connection));
+
+    messageProcessor.process(event);
+
+    assertThat(acquiredConnection.get(), is(sameInstance(connection)));
+    assertThat(acquisitionError.get(), is(nullValue()));
+    verify(connection).release();
+  }
+
+  @Test
+  public void connectionPoolExhaustionHandedToExecution() throws Exception {
+    ConnectionException exhausted = new ConnectionException("Pool exhausted", new NoSuchElementException());
+    setUpConnectionAcquisition(failedFuture(exhausted));
+
+    messageProcessor.process(event);
+
+    assertThat(acquiredConnection.get(), is(nullValue()));
+    assertThat(acquisitionError.get(), is(sameInstance(exhausted)));
+  }
+
+  @Test
+  public void connectionFailureHandedToExecution() throws Exception {
+    ConnectionException failure = new ConnectionException("Could not connect");
+    setUpConnectionAcquisition(failedFuture(failure));
+
+    messageProcessor.process(event);
+
+    assertThat(acquiredConnection.get(), is(nullValue()));
+    assertThat(acquisitionError.get(), is(sameInstance(failure)));
+    verify(connectionManagerAdapter).getConnectionAsync(configuration);
+  }
+
+  @Test
+  public void connectionAcquisitionCancelled() throws Exception {
+    CompletableFuture<ConnectionHandler<Object>> connection = new CompletableFuture<>();
+    setUpConnectionAcquisition(connection);
+
+    Mono.from(messageProcessor.apply(just(event))).subscribe().dispose();
+
+    assertThat(connection.isCancelled(), is(true));
+    verify(operationExecutor, never()).execute(any());
+  }
+
+  private void setUpConnectionAcquisition(CompletableFuture<ConnectionHandler<Object>> connection) throws Exception {
+    when(operationModel.requiresConnection()).thenReturn(true);
+    doReturn(connection).when(connectionManagerAdapter).getConnectionAsync(configuration);
+    when(operationExecutor.execute(any())).thenAnswer(invocation -> {
+      ExecutionContextAdapter<OperationModel> context = invocation.getArgument(0);
+      acquiredConnection.set(context.getVariable(ACQUIRED_CONNECTION_PARAM));
+      acquisitionError.set(context.getVariable(CONNECTION_ACQUISITION_ERROR_PARAM));
+      return just("");
+    });
+    // whether to acquire the connection asynchronously is decided on initialisation
+    messageProcessor = setUpOperationMessageProcessor();
+  }
+
+  private static <T> CompletableFuture<T> failedFuture(Throwable failure) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(failure);
+    return future;
+  }
+
   private void assertProcessingType(ExecutionType executionType, ProcessingType expectedProcessingType) {
     when(operationModel.getExecutionType()).thenReturn(executionType);
     assertThat(messageProcessor.getProcessingType(), is(expectedProcessingType));
@@ -261,6 +261,7 @@ public interface AllureConstants {
       String REACTOR = "Reactor";
       String DIRECT = "Direct";
       String WORK_QUEUE = "Work Queue";
+      String THREAD_PER_EVENT = "Thread per Event";
     }
 
   }
@@ -274,6 +275,7 @@ public interface AllureConstants {
       String COLLECT_LIST = "Collect List";
       String COLLECT_MAP = "Collect Map";
       String JOIN_ONLY = "Join Only";
+      String STREAMING = "Streaming";
     }
 
   }
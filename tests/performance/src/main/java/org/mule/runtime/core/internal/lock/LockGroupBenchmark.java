@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) MuleSoft, Inc.  All rights reserved.  http://www.mulesoft.com
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.runtime.core.internal.lock;
+
+import org.mule.AbstractBenchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+public class LockGroupBenchmark extends AbstractBenchmark {
+
+  @Param({"instance", "concurrent", "striped"})
+  public String lockGroupType;
+
+  @Param({"16", "100000"})
+  public int keys;
+
+  private LockGroup lockGroup;
+  private String[] lockIds;
+
+  @Setup
+  public void setup() {
+    LockProvider lockProvider = new SingleServerLockProvider();
+    switch (lockGroupType) {
+      case "instance":
+        lockGroup = new InstanceLockGroup(lockProvider);
+        break;
+      case "concurrent":
+        lockGroup = new ConcurrentInstanceLockGroup(lockProvider);
+        break;
+      case "striped":
+        lockGroup = new StripedInstanceLockGroup(lockProvider, 1024);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown lock group type: " + lockGroupType);
+    }
+
+    lockIds = new String[keys];
+    for (int i = 0; i < keys; ++i) {
+      lockIds[i] = "lock-" + i;
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    lockGroup.dispose();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public void lockUnlock() {
+    String lockId = lockIds[ThreadLocalRandom.current().nextInt(keys)];
+    lockGroup.lock(lockId);
+    lockGroup.unlock(lockId);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public boolean tryLockUnlock() {
+    String lockId = lockIds[ThreadLocalRandom.current().nextInt(keys)];
+    if (lockGroup.tryLock(lockId)) {
+      lockGroup.unlock(lockId);
+      return true;
+    }
+    return false;
+  }
+
+}
@@ -18,6 +18,7 @@ import org.mule.runtime.core.api.processor.ReactiveProcessor;
 import org.mule.runtime.core.api.processor.Sink;
 import org.mule.runtime.core.api.processor.strategy.ProcessingStrategy;
 import org.mule.runtime.core.internal.processor.strategy.DirectProcessingStrategyFactory;
+import org.mule.runtime.core.internal.processor.strategy.ThreadPerEventProcessingStrategyFactory;
 import org.mule.runtime.core.internal.processor.strategy.TransactionAwareProactorStreamEmitterProcessingStrategyFactory;
 import org.mule.runtime.core.internal.processor.strategy.TransactionAwareProactorStreamWorkQueueProcessingStrategyFactory;
 
@@ -48,24 +49,29 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
   private ProcessingStrategy directPs;
   private ProcessingStrategy emitterPs;
   private ProcessingStrategy workQueuePs;
+  private ProcessingStrategy threadPerEventPs;
 
   private Flow flow;
 
   private Sink directSink;
   private Sink emitterSink;
   private Sink workQueueSink;
+  private Sink threadPerEventSink;
 
   private FluxSink<CoreEvent> directPipeline;
   private FluxSink<CoreEvent> emitterPipeline;
   private FluxSink<CoreEvent> workQueuePipeline;
+  private FluxSink<CoreEvent> threadPerEventPipeline;
 
   private FluxSink<CoreEvent> directProcessor;
   private FluxSink<CoreEvent> emitterProcessor;
   private FluxSink<CoreEvent> workQueueProcessor;
+  private FluxSink<CoreEvent> threadPerEventProcessor;
 
   private Sink directAllSink;
   private Sink emitterAllSink;
   private Sink workQueueAllSink;
+  private Sink threadPerEventAllSink;
 
   @Setup(Level.Trial)
   public void setUp() throws MuleException {
@@ -77,6 +83,8 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     startIfNeeded(emitterPs);
     workQueuePs = new TransactionAwareProactorStreamWorkQueueProcessingStrategyFactory().create(muleContext, "workQueue_mb");
     startIfNeeded(workQueuePs);
+    threadPerEventPs = new ThreadPerEventProcessingStrategyFactory().create(muleContext, "threadPerEvent_mb");
+    startIfNeeded(threadPerEventPs);
 
     flow = createFlow(muleContext);
 
@@ -87,6 +95,7 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     directSink = directPs.createSink(flow, publisher -> baseFlux(publisher, processor));
     emitterSink = emitterPs.createSink(flow, publisher -> baseFlux(publisher, processor));
     workQueueSink = workQueuePs.createSink(flow, publisher -> baseFlux(publisher, processor));
+    threadPerEventSink = threadPerEventPs.createSink(flow, publisher -> baseFlux(publisher, processor));
 
     Flux.<CoreEvent>create(s -> directPipeline = s, ERROR)
         .transform(directPs.onPipeline(publisher -> baseFlux(publisher, processor)))
@@ -97,6 +106,9 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     Flux.<CoreEvent>create(s -> workQueuePipeline = s, ERROR)
         .transform(workQueuePs.onPipeline(publisher -> baseFlux(publisher, processor)))
         .subscribe();
+    Flux.<CoreEvent>create(s -> threadPerEventPipeline = s, ERROR)
+        .transform(threadPerEventPs.onPipeline(publisher -> baseFlux(publisher, processor)))
+        .subscribe();
 
     Flux.<CoreEvent>create(s -> directProcessor = s, ERROR)
         .transform(directPs.onProcessor(publisher -> baseFlux(publisher, processor)))
@@ -107,6 +119,9 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     Flux.<CoreEvent>create(s -> workQueueProcessor = s, ERROR)
         .transform(workQueuePs.onProcessor(publisher -> baseFlux(publisher, processor)))
         .subscribe();
+    Flux.<CoreEvent>create(s -> threadPerEventProcessor = s, ERROR)
+        .transform(threadPerEventPs.onProcessor(publisher -> baseFlux(publisher, processor)))
+        .subscribe();
 
     directAllSink =
         directPs.createSink(flow, publisher -> baseFlux(publisher, directPs.onPipeline(directPs.onProcessor(processor))));
@@ -115,6 +130,10 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     workQueueAllSink =
         workQueuePs.createSink(flow,
                                publisher -> baseFlux(publisher, workQueuePs.onPipeline(workQueuePs.onProcessor(processor))));
+    threadPerEventAllSink =
+        threadPerEventPs.createSink(flow,
+                                    publisher -> baseFlux(publisher,
+                                                          threadPerEventPs.onPipeline(threadPerEventPs.onProcessor(processor))));
 
   }
 
@@ -146,6 +165,12 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     return Mono.<CoreEvent>create(resultSink -> workQueueSink.accept(createEvent(flow, resultSink))).block();
   }
 
+  @Benchmark
+  @Threads(Threads.MAX)
+  public CoreEvent threadPerEventSink() {
+    return Mono.<CoreEvent>create(resultSink -> threadPerEventSink.accept(createEvent(flow, resultSink))).block();
+  }
+
   @Benchmark
   @Threads(1)
   public CoreEvent directPipeline() {
@@ -164,6 +189,12 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     return Mono.<CoreEvent>create(resultSink -> workQueuePipeline.next(createEvent(flow, resultSink))).block();
   }
 
+  @Benchmark
+  @Threads(1)
+  public CoreEvent threadPerEventPipeline() {
+    return Mono.<CoreEvent>create(resultSink -> threadPerEventPipeline.next(createEvent(flow, resultSink))).block();
+  }
+
   @Benchmark
   @Threads(1)
   public CoreEvent directProcessor() {
@@ -182,6 +213,12 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
     return Mono.<CoreEvent>create(resultSink -> workQueueProcessor.next(createEvent(flow, resultSink))).block();
   }
 
+  @Benchmark
+  @Threads(1)
+  public CoreEvent threadPerEventProcessor() {
+    return Mono.<CoreEvent>create(resultSink -> threadPerEventProcessor.next(createEvent(flow, resultSink))).block();
+  }
+
   @Benchmark
   @Threads(Threads.MAX)
   public CoreEvent directAllSink() {
@@ -199,4 +236,10 @@ public class ProcessingStrategyBenchmark extends AbstractBenchmark {
   public CoreEvent workQueueAllSink() {
     return Mono.<CoreEvent>create(resultSink -> workQueueAllSink.accept(createEvent(flow, resultSink))).block();
   }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public CoreEvent threadPerEventAllSink() {
+    return Mono.<CoreEvent>create(resultSink -> threadPerEventAllSink.accept(createEvent(flow, resultSink))).block();
+  }
 }